@@ -1,15 +1,22 @@
 package com.studymate;
 
 import com.studymate.core.Application;
+import com.studymate.core.StudyMateSettings;
 import com.studymate.exceptions.DuplicateIdException;
 import com.studymate.exceptions.InvalidCourseException;
 import com.studymate.io.InputDevice;
 import com.studymate.io.OutputDevice;
 import com.studymate.model.Assignment;
 import com.studymate.model.Course;
+import com.studymate.persistence.BackendMigrator;
+import com.studymate.persistence.SaveFormat;
+import com.studymate.persistence.SaveReport;
+import com.studymate.persistence.SqlAppStateRepository;
 import com.studymate.service.StudyMateService;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.Comparator;
 
@@ -25,6 +32,11 @@ import java.util.Comparator;
  *   file-read   -> prompts for file name and prints content (re-prompts on exception)
  *   file-write  -> prompts for file name and writes 10 random numbers (re-prompts on exception)
  *
+ * Added mode (backend migration):
+ *   migrate FROM TO [batch-size] -> streams every entity from one backend
+ *                                   (csv, json, ndjson, binary, sql) to another,
+ *                                   resuming from data/migration.progress
+ *
  * Default (no arguments):
  *   - shows a robust exception demo using the custom exceptions
  *   - saves CSV, JSON and binary snapshots
@@ -33,11 +45,24 @@ import java.util.Comparator;
 public class Main {
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equalsIgnoreCase("migrate")) {
+            // Runs without StudyMateService, which would load everything into memory
+            runMigration(args, new OutputDevice(System.out));
+            return;
+        }
         StudyMateService service = new StudyMateService();
         InputDevice in = new InputDevice(System.in);
         OutputDevice out = new OutputDevice(System.out);
         Application app = new Application(in, out, service);
+        try {
+            run(args, service, app, in, out);
+        } finally {
+            service.shutdown();
+        }
+    }
 
+    private static void run(String[] args, StudyMateService service, Application app,
+                            InputDevice in, OutputDevice out) {
         // Print program arguments using OutputDevice (Lab 2.3)
         out.writeMessage("--- Program arguments (" + args.length + ") ---");
         for (int i = 0; i < args.length; i++) {
@@ -110,6 +135,61 @@ public class Main {
         runDefaultDemo(service, app, out);
     }
 
+    private static void runMigration(String[] args, OutputDevice out) {
+        if (args.length < 3) {
+            out.writeMessage("Usage: migrate <csv|json|ndjson|binary|sql> <csv|json|ndjson|binary|sql> [batch-size]");
+            return;
+        }
+        SaveFormat from;
+        SaveFormat to;
+        try {
+            from = SaveFormat.valueOf(args[1].toUpperCase());
+            to = SaveFormat.valueOf(args[2].toUpperCase());
+        } catch (IllegalArgumentException e) {
+            out.writeMessage("Unknown format: use csv, json, ndjson, binary or sql.");
+            return;
+        }
+        if (from == to) {
+            out.writeMessage("Source and target are the same.");
+            return;
+        }
+
+        StudyMateSettings settings = StudyMateSettings.load();
+        int batchSize = settings.getInt("studymate.migration.batch-size", 5000);
+        if (args.length >= 4) {
+            try {
+                batchSize = Integer.parseInt(args[3]);
+            } catch (NumberFormatException ex) {
+                out.writeMessage("Invalid batch size, defaulting to " + batchSize + ".");
+            }
+        }
+
+        Path dataDir = Paths.get(settings.get("studymate.data.dir", "data"));
+        SqlAppStateRepository sql;
+        try {
+            sql = (from == SaveFormat.SQL || to == SaveFormat.SQL)
+                    ? StudyMateService.openSqlRepository(settings) : null;
+        } catch (IOException e) {
+            out.writeMessage("Cannot open the SQL database: " + e.getMessage());
+            return;
+        }
+        String description = args[1].toLowerCase() + " -> " + args[2].toLowerCase();
+        out.writeMessage("--- Migrating " + description + " (batches of " + batchSize + ") ---");
+        try {
+            new BackendMigrator(BackendMigrator.openSource(from, dataDir,
+                    StudyMateService.openJsonRepository(settings), sql),
+                    BackendMigrator.openTarget(to, dataDir, sql),
+                    description, batchSize, dataDir.resolve("migration.progress"), out::writeMessage).run();
+        } catch (IOException e) {
+            out.writeMessage("Migration stopped: " + e.getMessage());
+            out.writeMessage("Run the same command again to resume.");
+        } finally {
+            if (sql != null) {
+                sql.close();
+            }
+        }
+    }
+
     private static void runDefaultDemo(StudyMateService service, Application app, OutputDevice out) {
         out.writeMessage("\n--- StudyMate loaded ---");
         out.writeMessage("Courses: " + service.getCourses().size());
@@ -235,14 +315,13 @@ public class Main {
         // 4) Demonstrate saving with try/catch for IOExceptions (language exception handling)
         out.writeMessage("\n--- Persistence Demo (CSV + JSON + ObjectStream) ---");
         try {
-            service.saveAllData();
+            // All three are written in parallel from one snapshot
+            SaveReport report = service.saveAllFormats().join();
+            report.throwIfFailed();
             out.writeMessage("Saved CSV to data/*.csv");
-
-            service.saveAsJson();
             out.writeMessage("Saved JSON snapshot to data/studymate.json");
-
-            service.saveAsBinary();
             out.writeMessage("Saved binary snapshot to data/studymate.bin");
+            out.writeMessage("Save timings: " + report);
 
         } catch (IOException e) {
             out.writeMessage("IOException while saving: " + e.getMessage());
@@ -251,7 +330,13 @@ public class Main {
 
         // 5) Show some analytics output
         out.writeMessage("\n--- Analytics Demo (streams) ---");
-        out.writeMessage("Upcoming deadlines count: " + service.getUpcomingDeadlines().size());
+        out.writeMessage("Upcoming deadlines count: " + service.countUpcomingDeadlines());
+        out.writeMessage("Completed / pending assignments: " + service.getCompletedAssignmentCount()
+                + " / " + service.getPendingAssignmentCount());
+        out.writeMessage("Pending credit hours: " + service.getPendingCreditHours());
+        service.getPendingCountsByCourse().forEach((course, count) ->
+                out.writeMessage("  " + course.getCourseName() + ": " + count + " pending, "
+                        + service.getCompletedCount(course.getCourseId()) + " completed"));
 
         // 6) Run the Lab 1 greeting demo for completeness
         out.writeMessage("\n--- Lab 1 greeting demo ---");
@@ -0,0 +1,136 @@
+package com.studymate.benchmarks;
+
+import com.studymate.model.Assignment;
+import com.studymate.model.HabitLog;
+import com.studymate.model.Note;
+import com.studymate.persistence.AppState;
+import com.studymate.persistence.BinaryRecordCodec;
+import com.studymate.persistence.BinaryRecordReader;
+import com.studymate.persistence.BinaryRecordWriter;
+import com.studymate.persistence.EntityType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encode/decode throughput of the binary record codec against
+ * ObjectOutputStream on the same in-memory AppState (no disk I/O).
+ *
+ * Optional arguments: entities per type (default 200,000) and measured
+ * rounds (default 5, after as many warm-up rounds).
+ */
+public class BinaryCodecBenchmark {
+
+    private static final EntityType[] TYPES = {EntityType.ASSIGNMENT, EntityType.NOTE, EntityType.HABIT_LOG};
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        AppState state = generate(count);
+        long entities = 3L * count;
+
+        for (int i = 0; i < rounds; i++) {
+            decodeBinary(encodeBinary(state));
+            decodeObject(encodeObject(state));
+        }
+
+        long binEncode = 0, binDecode = 0, objEncode = 0, objDecode = 0;
+        byte[] bin = null;
+        byte[] obj = null;
+        for (int i = 0; i < rounds; i++) {
+            long t0 = System.nanoTime();
+            bin = encodeBinary(state);
+            long t1 = System.nanoTime();
+            decodeBinary(bin);
+            long t2 = System.nanoTime();
+            obj = encodeObject(state);
+            long t3 = System.nanoTime();
+            decodeObject(obj);
+            long t4 = System.nanoTime();
+            binEncode += t1 - t0;
+            binDecode += t2 - t1;
+            objEncode += t3 - t2;
+            objDecode += t4 - t3;
+        }
+
+        System.out.printf("%,d entities, %d rounds%n", entities, rounds);
+        report("Binary codec", bin.length, entities, rounds, binEncode, binDecode);
+        report("ObjectStream", obj.length, entities, rounds, objEncode, objDecode);
+    }
+
+    private static AppState generate(int count) {
+        List<Assignment> assignments = new ArrayList<>(count);
+        List<Note> notes = new ArrayList<>(count);
+        List<HabitLog> logs = new ArrayList<>(count);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < count; i++) {
+            assignments.add(new Assignment(i, 100 + i % 50, "Assignment " + i, "Auto generated",
+                    start.plusDays(i % 365), i % 3 + 1, i % 4 == 0 ? "Completed" : "Pending"));
+            notes.add(new Note(i, 100 + i % 50, "Note " + i, "Lecture notes, part " + i, start.plusDays(i % 365)));
+            logs.add(new HabitLog(i, i % 10, start.plusDays(i % 365), i % 120, i % 5 == 0 ? null : "ok"));
+        }
+        AppState state = new AppState();
+        state.setAssignments(assignments);
+        state.setNotes(notes);
+        state.setHabitLogs(logs);
+        return state;
+    }
+
+    private static byte[] encodeBinary(AppState state) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 20);
+        try (BinaryRecordWriter out = new BinaryRecordWriter(bytes)) {
+            for (EntityType type : TYPES) {
+                List<Object> list = type.listIn(state);
+                out.field(list.size());
+                for (Object entity : list) {
+                    BinaryRecordCodec.write(out, entity);
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int decodeBinary(byte[] data) throws IOException {
+        BinaryRecordReader in = new BinaryRecordReader(ByteBuffer.wrap(data));
+        int decoded = 0;
+        for (EntityType type : TYPES) {
+            List<Object> list = new ArrayList<>();
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                list.add(BinaryRecordCodec.read(in, type));
+            }
+            decoded += list.size();
+        }
+        return decoded;
+    }
+
+    private static byte[] encodeObject(AppState state) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 20);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(state);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static AppState decodeObject(byte[] data) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return (AppState) in.readObject();
+        }
+    }
+
+    private static void report(String label, int size, long entities, int rounds, long encodeNanos, long decodeNanos) {
+        double encodeSec = encodeNanos / 1e9 / rounds;
+        double decodeSec = decodeNanos / 1e9 / rounds;
+        System.out.printf("%-13s size=%,d bytes  encode=%,.0f entities/s (%.0f MB/s)  decode=%,.0f entities/s (%.0f MB/s)%n",
+                label + ":", size,
+                entities / encodeSec, size / encodeSec / (1024 * 1024),
+                entities / decodeSec, size / decodeSec / (1024 * 1024));
+    }
+}
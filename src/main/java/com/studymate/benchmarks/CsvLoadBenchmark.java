@@ -0,0 +1,76 @@
+package com.studymate.benchmarks;
+
+import com.studymate.model.Assignment;
+import com.studymate.persistence.CsvLoadMode;
+import com.studymate.persistence.CsvPersistenceManager;
+import com.studymate.persistence.CsvRecordCodec;
+import com.studymate.persistence.CsvRecordWriter;
+import com.studymate.persistence.EntityType;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+
+/**
+ * Compares the BufferedReader and memory-mapped CSV loaders on a generated
+ * assignments file (default 1,000,000 rows; pass another count as arg 0).
+ */
+public class CsvLoadBenchmark {
+
+    private static final String FILE = "data/benchmark_assignments.csv";
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path path = Paths.get(FILE);
+        generate(path, rows);
+
+        CsvPersistenceManager<Assignment> csv = new CsvPersistenceManager<>(FILE,
+                line -> (Assignment) CsvRecordCodec.parse(EntityType.ASSIGNMENT, line),
+                (data, offsets, lengths, count) ->
+                        (Assignment) CsvRecordCodec.parseFields(EntityType.ASSIGNMENT, data, offsets, lengths, count));
+
+        // A few warm-up rounds so both paths are JIT-compiled before timing.
+        for (int i = 0; i < 3; i++) {
+            for (CsvLoadMode mode : CsvLoadMode.values()) {
+                csv.setLoadMode(mode);
+                csv.loadAll();
+            }
+        }
+
+        for (CsvLoadMode mode : CsvLoadMode.values()) {
+            csv.setLoadMode(mode);
+            long bytesBefore = allocatedBytes();
+            long t0 = System.nanoTime();
+            int loaded = csv.loadAll().size();
+            long ms = (System.nanoTime() - t0) / 1_000_000;
+            long allocated = allocatedBytes() - bytesBefore;
+            System.out.printf("%-8s rows=%d load=%d ms allocated=%d MB%n",
+                    mode, loaded, ms, allocated / (1024 * 1024));
+        }
+    }
+
+    private static void generate(Path path, int rows) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        LocalDate start = LocalDate.now();
+        try (CsvRecordWriter out = new CsvRecordWriter(Files.newBufferedWriter(path))) {
+            for (int i = 0; i < rows; i++) {
+                new Assignment(i, 100 + i % 50, "Assignment " + i, "Auto generated",
+                        start.plusDays(i % 365), i % 3 + 1, i % 4 == 0 ? "Completed" : "Pending").writeFields(out);
+                out.endRecord();
+            }
+        }
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,146 @@
+package com.studymate.benchmarks;
+
+import com.studymate.core.IntObjectMap;
+import com.studymate.model.Assignment;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Insert throughput of the id index behind addAssignment: a duplicate check
+ * plus insert per assignment, with IntObjectMap, HashMap<Integer, ...> and
+ * the old linear anyMatch scan (on a smaller count, it is quadratic), then
+ * lookup throughput by id.
+ *
+ * Optional arguments: assignments (default 1,000,000), measured rounds
+ * (default 5, after as many warm-up rounds) and the scan count (default 20,000).
+ */
+public class IdIndexBenchmark {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int scanCount = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        List<Assignment> assignments = generate(count);
+        List<Assignment> scanned = assignments.subList(0, Math.min(scanCount, count));
+
+        for (int i = 0; i < rounds; i++) {
+            insertIntMap(assignments);
+            insertHashMap(assignments);
+        }
+        insertScan(scanned);
+
+        System.out.printf("%,d assignments, %d rounds%n", count, rounds);
+        long[] intMap = measure(rounds, () -> insertIntMap(assignments));
+        report("IntObjectMap", count, rounds, intMap);
+        long[] hashMap = measure(rounds, () -> insertHashMap(assignments));
+        report("HashMap", count, rounds, hashMap);
+        long[] scan = measure(1, () -> insertScan(scanned));
+        report("Linear scan", scanned.size(), 1, scan);
+
+        IntObjectMap<Assignment> byId = insertIntMap(assignments);
+        Map<Integer, Assignment> boxed = insertHashMap(assignments);
+        for (int i = 0; i < rounds; i++) {
+            lookupIntMap(byId, count);
+            lookupHashMap(boxed, count);
+        }
+        long t0 = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            lookupIntMap(byId, count);
+        }
+        long t1 = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            lookupHashMap(boxed, count);
+        }
+        long t2 = System.nanoTime();
+        System.out.printf("Lookups:      IntObjectMap=%,.0f/s  HashMap=%,.0f/s%n",
+                (double) count * rounds / ((t1 - t0) / 1e9), (double) count * rounds / ((t2 - t1) / 1e9));
+    }
+
+    private static List<Assignment> generate(int count) {
+        List<Assignment> assignments = new ArrayList<>(count);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < count; i++) {
+            assignments.add(new Assignment(i, 100 + i % 50, "Assignment " + i, "Auto generated",
+                    start.plusDays(i % 365), i % 3 + 1, "Pending"));
+        }
+        return assignments;
+    }
+
+    // Same check-then-insert as StudyMateService.addAssignment.
+    private static IntObjectMap<Assignment> insertIntMap(List<Assignment> assignments) {
+        IntObjectMap<Assignment> byId = new IntObjectMap<>();
+        for (Assignment a : assignments) {
+            if (byId.putIfAbsent(a.getAssignmentId(), a) != null) {
+                throw new IllegalStateException("duplicate " + a.getAssignmentId());
+            }
+        }
+        return byId;
+    }
+
+    private static Map<Integer, Assignment> insertHashMap(List<Assignment> assignments) {
+        Map<Integer, Assignment> byId = new HashMap<>();
+        for (Assignment a : assignments) {
+            if (byId.containsKey(a.getAssignmentId())) {
+                throw new IllegalStateException("duplicate " + a.getAssignmentId());
+            }
+            byId.put(a.getAssignmentId(), a);
+        }
+        return byId;
+    }
+
+    private static List<Assignment> insertScan(List<Assignment> assignments) {
+        List<Assignment> list = new ArrayList<>();
+        for (Assignment a : assignments) {
+            if (list.stream().anyMatch(x -> x.getAssignmentId() == a.getAssignmentId())) {
+                throw new IllegalStateException("duplicate " + a.getAssignmentId());
+            }
+            list.add(a);
+        }
+        return list;
+    }
+
+    private static long lookupIntMap(IntObjectMap<Assignment> byId, int count) {
+        long sum = 0;
+        for (int id = 0; id < count; id++) {
+            sum += byId.get(id).getPriority();
+        }
+        return sum;
+    }
+
+    private static long lookupHashMap(Map<Integer, Assignment> byId, int count) {
+        long sum = 0;
+        for (int id = 0; id < count; id++) {
+            sum += byId.get(id).getPriority();
+        }
+        return sum;
+    }
+
+    // {total nanos, allocated bytes} over the rounds
+    private static long[] measure(int rounds, Runnable insert) {
+        long bytesBefore = allocatedBytes();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            insert.run();
+        }
+        return new long[] {System.nanoTime() - t0, allocatedBytes() - bytesBefore};
+    }
+
+    private static void report(String label, int count, int rounds, long[] result) {
+        double seconds = result[0] / 1e9 / rounds;
+        System.out.printf("%-13s n=%,d  insert=%,.0f/s (%.1f ms)  allocated=%d MB per round%n",
+                label + ":", count, count / seconds, seconds * 1000, result[1] / rounds / (1024 * 1024));
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+}
@@ -3,19 +3,27 @@ package com.studymate.benchmarks;
 import com.studymate.model.Assignment;
 import com.studymate.model.Course;
 import com.studymate.persistence.AppState;
+import com.studymate.persistence.AppStateRepository;
+import com.studymate.persistence.ColumnarAppStateRepository;
 import com.studymate.persistence.JsonAppStateRepository;
 import com.studymate.persistence.ObjectStreamAppStateRepository;
+import com.studymate.persistence.SnapshotCodec;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Small benchmark used to compare JSON vs ObjectStream file size and
- * (approximate) load times (Lab 6).
+ * Small benchmark used to compare JSON vs ObjectStream vs columnar file size
+ * and (approximate) load times (Lab 6), then JSON and ObjectStream with each
+ * {@link SnapshotCodec}.
+ *
+ * Optional argument: number of courses to generate (default 50, each with
+ * 10 assignments).
  */
 public class PersistenceBenchmark {
 
@@ -24,8 +32,9 @@ public class PersistenceBenchmark {
         AppState state = new AppState();
         List<Course> courses = new ArrayList<>();
         List<Assignment> assignments = new ArrayList<>();
+        int courseCount = args.length > 0 ? Integer.parseInt(args[0]) : 50;
 
-        for (int i = 0; i < 50; i++) {
+        for (int i = 0; i < courseCount; i++) {
             Course c = new Course(
                     1000 + i,
                     "Course " + i,
@@ -51,6 +60,7 @@ public class PersistenceBenchmark {
 
         JsonAppStateRepository jsonRepo = new JsonAppStateRepository("data/benchmark_state.json");
         ObjectStreamAppStateRepository objRepo = new ObjectStreamAppStateRepository("data/benchmark_state.bin");
+        ColumnarAppStateRepository colRepo = new ColumnarAppStateRepository("data/benchmark_state.col");
 
         // JSON
         long t0 = System.currentTimeMillis();
@@ -74,7 +84,36 @@ public class PersistenceBenchmark {
         long objLoadMs = t5 - t4;
         long objSize = Files.size(Paths.get("data/benchmark_state.bin"));
 
+        // Columnar
+        long t6 = System.currentTimeMillis();
+        colRepo.save(state);
+        long t7 = System.currentTimeMillis();
+        colRepo.load();
+        long t8 = System.currentTimeMillis();
+
+        long colSaveMs = t7 - t6;
+        long colLoadMs = t8 - t7;
+        long colSize = Files.size(Paths.get("data/benchmark_state.col"));
+
         System.out.println("JSON:  size=" + jsonSize + " bytes, save=" + jsonSaveMs + " ms, load=" + jsonLoadMs + " ms");
         System.out.println("OBJ :  size=" + objSize + " bytes, save=" + objSaveMs + " ms, load=" + objLoadMs + " ms");
+        System.out.println("COL :  size=" + colSize + " bytes, save=" + colSaveMs + " ms, load=" + colLoadMs + " ms");
+
+        // Snapshot codecs
+        for (SnapshotCodec codec : SnapshotCodec.values()) {
+            JsonAppStateRepository codecJson = new JsonAppStateRepository("data/benchmark_state.json", false, codec);
+            ObjectStreamAppStateRepository codecObj = new ObjectStreamAppStateRepository("data/benchmark_state.bin", codec);
+            measure("JSON/" + codec, codecJson, codecJson.getFile(), state);
+            measure("OBJ /" + codec, codecObj, codecObj.getFile(), state);
+        }
+    }
+
+    private static void measure(String label, AppStateRepository repo, Path file, AppState state) throws IOException {
+        long t0 = System.currentTimeMillis();
+        repo.save(state);
+        long t1 = System.currentTimeMillis();
+        repo.load();
+        long t2 = System.currentTimeMillis();
+        System.out.printf("%-13s size=%d bytes, save=%d ms, load=%d ms%n", label + ":", Files.size(file), t1 - t0, t2 - t1);
     }
 }
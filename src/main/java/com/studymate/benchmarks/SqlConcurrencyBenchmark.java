@@ -0,0 +1,103 @@
+package com.studymate.benchmarks;
+
+import com.studymate.model.Assignment;
+import com.studymate.model.Course;
+import com.studymate.persistence.AppState;
+import com.studymate.persistence.ChangeSet;
+import com.studymate.persistence.ConnectionPool;
+import com.studymate.persistence.SqlAppStateRepository;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of SqlAppStateRepository through the connection pool as the
+ * number of concurrent threads grows. Half of the threads save a one-row
+ * change set (the autosave path), the other half load the whole state.
+ *
+ * Arguments (all optional): JDBC URL, pool size, seconds per round.
+ */
+public class SqlConcurrencyBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "jdbc:h2:./data/benchmark_sql";
+        int poolSize = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        long roundMs = (args.length > 2 ? Long.parseLong(args[2]) : 3) * 1000;
+
+        ConnectionPool pool = new ConnectionPool(url, "sa", "", poolSize, 60_000, 30_000, true);
+        SqlAppStateRepository repo = new SqlAppStateRepository(pool);
+        repo.save(sampleState());
+
+        System.out.println("pool size " + poolSize + ", " + roundMs / 1000 + " s per round");
+        System.out.println("threads   saves/s   loads/s   connections");
+        for (int threads = 1; threads <= 32; threads *= 2) {
+            runRound(repo, pool, threads, roundMs);
+        }
+        repo.close();
+    }
+
+    private static void runRound(SqlAppStateRepository repo, ConnectionPool pool, int threads, long roundMs)
+            throws InterruptedException {
+        AtomicLong saves = new AtomicLong();
+        AtomicLong loads = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long[] deadline = new long[1];
+
+        for (int t = 0; t < threads; t++) {
+            boolean saver = (t % 2 == 0);
+            int threadIndex = t;
+            new Thread(() -> {
+                try {
+                    start.await();
+                    int n = 0;
+                    while (System.currentTimeMillis() < deadline[0]) {
+                        if (saver) {
+                            ChangeSet changes = new ChangeSet();
+                            changes.markDirty(new Assignment(1_000_000 + threadIndex * 100_000 + (n++ % 1000),
+                                    1000, "Bench " + n, "Concurrent save", LocalDate.now(), 2, "Pending"));
+                            repo.saveChanges(changes);
+                            saves.incrementAndGet();
+                        } else {
+                            repo.load();
+                            loads.incrementAndGet();
+                        }
+                    }
+                } catch (IOException | InterruptedException e) {
+                    System.err.println("Benchmark thread failed: " + e.getMessage());
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        deadline[0] = System.currentTimeMillis() + roundMs;
+        start.countDown();
+        done.await();
+
+        double seconds = roundMs / 1000.0;
+        System.out.printf("%7d %9.0f %9.0f %13d%n", threads, saves.get() / seconds, loads.get() / seconds,
+                pool.getOpenCount());
+    }
+
+    private static AppState sampleState() {
+        AppState state = new AppState();
+        List<Course> courses = new ArrayList<>();
+        List<Assignment> assignments = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Course c = new Course(1000 + i, "Course " + i, "Instructor " + i, "S2025", 3, "Sample course " + i);
+            courses.add(c);
+            for (int j = 0; j < 10; j++) {
+                assignments.add(new Assignment(i * 10 + j, c.getCourseId(), "Assignment " + j,
+                        "Auto generated", LocalDate.now().plusDays(j), j % 3 + 1, "Pending"));
+            }
+        }
+        state.setCourses(courses);
+        state.setAssignments(assignments);
+        return state;
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
@@ -24,8 +25,9 @@ public class AssignmentController {
     }
 
     @GetMapping
-    public String listAssignments(Model model) {
-        model.addAttribute("assignments", service.getAssignments());
+    public String listAssignments(@RequestParam(required = false) Integer courseId, Model model) {
+        model.addAttribute("assignments",
+                (courseId != null) ? service.getAssignmentsByCourse(courseId) : service.getAssignments());
         model.addAttribute("courses", service.getCourses());
         model.addAttribute("courseMap", service.getCourseMap());
         model.addAttribute("newAssignment", new Assignment());
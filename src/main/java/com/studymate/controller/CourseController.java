@@ -9,6 +9,7 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
@@ -23,8 +24,16 @@ public class CourseController {
     }
 
     @GetMapping
-    public String listCourses(Model model) {
-        model.addAttribute("courses", service.getCourses());
+    public String listCourses(@RequestParam(required = false) String semester,
+                              @RequestParam(required = false) String instructor,
+                              Model model) {
+        if (semester != null && !semester.isBlank()) {
+            model.addAttribute("courses", service.getCoursesBySemester(semester));
+        } else if (instructor != null && !instructor.isBlank()) {
+            model.addAttribute("courses", service.getCoursesByInstructor(instructor));
+        } else {
+            model.addAttribute("courses", service.getCourses());
+        }
         model.addAttribute("newCourse", new Course());
         return "courses";
     }
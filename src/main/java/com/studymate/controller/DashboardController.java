@@ -9,6 +9,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 @Controller
 public class DashboardController {
 
+    // Number of upcoming deadlines shown on the dashboard
+    private static final int DEADLINES_SHOWN = 10;
+
     private final StudyMateService service;
 
     @Autowired
@@ -20,7 +23,10 @@ public class DashboardController {
     public String dashboard(Model model) {
         model.addAttribute("courseCount", service.getCourses().size());
         model.addAttribute("assignmentCount", service.getAssignments().size());
-        model.addAttribute("upcomingDeadlines", service.getUpcomingDeadlines());
+        model.addAttribute("completedCount", service.getCompletedAssignmentCount());
+        model.addAttribute("pendingCount", service.getPendingAssignmentCount());
+        model.addAttribute("pendingCreditHours", service.getPendingCreditHours());
+        model.addAttribute("upcomingDeadlines", service.getUpcomingDeadlines(DEADLINES_SHOWN));
         return "index";
     }
 }
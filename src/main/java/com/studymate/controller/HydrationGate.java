@@ -0,0 +1,39 @@
+package com.studymate.controller;
+
+import com.studymate.service.StudyMateService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Holds requests until StudyMateService has loaded its data, for at most
+ * waitMs; after that the client gets a short 503 "warming up" page that
+ * reloads itself, instead of a request thread blocked on the load.
+ */
+public class HydrationGate implements HandlerInterceptor {
+
+    private static final String WARMING_UP_PAGE = "<!DOCTYPE html><html><head><meta charset=\"UTF-8\">"
+            + "<meta http-equiv=\"refresh\" content=\"1\"><title>StudyMate</title></head>"
+            + "<body><p>StudyMate is loading its data, one moment&hellip;</p></body></html>";
+
+    private final StudyMateService service;
+    private final long waitMs;
+
+    public HydrationGate(StudyMateService service, long waitMs) {
+        this.service = service;
+        this.waitMs = waitMs;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (service.isDataLoaded() || service.awaitDataLoaded(waitMs)) {
+            return true;
+        }
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", "1");
+        response.setContentType("text/html;charset=UTF-8");
+        response.getWriter().write(WARMING_UP_PAGE);
+        return false;
+    }
+}
@@ -0,0 +1,45 @@
+package com.studymate.controller;
+
+import com.studymate.service.HydrationState;
+import com.studymate.service.StudyMateService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Readiness probe: 200 "READY" once the data is loaded and warmed up,
+ * otherwise 503 with the current hydration state. With ?waitMs=N the
+ * request waits up to N ms for readiness before answering.
+ */
+@Controller
+public class ReadinessController {
+
+    // Upper bound for ?waitMs, so a probe cannot hold a request thread for long
+    private static final long MAX_WAIT_MS = 30_000;
+
+    private final StudyMateService service;
+
+    @Autowired
+    public ReadinessController(StudyMateService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/ready")
+    @ResponseBody
+    public ResponseEntity<String> ready(@RequestParam(defaultValue = "0") long waitMs) throws InterruptedException {
+        if (waitMs > 0) {
+            service.awaitReady(Math.min(waitMs, MAX_WAIT_MS));
+        }
+        HydrationState state = service.getHydrationState();
+        if (state == HydrationState.READY) {
+            return ResponseEntity.ok(state.name());
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(state.name());
+    }
+}
@@ -0,0 +1,33 @@
+package com.studymate.controller;
+
+import com.studymate.service.StudyMateService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.ui.ConcurrentModel;
+import org.springframework.ui.Model;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.Locale;
+
+/**
+ * Renders the dashboard with the loaded data during the service warm-up,
+ * so the first visitor does not pay for parsing the template and compiling
+ * its expressions.
+ */
+@Component
+public class ViewWarmUp {
+
+    private static final int RENDERS = 20;
+
+    @Autowired
+    public ViewWarmUp(StudyMateService service, DashboardController dashboard, ITemplateEngine templateEngine) {
+        service.addWarmUpTask(() -> {
+            for (int i = 0; i < RENDERS; i++) {
+                Model model = new ConcurrentModel();
+                String view = dashboard.dashboard(model);
+                templateEngine.process(view, new Context(Locale.getDefault(), model.asMap()));
+            }
+        });
+    }
+}
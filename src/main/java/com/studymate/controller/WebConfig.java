@@ -0,0 +1,30 @@
+package com.studymate.controller;
+
+import com.studymate.core.StudyMateSettings;
+import com.studymate.service.StudyMateService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts the {@link HydrationGate} in front of every page except the
+ * readiness probe and static resources.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final StudyMateService service;
+
+    @Autowired
+    public WebConfig(StudyMateService service) {
+        this.service = service;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        long waitMs = StudyMateSettings.load().getLong("studymate.startup.request-wait-ms", 2000);
+        registry.addInterceptor(new HydrationGate(service, waitMs))
+                .excludePathPatterns("/ready", "/error", "/css/**");
+    }
+}
@@ -0,0 +1,86 @@
+package com.studymate.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Read-only view of the "studymate.*" keys in application.properties.
+ *
+ * Spring reads the same file for the web app, but the console (Main) and
+ * JavaFX entry points create StudyMateService directly, so the service reads
+ * its settings through this class instead. System properties (-Dkey=value)
+ * override values from the file.
+ */
+public class StudyMateSettings {
+
+    private static final String RESOURCE = "/application.properties";
+
+    private final Properties properties;
+
+    public StudyMateSettings(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Loads application.properties from the classpath (if present) and
+     * overlays the JVM system properties.
+     */
+    public static StudyMateSettings load() {
+        Properties props = new Properties();
+        try (InputStream in = StudyMateSettings.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                props.load(in);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to read application.properties: " + e.getMessage());
+        }
+        props.putAll(System.getProperties());
+        return new StudyMateSettings(props);
+    }
+
+    public String get(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return (value == null || value.isBlank()) ? defaultValue : value.trim();
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Enum values may be written either as constants (GROUP_COMMIT) or in the
+     * usual properties style (group-commit).
+     */
+    public <E extends Enum<E>> E getEnum(String key, Class<E> type, E defaultValue) {
+        String value = get(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid value for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.studymate.exceptions;
+
+import java.io.IOException;
+import java.util.List;
+
+// Thrown when one or more CSV lines could not be parsed; lists each bad line by number.
+public class CsvLoadException extends IOException {
+
+    private static final int MAX_LISTED = 10;
+
+    private final List<String> lineErrors;
+
+    public CsvLoadException(String fileName, List<String> lineErrors) {
+        super(buildMessage(fileName, lineErrors));
+        this.lineErrors = List.copyOf(lineErrors);
+    }
+
+    // Each entry has the form "line <n>: <reason>".
+    public List<String> getLineErrors() {
+        return lineErrors;
+    }
+
+    private static String buildMessage(String fileName, List<String> lineErrors) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(lineErrors.size()).append(" invalid record(s) in ").append(fileName);
+        for (int i = 0; i < Math.min(MAX_LISTED, lineErrors.size()); i++) {
+            sb.append(i == 0 ? ": " : "; ").append(lineErrors.get(i));
+        }
+        if (lineErrors.size() > MAX_LISTED) {
+            sb.append("; ...");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,8 @@
+package com.studymate.exceptions;
+
+// Thrown when a HabitLog references a non-existent StudyHabit ID (FK violation).
+public class InvalidHabitException extends Exception {
+    public InvalidHabitException(int habitId) {
+        super("Operation failed: Habit ID " + habitId + " does not exist.");
+    }
+}
\ No newline at end of file
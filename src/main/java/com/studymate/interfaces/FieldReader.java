@@ -0,0 +1,19 @@
+package com.studymate.interfaces;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Hands out the fields of one record in the order a {@link FieldWriter}
+ * received them. Empty fields come back as null.
+ */
+public interface FieldReader {
+
+    int readInt() throws IOException;
+
+    double readDouble() throws IOException;
+
+    LocalDate readDate() throws IOException;
+
+    String readString() throws IOException;
+}
@@ -0,0 +1,26 @@
+package com.studymate.interfaces;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Receives the fields of one record in order. The persistence layer
+ * supplies the implementation for each file format, so an entity can
+ * stream its state without depending on how it is stored.
+ */
+public interface FieldWriter {
+
+    FieldWriter field(int value) throws IOException;
+
+    FieldWriter field(double value) throws IOException;
+
+    /**
+     * A null date is written as an empty field.
+     */
+    FieldWriter field(LocalDate value) throws IOException;
+
+    /**
+     * A null string is written as an empty field.
+     */
+    FieldWriter field(String value) throws IOException;
+}
@@ -1,14 +1,25 @@
 package com.studymate.interfaces;
 
+import java.io.IOException;
+
 // Lab 3: Defining a behavior interface
 public interface Persistable {
 
     /**
-     * Converts the current object state into a single CSV formatted string line.
-     * The order of fields must be consistent with the fromCsvRecord implementation.
-     * @return A String representing the object record (e.g., "1,Calculus I,Dr. Smith,Fall 2025,3,Advanced")
+     * Writes the fields of the current object state, in CSV column order,
+     * straight into the writer (e.g. 1, "Calculus I", "Dr. Smith", "Fall 2025",
+     * 3, "Advanced"). The writer decides the encoding (quoted CSV text or
+     * compact binary) and the caller ends the record, so no intermediate
+     * String is built per record.
+     */
+    void writeFields(FieldWriter out) throws IOException;
+
+    /**
+     * Reads the fields back, in the order writeFields wrote them, into a
+     * freshly constructed object. Together the two make up the compact
+     * binary contract used by the .sbin files and the journal.
      */
-    String toCsvRecord();
+    void readFields(FieldReader in) throws IOException;
 
     /**
      * Creates a new instance of the implementing class from a CSV string line.
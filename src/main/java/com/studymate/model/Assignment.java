@@ -1,10 +1,12 @@
 package com.studymate.model;
 
+import com.studymate.interfaces.FieldReader;
+import com.studymate.interfaces.FieldWriter;
 import com.studymate.interfaces.Persistable;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 
 /**
@@ -14,7 +16,7 @@ import java.util.Objects;
  */
 public class Assignment implements Persistable, Comparable<Assignment>, Serializable {
 
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final long serialVersionUID = -1253876114231037114L;
 
     private int assignmentId;
     private int courseId; // Foreign Key (FK)
@@ -103,31 +105,28 @@ public class Assignment implements Persistable, Comparable<Assignment>, Serializ
         return "Completed".equalsIgnoreCase(status);
     }
 
-    // ---------- Persistable (CSV) ----------
+    // ---------- Persistable ----------
 
     @Override
-    public String toCsvRecord() {
-        return assignmentId + "," +
-                courseId + "," +
-                title + "," +
-                description + "," +
-                DATE_FORMAT.format(dueDate) + "," +
-                priority + "," +
-                status;
-    }
-
-    public static Assignment parse(String csvLine) {
-        String[] parts = csvLine.split(",");
-        if (parts.length != 7) {
-            throw new IllegalArgumentException("Invalid Assignment record format.");
-        }
-
-        int id = Integer.parseInt(parts[0]);
-        int courseId = Integer.parseInt(parts[1]);
-        LocalDate dueDate = LocalDate.parse(parts[4], DATE_FORMAT);
-        int priority = Integer.parseInt(parts[5]);
-
-        return new Assignment(id, courseId, parts[2], parts[3], dueDate, priority, parts[6]);
+    public void writeFields(FieldWriter out) throws IOException {
+        out.field(assignmentId)
+                .field(courseId)
+                .field(title)
+                .field(description)
+                .field(dueDate)
+                .field(priority)
+                .field(status);
+    }
+
+    @Override
+    public void readFields(FieldReader in) throws IOException {
+        assignmentId = in.readInt();
+        courseId = in.readInt();
+        title = in.readString();
+        description = in.readString();
+        dueDate = in.readDate();
+        priority = in.readInt();
+        status = in.readString();
     }
 
     // ---------- Comparable & utility ----------
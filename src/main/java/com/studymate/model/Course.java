@@ -1,7 +1,10 @@
 package com.studymate.model;
 
+import com.studymate.interfaces.FieldReader;
+import com.studymate.interfaces.FieldWriter;
 import com.studymate.interfaces.Persistable;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Objects;
 
@@ -10,6 +13,8 @@ import java.util.Objects;
  */
 public class Course implements Persistable, Serializable {
 
+    private static final long serialVersionUID = -8402163339409520985L;
+
     private int courseId;
     private String courseName;
     private String instructorName;
@@ -82,40 +87,25 @@ public class Course implements Persistable, Serializable {
         this.description = description;
     }
 
-    // ---------- Persistable (CSV) ----------
+    // ---------- Persistable ----------
+    @Override
+    public void writeFields(FieldWriter out) throws IOException {
+        out.field(courseId)
+                .field(courseName)
+                .field(instructorName)
+                .field(semester)
+                .field(creditHours)
+                .field(description);
+    }
+
     @Override
-    public String toCsvRecord() {
-        // Simple CSV – assumes no commas in text fields.
-        return courseId + "," +
-                courseName + "," +
-                instructorName + "," +
-                semester + "," +
-                creditHours + "," +
-                description;
-    }
-
-    // Helper method for CsvPersistenceManager to reconstruct the object
-    public static Course parse(String csvLine) {
-        String[] parts = csvLine.split(",");
-        if (parts.length < 6) {
-            throw new IllegalArgumentException("Invalid Course record format.");
-        }
-        int id = Integer.parseInt(parts[0]);
-        int credits = Integer.parseInt(parts[4]);
-
-        // Reconstruct description if it contained commas
-        String description = parts[5];
-        if (parts.length > 6) {
-            StringBuilder sb = new StringBuilder();
-            for (int i = 5; i < parts.length; i++) {
-                if (i > 5)
-                    sb.append(",");
-                sb.append(parts[i]);
-            }
-            description = sb.toString();
-        }
-
-        return new Course(id, parts[1], parts[2], parts[3], credits, description);
+    public void readFields(FieldReader in) throws IOException {
+        courseId = in.readInt();
+        courseName = in.readString();
+        instructorName = in.readString();
+        semester = in.readString();
+        creditHours = in.readInt();
+        description = in.readString();
     }
 
     @Override
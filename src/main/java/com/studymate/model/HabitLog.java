@@ -1,10 +1,12 @@
 package com.studymate.model;
 
+import com.studymate.interfaces.FieldReader;
+import com.studymate.interfaces.FieldWriter;
 import com.studymate.interfaces.Persistable;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 
 /**
@@ -12,7 +14,7 @@ import java.util.Objects;
  */
 public class HabitLog implements Persistable, Serializable {
 
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final long serialVersionUID = -7547208348183784507L;
 
     private int logId;
     private int habitId;
@@ -72,24 +74,21 @@ public class HabitLog implements Persistable, Serializable {
     }
 
     @Override
-    public String toCsvRecord() {
-        return logId + "," +
-                habitId + "," +
-                DATE_FORMAT.format(date) + "," +
-                amount + "," +
-                note;
-    }
-
-    public static HabitLog parse(String csvLine) {
-        String[] parts = csvLine.split(",");
-        if (parts.length != 5) {
-            throw new IllegalArgumentException("Invalid HabitLog record format.");
-        }
-        int id = Integer.parseInt(parts[0]);
-        int habitId = Integer.parseInt(parts[1]);
-        LocalDate date = LocalDate.parse(parts[2], DATE_FORMAT);
-        int amount = Integer.parseInt(parts[3]);
-        return new HabitLog(id, habitId, date, amount, parts[4]);
+    public void writeFields(FieldWriter out) throws IOException {
+        out.field(logId)
+                .field(habitId)
+                .field(date)
+                .field(amount)
+                .field(note);
+    }
+
+    @Override
+    public void readFields(FieldReader in) throws IOException {
+        logId = in.readInt();
+        habitId = in.readInt();
+        date = in.readDate();
+        amount = in.readInt();
+        note = in.readString();
     }
 
     @Override
@@ -1,10 +1,12 @@
 package com.studymate.model;
 
+import com.studymate.interfaces.FieldReader;
+import com.studymate.interfaces.FieldWriter;
 import com.studymate.interfaces.Persistable;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 
 /**
@@ -12,7 +14,7 @@ import java.util.Objects;
  */
 public class Note implements Persistable, Serializable {
 
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final long serialVersionUID = -2577880328331638444L;
 
     private int noteId;
     private int courseId;
@@ -72,23 +74,21 @@ public class Note implements Persistable, Serializable {
     }
 
     @Override
-    public String toCsvRecord() {
-        return noteId + "," +
-                courseId + "," +
-                title + "," +
-                content + "," +
-                DATE_FORMAT.format(createdOn);
-    }
-
-    public static Note parse(String csvLine) {
-        String[] parts = csvLine.split(",");
-        if (parts.length != 5) {
-            throw new IllegalArgumentException("Invalid Note record format.");
-        }
-        int id = Integer.parseInt(parts[0]);
-        int courseId = Integer.parseInt(parts[1]);
-        LocalDate created = LocalDate.parse(parts[4], DATE_FORMAT);
-        return new Note(id, courseId, parts[2], parts[3], created);
+    public void writeFields(FieldWriter out) throws IOException {
+        out.field(noteId)
+                .field(courseId)
+                .field(title)
+                .field(content)
+                .field(createdOn);
+    }
+
+    @Override
+    public void readFields(FieldReader in) throws IOException {
+        noteId = in.readInt();
+        courseId = in.readInt();
+        title = in.readString();
+        content = in.readString();
+        createdOn = in.readDate();
     }
 
     @Override
@@ -1,8 +1,11 @@
 package com.studymate.model;
 
+import com.studymate.interfaces.FieldReader;
+import com.studymate.interfaces.FieldWriter;
 import com.studymate.interfaces.IAnalyzable;
 import com.studymate.interfaces.Persistable;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.Objects;
 
@@ -11,6 +14,8 @@ import java.util.Objects;
  */
 public class StudyHabit implements Persistable, IAnalyzable, Serializable {
 
+    private static final long serialVersionUID = 8119215097407896798L;
+
     private int habitId;
     private String name;
     private String description;
@@ -59,21 +64,19 @@ public class StudyHabit implements Persistable, IAnalyzable, Serializable {
     }
 
     @Override
-    public String toCsvRecord() {
-        return habitId + "," +
-                name + "," +
-                description + "," +
-                weeklyTarget;
-    }
-
-    public static StudyHabit parse(String csvLine) {
-        String[] parts = csvLine.split(",");
-        if (parts.length != 4) {
-            throw new IllegalArgumentException("Invalid StudyHabit record format.");
-        }
-        int id = Integer.parseInt(parts[0]);
-        int weeklyTarget = Integer.parseInt(parts[3]);
-        return new StudyHabit(id, parts[1], parts[2], weeklyTarget);
+    public void writeFields(FieldWriter out) throws IOException {
+        out.field(habitId)
+                .field(name)
+                .field(description)
+                .field(weeklyTarget);
+    }
+
+    @Override
+    public void readFields(FieldReader in) throws IOException {
+        habitId = in.readInt();
+        name = in.readString();
+        description = in.readString();
+        weeklyTarget = in.readInt();
     }
 
     @Override
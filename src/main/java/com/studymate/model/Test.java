@@ -1,11 +1,13 @@
 package com.studymate.model;
 
+import com.studymate.interfaces.FieldReader;
+import com.studymate.interfaces.FieldWriter;
 import com.studymate.interfaces.IAnalyzable;
 import com.studymate.interfaces.Persistable;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 
 /**
@@ -13,7 +15,7 @@ import java.util.Objects;
  */
 public class Test implements Persistable, IAnalyzable, Serializable {
 
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final long serialVersionUID = -8788541536859489306L;
 
     private int testId;
     private int courseId;
@@ -83,26 +85,23 @@ public class Test implements Persistable, IAnalyzable, Serializable {
     }
 
     @Override
-    public String toCsvRecord() {
-        return testId + "," +
-                courseId + "," +
-                name + "," +
-                DATE_FORMAT.format(date) + "," +
-                maxScore + "," +
-                score;
-    }
-
-    public static Test parse(String csvLine) {
-        String[] parts = csvLine.split(",");
-        if (parts.length != 6) {
-            throw new IllegalArgumentException("Invalid Test record format.");
-        }
-        int id = Integer.parseInt(parts[0]);
-        int courseId = Integer.parseInt(parts[1]);
-        LocalDate date = LocalDate.parse(parts[3], DATE_FORMAT);
-        double maxScore = Double.parseDouble(parts[4]);
-        double score = Double.parseDouble(parts[5]);
-        return new Test(id, courseId, parts[2], date, maxScore, score);
+    public void writeFields(FieldWriter out) throws IOException {
+        out.field(testId)
+                .field(courseId)
+                .field(name)
+                .field(date)
+                .field(maxScore)
+                .field(score);
+    }
+
+    @Override
+    public void readFields(FieldReader in) throws IOException {
+        testId = in.readInt();
+        courseId = in.readInt();
+        name = in.readString();
+        date = in.readDate();
+        maxScore = in.readDouble();
+        score = in.readDouble();
     }
 
     // IAnalyzable: ratio between achieved score and max score (0..1)
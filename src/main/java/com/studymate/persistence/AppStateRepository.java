@@ -11,4 +11,17 @@ public interface AppStateRepository {
     void save(AppState state) throws IOException;
 
     AppState load() throws IOException;
+
+    /**
+     * Hands out every entity, type by type in list order. This default loads
+     * the whole state first; formats that can be read piecewise override it.
+     */
+    default void stream(EntitySink sink) throws IOException {
+        AppState state = load();
+        for (EntityType type : EntityType.values()) {
+            for (Object entity : type.listIn(state)) {
+                sink.accept(type, entity);
+            }
+        }
+    }
 }
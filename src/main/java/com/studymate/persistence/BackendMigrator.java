@@ -0,0 +1,533 @@
+package com.studymate.persistence;
+
+import com.studymate.interfaces.Persistable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+/**
+ * Copies every entity from one backend to another without building an
+ * AppState in between (Main "migrate" mode).
+ *
+ * Entities are read one at a time from an {@link EntitySource} and written
+ * to an {@link EntityBatchWriter} in batches of one type, so memory use is
+ * bounded by the batch size for the streaming formats (CSV, JSON, NDJSON,
+ * SQL). The
+ * object stream format is a single serialized AppState and has to be held
+ * in memory as a whole on either side.
+ *
+ * For resumable targets (SQL) the number of entities written per type is
+ * recorded in a progress file after every batch. A later run with the same
+ * source and target skips that many entities of each type and continues;
+ * the file is deleted once the migration completes.
+ */
+public class BackendMigrator {
+
+    private static final long REPORT_INTERVAL_MS = 1000;
+
+    /** Directory under dataDir holding the NDJSON files. */
+    public static final String NDJSON_DIR = "ndjson";
+
+    private final EntitySource source;
+    private final EntityBatchWriter target;
+    private final String description;
+    private final int batchSize;
+    private final Path progressFile;
+    private final Consumer<String> log;
+
+    private final long[] done = new long[EntityType.values().length];
+    private final long[] seen = new long[EntityType.values().length];
+    private final long[] skipped = new long[EntityType.values().length];
+    private final List<Object> batch = new ArrayList<>();
+    private EntityType batchType;
+    private long migrated;
+    private long startNanos;
+    private long lastReportMs;
+
+    /**
+     * @param description identifies the source/target pair in the progress
+     *                    file, e.g. "json -> sql"
+     * @param log         receives progress lines
+     */
+    public BackendMigrator(EntitySource source, EntityBatchWriter target, String description,
+                           int batchSize, Path progressFile, Consumer<String> log) {
+        this.source = source;
+        this.target = target;
+        this.description = description;
+        this.batchSize = Math.max(1, batchSize);
+        this.progressFile = progressFile;
+        this.log = log;
+    }
+
+    /**
+     * Runs (or resumes) the migration and closes the target.
+     *
+     * @return number of entities written by this run
+     */
+    public long run() throws IOException {
+        try (EntityBatchWriter out = target) {
+            if (out.isResumable()) {
+                readProgress();
+            } else {
+                Files.deleteIfExists(progressFile);
+            }
+            out.start(Arrays.stream(done).anyMatch(n -> n > 0));
+            startNanos = System.nanoTime();
+            lastReportMs = System.currentTimeMillis();
+
+            source.forEach(this::accept);
+            flush();
+            out.finish();
+        }
+        Files.deleteIfExists(progressFile);
+
+        double seconds = Math.max(1, System.nanoTime() - startNanos) / 1e9;
+        log.accept(String.format("Migrated %,d entities (%s) in %.1f s, %,.0f entities/s",
+                migrated, description, seconds, migrated / seconds));
+        for (EntityType type : EntityType.values()) {
+            int i = type.ordinal();
+            if (seen[i] > 0) {
+                log.accept(String.format("  %-12s %,d", type.getSectionName() + ":", done[i])
+                        + (skipped[i] > 0 ? String.format(" (%,d skipped, the target cannot store them)", skipped[i]) : ""));
+            }
+        }
+        return migrated;
+    }
+
+    private void accept(EntityType type, Object entity) throws IOException {
+        int i = type.ordinal();
+        if (seen[i]++ < done[i]) {
+            return; // written by an earlier, interrupted run
+        }
+        if (!target.accepts(type)) {
+            skipped[i]++;
+            return;
+        }
+        if (type != batchType) {
+            flush();
+            batchType = type;
+        }
+        batch.add(entity);
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        target.write(batchType, batch);
+        done[batchType.ordinal()] += batch.size();
+        migrated += batch.size();
+        batch.clear();
+        if (target.isResumable()) {
+            writeProgress();
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastReportMs >= REPORT_INTERVAL_MS) {
+            lastReportMs = now;
+            double seconds = Math.max(1, System.nanoTime() - startNanos) / 1e9;
+            log.accept(String.format("  %s: %,d migrated, %,.0f entities/s",
+                    batchType.getSectionName(), done[batchType.ordinal()], migrated / seconds));
+        }
+    }
+
+    // ---------------- Progress file ----------------
+
+    private void readProgress() throws IOException {
+        if (!Files.exists(progressFile)) {
+            return;
+        }
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(progressFile)) {
+            props.load(in);
+        }
+        if (!description.equals(props.getProperty("migration"))) {
+            log.accept("Ignoring " + progressFile + " (it belongs to \"" + props.getProperty("migration") + "\")");
+            return;
+        }
+        long total = 0;
+        for (EntityType type : EntityType.values()) {
+            try {
+                done[type.ordinal()] = Long.parseLong(props.getProperty(type.getSectionName(), "0"));
+            } catch (NumberFormatException e) {
+                throw new IOException("Corrupt migration progress file " + progressFile, e);
+            }
+            total += done[type.ordinal()];
+        }
+        log.accept(String.format("Resuming %s: %,d entities already migrated", description, total));
+    }
+
+    private void writeProgress() throws IOException {
+        Properties props = new Properties();
+        props.setProperty("migration", description);
+        for (EntityType type : EntityType.values()) {
+            props.setProperty(type.getSectionName(), Long.toString(done[type.ordinal()]));
+        }
+        if (progressFile.getParent() != null) {
+            Files.createDirectories(progressFile.getParent());
+        }
+        Path temp = progressFile.resolveSibling(progressFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            props.store(out, null);
+        }
+        Files.move(temp, progressFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ---------------- Sources ----------------
+
+    /**
+     * Opens the files StudyMateService uses under dataDir, or the SQL
+     * repository, as a source. JSON is read through the given repository,
+     * which is opened the way the service opens it, so delta files and the
+     * snapshot codec are applied.
+     */
+    public static EntitySource openSource(SaveFormat format, Path dataDir, AppStateRepository json,
+                                          SqlAppStateRepository sql) {
+        switch (format) {
+            case CSV:
+                return sink -> {
+                    for (EntityType type : EntityType.values()) {
+                        CsvPersistenceManager<?> csv = CsvPersistenceManager.forType(type, dataDir);
+                        csv.setLoadMode(CsvLoadMode.MAPPED);
+                        streamCsv(csv, type, sink);
+                    }
+                };
+            case JSON:
+                return json::stream;
+            case NDJSON:
+                return new NdjsonAppStateRepository(dataDir.resolve(NDJSON_DIR))::stream;
+            case BINARY:
+                // One serialized object graph; it cannot be read piecewise.
+                return new ObjectStreamAppStateRepository(dataDir.resolve("studymate.bin").toString())::stream;
+            default:
+                return sql::stream;
+        }
+    }
+
+    private static <T extends Persistable> void streamCsv(CsvPersistenceManager<T> csv, EntityType type,
+                                                          EntitySink sink) throws IOException {
+        try {
+            csv.forEach(entity -> {
+                try {
+                    sink.accept(type, entity);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // ---------------- Targets ----------------
+
+    /**
+     * Opens a writer for the files StudyMateService uses under dataDir, or
+     * for the SQL repository. File targets write temp files and only replace
+     * the real ones in finish().
+     */
+    public static EntityBatchWriter openTarget(SaveFormat format, Path dataDir, SqlAppStateRepository sql)
+            throws IOException {
+        Files.createDirectories(dataDir);
+        switch (format) {
+            case CSV:
+                return new CsvTarget(dataDir);
+            case JSON:
+                return new JsonTarget(dataDir.resolve("studymate.json"));
+            case NDJSON:
+                return new NdjsonTarget(new NdjsonAppStateRepository(dataDir.resolve(NDJSON_DIR)));
+            case BINARY:
+                return new BinaryTarget(new ObjectStreamAppStateRepository(dataDir.resolve("studymate.bin").toString()));
+            default:
+                return new SqlTarget(sql);
+        }
+    }
+
+    /**
+     * Upserts each batch in its own transaction, so a re-run after a crash
+     * just overwrites the rows of the batch that was in flight. A fresh run
+     * empties the tables first, so rows the source does not have are not
+     * left behind.
+     */
+    private static class SqlTarget implements EntityBatchWriter {
+
+        private final SqlAppStateRepository sql;
+
+        SqlTarget(SqlAppStateRepository sql) {
+            this.sql = sql;
+        }
+
+        @Override
+        public boolean isResumable() {
+            return true;
+        }
+
+        @Override
+        public void start(boolean resuming) throws IOException {
+            if (!resuming) {
+                sql.clear();
+            }
+        }
+
+        @Override
+        public void write(EntityType type, List<Object> batch) throws IOException {
+            ChangeSet changes = new ChangeSet();
+            for (Object entity : batch) {
+                changes.markDirty(entity);
+            }
+            sql.saveChanges(changes);
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Streams the sections into one JSON document in the usual layout.
+     */
+    private static class JsonTarget implements EntityBatchWriter {
+
+        private final Path file;
+        private final Path temp;
+        private final JsonStreamWriter writer;
+        private final Map<EntityType, Boolean> written = new EnumMap<>(EntityType.class);
+        private EntityType current;
+        private boolean finished;
+
+        JsonTarget(Path file) throws IOException {
+            this.file = file;
+            this.temp = file.resolveSibling(file.getFileName() + ".tmp");
+            BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8);
+            this.writer = new JsonStreamWriter(out, true);
+            writer.beginObject();
+        }
+
+        @Override
+        public boolean isResumable() {
+            return false;
+        }
+
+        @Override
+        public void write(EntityType type, List<Object> batch) throws IOException {
+            if (type != current) {
+                if (current != null) {
+                    writer.endArray();
+                }
+                writer.name(type.getSectionName()).beginArray();
+                written.put(type, true);
+                current = type;
+            }
+            for (Object entity : batch) {
+                JsonEntityCodec.write(writer, type, entity);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (current != null) {
+                writer.endArray();
+            }
+            for (EntityType type : EntityType.values()) {
+                if (!written.containsKey(type)) {
+                    writer.name(type.getSectionName()).beginArray().endArray();
+                }
+            }
+            writer.endObject();
+            writer.close();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            finished = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                writer.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Writes one CSV file per entity type, named as in
+     * {@link CsvPersistenceManager#forType}.
+     */
+    private static class CsvTarget implements EntityBatchWriter {
+
+        private final Map<EntityType, Path> files = new EnumMap<>(EntityType.class);
+        private final Map<EntityType, CsvRecordWriter> writers = new EnumMap<>(EntityType.class);
+        private boolean finished;
+
+        CsvTarget(Path dataDir) {
+            for (EntityType type : EntityType.values()) {
+                files.put(type, dataDir.resolve(type.getSectionName() + ".csv"));
+            }
+        }
+
+        @Override
+        public boolean isResumable() {
+            return false;
+        }
+
+        @Override
+        public void write(EntityType type, List<Object> batch) throws IOException {
+            CsvRecordWriter out = writers.get(type);
+            if (out == null) {
+                out = new CsvRecordWriter(Files.newBufferedWriter(tempOf(files.get(type)), StandardCharsets.UTF_8));
+                writers.put(type, out);
+            }
+            for (Object entity : batch) {
+                ((Persistable) entity).writeFields(out);
+                out.endRecord();
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            for (Map.Entry<EntityType, Path> e : files.entrySet()) {
+                CsvRecordWriter out = writers.remove(e.getKey());
+                if (out == null) {
+                    // nothing of this type in the source: leave an empty file
+                    Files.write(tempOf(e.getValue()), new byte[0]);
+                } else {
+                    out.close();
+                }
+                Files.move(tempOf(e.getValue()), e.getValue(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finished = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (CsvRecordWriter out : writers.values()) {
+                out.close();
+            }
+            if (!finished) {
+                for (Path p : files.values()) {
+                    Files.deleteIfExists(tempOf(p));
+                }
+            }
+        }
+
+        private static Path tempOf(Path file) {
+            return file.resolveSibling(file.getFileName() + ".tmp");
+        }
+    }
+
+    /**
+     * Writes one NDJSON file per entity type, each to a temp file that
+     * replaces the real one in finish().
+     */
+    private static class NdjsonTarget implements EntityBatchWriter {
+
+        private final NdjsonAppStateRepository repository;
+        private final Map<EntityType, BufferedWriter> writers = new EnumMap<>(EntityType.class);
+        private boolean finished;
+
+        NdjsonTarget(NdjsonAppStateRepository repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public boolean isResumable() {
+            return false;
+        }
+
+        @Override
+        public void write(EntityType type, List<Object> batch) throws IOException {
+            BufferedWriter out = writers.get(type);
+            if (out == null) {
+                Files.createDirectories(repository.fileFor(type).getParent());
+                out = Files.newBufferedWriter(tempOf(repository.fileFor(type)), StandardCharsets.UTF_8);
+                writers.put(type, out);
+            }
+            NdjsonAppStateRepository.writeLines(out, type, batch);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            for (EntityType type : EntityType.values()) {
+                Path file = repository.fileFor(type);
+                BufferedWriter out = writers.remove(type);
+                if (out == null) {
+                    Files.createDirectories(file.getParent());
+                    Files.write(tempOf(file), new byte[0]);
+                } else {
+                    out.close();
+                }
+                Files.move(tempOf(file), file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finished = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (BufferedWriter out : writers.values()) {
+                out.close();
+            }
+            if (!finished) {
+                for (EntityType type : EntityType.values()) {
+                    Files.deleteIfExists(tempOf(repository.fileFor(type)));
+                }
+            }
+        }
+
+        private static Path tempOf(Path file) {
+            return file.resolveSibling(file.getFileName() + ".tmp");
+        }
+    }
+
+    /**
+     * Collects everything and writes one serialized AppState at the end.
+     */
+    private static class BinaryTarget implements EntityBatchWriter {
+
+        private final ObjectStreamAppStateRepository repository;
+        private final AppState state = new AppState();
+
+        BinaryTarget(ObjectStreamAppStateRepository repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public boolean isResumable() {
+            return false;
+        }
+
+        @Override
+        public void write(EntityType type, List<Object> batch) {
+            type.listIn(state).addAll(batch);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            repository.save(state);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.studymate.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Binary persistence through {@link BinaryRecordCodec} instead of Java
+ * serialization: no class descriptors or object handles, just the fields
+ * of each entity.
+ *
+ * Layout: the magic bytes "SMB" and a format version, then one section per
+ * entity type: its tag byte, the entity count and the encoded entities.
+ * load() memory-maps the file and decodes it in place.
+ */
+public class BinaryAppStateRepository implements AppStateRepository {
+
+    private static final byte[] MAGIC = {'S', 'M', 'B'};
+    private static final int VERSION = 1;
+
+    private final Path file;
+
+    public BinaryAppStateRepository(String filePath) {
+        this.file = Paths.get(filePath);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void save(AppState state) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BinaryRecordWriter out = new BinaryRecordWriter(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            for (byte b : MAGIC) {
+                out.rawByte(b);
+            }
+            out.rawByte(VERSION);
+            for (EntityType type : EntityType.values()) {
+                List<Object> entities = type.listIn(state);
+                out.rawByte(type.getTag());
+                out.field(entities.size());
+                for (Object entity : entities) {
+                    BinaryRecordCodec.write(out, entity);
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public AppState load() throws IOException {
+        AppState state = new AppState();
+        stream((type, entity) -> type.listIn(state).add(entity));
+        return state;
+    }
+
+    /**
+     * Decodes the file and hands every entity to the sink in file order.
+     */
+    @Override
+    public void stream(EntitySink sink) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to map (" + channel.size() + " bytes)");
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            BinaryRecordReader in = new BinaryRecordReader(data);
+            for (byte b : MAGIC) {
+                if (in.readRawByte() != b) {
+                    throw new IOException(file + " is not a StudyMate binary snapshot");
+                }
+            }
+            int version = in.readRawByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary snapshot version " + version + " in " + file);
+            }
+            while (in.hasRemaining()) {
+                EntityType type = EntityType.fromTag((byte) in.readRawByte());
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    sink.accept(type, BinaryRecordCodec.read(in, type));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt binary snapshot " + file + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.studymate.persistence;
+
+import com.studymate.interfaces.Persistable;
+
+import java.io.IOException;
+
+/**
+ * Encodes single entities in the compact binary format (varint ints,
+ * epoch-day dates, length-prefixed UTF-8) through their
+ * {@link Persistable#writeFields} and {@link Persistable#readFields}
+ * contract, in CSV column order. There is no type tag or length; the
+ * caller knows both.
+ */
+public class BinaryRecordCodec {
+
+    private BinaryRecordCodec() {
+    }
+
+    public static void write(BinaryRecordWriter out, Object entity) throws IOException {
+        ((Persistable) entity).writeFields(out);
+    }
+
+    /**
+     * Decodes one entity of the given type written by {@link #write}.
+     */
+    public static Object read(BinaryRecordReader in, EntityType type) throws IOException {
+        Persistable entity = type.newInstance();
+        entity.readFields(in);
+        return entity;
+    }
+}
@@ -0,0 +1,101 @@
+package com.studymate.persistence;
+
+import com.studymate.interfaces.FieldReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Reads fields written by {@link BinaryRecordWriter} from a ByteBuffer
+ * (usually a memory-mapped file). Reads past the end of the buffer or a
+ * malformed varint throw an IOException.
+ */
+public class BinaryRecordReader implements FieldReader {
+
+    private final ByteBuffer data;
+    private byte[] scratch = new byte[256];
+
+    public BinaryRecordReader(ByteBuffer data) {
+        this.data = data;
+    }
+
+    public boolean hasRemaining() {
+        return data.hasRemaining();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        long zigzag = readVarLong();
+        return (int) ((zigzag >>> 1) ^ -(zigzag & 1));
+    }
+
+    public long readLong() throws IOException {
+        long zigzag = readVarLong();
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        check(8);
+        return Double.longBitsToDouble(data.getLong()); // ByteBuffer default order is big-endian
+    }
+
+    @Override
+    public LocalDate readDate() throws IOException {
+        long encoded = readVarLong();
+        if (encoded == 0) {
+            return null;
+        }
+        long zigzag = encoded - 1;
+        return LocalDate.ofEpochDay((zigzag >>> 1) ^ -(zigzag & 1));
+    }
+
+    @Override
+    public String readString() throws IOException {
+        long encoded = readVarLong();
+        if (encoded == 0) {
+            return null;
+        }
+        long length = encoded - 1;
+        if (length > data.remaining()) {
+            throw new IOException("String of " + length + " bytes runs past the end of the data");
+        }
+        int n = (int) length;
+        if (data.hasArray()) {
+            String s = new String(data.array(), data.arrayOffset() + data.position(), n, StandardCharsets.UTF_8);
+            data.position(data.position() + n);
+            return s;
+        }
+        if (scratch.length < n) {
+            scratch = new byte[Math.max(n, scratch.length * 2)];
+        }
+        data.get(scratch, 0, n);
+        return new String(scratch, 0, n, StandardCharsets.UTF_8);
+    }
+
+    public int readRawByte() throws IOException {
+        check(1);
+        return data.get() & 0xff;
+    }
+
+    private long readVarLong() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            check(1);
+            byte b = data.get();
+            result |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed varint at offset " + data.position());
+    }
+
+    private void check(int bytes) throws IOException {
+        if (data.remaining() < bytes) {
+            throw new IOException("Unexpected end of data at offset " + data.position());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.studymate.persistence;
+
+import com.studymate.interfaces.FieldWriter;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Streams entities field by field in the compact binary encoding read by
+ * {@link BinaryRecordReader}:
+ * <ul>
+ *   <li>int, long: zig-zag varint (ids and small counts take one or two bytes)</li>
+ *   <li>double: 8 bytes, big-endian IEEE 754</li>
+ *   <li>date: varint of zig-zag(epoch day) + 1, 0 for null</li>
+ *   <li>String: varint of UTF-8 length + 1 (0 for null), then the bytes</li>
+ * </ul>
+ * Everything is encoded straight into a reusable byte buffer, so writing a
+ * record allocates nothing.
+ */
+public class BinaryRecordWriter implements FieldWriter, Flushable, Closeable {
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+    private long flushed;
+
+    public BinaryRecordWriter(OutputStream out) {
+        this(out, 64 * 1024);
+    }
+
+    public BinaryRecordWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(64, bufferSize)];
+    }
+
+    @Override
+    public BinaryRecordWriter field(int value) throws IOException {
+        writeVarLong(((long) value << 1) ^ (value >> 31));
+        return this;
+    }
+
+    public BinaryRecordWriter field(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+        return this;
+    }
+
+    @Override
+    public BinaryRecordWriter field(double value) throws IOException {
+        ensure(8);
+        long bits = Double.doubleToLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (bits >>> shift);
+        }
+        return this;
+    }
+
+    @Override
+    public BinaryRecordWriter field(LocalDate date) throws IOException {
+        if (date == null) {
+            writeVarLong(0);
+        } else {
+            long day = date.toEpochDay();
+            writeVarLong(((day << 1) ^ (day >> 63)) + 1);
+        }
+        return this;
+    }
+
+    @Override
+    public BinaryRecordWriter field(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(0);
+            return this;
+        }
+        int length = value.length();
+        int utf8Length = utf8Length(value);
+        writeVarLong(utf8Length + 1L);
+        if (utf8Length == length) {
+            // ASCII: one byte per char
+            int from = 0;
+            while (from < length) {
+                if (position == buffer.length) {
+                    drain();
+                }
+                int n = Math.min(length - from, buffer.length - position);
+                for (int i = 0; i < n; i++) {
+                    buffer[position++] = (byte) value.charAt(from + i);
+                }
+                from += n;
+            }
+            return this;
+        }
+        for (int i = 0; i < length; i++) {
+            ensure(4);
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xc0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xf0 | (cp >> 18));
+                buffer[position++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                buffer[position++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (cp & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                buffer[position++] = '?'; // unpaired surrogate, as String.getBytes does
+            } else {
+                buffer[position++] = (byte) (0xe0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return number of bytes written so far, including those still buffered
+     */
+    public long size() {
+        return flushed + position;
+    }
+
+    /**
+     * Writes a single raw byte (section tags, format version).
+     */
+    public BinaryRecordWriter rawByte(int value) throws IOException {
+        ensure(1);
+        buffer[position++] = (byte) value;
+        return this;
+    }
+
+    private static int utf8Length(String value) {
+        int bytes = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                bytes++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        ensure(10);
+        while ((value & ~0x7fL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, position);
+        flushed += position;
+        position = 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.studymate.persistence;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set of entities changed since the last save, grouped by type and keyed by
+ * id, so an entity changed several times is written once.
+ *
+ * Thread-safe. {@link #drain()} hands the current changes to a writer and
+ * starts a fresh set; if the write fails, {@link #requeue(ChangeSet)} puts
+ * them back without overwriting anything marked in the meantime.
+ */
+public class ChangeSet {
+
+    private final Map<EntityType, Map<Integer, Object>> dirty = new EnumMap<>(EntityType.class);
+
+    public synchronized void markDirty(Object entity) {
+        EntityType type = EntityType.of(entity);
+        dirty.computeIfAbsent(type, t -> new LinkedHashMap<>()).put(type.idOf(entity), entity);
+    }
+
+    public synchronized boolean isEmpty() {
+        return dirty.isEmpty();
+    }
+
+    /**
+     * @return total number of dirty entities
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (Map<Integer, Object> rows : dirty.values()) {
+            size += rows.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return the dirty entities of the given type, in the order they were
+     *         first marked
+     */
+    public synchronized List<Object> get(EntityType type) {
+        Map<Integer, Object> rows = dirty.get(type);
+        return rows == null ? new ArrayList<>() : new ArrayList<>(rows.values());
+    }
+
+    /**
+     * Removes and returns everything marked so far.
+     */
+    public synchronized ChangeSet drain() {
+        ChangeSet drained = new ChangeSet();
+        drained.dirty.putAll(dirty);
+        dirty.clear();
+        return drained;
+    }
+
+    /**
+     * Merges changes back after a failed write. Entities marked again since
+     * the drain win over the requeued ones.
+     */
+    public synchronized void requeue(ChangeSet failed) {
+        synchronized (failed) {
+            for (Map.Entry<EntityType, Map<Integer, Object>> entry : failed.dirty.entrySet()) {
+                Map<Integer, Object> rows = dirty.computeIfAbsent(entry.getKey(), t -> new LinkedHashMap<>());
+                entry.getValue().forEach(rows::putIfAbsent);
+            }
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package com.studymate.persistence;
+
+import com.studymate.model.Assignment;
+import com.studymate.model.Course;
+import com.studymate.model.HabitLog;
+import com.studymate.model.Note;
+import com.studymate.model.StudyHabit;
+import com.studymate.model.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Columnar binary snapshot of the AppState.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * header:      magic "SMCS", version, block count
+ * block index: per entity type [tag][row count][offset][length]
+ * block:       [column count][column offsets...][columns...]
+ * </pre>
+ * Each int/double field is stored as one primitive column, dates as an int
+ * column of epoch days, and strings as a dictionary (distinct values once)
+ * followed by an int code per row. Loading memory-maps the file and reads
+ * whole columns at a time, so there is no per-object class metadata as with
+ * {@link ObjectStreamAppStateRepository}.
+ */
+public class ColumnarAppStateRepository implements AppStateRepository {
+
+    private static final int MAGIC = 0x534D4353; // "SMCS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int INDEX_ENTRY_BYTES = 24;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int NULL_STRING = -1;
+
+    private final Path file;
+
+    public ColumnarAppStateRepository(String filePath) {
+        this.file = Paths.get(filePath);
+    }
+
+    // ---------------- Save ----------------
+
+    @Override
+    public void save(AppState state) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+
+        EntityType[] types = EntityType.values();
+        List<byte[]> blocks = new ArrayList<>();
+        for (EntityType type : types) {
+            blocks.add(encodeBlock(type, state));
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + types.length * INDEX_ENTRY_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(types.length);
+        long offset = header.capacity();
+        for (int i = 0; i < types.length; i++) {
+            header.putInt(types[i].getTag());
+            header.putInt(types[i].listIn(state).size());
+            header.putLong(offset);
+            header.putLong(blocks.get(i).length);
+            offset += blocks.get(i).length;
+        }
+        header.flip();
+
+        // Temp file + rename, so a crash never leaves a half-written snapshot.
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header);
+            for (byte[] block : blocks) {
+                writeFully(channel, ByteBuffer.wrap(block));
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] encodeBlock(EntityType type, AppState state) throws IOException {
+        BlockWriter w = new BlockWriter();
+        switch (type) {
+            case COURSE: {
+                List<Course> rows = state.getCourses();
+                w.ints(rows, Course::getCourseId);
+                w.strings(rows, Course::getCourseName);
+                w.strings(rows, Course::getInstructorName);
+                w.strings(rows, Course::getSemester);
+                w.ints(rows, Course::getCreditHours);
+                w.strings(rows, Course::getDescription);
+                break;
+            }
+            case ASSIGNMENT: {
+                List<Assignment> rows = state.getAssignments();
+                w.ints(rows, Assignment::getAssignmentId);
+                w.ints(rows, Assignment::getCourseId);
+                w.strings(rows, Assignment::getTitle);
+                w.strings(rows, Assignment::getDescription);
+                w.dates(rows, Assignment::getDueDate);
+                w.ints(rows, Assignment::getPriority);
+                w.strings(rows, Assignment::getStatus);
+                break;
+            }
+            case NOTE: {
+                List<Note> rows = state.getNotes();
+                w.ints(rows, Note::getNoteId);
+                w.ints(rows, Note::getCourseId);
+                w.strings(rows, Note::getTitle);
+                w.strings(rows, Note::getContent);
+                w.dates(rows, Note::getCreatedOn);
+                break;
+            }
+            case TEST: {
+                List<Test> rows = state.getTests();
+                w.ints(rows, Test::getTestId);
+                w.ints(rows, Test::getCourseId);
+                w.strings(rows, Test::getName);
+                w.dates(rows, Test::getDate);
+                w.doubles(rows, Test::getMaxScore);
+                w.doubles(rows, Test::getScore);
+                break;
+            }
+            case HABIT: {
+                List<StudyHabit> rows = state.getHabits();
+                w.ints(rows, StudyHabit::getHabitId);
+                w.strings(rows, StudyHabit::getName);
+                w.strings(rows, StudyHabit::getDescription);
+                w.ints(rows, StudyHabit::getWeeklyTarget);
+                break;
+            }
+            default: {
+                List<HabitLog> rows = state.getHabitLogs();
+                w.ints(rows, HabitLog::getLogId);
+                w.ints(rows, HabitLog::getHabitId);
+                w.dates(rows, HabitLog::getDate);
+                w.ints(rows, HabitLog::getAmount);
+                w.strings(rows, HabitLog::getNote);
+                break;
+            }
+        }
+        return w.toByteArray();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // ---------------- Load ----------------
+
+    @Override
+    public AppState load() throws IOException {
+        AppState state = new AppState();
+        if (!Files.exists(file)) {
+            return state;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Columnar snapshot too large to map: " + file);
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.limit() < HEADER_BYTES || data.getInt(0) != MAGIC) {
+                throw new IOException("Not a columnar StudyMate snapshot: " + file);
+            }
+            if (data.getInt(4) != VERSION) {
+                throw new IOException("Unsupported columnar snapshot version " + data.getInt(4) + " in " + file);
+            }
+            int blockCount = data.getInt(8);
+            if (blockCount < 0 || HEADER_BYTES + (long) blockCount * INDEX_ENTRY_BYTES > data.limit()) {
+                throw new IOException("Truncated block index in " + file);
+            }
+            for (int i = 0; i < blockCount; i++) {
+                int entry = HEADER_BYTES + i * INDEX_ENTRY_BYTES;
+                int tag = data.getInt(entry);
+                int rows = data.getInt(entry + 4);
+                long offset = data.getLong(entry + 8);
+                long length = data.getLong(entry + 16);
+                if (rows < 0 || offset < 0 || length < 0 || offset + length > data.limit()) {
+                    throw new IOException("Corrupt block index in " + file);
+                }
+                try {
+                    decodeBlock(EntityType.fromTag((byte) tag), new BlockReader(data, (int) offset, rows), state);
+                } catch (IllegalArgumentException | IndexOutOfBoundsException | BufferUnderflowException e) {
+                    throw new IOException("Corrupt columnar snapshot " + file + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return state;
+    }
+
+    private static void decodeBlock(EntityType type, BlockReader r, AppState state) {
+        int n = r.rows;
+        switch (type) {
+            case COURSE: {
+                int[] id = r.ints(0);
+                String[] name = r.strings(1);
+                String[] instructor = r.strings(2);
+                String[] semester = r.strings(3);
+                int[] credits = r.ints(4);
+                String[] description = r.strings(5);
+                List<Course> list = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    list.add(new Course(id[i], name[i], instructor[i], semester[i], credits[i], description[i]));
+                }
+                state.setCourses(list);
+                break;
+            }
+            case ASSIGNMENT: {
+                int[] id = r.ints(0);
+                int[] courseId = r.ints(1);
+                String[] title = r.strings(2);
+                String[] description = r.strings(3);
+                LocalDate[] due = r.dates(4);
+                int[] priority = r.ints(5);
+                String[] status = r.strings(6);
+                List<Assignment> list = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    list.add(new Assignment(id[i], courseId[i], title[i], description[i], due[i],
+                            priority[i], status[i]));
+                }
+                state.setAssignments(list);
+                break;
+            }
+            case NOTE: {
+                int[] id = r.ints(0);
+                int[] courseId = r.ints(1);
+                String[] title = r.strings(2);
+                String[] content = r.strings(3);
+                LocalDate[] created = r.dates(4);
+                List<Note> list = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    list.add(new Note(id[i], courseId[i], title[i], content[i], created[i]));
+                }
+                state.setNotes(list);
+                break;
+            }
+            case TEST: {
+                int[] id = r.ints(0);
+                int[] courseId = r.ints(1);
+                String[] name = r.strings(2);
+                LocalDate[] date = r.dates(3);
+                double[] maxScore = r.doubles(4);
+                double[] score = r.doubles(5);
+                List<Test> list = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    list.add(new Test(id[i], courseId[i], name[i], date[i], maxScore[i], score[i]));
+                }
+                state.setTests(list);
+                break;
+            }
+            case HABIT: {
+                int[] id = r.ints(0);
+                String[] name = r.strings(1);
+                String[] description = r.strings(2);
+                int[] target = r.ints(3);
+                List<StudyHabit> list = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    list.add(new StudyHabit(id[i], name[i], description[i], target[i]));
+                }
+                state.setHabits(list);
+                break;
+            }
+            default: {
+                int[] id = r.ints(0);
+                int[] habitId = r.ints(1);
+                LocalDate[] date = r.dates(2);
+                int[] amount = r.ints(3);
+                String[] note = r.strings(4);
+                List<HabitLog> list = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    list.add(new HabitLog(id[i], habitId[i], date[i], amount[i], note[i]));
+                }
+                state.setHabitLogs(list);
+                break;
+            }
+        }
+    }
+
+    // ---------------- Column encoding ----------------
+
+    /**
+     * Collects the columns of one block and lays them out behind a table of
+     * column offsets (relative to the start of the block).
+     */
+    private static class BlockWriter {
+        private final List<byte[]> columns = new ArrayList<>();
+
+        <E> void ints(List<E> rows, ToIntFunction<E> field) {
+            ByteBuffer column = ByteBuffer.allocate(rows.size() * 4);
+            for (E row : rows) {
+                column.putInt(field.applyAsInt(row));
+            }
+            columns.add(column.array());
+        }
+
+        <E> void doubles(List<E> rows, ToDoubleFunction<E> field) {
+            ByteBuffer column = ByteBuffer.allocate(rows.size() * 8);
+            for (E row : rows) {
+                column.putDouble(field.applyAsDouble(row));
+            }
+            columns.add(column.array());
+        }
+
+        <E> void dates(List<E> rows, Function<E, LocalDate> field) {
+            ByteBuffer column = ByteBuffer.allocate(rows.size() * 4);
+            for (E row : rows) {
+                LocalDate date = field.apply(row);
+                column.putInt(date == null ? NO_DATE : Math.toIntExact(date.toEpochDay()));
+            }
+            columns.add(column.array());
+        }
+
+        /**
+         * [dictionary size][(length, UTF-8 bytes) per distinct value][code per row]
+         */
+        <E> void strings(List<E> rows, Function<E, String> field) throws IOException {
+            Map<String, Integer> codes = new HashMap<>();
+            List<String> dictionary = new ArrayList<>();
+            int[] rowCodes = new int[rows.size()];
+            for (int i = 0; i < rowCodes.length; i++) {
+                String value = field.apply(rows.get(i));
+                if (value == null) {
+                    rowCodes[i] = NULL_STRING;
+                    continue;
+                }
+                Integer code = codes.get(value);
+                if (code == null) {
+                    code = dictionary.size();
+                    codes.put(value, code);
+                    dictionary.add(value);
+                }
+                rowCodes[i] = code;
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(dictionary.size());
+            for (String value : dictionary) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf8.length);
+                out.write(utf8);
+            }
+            for (int code : rowCodes) {
+                out.writeInt(code);
+            }
+            columns.add(bytes.toByteArray());
+        }
+
+        byte[] toByteArray() {
+            int tableBytes = 4 + columns.size() * 4;
+            int size = tableBytes;
+            for (byte[] column : columns) {
+                size += column.length;
+            }
+            ByteBuffer block = ByteBuffer.allocate(size);
+            block.putInt(columns.size());
+            int offset = tableBytes;
+            for (byte[] column : columns) {
+                block.putInt(offset);
+                offset += column.length;
+            }
+            for (byte[] column : columns) {
+                block.put(column);
+            }
+            return block.array();
+        }
+    }
+
+    /**
+     * Reads whole columns of one block straight from the mapped file.
+     */
+    private static class BlockReader {
+        private final ByteBuffer data;
+        private final int start;
+        private final int columnCount;
+        final int rows;
+
+        BlockReader(ByteBuffer data, int start, int rows) {
+            this.data = data;
+            this.start = start;
+            this.rows = rows;
+            this.columnCount = data.getInt(start);
+        }
+
+        private ByteBuffer column(int index) {
+            if (index >= columnCount) {
+                throw new IllegalArgumentException("missing column " + index);
+            }
+            int position = start + data.getInt(start + 4 + index * 4);
+            return data.duplicate().position(position);
+        }
+
+        int[] ints(int index) {
+            int[] values = new int[rows];
+            column(index).asIntBuffer().get(values);
+            return values;
+        }
+
+        double[] doubles(int index) {
+            double[] values = new double[rows];
+            column(index).asDoubleBuffer().get(values);
+            return values;
+        }
+
+        LocalDate[] dates(int index) {
+            int[] days = ints(index);
+            LocalDate[] values = new LocalDate[rows];
+            for (int i = 0; i < rows; i++) {
+                values[i] = days[i] == NO_DATE ? null : LocalDate.ofEpochDay(days[i]);
+            }
+            return values;
+        }
+
+        String[] strings(int index) {
+            ByteBuffer column = column(index);
+            String[] dictionary = new String[column.getInt()];
+            byte[] scratch = new byte[64];
+            for (int i = 0; i < dictionary.length; i++) {
+                int length = column.getInt();
+                if (length > scratch.length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                column.get(scratch, 0, length);
+                dictionary[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+            int[] codes = new int[rows];
+            column.asIntBuffer().get(codes);
+            String[] values = new String[rows];
+            for (int i = 0; i < rows; i++) {
+                values[i] = codes[i] == NULL_STRING ? null : dictionary[codes[i]];
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.studymate.persistence;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small fixed-size JDBC connection pool used by {@link SqlAppStateRepository}.
+ *
+ * Connections are opened lazily up to maxSize and handed out as
+ * {@link PooledConnection}s; closing one returns it to the pool. Idle
+ * connections are reused most-recently-used first, optionally validated on
+ * borrow, and closed by a background sweep once they have been idle longer
+ * than the idle timeout. Each connection keeps its own cache of prepared
+ * statements.
+ */
+public class ConnectionPool implements Closeable {
+
+    private static final int STATEMENT_CACHE_SIZE = 32;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long borrowTimeoutMs;
+    private final boolean validateOnBorrow;
+
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private int openCount;
+    private boolean closed;
+    private final ScheduledExecutorService evictor;
+
+    public ConnectionPool(String url, String user, String password, int maxSize,
+                          long idleTimeoutMs, long borrowTimeoutMs, boolean validateOnBorrow) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = Math.max(1, maxSize);
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.validateOnBorrow = validateOnBorrow;
+
+        if (idleTimeoutMs > 0) {
+            evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "StudyMate-PoolEvictor");
+                t.setDaemon(true);
+                return t;
+            });
+            long period = Math.max(1000, idleTimeoutMs / 2);
+            evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            evictor = null;
+        }
+    }
+
+    /**
+     * Takes an idle connection, opens a new one if the pool is not full, or
+     * waits up to the borrow timeout for one to be returned.
+     */
+    public PooledConnection borrow() throws SQLException {
+        long deadline = System.currentTimeMillis() + borrowTimeoutMs;
+        while (true) {
+            PooledConnection candidate = null;
+            boolean open = false;
+            synchronized (this) {
+                while (candidate == null && !open) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed");
+                    }
+                    if (!idle.isEmpty()) {
+                        candidate = idle.pollFirst();
+                    } else if (openCount < maxSize) {
+                        openCount++;
+                        open = true;
+                    } else {
+                        long remaining = deadline - System.currentTimeMillis();
+                        if (remaining <= 0) {
+                            throw new SQLException("Timed out after " + borrowTimeoutMs
+                                    + " ms waiting for a pooled connection (size " + maxSize + ")");
+                        }
+                        try {
+                            wait(remaining);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException("Interrupted while waiting for a connection", e);
+                        }
+                    }
+                }
+            }
+
+            if (open) {
+                try {
+                    return new PooledConnection(DriverManager.getConnection(url, user, password)).lend();
+                } catch (SQLException e) {
+                    discarded();
+                    throw e;
+                }
+            }
+            if (!validateOnBorrow || candidate.isValid()) {
+                return candidate.lend();
+            }
+            candidate.closeQuietly(); // broken; try the next one
+            discarded();
+        }
+    }
+
+    /**
+     * @return number of physical connections currently open (idle or borrowed)
+     */
+    public synchronized int getOpenCount() {
+        return openCount;
+    }
+
+    public synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    private void release(PooledConnection connection) {
+        if (!connection.reset()) {
+            connection.closeQuietly();
+            discarded();
+            return;
+        }
+        synchronized (this) {
+            if (!closed) {
+                connection.lastUsed = System.currentTimeMillis();
+                idle.addFirst(connection);
+                notifyAll();
+                return;
+            }
+        }
+        connection.closeQuietly();
+        discarded();
+    }
+
+    private synchronized void discarded() {
+        openCount--;
+        notifyAll();
+    }
+
+    /**
+     * Closes connections that have been idle longer than the idle timeout.
+     * The least recently used ones sit at the end of the deque.
+     */
+    void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+        Deque<PooledConnection> expired = new ArrayDeque<>();
+        synchronized (this) {
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                PooledConnection c = it.next();
+                if (c.lastUsed > cutoff) {
+                    break;
+                }
+                it.remove();
+                expired.add(c);
+            }
+        }
+        for (PooledConnection c : expired) {
+            c.closeQuietly();
+            discarded();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (evictor != null) {
+            evictor.shutdown();
+        }
+        Deque<PooledConnection> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayDeque<>(idle);
+            idle.clear();
+            notifyAll();
+        }
+        for (PooledConnection c : toClose) {
+            c.closeQuietly();
+            discarded();
+        }
+    }
+
+    /**
+     * A borrowed connection. {@link #close()} hands it back to the pool
+     * instead of closing it. Statements from {@link #prepare(String)} are
+     * owned by the cache and must not be closed by the caller.
+     */
+    public class PooledConnection implements AutoCloseable {
+
+        private final Connection connection;
+        private long lastUsed;
+        private boolean lent;
+        private final Map<String, PreparedStatement> statements =
+                new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                        if (size() > STATEMENT_CACHE_SIZE) {
+                            closeStatement(eldest.getValue());
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        private PooledConnection lend() {
+            lent = true;
+            return this;
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        /**
+         * Returns the cached statement for this SQL, preparing it on first use.
+         */
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement ps = statements.get(sql);
+            if (ps == null || ps.isClosed()) {
+                ps = connection.prepareStatement(sql);
+                statements.put(sql, ps);
+            }
+            return ps;
+        }
+
+        private boolean isValid() {
+            try {
+                return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Puts the connection back into a clean state before it is reused.
+         *
+         * @return false if the connection is no longer usable
+         */
+        private boolean reset() {
+            try {
+                if (connection.isClosed()) {
+                    return false;
+                }
+                if (!connection.getAutoCommit()) {
+                    connection.rollback(); // anything the borrower did not commit
+                    connection.setAutoCommit(true);
+                }
+                for (PreparedStatement ps : statements.values()) {
+                    ps.clearBatch();
+                    ps.clearParameters();
+                }
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private void closeStatement(PreparedStatement ps) {
+            try {
+                ps.close();
+            } catch (SQLException e) {
+                // ignore, the connection is what matters
+            }
+        }
+
+        private void closeQuietly() {
+            statements.values().forEach(this::closeStatement);
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing pooled connection: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            if (lent) {
+                lent = false;
+                release(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.studymate.persistence;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decoders for single CSV fields held in a ByteBuffer (usually a mapped
+ * file). Numbers and ISO dates are decoded straight from the bytes; only
+ * text fields become Strings.
+ *
+ * Also the String-side tokenizer used by the RecordParsers. Both follow the
+ * quoting written by {@link CsvRecordWriter}: a field that starts with a
+ * double quote runs to the matching closing quote, with "" standing for
+ * one quote. A quote anywhere else is an ordinary character, so files
+ * written before quoting was introduced still load.
+ */
+public class CsvFields {
+
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private CsvFields() {
+    }
+
+    public static int parseInt(ByteBuffer b, int offset, int length) {
+        if (length == 0) {
+            throw new NumberFormatException("Empty number field");
+        }
+        int i = offset;
+        int end = offset + length;
+        boolean negative = false;
+        byte first = b.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+            if (i == end) {
+                throw new NumberFormatException("For input string: \"" + string(b, offset, length) + "\"");
+            }
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = b.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + string(b, offset, length) + "\"");
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("Out of int range: \"" + string(b, offset, length) + "\"");
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Out of int range: \"" + string(b, offset, length) + "\"");
+        }
+        return (int) value;
+    }
+
+    public static double parseDouble(ByteBuffer b, int offset, int length) {
+        // Rare in our files (only test scores); the JDK parser handles all the edge cases.
+        return Double.parseDouble(string(b, offset, length));
+    }
+
+    /**
+     * Decodes an ISO-8601 date (yyyy-MM-dd) without building a String.
+     */
+    public static LocalDate parseDate(ByteBuffer b, int offset, int length) {
+        if (length != 10 || b.get(offset + 4) != '-' || b.get(offset + 7) != '-') {
+            throw new IllegalArgumentException("Invalid date: " + string(b, offset, length));
+        }
+        int year = digits(b, offset, 4);
+        int month = digits(b, offset + 5, 2);
+        int day = digits(b, offset + 8, 2);
+        return LocalDate.of(year, month, day);
+    }
+
+    private static int digits(ByteBuffer b, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = b.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("Invalid date digit at " + i);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Decodes a UTF-8 text field, removing the quotes if it is quoted.
+     */
+    public static String string(ByteBuffer b, int offset, int length) {
+        if (length > 0 && b.get(offset) == '"') {
+            int end = offset + length;
+            int contentEnd = (length > 1 && b.get(end - 1) == '"') ? end - 1 : end;
+            return unescape(decode(b, offset + 1, contentEnd - offset - 1));
+        }
+        return decode(b, offset, length);
+    }
+
+    private static String decode(ByteBuffer b, int offset, int length) {
+        if (b.hasArray()) {
+            return new String(b.array(), b.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        }
+        byte[] scratch = SCRATCH.get();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+            SCRATCH.set(scratch);
+        }
+        b.get(offset, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Text of fields [from, fieldCount) including the commas between them;
+     * used for a trailing free-text field that may itself contain commas.
+     */
+    public static String rest(ByteBuffer b, int[] offsets, int[] lengths, int from, int fieldCount) {
+        if (from == fieldCount - 1) {
+            return string(b, offsets[from], lengths[from]); // a single (possibly quoted) field
+        }
+        int start = offsets[from];
+        int end = offsets[fieldCount - 1] + lengths[fieldCount - 1];
+        return string(b, start, end - start);
+    }
+
+    private static String unescape(String content) {
+        return content.indexOf('"') < 0 ? content : content.replace("\"\"", "\"");
+    }
+
+    // ---------------- String tokenizer ----------------
+
+    /**
+     * Splits one record into its fields, removing quotes. Unlike
+     * String.split(",") this keeps trailing empty fields.
+     */
+    public static String[] split(String record) {
+        List<String> fields = new ArrayList<>(8);
+        StringBuilder quotedField = null;
+        int i = 0;
+        int n = record.length();
+        while (true) {
+            if (i < n && record.charAt(i) == '"') {
+                if (quotedField == null) {
+                    quotedField = new StringBuilder();
+                }
+                quotedField.setLength(0);
+                i++;
+                while (i < n) {
+                    char c = record.charAt(i++);
+                    if (c == '"') {
+                        if (i < n && record.charAt(i) == '"') {
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+                    quotedField.append(c);
+                }
+                // anything between the closing quote and the comma is kept
+                int comma = record.indexOf(',', i);
+                int fieldEnd = comma < 0 ? n : comma;
+                quotedField.append(record, i, fieldEnd);
+                fields.add(quotedField.toString());
+                i = fieldEnd;
+            } else {
+                int comma = record.indexOf(',', i);
+                int fieldEnd = comma < 0 ? n : comma;
+                fields.add(record.substring(i, fieldEnd));
+                i = fieldEnd;
+            }
+            if (i >= n) {
+                break;
+            }
+            i++; // skip the comma
+            if (i == n) {
+                fields.add("");
+                break;
+            }
+        }
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * @return true if the text ends inside a quoted field, i.e. the record
+     *         continues on the next line
+     */
+    public static boolean endsInsideQuotes(CharSequence record) {
+        boolean quoted = false;
+        boolean fieldStart = true;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else {
+                fieldStart = (c == ',' || c == '\n');
+            }
+        }
+        return quoted;
+    }
+}
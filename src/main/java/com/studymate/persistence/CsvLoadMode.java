@@ -0,0 +1,20 @@
+package com.studymate.persistence;
+
+/**
+ * How {@link CsvPersistenceManager#loadAll()} reads its file
+ * (studymate.csv.load-mode).
+ */
+public enum CsvLoadMode {
+
+    /** Line by line through a BufferedReader and the String RecordParser. */
+    BUFFERED,
+
+    /** Memory-mapped, tokenized in place with the FieldRecordParser. */
+    MAPPED,
+
+    /**
+     * Memory-mapped and split into newline-aligned chunks that are parsed
+     * on a ForkJoinPool, then merged back in file order.
+     */
+    PARALLEL
+}
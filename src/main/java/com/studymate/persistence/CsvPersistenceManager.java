@@ -4,25 +4,89 @@ import com.studymate.interfaces.Persistable;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Generic CSV persistence manager used for Lab 5 style text-file
  * storage of entities that implement {@link Persistable}.
+ *
+ * The file can also be loaded in {@link CsvLoadMode#MAPPED} mode, which
+ * tokenizes the memory-mapped bytes directly, or {@link CsvLoadMode#PARALLEL}
+ * mode, which does the same on several cores. Both use the
+ * {@link FieldRecordParser} when one is supplied; otherwise each line is
+ * decoded to a String for the RecordParser.
  */
 public class CsvPersistenceManager<T extends Persistable> {
 
     private final Path filePath;
     private final RecordParser<T> parser;
+    private final FieldRecordParser<T> fieldParser;
+    private CsvLoadMode loadMode = CsvLoadMode.BUFFERED;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
 
     public CsvPersistenceManager(String filePath, RecordParser<T> parser) {
+        this(filePath, parser, null);
+    }
+
+    public CsvPersistenceManager(String filePath, RecordParser<T> parser, FieldRecordParser<T> fieldParser) {
         this.filePath = Paths.get(filePath);
         this.parser = parser;
+        // Without a field parser, rebuild the line from the decoded fields for the String parser.
+        this.fieldParser = (fieldParser != null) ? fieldParser
+                : (data, offsets, lengths, count) -> parser.parse(toLine(data, offsets, lengths, count));
+    }
+
+    /**
+     * The CSV file StudyMate keeps for one entity type, named after its JSON
+     * section (dataDir/courses.csv, dataDir/habitLogs.csv, ...).
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Persistable> CsvPersistenceManager<T> forType(EntityType type, Path dataDir) {
+        String file = dataDir.resolve(type.getSectionName() + ".csv").toString();
+        return new CsvPersistenceManager<>(file,
+                line -> (T) CsvRecordCodec.parse(type, line),
+                (data, offsets, lengths, count) -> (T) CsvRecordCodec.parseFields(type, data, offsets, lengths, count));
+    }
+
+    public Path getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Parses a single record as written by {@link Persistable#writeFields}.
+     */
+    public T parseRecord(String line) {
+        return parser.parse(line);
+    }
+
+    public CsvLoadMode getLoadMode() {
+        return loadMode;
+    }
+
+    public void setLoadMode(CsvLoadMode loadMode) {
+        this.loadMode = loadMode;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Number of ForkJoinPool workers used in PARALLEL mode.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
     }
 
     /**
@@ -34,19 +98,120 @@ public class CsvPersistenceManager<T extends Persistable> {
             return result;
         }
 
+        if (loadMode == CsvLoadMode.MAPPED) {
+            MappedCsvReader.read(filePath, fieldParser, result::add);
+            return result;
+        }
+        if (loadMode == CsvLoadMode.PARALLEL) {
+            MappedCsvReader.readParallel(filePath, fieldParser, parallelism, result::add);
+            return result;
+        }
+
         try (BufferedReader reader = Files.newBufferedReader(filePath)) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-                result.add(parser.parse(line));
-            }
+            forEachRecord(reader, result::add);
         }
         return result;
     }
 
+    /**
+     * Hands each entity to the consumer as it is read, without collecting
+     * them, so memory use does not grow with the file. PARALLEL mode reads
+     * mapped on the calling thread here, since order matters to the caller.
+     */
+    public void forEach(Consumer<T> consumer) throws IOException {
+        if (!Files.exists(filePath)) {
+            return;
+        }
+        if (loadMode != CsvLoadMode.BUFFERED) {
+            MappedCsvReader.read(filePath, fieldParser, consumer);
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(filePath)) {
+            forEachRecord(reader, consumer);
+        }
+    }
+
+    /**
+     * Splits the text into records at line breaks outside quoted fields.
+     * Line breaks inside a quoted field are kept exactly as written (\n or
+     * \r\n), which readLine() would not do.
+     */
+    private void forEachRecord(BufferedReader reader, Consumer<T> consumer) throws IOException {
+        char[] buffer = new char[8192];
+        StringBuilder record = new StringBuilder(256);
+        boolean quoted = false;
+        boolean closedQuote = false; // just saw a '"' in a quoted field: end of field or an escaped quote
+        boolean fieldStart = true;
+        boolean skipLineFeed = false;
+        int n;
+        while ((n = reader.read(buffer)) != -1) {
+            for (int i = 0; i < n; i++) {
+                char c = buffer[i];
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (c == '\n') continue;
+                }
+                if (quoted) {
+                    record.append(c);
+                    if (c == '"') {
+                        quoted = false;
+                        closedQuote = true;
+                    }
+                    continue;
+                }
+                if (closedQuote) {
+                    closedQuote = false;
+                    if (c == '"') {
+                        record.append(c);
+                        quoted = true;
+                        continue;
+                    }
+                }
+                if (c == '\n' || c == '\r') {
+                    emit(record, consumer);
+                    fieldStart = true;
+                    skipLineFeed = (c == '\r');
+                } else {
+                    record.append(c);
+                    if (c == '"' && fieldStart) {
+                        quoted = true;
+                    }
+                    fieldStart = (c == ',');
+                }
+            }
+        }
+        if (quoted) {
+            throw new IOException("Unterminated quoted field at the end of " + filePath);
+        }
+        emit(record, consumer);
+    }
+
+    private void emit(StringBuilder record, Consumer<T> consumer) {
+        String line = record.toString().trim();
+        record.setLength(0);
+        if (!line.isEmpty()) {
+            consumer.accept(parser.parse(line));
+        }
+    }
+
+    // Each field decoded (and unquoted) on its own, then quoted again as needed.
+    private static String toLine(ByteBuffer data, int[] offsets, int[] lengths, int count) {
+        StringWriter line = new StringWriter();
+        try (CsvRecordWriter out = new CsvRecordWriter(line, 256)) {
+            for (int i = 0; i < count; i++) {
+                out.field(CsvFields.string(data, offsets[i], lengths[i]));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // a StringWriter does not fail
+        }
+        return line.toString();
+    }
+
     /**
      * Writes all entities to the CSV file, overwriting any existing content.
+     * Each entity's fields go straight into a {@link CsvRecordWriter}.
+     * The records go to a temp file that then replaces the old one, so a
+     * reader or a crash never sees a half-written file.
      */
     public void saveAll(List<T> entities) throws IOException {
         Path parent = filePath.getParent();
@@ -54,10 +219,14 @@ public class CsvPersistenceManager<T extends Persistable> {
             Files.createDirectories(parent);
         }
 
-        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(filePath))) {
+        Path temp = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        try (CsvRecordWriter writer = new CsvRecordWriter(
+                new OutputStreamWriter(Files.newOutputStream(temp), StandardCharsets.UTF_8))) {
             for (T entity : entities) {
-                writer.println(entity.toCsvRecord());
+                entity.writeFields(writer);
+                writer.endRecord();
             }
         }
+        Files.move(temp, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
 }
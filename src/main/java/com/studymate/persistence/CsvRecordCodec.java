@@ -0,0 +1,147 @@
+package com.studymate.persistence;
+
+import com.studymate.interfaces.Persistable;
+import com.studymate.model.Assignment;
+import com.studymate.model.Course;
+import com.studymate.model.HabitLog;
+import com.studymate.model.Note;
+import com.studymate.model.StudyHabit;
+import com.studymate.model.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Reads single entities from CSV records, either from a line or from the
+ * field offsets of the memory-mapped loader. Writing goes through
+ * {@link Persistable#writeFields} into a {@link CsvRecordWriter}, in the
+ * same column order.
+ */
+public class CsvRecordCodec {
+
+    private CsvRecordCodec() {
+    }
+
+    /**
+     * One record as a line without the line break, quoted as in the files.
+     * Files are written through a shared CsvRecordWriter instead.
+     */
+    public static String toLine(Object entity) {
+        StringWriter line = new StringWriter();
+        try (CsvRecordWriter out = new CsvRecordWriter(line, 256)) {
+            ((Persistable) entity).writeFields(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // a StringWriter does not fail
+        }
+        return line.toString();
+    }
+
+    /**
+     * Parses one record of the given type from a (possibly quoted) line.
+     */
+    public static Object parse(EntityType type, String line) {
+        String[] parts = CsvFields.split(line);
+        switch (type) {
+            case COURSE: {
+                requireFields(type, parts.length >= 6);
+                // Reconstruct description if it contained commas (files written before quoting)
+                String description = parts[5];
+                if (parts.length > 6) {
+                    description = String.join(",", Arrays.copyOfRange(parts, 5, parts.length));
+                }
+                return new Course(Integer.parseInt(parts[0]), parts[1], parts[2], parts[3],
+                        Integer.parseInt(parts[4]), description);
+            }
+            case ASSIGNMENT:
+                requireFields(type, parts.length == 7);
+                return new Assignment(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), parts[2], parts[3],
+                        LocalDate.parse(parts[4]), Integer.parseInt(parts[5]), parts[6]);
+            case NOTE:
+                requireFields(type, parts.length == 5);
+                return new Note(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), parts[2], parts[3],
+                        LocalDate.parse(parts[4]));
+            case TEST:
+                requireFields(type, parts.length == 6);
+                return new Test(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), parts[2],
+                        LocalDate.parse(parts[3]), Double.parseDouble(parts[4]), Double.parseDouble(parts[5]));
+            case HABIT:
+                requireFields(type, parts.length == 4);
+                return new StudyHabit(Integer.parseInt(parts[0]), parts[1], parts[2], Integer.parseInt(parts[3]));
+            default:
+                requireFields(type, parts.length == 5);
+                return new HabitLog(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                        LocalDate.parse(parts[2]), Integer.parseInt(parts[3]), parts[4]);
+        }
+    }
+
+    /**
+     * Zero-copy variant for the memory-mapped CSV loader: decodes the fields
+     * straight from the mapped bytes.
+     */
+    public static Object parseFields(EntityType type, ByteBuffer data, int[] offsets, int[] lengths, int fieldCount) {
+        switch (type) {
+            case COURSE:
+                requireFields(type, fieldCount >= 6);
+                return new Course(
+                        CsvFields.parseInt(data, offsets[0], lengths[0]),
+                        CsvFields.string(data, offsets[1], lengths[1]),
+                        CsvFields.string(data, offsets[2], lengths[2]),
+                        CsvFields.string(data, offsets[3], lengths[3]),
+                        CsvFields.parseInt(data, offsets[4], lengths[4]),
+                        // description may contain unquoted commas in older files
+                        CsvFields.rest(data, offsets, lengths, 5, fieldCount));
+            case ASSIGNMENT:
+                requireFields(type, fieldCount == 7);
+                return new Assignment(
+                        CsvFields.parseInt(data, offsets[0], lengths[0]),
+                        CsvFields.parseInt(data, offsets[1], lengths[1]),
+                        CsvFields.string(data, offsets[2], lengths[2]),
+                        CsvFields.string(data, offsets[3], lengths[3]),
+                        CsvFields.parseDate(data, offsets[4], lengths[4]),
+                        CsvFields.parseInt(data, offsets[5], lengths[5]),
+                        CsvFields.string(data, offsets[6], lengths[6]));
+            case NOTE:
+                requireFields(type, fieldCount == 5);
+                return new Note(
+                        CsvFields.parseInt(data, offsets[0], lengths[0]),
+                        CsvFields.parseInt(data, offsets[1], lengths[1]),
+                        CsvFields.string(data, offsets[2], lengths[2]),
+                        CsvFields.string(data, offsets[3], lengths[3]),
+                        CsvFields.parseDate(data, offsets[4], lengths[4]));
+            case TEST:
+                requireFields(type, fieldCount == 6);
+                return new Test(
+                        CsvFields.parseInt(data, offsets[0], lengths[0]),
+                        CsvFields.parseInt(data, offsets[1], lengths[1]),
+                        CsvFields.string(data, offsets[2], lengths[2]),
+                        CsvFields.parseDate(data, offsets[3], lengths[3]),
+                        CsvFields.parseDouble(data, offsets[4], lengths[4]),
+                        CsvFields.parseDouble(data, offsets[5], lengths[5]));
+            case HABIT:
+                requireFields(type, fieldCount == 4);
+                return new StudyHabit(
+                        CsvFields.parseInt(data, offsets[0], lengths[0]),
+                        CsvFields.string(data, offsets[1], lengths[1]),
+                        CsvFields.string(data, offsets[2], lengths[2]),
+                        CsvFields.parseInt(data, offsets[3], lengths[3]));
+            default:
+                requireFields(type, fieldCount == 5);
+                return new HabitLog(
+                        CsvFields.parseInt(data, offsets[0], lengths[0]),
+                        CsvFields.parseInt(data, offsets[1], lengths[1]),
+                        CsvFields.parseDate(data, offsets[2], lengths[2]),
+                        CsvFields.parseInt(data, offsets[3], lengths[3]),
+                        CsvFields.string(data, offsets[4], lengths[4]));
+        }
+    }
+
+    private static void requireFields(EntityType type, boolean valid) {
+        if (!valid) {
+            throw new IllegalArgumentException("Invalid " + type.getEntityClass().getSimpleName() + " record format.");
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.studymate.persistence;
+
+import com.studymate.interfaces.FieldWriter;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+
+/**
+ * Streams CSV records field by field into a reusable char buffer, with
+ * RFC 4180 quoting: a text field is wrapped in double quotes when it
+ * contains a comma, quote or line break (or starts or ends with
+ * whitespace, which the loaders trim), and quotes inside it are doubled.
+ *
+ * Numbers and dates are formatted straight into the buffer, so writing a
+ * record creates no intermediate Strings. Records end with '\n', like the
+ * PrintWriter.println() output the loaders have always read.
+ */
+public class CsvRecordWriter implements FieldWriter, Flushable, Closeable {
+
+    private final Writer out;
+    private final char[] buffer;
+    private int position;
+    private boolean atRecordStart = true;
+
+    public CsvRecordWriter(Writer out) {
+        this(out, 8192);
+    }
+
+    public CsvRecordWriter(Writer out, int bufferSize) {
+        this.out = out;
+        this.buffer = new char[Math.max(64, bufferSize)];
+    }
+
+    @Override
+    public CsvRecordWriter field(int value) throws IOException {
+        separator();
+        if (value == Integer.MIN_VALUE) {
+            raw("-2147483648");
+            return this;
+        }
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        ensure(10);
+        int digits = 1;
+        for (int v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+        return this;
+    }
+
+    @Override
+    public CsvRecordWriter field(double value) throws IOException {
+        separator();
+        raw(Double.toString(value)); // same text as the old string concatenation
+        return this;
+    }
+
+    /**
+     * Writes an ISO-8601 date (yyyy-MM-dd); null becomes an empty field.
+     */
+    @Override
+    public CsvRecordWriter field(LocalDate date) throws IOException {
+        separator();
+        if (date == null) {
+            return this;
+        }
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            raw(date.toString());
+            return this;
+        }
+        ensure(10);
+        pad(year, 4);
+        buffer[position++] = '-';
+        pad(date.getMonthValue(), 2);
+        buffer[position++] = '-';
+        pad(date.getDayOfMonth(), 2);
+        return this;
+    }
+
+    /**
+     * Writes a text field, quoted only if it has to be; null becomes an
+     * empty field.
+     */
+    @Override
+    public CsvRecordWriter field(String value) throws IOException {
+        separator();
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        if (!needsQuotes(value)) {
+            raw(value);
+            return this;
+        }
+        put('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                put('"');
+            }
+            put(c);
+        }
+        put('"');
+        return this;
+    }
+
+    public void endRecord() throws IOException {
+        put('\n');
+        atRecordStart = true;
+    }
+
+    static boolean needsQuotes(String value) {
+        if (value.charAt(0) <= ' ' || value.charAt(value.length() - 1) <= ' ') {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void separator() throws IOException {
+        if (atRecordStart) {
+            atRecordStart = false;
+        } else {
+            put(',');
+        }
+    }
+
+    private void pad(int value, int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+
+    private void raw(String s) throws IOException {
+        int from = 0;
+        while (from < s.length()) {
+            if (position == buffer.length) {
+                drain();
+            }
+            int n = Math.min(s.length() - from, buffer.length - position);
+            s.getChars(from, from + n, buffer, position);
+            position += n;
+            from += n;
+        }
+    }
+
+    private void put(char c) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = c;
+    }
+
+    private void ensure(int chars) throws IOException {
+        if (buffer.length - position < chars) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+}
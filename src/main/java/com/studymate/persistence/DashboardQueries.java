@@ -0,0 +1,21 @@
+package com.studymate.persistence;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Dashboard queries that a backend can answer itself instead of the service
+ * scanning every assignment in memory. Implemented by
+ * {@link SqlAppStateRepository} on top of indexed columns.
+ */
+public interface DashboardQueries {
+
+    /**
+     * Ids of the assignments that are not completed and due on or after the
+     * given date, ordered by due date, priority and id: at most limit of
+     * them after skipping offset, of one course or (courseId null) of all.
+     */
+    List<Integer> findUpcomingAssignmentIds(LocalDate from, Integer courseId, int offset, int limit)
+            throws IOException;
+}
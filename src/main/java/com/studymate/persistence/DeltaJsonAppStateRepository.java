@@ -0,0 +1,320 @@
+package com.studymate.persistence;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON persistence that writes a full snapshot only now and then and small
+ * delta files in between.
+ *
+ * The base is an ordinary {@link JsonAppStateRepository} file tagged with a
+ * generation number. Each save() after that compares the state against the
+ * version stamps (64-bit content fingerprints) of what is already on disk
+ * and writes only the entities that were added or changed, plus the ids
+ * that were removed, to studymate.json.delta-GGGGGG-SSSSSS. load() reads the
+ * base and applies its deltas in sequence order.
+ *
+ * Once the chain is longer than maxDeltas files or maxDeltaBytes bytes, the
+ * next save compacts it: a new base with the next generation is written and
+ * the old deltas are deleted. Deltas left over from an older generation
+ * (a crash between the two steps) are ignored and cleaned up on load.
+ */
+public class DeltaJsonAppStateRepository implements AppStateRepository {
+
+    private static final String SEQUENCE = "sequence";
+    private static final String REMOVED = "removed";
+
+    private final JsonAppStateRepository base;
+    private final Path baseFile;
+    private final String deltaPrefix;
+    private final int maxDeltas;
+    private final long maxDeltaBytes;
+
+    // What is on disk, as of the last load() or save(); generation -1 = unknown.
+    private long generation = -1;
+    private int deltaCount;
+    private long deltaBytes;
+    private final Map<EntityType, Map<Integer, Long>> stamps = new EnumMap<>(EntityType.class);
+
+    private final ByteArrayOutputStream stampBuffer = new ByteArrayOutputStream(256);
+    private final BinaryRecordWriter stampOut = new BinaryRecordWriter(stampBuffer, 4096);
+
+    public DeltaJsonAppStateRepository(JsonAppStateRepository base, int maxDeltas, long maxDeltaBytes) {
+        this.base = base;
+        this.baseFile = base.getFile();
+        this.deltaPrefix = baseFile.getFileName() + ".delta-";
+        this.maxDeltas = Math.max(1, maxDeltas);
+        this.maxDeltaBytes = maxDeltaBytes;
+    }
+
+    public int getDeltaCount() {
+        return deltaCount;
+    }
+
+    @Override
+    public synchronized void save(AppState state) throws IOException {
+        if (generation < 0 || deltaCount >= maxDeltas || deltaBytes >= maxDeltaBytes) {
+            compact(state);
+            return;
+        }
+
+        Map<EntityType, Map<Integer, Long>> current = stampsOf(state);
+        Map<EntityType, List<Object>> upserts = new EnumMap<>(EntityType.class);
+        Map<EntityType, List<Integer>> removed = new EnumMap<>(EntityType.class);
+        int changes = 0;
+        for (EntityType type : EntityType.values()) {
+            Map<Integer, Long> before = stamps.getOrDefault(type, Collections.emptyMap());
+            Map<Integer, Long> after = current.get(type);
+            List<Object> changed = new ArrayList<>();
+            for (Object entity : type.listIn(state)) {
+                int id = type.idOf(entity);
+                if (!after.get(id).equals(before.get(id))) {
+                    changed.add(entity);
+                }
+            }
+            List<Integer> gone = new ArrayList<>();
+            for (Integer id : before.keySet()) {
+                if (!after.containsKey(id)) {
+                    gone.add(id);
+                }
+            }
+            upserts.put(type, changed);
+            removed.put(type, gone);
+            changes += changed.size() + gone.size();
+        }
+        if (changes == 0) {
+            return;
+        }
+
+        int sequence = deltaCount + 1;
+        Path delta = deltaPath(generation, sequence);
+        writeDelta(delta, sequence, upserts, removed);
+        deltaCount = sequence;
+        deltaBytes += Files.size(delta);
+        stamps.clear();
+        stamps.putAll(current);
+    }
+
+    /**
+     * Writes a full base snapshot with the next generation and deletes all
+     * delta files.
+     */
+    public synchronized void compact(AppState state) throws IOException {
+        long next = Math.max(generation, base.readGeneration()) + 1;
+        base.save(state, next);
+        generation = next;
+        deleteDeltas(-1);
+        deltaCount = 0;
+        deltaBytes = 0;
+        stamps.clear();
+        stamps.putAll(stampsOf(state));
+    }
+
+    @Override
+    public synchronized AppState load() throws IOException {
+        Map<EntityType, Map<Integer, Object>> merged = new EnumMap<>(EntityType.class);
+        for (EntityType type : EntityType.values()) {
+            merged.put(type, new LinkedHashMap<>());
+        }
+        base.stream((type, entity) -> merged.get(type).put(type.idOf(entity), entity));
+        long loadedGeneration = base.readGeneration();
+
+        int applied = 0;
+        long bytes = 0;
+        if (loadedGeneration >= 0) {
+            for (int sequence : listDeltas(loadedGeneration)) {
+                if (sequence != applied + 1) {
+                    System.err.println("Delta " + deltaPath(loadedGeneration, sequence).getFileName()
+                            + " does not follow sequence " + applied + "; ignoring it and later deltas.");
+                    break;
+                }
+                Path delta = deltaPath(loadedGeneration, sequence);
+                applyDelta(delta, merged);
+                applied = sequence;
+                bytes += Files.size(delta);
+            }
+            deleteDeltas(loadedGeneration);
+        }
+
+        AppState state = new AppState();
+        for (EntityType type : EntityType.values()) {
+            type.listIn(state).addAll(merged.get(type).values());
+        }
+        generation = loadedGeneration;
+        deltaCount = applied;
+        deltaBytes = bytes;
+        stamps.clear();
+        stamps.putAll(stampsOf(state));
+        return state;
+    }
+
+    // ---------------- Version stamps ----------------
+
+    private Map<EntityType, Map<Integer, Long>> stampsOf(AppState state) throws IOException {
+        Map<EntityType, Map<Integer, Long>> result = new EnumMap<>(EntityType.class);
+        for (EntityType type : EntityType.values()) {
+            List<Object> list = type.listIn(state);
+            Map<Integer, Long> byId = new HashMap<>(list.size() * 2);
+            for (Object entity : list) {
+                byId.put(type.idOf(entity), stamp(entity));
+            }
+            result.put(type, byId);
+        }
+        return result;
+    }
+
+    /**
+     * FNV-1a hash of the entity's binary record encoding, which covers every field.
+     */
+    private long stamp(Object entity) throws IOException {
+        stampBuffer.reset();
+        BinaryRecordCodec.write(stampOut, entity);
+        stampOut.flush();
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : stampBuffer.toByteArray()) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // ---------------- Delta files ----------------
+
+    private void writeDelta(Path delta, int sequence, Map<EntityType, List<Object>> upserts,
+                            Map<EntityType, List<Integer>> removed) throws IOException {
+        Path temp = delta.resolveSibling(delta.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8);
+             JsonStreamWriter writer = new JsonStreamWriter(out, false)) {
+            writer.beginObject();
+            writer.name(JsonAppStateRepository.GENERATION).value(generation);
+            writer.name(SEQUENCE).value(sequence);
+            for (EntityType type : EntityType.values()) {
+                List<Object> changed = upserts.get(type);
+                if (!changed.isEmpty()) {
+                    writer.name(type.getSectionName()).beginArray();
+                    for (Object entity : changed) {
+                        JsonEntityCodec.write(writer, type, entity);
+                    }
+                    writer.endArray();
+                }
+            }
+            writer.name(REMOVED).beginObject();
+            for (EntityType type : EntityType.values()) {
+                List<Integer> gone = removed.get(type);
+                if (!gone.isEmpty()) {
+                    writer.name(type.getSectionName()).beginArray();
+                    for (int id : gone) {
+                        writer.value(id);
+                    }
+                    writer.endArray();
+                }
+            }
+            writer.endObject();
+            writer.endObject();
+        }
+        Files.move(temp, delta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void applyDelta(Path delta, Map<EntityType, Map<Integer, Object>> merged) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(delta, StandardCharsets.UTF_8);
+             JsonStreamReader reader = new JsonStreamReader(in)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                EntityType type = EntityType.fromSectionName(name);
+                if (type != null) {
+                    Map<Integer, Object> byId = merged.get(type);
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        Object entity = JsonEntityCodec.read(reader, type);
+                        byId.put(type.idOf(entity), entity);
+                    }
+                    reader.endArray();
+                } else if (REMOVED.equals(name)) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        EntityType removedType = EntityType.fromSectionName(reader.nextName());
+                        if (removedType == null) {
+                            reader.skipValue();
+                            continue;
+                        }
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            merged.get(removedType).remove(reader.nextInt());
+                        }
+                        reader.endArray();
+                    }
+                    reader.endObject();
+                } else {
+                    reader.skipValue(); // generation / sequence, already known from the file name
+                }
+            }
+            reader.endObject();
+        }
+    }
+
+    private Path deltaPath(long gen, int sequence) {
+        return baseFile.resolveSibling(String.format("%s%06d-%06d", deltaPrefix, gen, sequence));
+    }
+
+    /**
+     * @return sequence numbers of the deltas belonging to this generation, sorted
+     */
+    private List<Integer> listDeltas(long gen) throws IOException {
+        List<Integer> sequences = new ArrayList<>();
+        String prefix = String.format("%s%06d-", deltaPrefix, gen);
+        for (Path p : deltaFiles()) {
+            String name = p.getFileName().toString();
+            if (name.startsWith(prefix)) {
+                try {
+                    sequences.add(Integer.parseInt(name.substring(prefix.length())));
+                } catch (NumberFormatException e) {
+                    // not one of ours (e.g. a leftover .tmp)
+                }
+            }
+        }
+        Collections.sort(sequences);
+        return sequences;
+    }
+
+    /**
+     * Deletes delta files (and temp files) that do not belong to keepGeneration.
+     */
+    private void deleteDeltas(long keepGeneration) throws IOException {
+        String keep = keepGeneration >= 0 ? String.format("%s%06d-", deltaPrefix, keepGeneration) : null;
+        for (Path p : deltaFiles()) {
+            String name = p.getFileName().toString();
+            if (keep == null || !name.startsWith(keep) || name.endsWith(".tmp")) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    private List<Path> deltaFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        Path dir = baseFile.toAbsolutePath().getParent();
+        if (dir == null || !Files.isDirectory(dir)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, deltaPrefix + "*")) {
+            for (Path p : stream) {
+                files.add(p);
+            }
+        }
+        return files;
+    }
+}
@@ -0,0 +1,39 @@
+package com.studymate.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Target of a {@link BackendMigrator}: receives entities in batches of one
+ * type and makes them visible on {@link #finish()}. close() without
+ * finish() abandons whatever has not been committed.
+ */
+public interface EntityBatchWriter extends Closeable {
+
+    /**
+     * @return true if every batch is durable once write() returns, so an
+     *         interrupted migration can continue after the last batch
+     */
+    boolean isResumable();
+
+    /**
+     * @return false if the target has nowhere to put entities of this type
+     */
+    default boolean accepts(EntityType type) {
+        return true;
+    }
+
+    /**
+     * Called once before the first batch.
+     *
+     * @param resuming true if an interrupted run is being continued, so
+     *                 what the target already holds is kept
+     */
+    default void start(boolean resuming) throws IOException {
+    }
+
+    void write(EntityType type, List<Object> batch) throws IOException;
+
+    void finish() throws IOException;
+}
@@ -0,0 +1,12 @@
+package com.studymate.persistence;
+
+import java.io.IOException;
+
+/**
+ * Receives entities one at a time from a streaming reader, so callers can
+ * process a snapshot without materialising a whole {@link AppState}.
+ */
+@FunctionalInterface
+public interface EntitySink {
+    void accept(EntityType type, Object entity) throws IOException;
+}
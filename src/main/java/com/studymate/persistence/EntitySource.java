@@ -0,0 +1,14 @@
+package com.studymate.persistence;
+
+import java.io.IOException;
+
+/**
+ * Anything that can hand its entities out one at a time, e.g.
+ * {@link JsonAppStateRepository#stream(EntitySink)} or
+ * {@link SqlAppStateRepository#stream(EntitySink)}. Entities of one type
+ * must come in the same order every time (resumable migrations rely on it).
+ */
+@FunctionalInterface
+public interface EntitySource {
+    void forEach(EntitySink sink) throws IOException;
+}
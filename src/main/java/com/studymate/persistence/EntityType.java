@@ -0,0 +1,176 @@
+package com.studymate.persistence;
+
+import com.studymate.interfaces.Persistable;
+import com.studymate.model.Assignment;
+import com.studymate.model.Course;
+import com.studymate.model.HabitLog;
+import com.studymate.model.Note;
+import com.studymate.model.StudyHabit;
+import com.studymate.model.Test;
+
+import java.util.List;
+
+/**
+ * The six entity types that make up an {@link AppState}.
+ *
+ * The tag is a stable one-byte identifier used by the binary formats; the
+ * section name matches the array names in studymate.json.
+ */
+public enum EntityType {
+
+    COURSE(1, "courses", Course.class),
+    ASSIGNMENT(2, "assignments", Assignment.class),
+    NOTE(3, "notes", Note.class),
+    TEST(4, "tests", Test.class),
+    HABIT(5, "habits", StudyHabit.class),
+    HABIT_LOG(6, "habitLogs", HabitLog.class);
+
+    private final byte tag;
+    private final String sectionName;
+    private final Class<?> entityClass;
+
+    EntityType(int tag, String sectionName, Class<?> entityClass) {
+        this.tag = (byte) tag;
+        this.sectionName = sectionName;
+        this.entityClass = entityClass;
+    }
+
+    public byte getTag() {
+        return tag;
+    }
+
+    public String getSectionName() {
+        return sectionName;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    public static EntityType fromTag(byte tag) {
+        for (EntityType type : values()) {
+            if (type.tag == tag) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown entity tag: " + tag);
+    }
+
+    /**
+     * @return the type stored under the given JSON section name, or null
+     */
+    public static EntityType fromSectionName(String name) {
+        for (EntityType type : values()) {
+            if (type.sectionName.equals(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    public static EntityType of(Object entity) {
+        for (EntityType type : values()) {
+            if (type.entityClass.isInstance(entity)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Not a StudyMate entity: " + entity);
+    }
+
+    /**
+     * Primary key of an entity of this type.
+     */
+    public int idOf(Object entity) {
+        switch (this) {
+            case COURSE:
+                return ((Course) entity).getCourseId();
+            case ASSIGNMENT:
+                return ((Assignment) entity).getAssignmentId();
+            case NOTE:
+                return ((Note) entity).getNoteId();
+            case TEST:
+                return ((Test) entity).getTestId();
+            case HABIT:
+                return ((StudyHabit) entity).getHabitId();
+            default:
+                return ((HabitLog) entity).getLogId();
+        }
+    }
+
+    /**
+     * An empty entity of this type, for {@link Persistable#readFields} to fill.
+     */
+    public Persistable newInstance() {
+        switch (this) {
+            case COURSE:
+                return new Course();
+            case ASSIGNMENT:
+                return new Assignment();
+            case NOTE:
+                return new Note();
+            case TEST:
+                return new Test();
+            case HABIT:
+                return new StudyHabit();
+            default:
+                return new HabitLog();
+        }
+    }
+
+    /**
+     * A field-by-field copy of an entity of this type, for snapshots that
+     * must not change while they are being written.
+     */
+    public Object copy(Object entity) {
+        switch (this) {
+            case COURSE: {
+                Course c = (Course) entity;
+                return new Course(c.getCourseId(), c.getCourseName(), c.getInstructorName(), c.getSemester(),
+                        c.getCreditHours(), c.getDescription());
+            }
+            case ASSIGNMENT: {
+                Assignment a = (Assignment) entity;
+                return new Assignment(a.getAssignmentId(), a.getCourseId(), a.getTitle(), a.getDescription(),
+                        a.getDueDate(), a.getPriority(), a.getStatus());
+            }
+            case NOTE: {
+                Note n = (Note) entity;
+                return new Note(n.getNoteId(), n.getCourseId(), n.getTitle(), n.getContent(), n.getCreatedOn());
+            }
+            case TEST: {
+                Test t = (Test) entity;
+                return new Test(t.getTestId(), t.getCourseId(), t.getName(), t.getDate(),
+                        t.getMaxScore(), t.getScore());
+            }
+            case HABIT: {
+                StudyHabit h = (StudyHabit) entity;
+                return new StudyHabit(h.getHabitId(), h.getName(), h.getDescription(), h.getWeeklyTarget());
+            }
+            default: {
+                HabitLog log = (HabitLog) entity;
+                return new HabitLog(log.getLogId(), log.getHabitId(), log.getDate(), log.getAmount(), log.getNote());
+            }
+        }
+    }
+
+    /**
+     * The list in the given state that holds entities of this type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> listIn(AppState state) {
+        switch (this) {
+            case COURSE:
+                return (List<T>) state.getCourses();
+            case ASSIGNMENT:
+                return (List<T>) state.getAssignments();
+            case NOTE:
+                return (List<T>) state.getNotes();
+            case TEST:
+                return (List<T>) state.getTests();
+            case HABIT:
+                return (List<T>) state.getHabits();
+            default:
+                return (List<T>) state.getHabitLogs();
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.studymate.persistence;
+
+import com.studymate.model.Assignment;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A startup cache of the data files: every entity in the compact binary
+ * encoding plus the assignment due-date ordering, which would otherwise be
+ * sorted again after every start. The id maps are rebuilt from the decoded
+ * lists, sized up front, since a HashMap cannot be mapped from disk.
+ *
+ * The snapshot records the size and modification time of each source file
+ * it was built from and ends with a CRC32 of its contents. load() memory-maps
+ * it and returns null, so the caller parses the sources instead, when the
+ * file is missing, corrupt, from another format version, or any source has
+ * changed since. Each entity type is a section of its own, listed in a table
+ * at the end of the file, so a loaded snapshot decodes a type only when it
+ * is asked for it.
+ */
+public class FastStartSnapshot {
+
+    private static final byte[] MAGIC = {'S', 'M', 'F', 'S'};
+    private static final int VERSION = 1;
+    private static final int TRAILER_BYTES = 16; // table offset + CRC32
+
+    private final Path file;
+    private final List<Path> sources;
+
+    public FastStartSnapshot(Path file, List<Path> sources) {
+        this.file = file;
+        this.sources = new ArrayList<>(sources);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Size and modification time of the source files right now. Take the
+     * stamps when the state being saved matches the files, e.g. right after
+     * writing them.
+     */
+    public long[] stampSources() throws IOException {
+        long[] stamps = new long[sources.size() * 2];
+        for (int i = 0; i < sources.size(); i++) {
+            Path source = sources.get(i);
+            if (Files.exists(source)) {
+                BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+                stamps[2 * i] = attributes.size();
+                stamps[2 * i + 1] = attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+            } else {
+                stamps[2 * i] = -1;
+                stamps[2 * i + 1] = -1;
+            }
+        }
+        return stamps;
+    }
+
+    /**
+     * Writes the snapshot for a state that matches the sources as stamped.
+     *
+     * Layout: header (magic, version, source stamps), one section per entity
+     * type, the due-date order, then a table of (tag, offset, count) per
+     * section and the due-order offset, then the table's offset and the CRC
+     * as two fixed 8-byte values.
+     */
+    public synchronized void save(AppState state, long[] stamps) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream fileOut = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            CheckedOutputStream checked = new CheckedOutputStream(fileOut, crc);
+            BinaryRecordWriter out = new BinaryRecordWriter(checked);
+            for (byte b : MAGIC) {
+                out.rawByte(b);
+            }
+            out.rawByte(VERSION);
+            out.field(sources.size());
+            for (int i = 0; i < sources.size(); i++) {
+                out.field(sources.get(i).toString());
+                out.field(stamps[2 * i]);
+                out.field(stamps[2 * i + 1]);
+            }
+
+            EntityType[] types = EntityType.values();
+            long[] offsets = new long[types.length];
+            for (EntityType type : types) {
+                offsets[type.ordinal()] = out.size();
+                for (Object entity : type.listIn(state)) {
+                    BinaryRecordCodec.write(out, entity);
+                }
+            }
+            long dueOrderOffset = out.size();
+            for (int position : dueOrder(state.getAssignments())) {
+                out.field(position);
+            }
+
+            long tableOffset = out.size();
+            for (EntityType type : types) {
+                out.rawByte(type.getTag());
+                out.field(offsets[type.ordinal()]);
+                out.field(type.listIn(state).size());
+            }
+            out.field(dueOrderOffset);
+            out.flush();
+            new DataOutputStream(checked).writeLong(tableOffset);
+
+            // The checksum itself is not part of what it covers.
+            new DataOutputStream(fileOut).writeLong(crc.getValue());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps the snapshot and checks it against the sources and its checksum;
+     * entities are decoded later, per type.
+     *
+     * @return the snapshot, or null if there is none or it cannot be used
+     */
+    public Loaded load() {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < MAGIC.length + 1 + TRAILER_BYTES || size > Integer.MAX_VALUE) {
+                return reject("unexpected size " + size);
+            }
+            // The mapping stays valid after the channel is closed.
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int bodyLength = (int) size - 8;
+            BinaryRecordReader in = new BinaryRecordReader(data.duplicate().limit(bodyLength));
+            for (byte b : MAGIC) {
+                if (in.readRawByte() != b) {
+                    return reject("not a fast-start snapshot");
+                }
+            }
+            if (in.readRawByte() != VERSION) {
+                return reject("different format version");
+            }
+
+            // Cheap staleness check first, before touching the whole file.
+            int sourceCount = in.readInt();
+            long[] current = stampSources();
+            if (sourceCount != sources.size()) {
+                return reject("built from other files");
+            }
+            for (int i = 0; i < sourceCount; i++) {
+                String path = in.readString();
+                long recordedSize = in.readLong();
+                long recordedTime = in.readLong();
+                if (!sources.get(i).toString().equals(path)) {
+                    return reject("built from other files");
+                }
+                if (recordedSize != current[2 * i] || recordedTime != current[2 * i + 1]) {
+                    return reject(path + " has changed");
+                }
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(data.duplicate().limit(bodyLength));
+            if (crc.getValue() != data.getLong(bodyLength)) {
+                return reject("checksum mismatch");
+            }
+
+            long tableOffset = data.getLong(bodyLength - 8);
+            if (tableOffset < 0 || tableOffset > bodyLength - 8) {
+                return reject("bad section table");
+            }
+            BinaryRecordReader table = new BinaryRecordReader(
+                    data.duplicate().position((int) tableOffset).limit(bodyLength - 8));
+            int[] offsets = new int[EntityType.values().length];
+            int[] counts = new int[offsets.length];
+            for (int i = 0; i < offsets.length; i++) {
+                EntityType type = EntityType.fromTag((byte) table.readRawByte());
+                offsets[type.ordinal()] = (int) table.readLong();
+                counts[type.ordinal()] = table.readInt();
+            }
+            int dueOrderOffset = (int) table.readLong();
+            return new Loaded(data, offsets, counts, dueOrderOffset, (int) tableOffset);
+        } catch (IOException | RuntimeException e) {
+            return reject(e.getMessage());
+        }
+    }
+
+    private Loaded reject(String reason) {
+        System.out.println("Fast-start snapshot " + file + " not used (" + reason + "); parsing the data files.");
+        return null;
+    }
+
+    private static int[] dueOrder(List<Assignment> assignments) {
+        int size = assignments.size();
+        Integer[] positions = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = i;
+        }
+        Arrays.sort(positions, Comparator.comparing(assignments::get));
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = positions[i];
+        }
+        return result;
+    }
+
+    /**
+     * A mapped, validated snapshot. Each read() decodes its section from the
+     * mapping; calls for different types can run concurrently.
+     */
+    public static class Loaded {
+
+        private final ByteBuffer data;
+        private final int[] offsets;
+        private final int[] counts;
+        private final int dueOrderOffset;
+        private final int tableOffset;
+
+        Loaded(ByteBuffer data, int[] offsets, int[] counts, int dueOrderOffset, int tableOffset) {
+            this.data = data;
+            this.offsets = offsets;
+            this.counts = counts;
+            this.dueOrderOffset = dueOrderOffset;
+            this.tableOffset = tableOffset;
+        }
+
+        public int count(EntityType type) {
+            return counts[type.ordinal()];
+        }
+
+        /**
+         * Decodes every entity of one type, in the order they were saved.
+         */
+        public List<Object> read(EntityType type) throws IOException {
+            int count = counts[type.ordinal()];
+            BinaryRecordReader in = new BinaryRecordReader(section(offsets[type.ordinal()]));
+            List<Object> entities = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entities.add(BinaryRecordCodec.read(in, type));
+            }
+            return entities;
+        }
+
+        /**
+         * Decodes every type into a new AppState.
+         */
+        public AppState readAll() throws IOException {
+            AppState state = new AppState();
+            for (EntityType type : EntityType.values()) {
+                type.listIn(state).addAll(read(type));
+            }
+            return state;
+        }
+
+        /**
+         * Assignment positions (indexes into read(ASSIGNMENT)) sorted by due
+         * date, priority and id, the natural order of {@link Assignment}.
+         */
+        public int[] getDueOrder() throws IOException {
+            int count = counts[EntityType.ASSIGNMENT.ordinal()];
+            BinaryRecordReader in = new BinaryRecordReader(section(dueOrderOffset));
+            int[] positions = new int[count];
+            for (int i = 0; i < count; i++) {
+                positions[i] = in.readInt();
+                if (positions[i] < 0 || positions[i] >= count) {
+                    throw new IOException("Due-date order position out of range");
+                }
+            }
+            return positions;
+        }
+
+        private ByteBuffer section(int offset) throws IOException {
+            if (offset < 0 || offset > tableOffset) {
+                throw new IOException("Section offset out of range: " + offset);
+            }
+            return data.duplicate().position(offset).limit(tableOffset);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.studymate.persistence;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Parser contract for the memory-mapped CSV loader: instead of a String the
+ * parser receives the raw bytes plus the absolute offset and length of each
+ * field, and decodes only what it needs (see {@link CsvFields}).
+ */
+@FunctionalInterface
+public interface FieldRecordParser<T> {
+    T parse(ByteBuffer data, int[] offsets, int[] lengths, int fieldCount);
+}
@@ -0,0 +1,22 @@
+package com.studymate.persistence;
+
+/**
+ * When the {@link MutationJournal} forces appended records to disk.
+ */
+public enum FsyncPolicy {
+
+    /** Force after every record; the caller returns once its record is durable. */
+    PER_WRITE,
+
+    /**
+     * Concurrent writers share one force: the first waiting writer syncs
+     * everything written so far and wakes the others.
+     */
+    GROUP_COMMIT,
+
+    /**
+     * A background thread forces at a fixed interval; appends never wait.
+     * A crash can lose up to one interval of mutations.
+     */
+    INTERVAL
+}
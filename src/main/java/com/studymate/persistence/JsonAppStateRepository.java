@@ -1,251 +1,160 @@
 package com.studymate.persistence;
 
-import com.studymate.model.Assignment;
-import com.studymate.model.Course;
-import com.studymate.model.HabitLog;
-import com.studymate.model.Note;
-import com.studymate.model.StudyHabit;
-import com.studymate.model.Test;
-import org.json.JSONArray;
-import org.json.JSONObject;
-
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.Writer;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 
 /**
- * JSON-based persistence using the org.json library (Lab 6).
+ * JSON-based persistence (Lab 6).
+ *
+ * Reading and writing are streamed record by record through
+ * {@link JsonStreamReader} / {@link JsonStreamWriter} instead of building an
+ * org.json object tree, so only one entity is held in memory on top of the
+ * AppState itself. The file layout is unchanged: one top-level object with
+ * the arrays "courses", "assignments", "notes", "tests", "habits" and
+ * "habitLogs", pretty-printed unless compact output is requested.
+ *
+ * The file can be compressed with a {@link SnapshotCodec}, either given
+ * explicitly or taken from the extension (studymate.json.gz, ...).
  */
 public class JsonAppStateRepository implements AppStateRepository {
 
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+    static final String GENERATION = "generation";
 
     private final Path file;
+    private final boolean compact;
+    private final SnapshotCodec codec;
 
     public JsonAppStateRepository(String filePath) {
-        this.file = Paths.get(filePath);
+        this(filePath, false);
     }
 
-    @Override
-    public void save(AppState state) throws IOException {
-        JSONObject root = new JSONObject();
-
-        // Courses
-        JSONArray coursesArray = new JSONArray();
-        for (Course c : state.getCourses()) {
-            JSONObject o = new JSONObject();
-            o.put("id", c.getCourseId());
-            o.put("name", c.getCourseName());
-            o.put("instructor", c.getInstructorName());
-            o.put("semester", c.getSemester());
-            o.put("creditHours", c.getCreditHours());
-            o.put("description", c.getDescription());
-            coursesArray.put(o);
-        }
-        root.put("courses", coursesArray);
-
-        // Assignments
-        JSONArray assignmentsArray = new JSONArray();
-        for (Assignment a : state.getAssignments()) {
-            JSONObject o = new JSONObject();
-            o.put("id", a.getAssignmentId());
-            o.put("courseId", a.getCourseId());
-            o.put("title", a.getTitle());
-            o.put("description", a.getDescription());
-            o.put("dueDate", a.getDueDate().format(DATE_FORMAT));
-            o.put("priority", a.getPriority());
-            o.put("status", a.getStatus());
-            assignmentsArray.put(o);
-        }
-        root.put("assignments", assignmentsArray);
-
-        // Notes
-        JSONArray notesArray = new JSONArray();
-        for (Note n : state.getNotes()) {
-            JSONObject o = new JSONObject();
-            o.put("id", n.getNoteId());
-            o.put("courseId", n.getCourseId());
-            o.put("title", n.getTitle());
-            o.put("content", n.getContent());
-            o.put("createdOn", n.getCreatedOn().format(DATE_FORMAT));
-            notesArray.put(o);
-        }
-        root.put("notes", notesArray);
+    public JsonAppStateRepository(String filePath, boolean compact) {
+        this(filePath, compact, null);
+    }
 
-        // Tests
-        JSONArray testsArray = new JSONArray();
-        for (Test t : state.getTests()) {
-            JSONObject o = new JSONObject();
-            o.put("id", t.getTestId());
-            o.put("courseId", t.getCourseId());
-            o.put("name", t.getName());
-            o.put("date", t.getDate().format(DATE_FORMAT));
-            o.put("maxScore", t.getMaxScore());
-            o.put("score", t.getScore());
-            testsArray.put(o);
-        }
-        root.put("tests", testsArray);
+    /**
+     * @param codec compression to use; null picks it from the file extension
+     */
+    public JsonAppStateRepository(String filePath, boolean compact, SnapshotCodec codec) {
+        Path path = Paths.get(filePath);
+        this.codec = (codec != null) ? codec : SnapshotCodec.forFile(path);
+        this.file = this.codec.applyTo(path);
+        this.compact = compact;
+    }
 
-        // Habits
-        JSONArray habitsArray = new JSONArray();
-        for (StudyHabit h : state.getHabits()) {
-            JSONObject o = new JSONObject();
-            o.put("id", h.getHabitId());
-            o.put("name", h.getName());
-            o.put("description", h.getDescription());
-            o.put("weeklyTarget", h.getWeeklyTarget());
-            habitsArray.put(o);
-        }
-        root.put("habits", habitsArray);
+    /**
+     * @return the file written by save(), including the codec extension
+     */
+    public Path getFile() {
+        return file;
+    }
 
-        // Habit logs
-        JSONArray logsArray = new JSONArray();
-        for (HabitLog log : state.getHabitLogs()) {
-            JSONObject o = new JSONObject();
-            o.put("id", log.getLogId());
-            o.put("habitId", log.getHabitId());
-            o.put("date", log.getDate().format(DATE_FORMAT));
-            o.put("amount", log.getAmount());
-            o.put("note", log.getNote());
-            logsArray.put(o);
-        }
-        root.put("habitLogs", logsArray);
+    @Override
+    public void save(AppState state) throws IOException {
+        save(state, -1);
+    }
 
-        // Save to disk
+    /**
+     * Saves the state and, if generation is not negative, records it as a
+     * leading "generation" member (used by {@link DeltaJsonAppStateRepository}
+     * to tell which delta files belong to this snapshot). Readers that do not
+     * know the member skip it.
+     */
+    public void save(AppState state, long generation) throws IOException {
+        // Save to disk. Write a temp file first and rename it so that a crash
+        // never leaves a half-written snapshot (the journal relies on this).
         if (file.getParent() != null) {
             Files.createDirectories(file.getParent());
         }
-        try (Writer writer = Files.newBufferedWriter(file)) {
-            writer.write(root.toString(2)); // pretty-printed JSON
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                codec.wrap(Files.newOutputStream(temp)), StandardCharsets.UTF_8));
+             JsonStreamWriter writer = new JsonStreamWriter(out, !compact)) {
+            writer.beginObject();
+            if (generation >= 0) {
+                writer.name(GENERATION).value(generation);
+            }
+            for (EntityType type : EntityType.values()) {
+                writer.name(type.getSectionName()).beginArray();
+                for (Object entity : type.listIn(state)) {
+                    JsonEntityCodec.write(writer, type, entity);
+                }
+                writer.endArray();
+            }
+            writer.endObject();
         }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
 
     @Override
     public AppState load() throws IOException {
-        if (!Files.exists(file)) {
-            return new AppState();
-        }
-
-        String json = Files.readString(file);
-        JSONObject root = new JSONObject(json);
         AppState state = new AppState();
+        stream((type, entity) -> {
+            List<Object> list = type.listIn(state);
+            list.add(entity);
+        });
+        return state;
+    }
 
-        // Courses
-        List<Course> courses = new ArrayList<>();
-        JSONArray coursesArray = root.optJSONArray("courses");
-        if (coursesArray != null) {
-            for (int i = 0; i < coursesArray.length(); i++) {
-                JSONObject o = coursesArray.getJSONObject(i);
-                Course c = new Course(
-                        o.getInt("id"),
-                        o.getString("name"),
-                        o.getString("instructor"),
-                        o.getString("semester"),
-                        o.getInt("creditHours"),
-                        o.optString("description", "")
-                );
-                courses.add(c);
-            }
-        }
-        state.setCourses(courses);
-
-        // Assignments
-        List<Assignment> assignments = new ArrayList<>();
-        JSONArray assignmentsArray = root.optJSONArray("assignments");
-        if (assignmentsArray != null) {
-            for (int i = 0; i < assignmentsArray.length(); i++) {
-                JSONObject o = assignmentsArray.getJSONObject(i);
-                Assignment a = new Assignment(
-                        o.getInt("id"),
-                        o.getInt("courseId"),
-                        o.getString("title"),
-                        o.getString("description"),
-                        java.time.LocalDate.parse(o.getString("dueDate"), DATE_FORMAT),
-                        o.getInt("priority"),
-                        o.getString("status")
-                );
-                assignments.add(a);
-            }
-        }
-        state.setAssignments(assignments);
-
-        // Notes
-        List<Note> notes = new ArrayList<>();
-        JSONArray notesArray = root.optJSONArray("notes");
-        if (notesArray != null) {
-            for (int i = 0; i < notesArray.length(); i++) {
-                JSONObject o = notesArray.getJSONObject(i);
-                Note n = new Note(
-                        o.getInt("id"),
-                        o.getInt("courseId"),
-                        o.getString("title"),
-                        o.getString("content"),
-                        java.time.LocalDate.parse(o.getString("createdOn"), DATE_FORMAT)
-                );
-                notes.add(n);
-            }
+    /**
+     * @return the generation recorded by {@link #save(AppState, long)}, or -1
+     *         if there is no snapshot or it has none
+     */
+    public long readGeneration() throws IOException {
+        Path source = SnapshotCodec.findExisting(file);
+        if (source == null) {
+            return -1;
         }
-        state.setNotes(notes);
-
-        // Tests
-        List<Test> tests = new ArrayList<>();
-        JSONArray testsArray = root.optJSONArray("tests");
-        if (testsArray != null) {
-            for (int i = 0; i < testsArray.length(); i++) {
-                JSONObject o = testsArray.getJSONObject(i);
-                Test t = new Test(
-                        o.getInt("id"),
-                        o.getInt("courseId"),
-                        o.getString("name"),
-                        java.time.LocalDate.parse(o.getString("date"), DATE_FORMAT),
-                        o.getDouble("maxScore"),
-                        o.getDouble("score")
-                );
-                tests.add(t);
+        try (JsonStreamReader reader = openReader(source)) {
+            reader.beginObject();
+            // save() writes it first, so there is no need to scan the whole file
+            if (reader.hasNext() && GENERATION.equals(reader.nextName())) {
+                return (long) reader.nextDouble();
             }
+            return -1;
         }
-        state.setTests(tests);
+    }
 
-        // Habits
-        List<StudyHabit> habits = new ArrayList<>();
-        JSONArray habitsArray = root.optJSONArray("habits");
-        if (habitsArray != null) {
-            for (int i = 0; i < habitsArray.length(); i++) {
-                JSONObject o = habitsArray.getJSONObject(i);
-                StudyHabit h = new StudyHabit(
-                        o.getInt("id"),
-                        o.getString("name"),
-                        o.getString("description"),
-                        o.getInt("weeklyTarget")
-                );
-                habits.add(h);
-            }
+    /**
+     * Reads the file and hands every entity to the sink in file order,
+     * without building an AppState. Unknown sections are skipped.
+     */
+    @Override
+    public void stream(EntitySink sink) throws IOException {
+        Path source = SnapshotCodec.findExisting(file);
+        if (source == null) {
+            return;
         }
-        state.setHabits(habits);
-
-        // Habit logs
-        List<HabitLog> logs = new ArrayList<>();
-        JSONArray logsArray = root.optJSONArray("habitLogs");
-        if (logsArray != null) {
-            for (int i = 0; i < logsArray.length(); i++) {
-                JSONObject o = logsArray.getJSONObject(i);
-                HabitLog log = new HabitLog(
-                        o.getInt("id"),
-                        o.getInt("habitId"),
-                        java.time.LocalDate.parse(o.getString("date"), DATE_FORMAT),
-                        o.getInt("amount"),
-                        o.optString("note", "")
-                );
-                logs.add(log);
+        try (JsonStreamReader reader = openReader(source)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                EntityType type = EntityType.fromSectionName(reader.nextName());
+                if (type == null) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    sink.accept(type, JsonEntityCodec.read(reader, type));
+                }
+                reader.endArray();
             }
+            reader.endObject();
         }
-        state.setHabitLogs(logs);
+    }
 
-        return state;
+    private static JsonStreamReader openReader(Path source) throws IOException {
+        return new JsonStreamReader(new BufferedReader(new InputStreamReader(SnapshotCodec.forFile(source)
+                .wrap(new BufferedInputStream(Files.newInputStream(source))), StandardCharsets.UTF_8)));
     }
 }
@@ -0,0 +1,238 @@
+package com.studymate.persistence;
+
+import com.studymate.model.Assignment;
+import com.studymate.model.Course;
+import com.studymate.model.HabitLog;
+import com.studymate.model.Note;
+import com.studymate.model.StudyHabit;
+import com.studymate.model.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Maps single entities to and from JSON objects using the field names of
+ * studymate.json ("id", "courseId", "dueDate", ...).
+ */
+public class JsonEntityCodec {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+
+    private JsonEntityCodec() {
+    }
+
+    public static void write(JsonStreamWriter w, EntityType type, Object entity) throws IOException {
+        w.beginObject();
+        switch (type) {
+            case COURSE: {
+                Course c = (Course) entity;
+                w.name("id").value(c.getCourseId());
+                w.name("name").value(c.getCourseName());
+                w.name("instructor").value(c.getInstructorName());
+                w.name("semester").value(c.getSemester());
+                w.name("creditHours").value(c.getCreditHours());
+                w.name("description").value(c.getDescription());
+                break;
+            }
+            case ASSIGNMENT: {
+                Assignment a = (Assignment) entity;
+                w.name("id").value(a.getAssignmentId());
+                w.name("courseId").value(a.getCourseId());
+                w.name("title").value(a.getTitle());
+                w.name("description").value(a.getDescription());
+                w.name("dueDate").value(a.getDueDate().format(DATE_FORMAT));
+                w.name("priority").value(a.getPriority());
+                w.name("status").value(a.getStatus());
+                break;
+            }
+            case NOTE: {
+                Note n = (Note) entity;
+                w.name("id").value(n.getNoteId());
+                w.name("courseId").value(n.getCourseId());
+                w.name("title").value(n.getTitle());
+                w.name("content").value(n.getContent());
+                w.name("createdOn").value(n.getCreatedOn().format(DATE_FORMAT));
+                break;
+            }
+            case TEST: {
+                Test t = (Test) entity;
+                w.name("id").value(t.getTestId());
+                w.name("courseId").value(t.getCourseId());
+                w.name("name").value(t.getName());
+                w.name("date").value(t.getDate().format(DATE_FORMAT));
+                w.name("maxScore").value(t.getMaxScore());
+                w.name("score").value(t.getScore());
+                break;
+            }
+            case HABIT: {
+                StudyHabit h = (StudyHabit) entity;
+                w.name("id").value(h.getHabitId());
+                w.name("name").value(h.getName());
+                w.name("description").value(h.getDescription());
+                w.name("weeklyTarget").value(h.getWeeklyTarget());
+                break;
+            }
+            default: {
+                HabitLog log = (HabitLog) entity;
+                w.name("id").value(log.getLogId());
+                w.name("habitId").value(log.getHabitId());
+                w.name("date").value(log.getDate().format(DATE_FORMAT));
+                w.name("amount").value(log.getAmount());
+                w.name("note").value(log.getNote());
+                break;
+            }
+        }
+        w.endObject();
+    }
+
+    /**
+     * Reads one entity object. Fields may appear in any order and unknown
+     * fields are skipped.
+     */
+    public static Object read(JsonStreamReader r, EntityType type) throws IOException {
+        switch (type) {
+            case COURSE:
+                return readCourse(r);
+            case ASSIGNMENT:
+                return readAssignment(r);
+            case NOTE:
+                return readNote(r);
+            case TEST:
+                return readTest(r);
+            case HABIT:
+                return readHabit(r);
+            default:
+                return readHabitLog(r);
+        }
+    }
+
+    private static Course readCourse(JsonStreamReader r) throws IOException {
+        Course c = new Course();
+        c.setDescription("");
+        r.beginObject();
+        while (r.hasNext()) {
+            switch (r.nextName()) {
+                case "id": c.setCourseId(r.nextInt()); break;
+                case "name": c.setCourseName(r.nextString()); break;
+                case "instructor": c.setInstructorName(r.nextString()); break;
+                case "semester": c.setSemester(r.nextString()); break;
+                case "creditHours": c.setCreditHours(r.nextInt()); break;
+                case "description": c.setDescription(r.nextString()); break;
+                default: r.skipValue();
+            }
+        }
+        r.endObject();
+        return c;
+    }
+
+    private static Assignment readAssignment(JsonStreamReader r) throws IOException {
+        Assignment a = new Assignment();
+        r.beginObject();
+        while (r.hasNext()) {
+            switch (r.nextName()) {
+                case "id": a.setAssignmentId(r.nextInt()); break;
+                case "courseId": a.setCourseId(r.nextInt()); break;
+                case "title": a.setTitle(r.nextString()); break;
+                case "description": a.setDescription(r.nextString()); break;
+                case "dueDate": a.setDueDate(parseDate(r.nextString())); break;
+                case "priority": a.setPriority(r.nextInt()); break;
+                case "status": a.setStatus(r.nextString()); break;
+                default: r.skipValue();
+            }
+        }
+        r.endObject();
+        requireDate(a.getDueDate(), "assignments", "dueDate");
+        return a;
+    }
+
+    private static Note readNote(JsonStreamReader r) throws IOException {
+        Note n = new Note();
+        r.beginObject();
+        while (r.hasNext()) {
+            switch (r.nextName()) {
+                case "id": n.setNoteId(r.nextInt()); break;
+                case "courseId": n.setCourseId(r.nextInt()); break;
+                case "title": n.setTitle(r.nextString()); break;
+                case "content": n.setContent(r.nextString()); break;
+                case "createdOn": n.setCreatedOn(parseDate(r.nextString())); break;
+                default: r.skipValue();
+            }
+        }
+        r.endObject();
+        requireDate(n.getCreatedOn(), "notes", "createdOn");
+        return n;
+    }
+
+    private static Test readTest(JsonStreamReader r) throws IOException {
+        Test t = new Test();
+        r.beginObject();
+        while (r.hasNext()) {
+            switch (r.nextName()) {
+                case "id": t.setTestId(r.nextInt()); break;
+                case "courseId": t.setCourseId(r.nextInt()); break;
+                case "name": t.setName(r.nextString()); break;
+                case "date": t.setDate(parseDate(r.nextString())); break;
+                case "maxScore": t.setMaxScore(r.nextDouble()); break;
+                case "score": t.setScore(r.nextDouble()); break;
+                default: r.skipValue();
+            }
+        }
+        r.endObject();
+        requireDate(t.getDate(), "tests", "date");
+        return t;
+    }
+
+    private static StudyHabit readHabit(JsonStreamReader r) throws IOException {
+        StudyHabit h = new StudyHabit();
+        r.beginObject();
+        while (r.hasNext()) {
+            switch (r.nextName()) {
+                case "id": h.setHabitId(r.nextInt()); break;
+                case "name": h.setName(r.nextString()); break;
+                case "description": h.setDescription(r.nextString()); break;
+                case "weeklyTarget": h.setWeeklyTarget(r.nextInt()); break;
+                default: r.skipValue();
+            }
+        }
+        r.endObject();
+        return h;
+    }
+
+    private static HabitLog readHabitLog(JsonStreamReader r) throws IOException {
+        HabitLog log = new HabitLog();
+        log.setNote("");
+        r.beginObject();
+        while (r.hasNext()) {
+            switch (r.nextName()) {
+                case "id": log.setLogId(r.nextInt()); break;
+                case "habitId": log.setHabitId(r.nextInt()); break;
+                case "date": log.setDate(parseDate(r.nextString())); break;
+                case "amount": log.setAmount(r.nextInt()); break;
+                case "note": log.setNote(r.nextString()); break;
+                default: r.skipValue();
+            }
+        }
+        r.endObject();
+        requireDate(log.getDate(), "habitLogs", "date");
+        return log;
+    }
+
+    private static LocalDate parseDate(String value) throws IOException {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value, DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new IOException("Invalid date in JSON: " + value, e);
+        }
+    }
+
+    private static void requireDate(LocalDate date, String section, String field) throws IOException {
+        if (date == null) {
+            throw new IOException("Missing " + field + " in " + section + " entry");
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.studymate.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Minimal pull-style JSON reader. The caller walks the document with
+ * beginObject/nextName/nextInt/... and only the current token is kept in
+ * memory, so a snapshot can be read one record at a time.
+ */
+public class JsonStreamReader implements Closeable {
+
+    private static final int MAX_DEPTH = 64;
+
+    // Per-container state
+    private static final int FIRST = 0;         // nothing read yet
+    private static final int AFTER_ELEMENT = 1; // a ',' must come before the next element
+    private static final int COMMA_READ = 2;    // hasNext() already consumed the ','
+    private static final int AFTER_NAME = 3;    // object member name read, value expected
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int pos;
+    private int limit;
+
+    private final int[] state = new int[MAX_DEPTH];
+    private int depth;
+
+    private final StringBuilder scratch = new StringBuilder();
+
+    public JsonStreamReader(Reader in) {
+        this.in = in;
+    }
+
+    // ---------------- Structure ----------------
+
+    public void beginObject() throws IOException {
+        beforeValue();
+        expect('{');
+        push();
+    }
+
+    public void endObject() throws IOException {
+        expect('}');
+        depth--;
+    }
+
+    public void beginArray() throws IOException {
+        beforeValue();
+        expect('[');
+        push();
+    }
+
+    public void endArray() throws IOException {
+        expect(']');
+        depth--;
+    }
+
+    /**
+     * @return true if the current object or array has another element
+     */
+    public boolean hasNext() throws IOException {
+        int c = peekNonWhitespace();
+        if (c == '}' || c == ']' || c == -1) {
+            return false;
+        }
+        if (depth > 0 && state[depth - 1] == AFTER_ELEMENT) {
+            expect(',');
+            state[depth - 1] = COMMA_READ;
+        }
+        return true;
+    }
+
+    public String nextName() throws IOException {
+        if (state[depth - 1] == AFTER_ELEMENT) {
+            expect(',');
+        }
+        String name = readQuoted();
+        expect(':');
+        state[depth - 1] = AFTER_NAME;
+        return name;
+    }
+
+    // ---------------- Values ----------------
+
+    /**
+     * Reads a string value; a JSON null is returned as null.
+     */
+    public String nextString() throws IOException {
+        beforeValue();
+        int c = peekNonWhitespace();
+        if (c == '"') {
+            return readQuoted();
+        }
+        String literal = readLiteral();
+        return "null".equals(literal) ? null : literal;
+    }
+
+    public int nextInt() throws IOException {
+        beforeValue();
+        peekNonWhitespace();
+        // Fast path: plain integers are decoded without building a String.
+        ensureLookahead(24);
+        boolean negative = false;
+        long value = 0;
+        int i = pos;
+        if (i < limit && buffer[i] == '-') {
+            negative = true;
+            i++;
+        }
+        int digitsStart = i;
+        while (i < limit && buffer[i] >= '0' && buffer[i] <= '9' && i - digitsStart < 10) {
+            value = value * 10 + (buffer[i] - '0');
+            i++;
+        }
+        if (i > digitsStart && i < limit && isDelimiter(buffer[i])
+                && value <= (negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE)) {
+            pos = i;
+            return (int) (negative ? -value : value);
+        }
+        // Slow path: 3.0, 1e2 and friends.
+        String literal = readLiteral();
+        try {
+            return (int) Double.parseDouble(literal);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Expected a number but was " + literal);
+        }
+    }
+
+    public double nextDouble() throws IOException {
+        beforeValue();
+        peekNonWhitespace();
+        String literal = readLiteral();
+        try {
+            return Double.parseDouble(literal);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Expected a number but was " + literal);
+        }
+    }
+
+    /**
+     * Skips the next value, including nested objects and arrays.
+     */
+    public void skipValue() throws IOException {
+        int c = peekNonWhitespace();
+        if (c == '{') {
+            beginObject();
+            while (hasNext()) {
+                nextName();
+                skipValue();
+            }
+            endObject();
+        } else if (c == '[') {
+            beginArray();
+            while (hasNext()) {
+                skipValue();
+            }
+            endArray();
+        } else {
+            nextString();
+        }
+    }
+
+    // ---------------- Internals ----------------
+
+    private void push() throws IOException {
+        if (depth == MAX_DEPTH) {
+            throw syntaxError("JSON nesting too deep");
+        }
+        state[depth++] = FIRST;
+    }
+
+    private void beforeValue() throws IOException {
+        if (depth == 0) {
+            return;
+        }
+        int s = state[depth - 1];
+        if (s == AFTER_ELEMENT) {
+            expect(','); // array element without a preceding hasNext()
+        }
+        state[depth - 1] = AFTER_ELEMENT;
+    }
+
+    private String readQuoted() throws IOException {
+        expect('"');
+        scratch.setLength(0);
+        while (true) {
+            int start = pos;
+            while (pos < limit) {
+                char c = buffer[pos];
+                if (c == '"' || c == '\\') {
+                    break;
+                }
+                pos++;
+            }
+            scratch.append(buffer, start, pos - start);
+            if (pos == limit) {
+                if (!fill()) {
+                    throw syntaxError("Unterminated string");
+                }
+                continue;
+            }
+            char c = buffer[pos++];
+            if (c == '"') {
+                return scratch.toString();
+            }
+            scratch.append(readEscape());
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u': {
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw syntaxError("Invalid \\u escape");
+                    }
+                    value = value * 16 + digit;
+                }
+                return (char) value;
+            }
+            default:
+                throw syntaxError("Invalid escape \\" + (char) c);
+        }
+    }
+
+    private String readLiteral() throws IOException {
+        scratch.setLength(0);
+        while (true) {
+            if (pos == limit && !fill()) {
+                break;
+            }
+            char c = buffer[pos];
+            if (isDelimiter(c)) {
+                break;
+            }
+            scratch.append(c);
+            pos++;
+        }
+        if (scratch.length() == 0) {
+            throw syntaxError("Expected a value");
+        }
+        return scratch.toString();
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c == ',' || c == '}' || c == ']' || c == ':' || c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = peekNonWhitespace();
+        if (c != expected) {
+            throw syntaxError("Expected '" + expected + "' but was "
+                    + (c == -1 ? "end of input" : "'" + (char) c + "'"));
+        }
+        pos++;
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            char c = buffer[pos];
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\uFEFF') {
+                pos++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) {
+            throw syntaxError("Unexpected end of input");
+        }
+        return buffer[pos++];
+    }
+
+    /**
+     * Makes sure at least {@code count} chars are buffered (unless the input
+     * ends first), compacting the buffer if needed.
+     */
+    private void ensureLookahead(int count) throws IOException {
+        if (limit - pos >= count) {
+            return;
+        }
+        System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+        limit -= pos;
+        pos = 0;
+        while (limit < count) {
+            int n = in.read(buffer, limit, buffer.length - limit);
+            if (n < 0) {
+                return;
+            }
+            limit += n;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            pos = limit = 0;
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("Malformed JSON: " + message);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
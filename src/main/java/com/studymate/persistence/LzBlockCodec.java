@@ -0,0 +1,167 @@
+package com.studymate.persistence;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Byte-oriented LZ77 block compressor in the style of LZ4: a greedy
+ * matcher with a single-entry hash table, favouring speed over ratio.
+ *
+ * A compressed block is a run of sequences:
+ * [token][extra literal length][literals][offset (2 bytes LE)][extra match length]
+ * The high nibble of the token is the literal count and the low nibble the
+ * match length minus 4 (15 means more length bytes follow, each 255 adding
+ * another byte). The last sequence has literals only.
+ */
+final class LzBlockCodec {
+
+    static final int MAX_BLOCK = 64 * 1024;
+
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 65535;
+    private static final int HASH_BITS = 14;
+
+    private LzBlockCodec() {
+    }
+
+    /**
+     * Worst-case output size for a block of the given length.
+     */
+    static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses src[0, length) into dst.
+     *
+     * @param table scratch hash table of size 1 << 14, reused between calls
+     * @return the compressed length, or -1 if the block does not get smaller
+     */
+    static int compress(byte[] src, int length, byte[] dst, int[] table) {
+        Arrays.fill(table, -1);
+        int anchor = 0;
+        int op = 0;
+        int i = 0;
+        int matchLimit = length - MIN_MATCH;
+        while (i <= matchLimit) {
+            int sequence = readInt(src, i);
+            int h = (sequence * -1640531535) >>> (32 - HASH_BITS);
+            int ref = table[h];
+            table[h] = i;
+            if (ref < 0 || i - ref > MAX_OFFSET || readInt(src, ref) != sequence) {
+                i++;
+                continue;
+            }
+            int matchLength = MIN_MATCH;
+            while (i + matchLength < length && src[ref + matchLength] == src[i + matchLength]) {
+                matchLength++;
+            }
+            op = writeSequence(src, anchor, i - anchor, i - ref, matchLength, dst, op, length);
+            if (op < 0) {
+                return -1;
+            }
+            i += matchLength;
+            anchor = i;
+        }
+        op = writeSequence(src, anchor, length - anchor, 0, 0, dst, op, length);
+        return op;
+    }
+
+    private static int writeSequence(byte[] src, int literalStart, int literals, int offset, int matchLength,
+                                     byte[] dst, int op, int limit) {
+        // token + length bytes + literals + offset; give up once we would not save anything
+        int needed = 1 + literals / 255 + 1 + literals + 2 + matchLength / 255 + 1;
+        if (op + needed >= limit) {
+            return -1;
+        }
+        int extraMatch = matchLength == 0 ? 0 : matchLength - MIN_MATCH;
+        int token = (Math.min(literals, 15) << 4) | Math.min(extraMatch, 15);
+        dst[op++] = (byte) token;
+        if (literals >= 15) {
+            op = writeLength(dst, op, literals - 15);
+        }
+        System.arraycopy(src, literalStart, dst, op, literals);
+        op += literals;
+        if (matchLength == 0) {
+            return op; // last sequence
+        }
+        dst[op++] = (byte) offset;
+        dst[op++] = (byte) (offset >>> 8);
+        if (extraMatch >= 15) {
+            op = writeLength(dst, op, extraMatch - 15);
+        }
+        return op;
+    }
+
+    private static int writeLength(byte[] dst, int op, int remaining) {
+        while (remaining >= 255) {
+            dst[op++] = (byte) 255;
+            remaining -= 255;
+        }
+        dst[op++] = (byte) remaining;
+        return op;
+    }
+
+    /**
+     * Decompresses src[0, srcLength) into exactly dstLength bytes of dst.
+     */
+    static void decompress(byte[] src, int srcLength, byte[] dst, int dstLength) throws IOException {
+        int ip = 0;
+        int op = 0;
+        try {
+            while (ip < srcLength) {
+                int token = src[ip++] & 0xFF;
+                int literals = token >>> 4;
+                if (literals == 15) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        literals += b;
+                    } while (b == 255);
+                }
+                if (op + literals > dstLength || ip + literals > srcLength) {
+                    throw corrupt();
+                }
+                System.arraycopy(src, ip, dst, op, literals);
+                ip += literals;
+                op += literals;
+                if (ip >= srcLength) {
+                    break; // last sequence has no match
+                }
+
+                int offset = (src[ip] & 0xFF) | (src[ip + 1] & 0xFF) << 8;
+                ip += 2;
+                int matchLength = token & 0x0F;
+                if (matchLength == 15) {
+                    int b;
+                    do {
+                        b = src[ip++] & 0xFF;
+                        matchLength += b;
+                    } while (b == 255);
+                }
+                matchLength += MIN_MATCH;
+                int ref = op - offset;
+                if (offset == 0 || ref < 0 || op + matchLength > dstLength) {
+                    throw corrupt();
+                }
+                // Byte by byte: the match may overlap the bytes it produces.
+                for (int k = 0; k < matchLength; k++) {
+                    dst[op++] = dst[ref++];
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw corrupt();
+        }
+        if (op != dstLength) {
+            throw corrupt();
+        }
+    }
+
+    private static IOException corrupt() {
+        return new IOException("Corrupt LZ block");
+    }
+
+    private static int readInt(byte[] b, int i) {
+        return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8 | (b[i + 2] & 0xFF) << 16 | (b[i + 3] & 0xFF) << 24;
+    }
+}
@@ -0,0 +1,81 @@
+package com.studymate.persistence;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the block format written by {@link LzOutputStream}.
+ */
+class LzInputStream extends InputStream {
+
+    private final DataInputStream in;
+    private final byte[] block = new byte[LzBlockCodec.MAX_BLOCK];
+    private final byte[] compressed = new byte[LzBlockCodec.maxCompressedLength(LzBlockCodec.MAX_BLOCK)];
+    private int pos;
+    private int limit;
+    private boolean finished;
+
+    LzInputStream(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        if (this.in.readInt() != LzOutputStream.MAGIC) {
+            throw new IOException("Not an LZ snapshot stream");
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (pos == limit && !nextBlock()) {
+            return -1;
+        }
+        return block[pos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (pos == limit && !nextBlock()) {
+            return -1;
+        }
+        int n = Math.min(len, limit - pos);
+        System.arraycopy(block, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    private boolean nextBlock() throws IOException {
+        if (finished) {
+            return false;
+        }
+        try {
+            int rawLength = in.readInt();
+            if (rawLength == 0) {
+                finished = true;
+                return false;
+            }
+            int storedLength = in.readInt();
+            if (rawLength < 0 || rawLength > block.length || storedLength < 0 || storedLength > compressed.length) {
+                throw new IOException("Corrupt LZ stream header");
+            }
+            if (storedLength == 0) {
+                in.readFully(block, 0, rawLength);
+            } else {
+                in.readFully(compressed, 0, storedLength);
+                LzBlockCodec.decompress(compressed, storedLength, block, rawLength);
+            }
+            pos = 0;
+            limit = rawLength;
+            return true;
+        } catch (EOFException e) {
+            throw new IOException("Truncated LZ stream", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
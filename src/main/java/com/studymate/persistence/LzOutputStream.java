@@ -0,0 +1,87 @@
+package com.studymate.persistence;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams data through {@link LzBlockCodec} in 64 KB blocks.
+ *
+ * Format: "SMLZ", then per block [raw length][stored length][bytes] where a
+ * stored length of 0 means the block is kept uncompressed, and finally a
+ * raw length of 0 as end marker (so truncated files are detected).
+ */
+class LzOutputStream extends OutputStream {
+
+    static final int MAGIC = 0x534D4C5A; // "SMLZ"
+
+    private final DataOutputStream out;
+    private final byte[] block = new byte[LzBlockCodec.MAX_BLOCK];
+    private final byte[] compressed = new byte[LzBlockCodec.maxCompressedLength(LzBlockCodec.MAX_BLOCK)];
+    private final int[] table = new int[1 << 14];
+    private int count;
+    private boolean closed;
+
+    LzOutputStream(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.writeInt(MAGIC);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == block.length) {
+            writeBlock();
+        }
+        block[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (count == block.length) {
+                writeBlock();
+            }
+            int n = Math.min(len, block.length - count);
+            System.arraycopy(b, off, block, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        int size = LzBlockCodec.compress(block, count, compressed, table);
+        out.writeInt(count);
+        if (size < 0) {
+            out.writeInt(0);
+            out.write(block, 0, count);
+        } else {
+            out.writeInt(size);
+            out.write(compressed, 0, size);
+        }
+        count = 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writeBlock();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writeBlock();
+            out.writeInt(0);
+        } finally {
+            out.close();
+        }
+    }
+}
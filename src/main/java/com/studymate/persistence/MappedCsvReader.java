@@ -0,0 +1,296 @@
+package com.studymate.persistence;
+
+import com.studymate.exceptions.CsvLoadException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Tokenizes a CSV file directly from memory-mapped bytes.
+ *
+ * The file is mapped in newline-aligned windows (so files over 2 GB work)
+ * and each non-blank record is split on commas into offset/length arrays
+ * that are handed to a {@link FieldRecordParser}. Records are trimmed the
+ * same way as the BufferedReader loader does.
+ *
+ * A field that starts with a double quote is quoted (RFC 4180): commas and
+ * line breaks inside it do not end the field or record. Its span still
+ * includes the quotes; {@link CsvFields#string} removes them.
+ *
+ * In parallel mode each window is further cut into newline-aligned chunks
+ * that are parsed on a ForkJoinPool and merged back in file order. A cut
+ * can land inside a quoted field that spans lines; the chunk before it
+ * then reports where its unfinished record starts, and that record plus
+ * the following chunk are parsed again on the calling thread.
+ *
+ * Bad lines do not stop the load; they are collected with their line
+ * numbers and reported together in a {@link CsvLoadException}.
+ */
+public class MappedCsvReader {
+
+    static final long MAX_WINDOW_BYTES = 256L * 1024 * 1024;
+    private static final int MIN_CHUNK_BYTES = 256 * 1024;
+
+    private MappedCsvReader() {
+    }
+
+    /**
+     * Parses the whole file on the calling thread.
+     */
+    public static <T> void read(Path file, FieldRecordParser<T> parser, Consumer<T> sink) throws IOException {
+        List<String> errors = new ArrayList<>();
+        forEachWindow(file, (window, end, line) -> {
+            Chunk<T> chunk = parseChunk(window, 0, end, parser);
+            chunk.emit(line[0], sink, errors);
+            line[0] += chunk.lineCount;
+            return chunk.openRecordStart;
+        }, errors);
+        if (!errors.isEmpty()) {
+            throw new CsvLoadException(file.toString(), errors);
+        }
+    }
+
+    /**
+     * Parses the file in newline-aligned chunks on a ForkJoinPool with the
+     * given parallelism. Records reach the sink in file order.
+     */
+    public static <T> void readParallel(Path file, FieldRecordParser<T> parser, int parallelism,
+                                        Consumer<T> sink) throws IOException {
+        List<String> errors = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            forEachWindow(file, (window, end, line) -> {
+                List<Future<Chunk<T>>> futures = new ArrayList<>();
+                List<Integer> chunkEnds = new ArrayList<>();
+                int chunkSize = Math.max(MIN_CHUNK_BYTES, end / (Math.max(1, parallelism) * 4));
+                int start = 0;
+                while (start < end) {
+                    int chunkEnd = nextLineStart(window, Math.min(start + chunkSize, end), end);
+                    int from = start;
+                    // Each task reads through its own duplicate so positions never clash.
+                    ByteBuffer view = window.duplicate();
+                    futures.add(pool.submit(() -> parseChunk(view, from, chunkEnd, parser)));
+                    chunkEnds.add(chunkEnd);
+                    start = chunkEnd;
+                }
+
+                int carry = -1;
+                for (int i = 0; i < futures.size(); i++) {
+                    Chunk<T> chunk = join(futures.get(i));
+                    if (carry >= 0) {
+                        // The previous chunk ended inside a quoted field, so this
+                        // one did not start on a record boundary.
+                        chunk = parseChunk(window, carry, chunkEnds.get(i), parser);
+                    }
+                    chunk.emit(line[0], sink, errors);
+                    line[0] += chunk.lineCount;
+                    carry = chunk.openRecordStart;
+                }
+                return carry;
+            }, errors);
+        } finally {
+            pool.shutdown();
+        }
+        if (!errors.isEmpty()) {
+            throw new CsvLoadException(file.toString(), errors);
+        }
+    }
+
+    // ---------------- Windows & chunks ----------------
+
+    private interface WindowHandler {
+        /**
+         * Parses [0, end) of the window and advances line[0] past the
+         * records it emitted.
+         *
+         * @return start of a record left unfinished at end (inside a quoted
+         *         field), or -1
+         */
+        int handle(ByteBuffer window, int end, int[] line) throws IOException;
+    }
+
+    private static void forEachWindow(Path file, WindowHandler handler, List<String> errors) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            int[] line = {1};
+            while (position < size) {
+                long windowSize = Math.min(MAX_WINDOW_BYTES, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+                int end = (int) windowSize;
+                boolean lastWindow = position + windowSize >= size;
+                if (!lastWindow) {
+                    end = lastNewline(window, end) + 1;
+                    if (end == 0) {
+                        throw new IOException("CSV line longer than " + MAX_WINDOW_BYTES + " bytes in " + file);
+                    }
+                }
+                int open = handler.handle(window, end, line);
+                if (open < 0) {
+                    position += end;
+                } else if (lastWindow) {
+                    errors.add("line " + line[0] + ": unterminated quoted field");
+                    position += end;
+                } else if (open == 0) {
+                    throw new IOException("CSV record longer than " + MAX_WINDOW_BYTES + " bytes in " + file);
+                } else {
+                    position += open; // the next window starts with the unfinished record
+                }
+            }
+        }
+    }
+
+    static int lastNewline(ByteBuffer buffer, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int nextLineStart(ByteBuffer buffer, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    private static <T> Chunk<T> join(Future<Chunk<T>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading CSV", e);
+        } catch (ExecutionException e) {
+            throw new IOException("CSV chunk failed: " + e.getCause(), e.getCause());
+        }
+    }
+
+    /**
+     * Result of parsing one byte range: records in order, plus errors keyed
+     * by the 0-based line index within the range.
+     */
+    static class Chunk<T> {
+        final List<T> records = new ArrayList<>();
+        final List<Integer> errorLines = new ArrayList<>();
+        final List<String> errorMessages = new ArrayList<>();
+        // lines of the complete records only
+        int lineCount;
+        // start of the record the range ended in the middle of, or -1
+        int openRecordStart = -1;
+
+        void emit(int firstLine, Consumer<T> sink, List<String> errors) {
+            records.forEach(sink);
+            for (int i = 0; i < errorLines.size(); i++) {
+                errors.add("line " + (firstLine + errorLines.get(i)) + ": " + errorMessages.get(i));
+            }
+        }
+    }
+
+    /**
+     * Parses the records in [start, end) of the buffer in a single pass over
+     * the bytes. start must be at the beginning of a record.
+     */
+    static <T> Chunk<T> parseChunk(ByteBuffer data, int start, int end, FieldRecordParser<T> parser) {
+        Chunk<T> chunk = new Chunk<>();
+        int[] offsets = new int[16];
+        int[] lengths = new int[16];
+        int fieldCount = 0;
+        int fieldStart = start;
+        int recordStart = start;
+        int quotedLines = 0; // line breaks inside quoted fields of this record
+        boolean quoted = false;
+        for (int i = start; i <= end; i++) {
+            if (quoted) {
+                if (i == end) {
+                    chunk.openRecordStart = recordStart;
+                    return chunk;
+                }
+                byte q = data.get(i);
+                if (q == '"') {
+                    if (i + 1 < end && data.get(i + 1) == '"') {
+                        i++; // escaped quote
+                    } else {
+                        quoted = false;
+                    }
+                } else if (q == '\n') {
+                    quotedLines++;
+                }
+                continue;
+            }
+            byte c = i < end ? data.get(i) : (byte) '\n';
+            if (c == '"' && i == fieldStart) {
+                quoted = true;
+                continue;
+            }
+            if (c != ',' && c != '\n') {
+                continue;
+            }
+            if (fieldCount == offsets.length) {
+                offsets = Arrays.copyOf(offsets, fieldCount * 2);
+                lengths = Arrays.copyOf(lengths, fieldCount * 2);
+            }
+            offsets[fieldCount] = fieldStart;
+            lengths[fieldCount] = i - fieldStart;
+            fieldCount++;
+            fieldStart = i + 1;
+
+            if (c == '\n') {
+                boolean realLine = i < end || lengths[0] > 0 || fieldCount > 1;
+                if (trimLine(data, offsets, lengths, fieldCount)) {
+                    try {
+                        chunk.records.add(parser.parse(data, offsets, lengths, fieldCount));
+                    } catch (RuntimeException e) {
+                        chunk.errorLines.add(chunk.lineCount);
+                        chunk.errorMessages.add(String.valueOf(e.getMessage()));
+                    }
+                }
+                if (realLine) {
+                    chunk.lineCount += 1 + quotedLines;
+                }
+                quotedLines = 0;
+                fieldCount = 0;
+                recordStart = i + 1;
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Applies String.trim() semantics to the whole line by trimming the start
+     * of the first field and the end of the last one.
+     *
+     * @return false if the line is blank
+     */
+    private static boolean trimLine(ByteBuffer data, int[] offsets, int[] lengths, int fieldCount) {
+        int last = fieldCount - 1;
+        int end = offsets[last] + lengths[last];
+        while (end > offsets[last] && (data.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        lengths[last] = end - offsets[last];
+
+        int from = offsets[0];
+        int firstEnd = offsets[0] + lengths[0];
+        while (from < firstEnd && (data.get(from) & 0xFF) <= ' ') {
+            from++;
+        }
+        lengths[0] = firstEnd - from;
+        offsets[0] = from;
+        return fieldCount > 1 || lengths[0] > 0;
+    }
+}
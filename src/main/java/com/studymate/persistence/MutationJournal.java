@@ -0,0 +1,421 @@
+package com.studymate.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, segmented write-ahead log of entity mutations.
+ *
+ * Each mutation is one record: [payload length][CRC32][op][entity tag][fields],
+ * with the fields encoded by {@link BinaryRecordCodec} like the compact
+ * binary snapshot.
+ * Records go to the newest segment file (segment-00000001.log, ...); a new
+ * segment is started when the current one grows past the size limit and on
+ * every checkpoint. After a checkpoint has been written through an
+ * {@link AppStateRepository}, the segments before it are deleted.
+ *
+ * Replay applies records as upserts by id, so replaying a segment whose
+ * changes are already in the checkpoint is harmless.
+ */
+public class MutationJournal implements Closeable {
+
+    private static final byte OP_PUT = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final FsyncPolicy policy;
+    private final long maxSegmentBytes;
+
+    // Serialises appends and segment rolls.
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final RecordBuffer buffer = new RecordBuffer();
+    private final DataOutputStream bufferOut = new DataOutputStream(buffer);
+    // Fields go through here into the buffer, after the header written by bufferOut
+    private final BinaryRecordWriter fieldsOut = new BinaryRecordWriter(buffer, 4096);
+    private final CRC32 crc = new CRC32();
+    private volatile FileChannel channel;
+    private long segmentIndex;
+    private long segmentBytes;
+    private volatile long writtenSeq;
+
+    // Group commit: one writer forces, the others wait on syncDone.
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition syncDone = syncLock.newCondition();
+    private boolean syncInProgress;
+    private long syncedSeq;
+
+    private final AtomicLong recordsSinceCheckpoint = new AtomicLong();
+    private final ScheduledExecutorService intervalSyncer;
+
+    public MutationJournal(String directory, FsyncPolicy policy, long syncIntervalMs, long maxSegmentBytes)
+            throws IOException {
+        this.directory = Paths.get(directory);
+        this.policy = policy;
+        this.maxSegmentBytes = maxSegmentBytes;
+
+        Files.createDirectories(this.directory);
+        List<Long> existing = listSegments();
+        this.segmentIndex = existing.isEmpty() ? 0 : existing.get(existing.size() - 1);
+
+        // Existing segments are only replayed, never appended to: a torn
+        // record at the end of one must not be followed by new records.
+        writeLock.lock();
+        try {
+            rollSegmentLocked();
+        } finally {
+            writeLock.unlock();
+        }
+
+        if (policy == FsyncPolicy.INTERVAL) {
+            intervalSyncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "StudyMate-JournalSync");
+                t.setDaemon(true);
+                return t;
+            });
+            intervalSyncer.scheduleWithFixedDelay(() -> {
+                try {
+                    sync();
+                } catch (IOException e) {
+                    System.err.println("Journal sync failed: " + e.getMessage());
+                }
+            }, syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            intervalSyncer = null;
+        }
+    }
+
+    // ---------------- Writing ----------------
+
+    /**
+     * Appends an insert-or-replace record for the entity. Depending on the
+     * fsync policy this returns once the record is durable (PER_WRITE,
+     * GROUP_COMMIT) or as soon as it has been handed to the OS (INTERVAL).
+     */
+    public void append(Object entity) throws IOException {
+        EntityType type = EntityType.of(entity);
+        long seq;
+
+        writeLock.lock();
+        try {
+            buffer.reset();
+            bufferOut.writeInt(0); // length, patched below
+            bufferOut.writeInt(0); // crc, patched below
+            bufferOut.writeByte(OP_PUT);
+            bufferOut.writeByte(type.getTag());
+            BinaryRecordCodec.write(fieldsOut, entity);
+            fieldsOut.flush();
+
+            int size = buffer.size();
+            byte[] bytes = buffer.array();
+            crc.reset();
+            crc.update(bytes, HEADER_BYTES, size - HEADER_BYTES);
+            ByteBuffer record = ByteBuffer.wrap(bytes, 0, size);
+            record.putInt(0, size - HEADER_BYTES);
+            record.putInt(4, (int) crc.getValue());
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+
+            segmentBytes += size;
+            seq = ++writtenSeq;
+            recordsSinceCheckpoint.incrementAndGet();
+
+            if (policy == FsyncPolicy.PER_WRITE) {
+                channel.force(false);
+                markSynced(seq);
+            }
+            if (segmentBytes >= maxSegmentBytes) {
+                rollSegmentLocked();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        if (policy == FsyncPolicy.GROUP_COMMIT) {
+            awaitSynced(seq);
+        }
+    }
+
+    /**
+     * Forces everything appended so far to disk.
+     */
+    public void sync() throws IOException {
+        awaitSynced(writtenSeq);
+    }
+
+    private void awaitSynced(long seq) throws IOException {
+        syncLock.lock();
+        try {
+            while (syncedSeq < seq) {
+                if (syncInProgress) {
+                    syncDone.awaitUninterruptibly();
+                    continue;
+                }
+                // Become the leader: force on behalf of everyone written so far.
+                syncInProgress = true;
+                long target = writtenSeq;
+                FileChannel current = channel;
+                IOException failure = null;
+                syncLock.unlock();
+                try {
+                    current.force(false);
+                } catch (ClosedChannelException e) {
+                    // A segment roll closed it, and rolls force before closing.
+                } catch (IOException e) {
+                    failure = e;
+                } finally {
+                    syncLock.lock();
+                    syncInProgress = false;
+                    if (failure == null && target > syncedSeq) {
+                        syncedSeq = target;
+                    }
+                    syncDone.signalAll();
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void markSynced(long seq) {
+        syncLock.lock();
+        try {
+            if (seq > syncedSeq) {
+                syncedSeq = seq;
+                syncDone.signalAll();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // ---------------- Segments & checkpoints ----------------
+
+    /**
+     * Number of records appended since the last {@link #startCheckpoint()}.
+     */
+    public long getRecordsSinceCheckpoint() {
+        return recordsSinceCheckpoint.get();
+    }
+
+    /**
+     * Seals the current segment and starts a new one. Every record appended
+     * before this call is in a segment older than the returned index, so once
+     * a snapshot taken after this call has been saved, those segments can be
+     * removed with {@link #finishCheckpoint(long)}.
+     */
+    public long startCheckpoint() throws IOException {
+        writeLock.lock();
+        try {
+            rollSegmentLocked();
+            recordsSinceCheckpoint.set(0);
+            return segmentIndex;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes all segments older than the given one.
+     */
+    public void finishCheckpoint(long firstLiveSegment) throws IOException {
+        for (long index : listSegments()) {
+            if (index < firstLiveSegment) {
+                Files.deleteIfExists(segmentPath(index));
+            }
+        }
+    }
+
+    private void rollSegmentLocked() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            markSynced(writtenSeq);
+        }
+        segmentIndex++;
+        channel = FileChannel.open(segmentPath(segmentIndex),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        segmentBytes = 0;
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> indexes = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path p : stream) {
+                String name = p.getFileName().toString();
+                String number = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                try {
+                    indexes.add(Long.parseLong(number));
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        Collections.sort(indexes);
+        return indexes;
+    }
+
+    // ---------------- Replay ----------------
+
+    /**
+     * Applies all records from the segments that existed when the journal was
+     * opened to the given state, in log order.
+     *
+     * @return number of records applied
+     */
+    public int replayInto(AppState state) throws IOException {
+        return replayInto(state, null);
+    }
+
+    /**
+     * Same as {@link #replayInto(AppState)}, but also hands every applied
+     * entity to the listener (e.g. to mark it dirty for the SQL backend).
+     */
+    public int replayInto(AppState state, EntitySink listener) throws IOException {
+        Map<EntityType, Map<Integer, Integer>> positions = new EnumMap<>(EntityType.class);
+        int applied = 0;
+        for (long index : listSegments()) {
+            if (index < segmentIndex) {
+                applied += replaySegment(segmentPath(index), state, positions, listener);
+            }
+        }
+        return applied;
+    }
+
+    private int replaySegment(Path segment, AppState state, Map<EntityType, Map<Integer, Integer>> positions,
+                              EntitySink listener) throws IOException {
+        int applied = 0;
+        CRC32 check = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            while (true) {
+                int length;
+                int expectedCrc;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    expectedCrc = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES) {
+                        reportTornTail(segment, applied);
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    // Clean end of segment, or a record cut short by a crash.
+                    break;
+                }
+
+                check.reset();
+                check.update(payload);
+                if ((int) check.getValue() != expectedCrc) {
+                    reportTornTail(segment, applied);
+                    break;
+                }
+
+                BinaryRecordReader record = new BinaryRecordReader(ByteBuffer.wrap(payload));
+                int op = record.readRawByte();
+                EntityType type = EntityType.fromTag((byte) record.readRawByte());
+                if (op == OP_PUT) {
+                    Object entity = BinaryRecordCodec.read(record, type);
+                    apply(state, positions, type, entity);
+                    if (listener != null) {
+                        listener.accept(type, entity);
+                    }
+                    applied++;
+                }
+            }
+        }
+        return applied;
+    }
+
+    private static void apply(AppState state, Map<EntityType, Map<Integer, Integer>> positions,
+                              EntityType type, Object entity) {
+        List<Object> list = type.listIn(state);
+        Map<Integer, Integer> byId = positions.computeIfAbsent(type, t -> {
+            Map<Integer, Integer> map = new HashMap<>();
+            for (int i = 0; i < list.size(); i++) {
+                map.put(t.idOf(list.get(i)), i);
+            }
+            return map;
+        });
+
+        Integer existing = byId.get(type.idOf(entity));
+        if (existing != null) {
+            list.set(existing, entity);
+        } else {
+            byId.put(type.idOf(entity), list.size());
+            list.add(entity);
+        }
+    }
+
+    private static void reportTornTail(Path segment, int goodRecords) {
+        System.err.println("Journal segment " + segment.getFileName()
+                + " ends with a damaged record after " + goodRecords + " records; ignoring the rest.");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (intervalSyncer != null) {
+            intervalSyncer.shutdown();
+        }
+        writeLock.lock();
+        try {
+            if (channel != null && channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+                markSynced(writtenSeq);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * ByteArrayOutputStream that lets us patch and write its array in place.
+     */
+    private static class RecordBuffer extends ByteArrayOutputStream {
+        RecordBuffer() {
+            super(256);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.studymate.persistence;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Newline-delimited JSON persistence: one file per entity type
+ * (courses.ndjson, assignments.ndjson, ...) holding one compact JSON object
+ * per line, with the same field names as {@link JsonAppStateRepository}.
+ *
+ * Because every record is a line of its own (line breaks inside strings are
+ * always escaped), new records can be appended without rewriting the file,
+ * and a large file can be cut at line boundaries and the pieces parsed in
+ * parallel. When a file holds more than one line for the same id, the last
+ * one wins, so append() also works as an update. A last line without its
+ * newline (a crash in the middle of an append) is ignored if it does not
+ * parse.
+ */
+public class NdjsonAppStateRepository implements AppStateRepository {
+
+    public static final String EXTENSION = ".ndjson";
+
+    // Files smaller than this are not worth splitting across threads.
+    private static final long MIN_PARALLEL_BYTES = 1024 * 1024;
+    private static final int MIN_CHUNK_BYTES = 256 * 1024;
+
+    private final Path dir;
+    private final int parallelism;
+
+    public NdjsonAppStateRepository(Path dir) {
+        this(dir, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism threads used to parse one large file
+     */
+    public NdjsonAppStateRepository(Path dir, int parallelism) {
+        this.dir = dir;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public Path fileFor(EntityType type) {
+        return dir.resolve(type.getSectionName() + EXTENSION);
+    }
+
+    // ---------------- Writing ----------------
+
+    /**
+     * Rewrites every file; each one is written to a temp file and renamed.
+     */
+    @Override
+    public void save(AppState state) throws IOException {
+        Files.createDirectories(dir);
+        for (EntityType type : EntityType.values()) {
+            save(type, type.listIn(state));
+        }
+    }
+
+    /**
+     * Rewrites the file of one type with exactly these entities.
+     */
+    public synchronized void save(EntityType type, List<?> entities) throws IOException {
+        Files.createDirectories(dir);
+        Path file = fileFor(type);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writeLines(out, type, entities);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Adds the entities to the end of their type's file without touching
+     * what is already there. An entity whose id is already in the file
+     * replaces the earlier line on the next load().
+     */
+    public synchronized void append(EntityType type, List<?> entities) throws IOException {
+        if (entities.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(dir);
+        try (BufferedWriter out = Files.newBufferedWriter(fileFor(type), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            writeLines(out, type, entities);
+        }
+    }
+
+    /**
+     * Writes one compact JSON object plus '\n' per entity.
+     */
+    static void writeLines(Writer out, EntityType type, List<?> entities) throws IOException {
+        JsonStreamWriter writer = new JsonStreamWriter(out, false);
+        for (Object entity : entities) {
+            JsonEntityCodec.write(writer, type, entity);
+            out.write('\n');
+        }
+        writer.flush();
+    }
+
+    // ---------------- Reading ----------------
+
+    @Override
+    public AppState load() throws IOException {
+        AppState state = new AppState();
+        for (EntityType type : EntityType.values()) {
+            type.listIn(state).addAll(load(type));
+        }
+        return state;
+    }
+
+    /**
+     * Reads one type's file in file order, with later lines replacing
+     * earlier ones of the same id.
+     */
+    public List<Object> load(EntityType type) throws IOException {
+        Path file = fileFor(type);
+        List<Object> result = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return result;
+        }
+        Map<Integer, Integer> positions = new HashMap<>();
+        for (List<Object> chunk : readChunks(file, type)) {
+            for (Object entity : chunk) {
+                Integer at = positions.putIfAbsent(type.idOf(entity), result.size());
+                if (at == null) {
+                    result.add(entity);
+                } else {
+                    result.set(at, entity);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Hands every entity to the sink, type by type, without building an
+     * AppState. Files are read sequentially and duplicate ids are passed on
+     * as they appear.
+     */
+    @Override
+    public void stream(EntitySink sink) throws IOException {
+        for (EntityType type : EntityType.values()) {
+            Path file = fileFor(type);
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long complete = completeLength(channel);
+                try (JsonStreamReader reader = new JsonStreamReader(
+                        rangeReader(channel, 0, complete))) {
+                    while (reader.hasNext()) {
+                        Object entity;
+                        try {
+                            entity = JsonEntityCodec.read(reader, type);
+                        } catch (IOException e) {
+                            throw badLine(channel, 0, complete, file, type, e);
+                        }
+                        sink.accept(type, entity);
+                    }
+                }
+                for (Object entity : readTail(channel, complete, file, type)) {
+                    sink.accept(type, entity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits the file at line boundaries and parses the pieces, in parallel
+     * if the file is large enough.
+     *
+     * @return the parsed pieces in file order
+     */
+    private List<List<Object>> readChunks(Path file, EntityType type) throws IOException {
+        List<List<Object>> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long complete = completeLength(channel);
+            if (parallelism == 1 || complete < MIN_PARALLEL_BYTES) {
+                chunks.add(parseRange(channel, 0, complete, file, type));
+            } else {
+                long chunkSize = Math.max(MIN_CHUNK_BYTES, complete / (parallelism * 4L));
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    List<Future<List<Object>>> futures = new ArrayList<>();
+                    long start = 0;
+                    while (start < complete) {
+                        long end = nextLineStart(channel, Math.min(start + chunkSize, complete), complete);
+                        long from = start;
+                        futures.add(pool.submit(() -> parseRange(channel, from, end, file, type)));
+                        start = end;
+                    }
+                    for (Future<List<Object>> future : futures) {
+                        chunks.add(join(future, file));
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            chunks.add(readTail(channel, complete, file, type));
+        }
+        return chunks;
+    }
+
+    private static List<Object> parseRange(FileChannel channel, long start, long end, Path file, EntityType type)
+            throws IOException {
+        List<Object> entities = new ArrayList<>();
+        try (JsonStreamReader reader = new JsonStreamReader(rangeReader(channel, start, end))) {
+            while (reader.hasNext()) {
+                entities.add(JsonEntityCodec.read(reader, type));
+            }
+        } catch (IOException e) {
+            throw badLine(channel, start, end, file, type, e);
+        }
+        return entities;
+    }
+
+    /**
+     * Names the file and line of a record that does not parse. Only called
+     * on failure, so it re-reads [start, end) a line at a time to find the
+     * first bad one and counts the lines before start.
+     */
+    private static IOException badLine(FileChannel channel, long start, long end, Path file, EntityType type,
+                                       IOException cause) throws IOException {
+        long line = countLines(channel, start) + 1;
+        try (BufferedReader lines = new BufferedReader(rangeReader(channel, start, end))) {
+            for (String text = lines.readLine(); text != null; text = lines.readLine(), line++) {
+                if (text.isBlank()) {
+                    continue;
+                }
+                try (JsonStreamReader reader = new JsonStreamReader(new StringReader(text))) {
+                    JsonEntityCodec.read(reader, type);
+                } catch (IOException e) {
+                    return new IOException(file + " line " + line + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return new IOException(file + ": " + cause.getMessage(), cause);
+    }
+
+    /**
+     * @return number of '\n' bytes in [0, end)
+     */
+    private static long countLines(FileChannel channel, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long count = 0;
+        for (long position = 0; position < end; position += buffer.limit()) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+            readFully(channel, buffer, position);
+            for (int i = 0; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Parses whatever follows the last newline; a record cut short by a
+     * crash is reported and dropped.
+     */
+    private static List<Object> readTail(FileChannel channel, long complete, Path file, EntityType type)
+            throws IOException {
+        if (complete == channel.size()) {
+            return new ArrayList<>();
+        }
+        try {
+            return parseRange(channel, complete, channel.size(), file, type);
+        } catch (IOException e) {
+            System.err.println("Ignoring incomplete last line, " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * @return length of the file up to and including its last '\n'
+     */
+    private static long completeLength(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long end = size;
+        while (end > 0) {
+            long from = Math.max(0, end - buffer.capacity());
+            buffer.clear().limit((int) (end - from));
+            readFully(channel, buffer, from);
+            for (int i = buffer.limit() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return from + i + 1;
+                }
+            }
+            end = from;
+        }
+        return 0;
+    }
+
+    /**
+     * @return the position just after the first '\n' at or after from, or end
+     */
+    private static long nextLineStart(FileChannel channel, long from, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = from;
+        while (position < end) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+            readFully(channel, buffer, position);
+            for (int i = 0; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += buffer.limit();
+        }
+        return end;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * A UTF-8 reader over [start, end) of the file. Positional reads keep
+     * several of these independent on one channel.
+     */
+    private static Reader rangeReader(FileChannel channel, long start, long end) {
+        InputStream in = new InputStream() {
+            private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).limit(0);
+            private long position = start;
+
+            @Override
+            public int read() throws IOException {
+                return fill() ? buffer.get() & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (len == 0) {
+                    return 0;
+                }
+                if (!fill()) {
+                    return -1;
+                }
+                int n = Math.min(len, buffer.remaining());
+                buffer.get(b, off, n);
+                return n;
+            }
+
+            private boolean fill() throws IOException {
+                if (buffer.hasRemaining()) {
+                    return true;
+                }
+                if (position >= end) {
+                    return false;
+                }
+                buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                readFully(channel, buffer, position);
+                position += buffer.limit();
+                return true;
+            }
+        };
+        return new InputStreamReader(in, StandardCharsets.UTF_8);
+    }
+
+    private static List<Object> join(Future<List<Object>> future, Path file) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading " + file, e);
+        } catch (ExecutionException e) {
+            // ForkJoinPool wraps the IOException a task throws in RuntimeExceptions.
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException) {
+                    // Already names the file and line.
+                    throw new IOException(cause.getMessage(), cause);
+                }
+            }
+            throw new IOException("Failed to read " + file, e.getCause());
+        }
+    }
+}
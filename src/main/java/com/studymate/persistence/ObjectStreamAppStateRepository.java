@@ -1,21 +1,44 @@
 package com.studymate.persistence;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 /**
  * Binary persistence using Java Object Streams (Lab 6).
+ *
+ * The object stream can be compressed with a {@link SnapshotCodec}, either
+ * given explicitly or taken from the extension (studymate.bin.gz, ...).
  */
 public class ObjectStreamAppStateRepository implements AppStateRepository {
 
     private final Path file;
+    private final SnapshotCodec codec;
 
     public ObjectStreamAppStateRepository(String filePath) {
-        this.file = Paths.get(filePath);
+        this(filePath, null);
+    }
+
+    /**
+     * @param codec compression to use; null picks it from the file extension
+     */
+    public ObjectStreamAppStateRepository(String filePath, SnapshotCodec codec) {
+        Path path = Paths.get(filePath);
+        this.codec = (codec != null) ? codec : SnapshotCodec.forFile(path);
+        this.file = this.codec.applyTo(path);
+    }
+
+    /**
+     * @return the file written by save(), including the codec extension
+     */
+    public Path getFile() {
+        return file;
     }
 
     @Override
@@ -23,17 +46,22 @@ public class ObjectStreamAppStateRepository implements AppStateRepository {
         if (file.getParent() != null) {
             Files.createDirectories(file.getParent());
         }
-        try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(file))) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(
+                codec.wrap(Files.newOutputStream(temp))))) {
             out.writeObject(state);
         }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
 
     @Override
     public AppState load() throws IOException {
-        if (!Files.exists(file)) {
+        Path source = SnapshotCodec.findExisting(file);
+        if (source == null) {
             return new AppState();
         }
-        try (ObjectInputStream in = new ObjectInputStream(Files.newInputStream(file))) {
+        try (ObjectInputStream in = new ObjectInputStream(SnapshotCodec.forFile(source)
+                .wrap(new BufferedInputStream(Files.newInputStream(source))))) {
             Object obj = in.readObject();
             return (AppState) obj;
         } catch (ClassNotFoundException e) {
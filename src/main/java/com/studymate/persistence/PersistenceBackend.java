@@ -0,0 +1,17 @@
+package com.studymate.persistence;
+
+/**
+ * Where StudyMateService keeps its primary copy of the data
+ * (studymate.persistence.backend).
+ */
+public enum PersistenceBackend {
+
+    /** CSV files plus the JSON snapshot under data/. */
+    FILES,
+
+    /**
+     * H2 database through {@link SqlAppStateRepository}; only rows that
+     * changed since the last save are written.
+     */
+    SQL
+}
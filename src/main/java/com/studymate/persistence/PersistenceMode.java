@@ -0,0 +1,16 @@
+package com.studymate.persistence;
+
+/**
+ * How StudyMateService persists mutations (studymate.persistence.mode).
+ */
+public enum PersistenceMode {
+
+    /** Rewrite the CSV files and the JSON snapshot after every change. */
+    SNAPSHOT,
+
+    /**
+     * Append each change to the {@link MutationJournal} and only rewrite the
+     * snapshots at periodic checkpoints.
+     */
+    JOURNAL
+}
@@ -0,0 +1,22 @@
+package com.studymate.persistence;
+
+/**
+ * The targets a {@link SavePipeline} can write.
+ */
+public enum SaveFormat {
+
+    /** One CSV file per entity type (courses.csv, assignments.csv, ...). */
+    CSV,
+
+    /** The JSON snapshot (studymate.json). */
+    JSON,
+
+    /** One newline-delimited JSON file per entity type under data/ndjson. */
+    NDJSON,
+
+    /** The binary snapshot (studymate.bin, or studymate.sbin in the compact format). */
+    BINARY,
+
+    /** Changed rows upserted into the SQL backend. */
+    SQL
+}
@@ -0,0 +1,157 @@
+package com.studymate.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes one snapshot of the state to several formats in parallel.
+ *
+ * Each registered {@link SaveTarget} runs as its own task on a small fixed
+ * executor, so a save takes about as long as the slowest format instead of
+ * the sum of all of them. The caller builds the AppState once (a consistent
+ * copy, entities included) and every target serializes that same copy. Two
+ * saves of the same format never overlap; the targets are expected to write a
+ * temp file and rename it into place.
+ *
+ * Saves are numbered in the order save() is called. A format whose file
+ * already holds a newer save skips an older one that runs late, so a slow
+ * save can never overwrite a newer file. Callers that take snapshots on
+ * several threads must call save() in the order they took them.
+ */
+public class SavePipeline implements Closeable {
+
+    /**
+     * Writes the state in one format.
+     */
+    @FunctionalInterface
+    public interface SaveTarget {
+        void save(AppState state) throws IOException;
+    }
+
+    private final Map<SaveFormat, SaveTarget> targets = new EnumMap<>(SaveFormat.class);
+    private final Map<SaveFormat, Object> locks = new EnumMap<>(SaveFormat.class);
+    // Number of the newest save written per format; guarded by that format's lock
+    private final Map<SaveFormat, Long> written = new EnumMap<>(SaveFormat.class);
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService executor;
+
+    public SavePipeline(int threads) {
+        this(newPool(threads));
+    }
+
+    // Tests run the tasks on an executor of their own, in the order they choose.
+    SavePipeline(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    private static ExecutorService newPool(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        int size = Math.max(1, threads);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "StudyMate-Save-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true); // idle between saves
+        return pool;
+    }
+
+    /**
+     * Registers (or replaces) the target for a format. Not thread-safe; call
+     * while setting the pipeline up.
+     */
+    public SavePipeline register(SaveFormat format, SaveTarget target) {
+        targets.put(format, target);
+        locks.putIfAbsent(format, new Object());
+        return this;
+    }
+
+    public boolean isRegistered(SaveFormat format) {
+        return targets.containsKey(format);
+    }
+
+    /**
+     * Writes the state to the given formats, or to every registered one if
+     * none are given. Formats that are not registered are skipped. The
+     * future always completes normally; failures, and formats that already
+     * held a newer save, are in the report.
+     */
+    public CompletableFuture<SaveReport> save(AppState state, SaveFormat... formats) {
+        SaveFormat[] selected = formats.length > 0 ? formats : targets.keySet().toArray(new SaveFormat[0]);
+        long number = sequence.incrementAndGet();
+        long start = System.nanoTime();
+        Map<SaveFormat, Long> timings = new EnumMap<>(SaveFormat.class);
+        Map<SaveFormat, IOException> failures = new EnumMap<>(SaveFormat.class);
+        Set<SaveFormat> superseded = EnumSet.noneOf(SaveFormat.class);
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        for (SaveFormat format : selected) {
+            SaveTarget target = targets.get(format);
+            if (target == null) {
+                continue;
+            }
+            tasks.add(CompletableFuture.runAsync(() -> {
+                long t0 = System.nanoTime();
+                IOException failure = null;
+                try {
+                    synchronized (locks.get(format)) {
+                        if (written.getOrDefault(format, 0L) > number) {
+                            synchronized (timings) {
+                                superseded.add(format);
+                            }
+                            return;
+                        }
+                        target.save(state);
+                        written.put(format, number);
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                } catch (RuntimeException e) {
+                    failure = new IOException(e);
+                }
+                long ms = (System.nanoTime() - t0) / 1_000_000;
+                synchronized (timings) {
+                    timings.put(format, ms);
+                    if (failure != null) {
+                        failures.put(format, failure);
+                    }
+                }
+            }, executor));
+        }
+
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0]))
+                .thenApply(done -> {
+                    synchronized (timings) {
+                        return new SaveReport(timings, failures, superseded,
+                                (System.nanoTime() - start) / 1_000_000);
+                    }
+                });
+    }
+
+    /**
+     * Lets queued saves finish and stops the worker threads.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.studymate.persistence;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result of one {@link SavePipeline} run: how long each format took, which
+ * ones failed and which were skipped because a newer save had already
+ * written them.
+ */
+public class SaveReport {
+
+    private final Map<SaveFormat, Long> timingsMs = new EnumMap<>(SaveFormat.class);
+    private final Map<SaveFormat, IOException> failures = new EnumMap<>(SaveFormat.class);
+    private final Set<SaveFormat> superseded = EnumSet.noneOf(SaveFormat.class);
+    private final long totalMs;
+
+    SaveReport(Map<SaveFormat, Long> timingsMs, Map<SaveFormat, IOException> failures,
+            Set<SaveFormat> superseded, long totalMs) {
+        this.timingsMs.putAll(timingsMs);
+        this.failures.putAll(failures);
+        this.superseded.addAll(superseded);
+        this.totalMs = totalMs;
+    }
+
+    /**
+     * @return wall time of each format that was written, failed ones included
+     */
+    public Map<SaveFormat, Long> getTimingsMs() {
+        return Collections.unmodifiableMap(timingsMs);
+    }
+
+    public Map<SaveFormat, IOException> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return formats not written because they already held a newer save
+     */
+    public Set<SaveFormat> getSuperseded() {
+        return Collections.unmodifiableSet(superseded);
+    }
+
+    /**
+     * @return wall time of the whole run, i.e. roughly the slowest format
+     */
+    public long getTotalMs() {
+        return totalMs;
+    }
+
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * Throws the first failure, with the others attached as suppressed.
+     */
+    public void throwIfFailed() throws IOException {
+        if (failures.isEmpty()) {
+            return;
+        }
+        IOException first = null;
+        for (Map.Entry<SaveFormat, IOException> e : failures.entrySet()) {
+            if (first == null) {
+                first = new IOException("Saving " + e.getKey() + " failed: " + e.getValue().getMessage(), e.getValue());
+            } else {
+                first.addSuppressed(e.getValue());
+            }
+        }
+        throw first;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<SaveFormat, Long> e : timingsMs.entrySet()) {
+            sb.append(e.getKey()).append('=').append(e.getValue()).append(" ms");
+            if (failures.containsKey(e.getKey())) {
+                sb.append(" (failed)");
+            }
+            sb.append(", ");
+        }
+        for (SaveFormat format : superseded) {
+            sb.append(format).append(" superseded, ");
+        }
+        return sb.append("total=").append(totalMs).append(" ms").toString();
+    }
+}
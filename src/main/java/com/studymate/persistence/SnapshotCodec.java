@@ -0,0 +1,134 @@
+package com.studymate.persistence;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compression layer for snapshot files (studymate.snapshot.codec).
+ *
+ * Each codec wraps the file stream, so snapshots are compressed while they
+ * are written and read, never buffered whole in memory. The codec is marked
+ * by a file extension appended to the snapshot name, e.g. studymate.json.gz.
+ */
+public enum SnapshotCodec {
+
+    NONE(""),
+    DEFLATE(".deflate"),
+    GZIP(".gz"),
+    /** Pure-Java LZ4-style codec: less compression than gzip, much faster. */
+    LZ(".lz");
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final String extension;
+
+    SnapshotCodec(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public OutputStream wrap(OutputStream out) throws IOException {
+        switch (this) {
+            case DEFLATE:
+                return new DeflaterOutputStream(out, new Deflater(), BUFFER_BYTES) {
+                    // The JDK only ends deflaters it created itself
+                    @Override
+                    public void close() throws IOException {
+                        super.close();
+                        def.end();
+                    }
+                };
+            case GZIP:
+                return new GZIPOutputStream(out, BUFFER_BYTES);
+            case LZ:
+                return new LzOutputStream(out);
+            default:
+                return out;
+        }
+    }
+
+    public InputStream wrap(InputStream in) throws IOException {
+        switch (this) {
+            case DEFLATE:
+                return new InflaterInputStream(in, new Inflater(), BUFFER_BYTES) {
+                    // The JDK only ends inflaters it created itself
+                    @Override
+                    public void close() throws IOException {
+                        super.close();
+                        inf.end();
+                    }
+                };
+            case GZIP:
+                return new GZIPInputStream(in, BUFFER_BYTES);
+            case LZ:
+                return new LzInputStream(in);
+            default:
+                return in;
+        }
+    }
+
+    /**
+     * @return the codec marked by the file's extension (NONE if there is none)
+     */
+    public static SnapshotCodec forFile(Path file) {
+        String name = file.getFileName().toString();
+        for (SnapshotCodec codec : values()) {
+            if (codec != NONE && name.endsWith(codec.extension)) {
+                return codec;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Path of the snapshot with this codec's extension, e.g. studymate.json
+     * becomes studymate.json.gz for GZIP.
+     */
+    public Path applyTo(Path base) {
+        if (forFile(base) != NONE) {
+            return base; // the name already says which codec to use
+        }
+        return base.resolveSibling(base.getFileName() + extension);
+    }
+
+    /**
+     * Finds the snapshot to read: the preferred file if it exists, otherwise
+     * the newest copy of the same snapshot written with another codec, so
+     * changing studymate.snapshot.codec does not lose data.
+     *
+     * @return null if there is no snapshot at all
+     */
+    public static Path findExisting(Path preferred) throws IOException {
+        if (Files.exists(preferred)) {
+            return preferred;
+        }
+        Path base = stripExtension(preferred);
+        Path newest = null;
+        for (SnapshotCodec codec : values()) {
+            Path candidate = base.resolveSibling(base.getFileName() + codec.extension);
+            if (Files.exists(candidate) && (newest == null
+                    || Files.getLastModifiedTime(candidate).compareTo(Files.getLastModifiedTime(newest)) > 0)) {
+                newest = candidate;
+            }
+        }
+        return newest;
+    }
+
+    private static Path stripExtension(Path file) {
+        SnapshotCodec codec = forFile(file);
+        String name = file.getFileName().toString();
+        return file.resolveSibling(name.substring(0, name.length() - codec.extension.length()));
+    }
+}
@@ -2,9 +2,16 @@ package com.studymate.persistence;
 
 import com.studymate.model.*;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Persistence implementation using H2 Database (SQL).
@@ -16,57 +23,93 @@ import java.util.List;
  * - TESTS: ID, COURSE_ID, NAME, DATE, MAX_SCORE, SCORE
  * - STUDY_HABITS: ID, NAME, DESCRIPTION, WEEKLY_TARGET
  * - HABIT_LOGS: ID, HABIT_ID, DATE, AMOUNT, NOTE
+ *
+ * save() rewrites every table; saveChanges() upserts only the rows in a
+ * {@link ChangeSet}, which is what StudyMateService uses when SQL is the
+ * primary backend.
+ *
+ * Connections come from a {@link ConnectionPool}, and statements are
+ * prepared once per pooled connection and reused from its cache.
+ *
+ * ASSIGNMENTS also has a generated COMPLETED column and secondary indexes
+ * so the {@link DashboardQueries} run as index range scans.
+ *
+ * Loading goes through a forward-only cursor (explicit columns, JDBC fetch
+ * size, H2 lazy execution), so {@link #stream(EntitySink)} and
+ * {@link #openStream(EntityType)} only hold one fetch's worth of rows;
+ * load() is just stream() collecting into an AppState.
  */
-public class SqlAppStateRepository implements AppStateRepository {
+public class SqlAppStateRepository implements AppStateRepository, DashboardQueries {
 
-    private final String dbUrl;
-    private final String user = "sa";
-    private final String password = "";
+    private final ConnectionPool pool;
+    private int fetchSize = 1000;
 
-    public SqlAppStateRepository(String dbUrl) {
-        this.dbUrl = dbUrl;
-        initializeSchema();
+    public SqlAppStateRepository(String dbUrl) throws IOException {
+        this(new ConnectionPool(dbUrl, "sa", "", 4, 60_000, 5_000, true));
     }
 
-    private void initializeSchema() {
+    /**
+     * @throws IOException if the schema cannot be created or upgraded; the
+     *         pool is closed in that case
+     */
+    public SqlAppStateRepository(ConnectionPool pool) throws IOException {
+        this.pool = pool;
+        try {
+            initializeSchema();
+        } catch (SQLException e) {
+            pool.close();
+            throw new IOException("Failed to initialize SQL schema", e);
+        }
+    }
+
+    /**
+     * Closes the pooled connections.
+     */
+    public void close() {
+        pool.close();
+    }
+
+    private void initializeSchema() throws SQLException {
         String[] createTables = {
                 "CREATE TABLE IF NOT EXISTS COURSES (ID INT PRIMARY KEY, NAME VARCHAR(255), INSTRUCTOR VARCHAR(255), SEMESTER VARCHAR(50), CREDITS INT, DESCRIPTION VARCHAR(2000))",
                 "CREATE TABLE IF NOT EXISTS ASSIGNMENTS (ID INT PRIMARY KEY, COURSE_ID INT, TITLE VARCHAR(255), DESCRIPTION VARCHAR(2000), DUE_DATE DATE, PRIORITY INT, STATUS VARCHAR(50))",
                 "CREATE TABLE IF NOT EXISTS NOTES (ID INT PRIMARY KEY, COURSE_ID INT, TITLE VARCHAR(255), CONTENT VARCHAR(2000), CREATED_ON DATE)",
                 "CREATE TABLE IF NOT EXISTS TESTS (ID INT PRIMARY KEY, COURSE_ID INT, NAME VARCHAR(255), TEST_DATE DATE, MAX_SCORE DOUBLE, SCORE DOUBLE)",
                 "CREATE TABLE IF NOT EXISTS STUDY_HABITS (ID INT PRIMARY KEY, NAME VARCHAR(255), DESCRIPTION VARCHAR(2000), WEEKLY_TARGET INT)",
-                "CREATE TABLE IF NOT EXISTS HABIT_LOGS (ID INT PRIMARY KEY, HABIT_ID INT, LOG_DATE DATE, AMOUNT INT, NOTE VARCHAR(2000))"
+                "CREATE TABLE IF NOT EXISTS HABIT_LOGS (ID INT PRIMARY KEY, HABIT_ID INT, LOG_DATE DATE, AMOUNT INT, NOTE VARCHAR(2000))",
+                // Same rule as Assignment.isCompleted(); a NULL status counts as not completed
+                "ALTER TABLE ASSIGNMENTS ADD COLUMN IF NOT EXISTS COMPLETED BOOLEAN GENERATED ALWAYS AS (COALESCE(UPPER(STATUS) = 'COMPLETED', FALSE))",
+                // Upcoming deadlines: range on (COMPLETED, DUE_DATE), already in ORDER BY order
+                "CREATE INDEX IF NOT EXISTS IDX_ASSIGNMENTS_DUE ON ASSIGNMENTS (COMPLETED, DUE_DATE, PRIORITY, ID)",
+                // The same for one course
+                "CREATE INDEX IF NOT EXISTS IDX_ASSIGNMENTS_COURSE_DUE ON ASSIGNMENTS (COURSE_ID, COMPLETED, DUE_DATE, PRIORITY, ID)",
+                // Completion counts are kept in memory now; older databases still have this index
+                "DROP INDEX IF EXISTS IDX_ASSIGNMENTS_COMPLETED_COURSE",
+                "CREATE INDEX IF NOT EXISTS IDX_NOTES_COURSE ON NOTES (COURSE_ID)",
+                "CREATE INDEX IF NOT EXISTS IDX_TESTS_COURSE ON TESTS (COURSE_ID)",
+                "CREATE INDEX IF NOT EXISTS IDX_HABIT_LOGS_HABIT ON HABIT_LOGS (HABIT_ID)"
         };
 
-        try (Connection conn = DriverManager.getConnection(dbUrl, user, password);
-                Statement stmt = conn.createStatement()) {
+        try (ConnectionPool.PooledConnection pc = pool.borrow();
+                Statement stmt = pc.getConnection().createStatement()) {
             for (String sql : createTables) {
                 stmt.execute(sql);
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
     }
 
     @Override
     public void save(AppState state) throws IOException {
-        try (Connection conn = DriverManager.getConnection(dbUrl, user, password)) {
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            Connection conn = pc.getConnection();
             conn.setAutoCommit(false);
-            try (Statement stmt = conn.createStatement()) {
+            try {
                 // Wipe existing data (Full state overwrite strategy)
-                stmt.execute("DELETE FROM HABIT_LOGS");
-                stmt.execute("DELETE FROM STUDY_HABITS");
-                stmt.execute("DELETE FROM TESTS");
-                stmt.execute("DELETE FROM NOTES");
-                stmt.execute("DELETE FROM ASSIGNMENTS");
-                stmt.execute("DELETE FROM COURSES");
-
-                insertCourses(conn, state.getCourses());
-                insertAssignments(conn, state.getAssignments());
-                insertNotes(conn, state.getNotes());
-                insertTests(conn, state.getTests());
-                insertHabits(conn, state.getHabits());
-                insertHabitLogs(conn, state.getHabitLogs());
+                deleteAll(conn);
+
+                for (EntityType type : EntityType.values()) {
+                    writeBatch(pc, type, type.listIn(state), false);
+                }
 
                 conn.commit();
             } catch (SQLException e) {
@@ -78,205 +121,360 @@ public class SqlAppStateRepository implements AppStateRepository {
         }
     }
 
-    private void insertCourses(Connection conn, List<Course> items) throws SQLException {
-        String sql = "INSERT INTO COURSES (ID, NAME, INSTRUCTOR, SEMESTER, CREDITS, DESCRIPTION) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            for (Course i : items) {
+    /**
+     * Removes every row from every table in one transaction.
+     */
+    public void clear() throws IOException {
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            Connection conn = pc.getConnection();
+            conn.setAutoCommit(false);
+            try {
+                deleteAll(conn);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to clear the SQL DB", e);
+        }
+    }
+
+    private static void deleteAll(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM HABIT_LOGS");
+            stmt.execute("DELETE FROM STUDY_HABITS");
+            stmt.execute("DELETE FROM TESTS");
+            stmt.execute("DELETE FROM NOTES");
+            stmt.execute("DELETE FROM ASSIGNMENTS");
+            stmt.execute("DELETE FROM COURSES");
+        }
+    }
+
+    /**
+     * Writes only the given changed entities as MERGE (upsert) statements,
+     * batched per table, in a single transaction.
+     *
+     * @return number of rows written
+     */
+    public int saveChanges(ChangeSet changes) throws IOException {
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        int rows = 0;
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            Connection conn = pc.getConnection();
+            conn.setAutoCommit(false);
+            try {
+                for (EntityType type : EntityType.values()) {
+                    rows += writeBatch(pc, type, changes.get(type), true);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to save changes to SQL DB", e);
+        }
+        return rows;
+    }
+
+    private int writeBatch(ConnectionPool.PooledConnection pc, EntityType type, List<?> items, boolean upsert)
+            throws SQLException {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        PreparedStatement ps = pc.prepare(upsert ? MERGE_SQL[type.ordinal()] : INSERT_SQL[type.ordinal()]);
+        for (Object item : items) {
+            bind(ps, type, item);
+            ps.addBatch();
+        }
+        ps.executeBatch();
+        return items.size();
+    }
+
+    // Indexed by EntityType.ordinal()
+    private static final String[] COLUMNS = {
+            "COURSES (ID, NAME, INSTRUCTOR, SEMESTER, CREDITS, DESCRIPTION)",
+            "ASSIGNMENTS (ID, COURSE_ID, TITLE, DESCRIPTION, DUE_DATE, PRIORITY, STATUS)",
+            "NOTES (ID, COURSE_ID, TITLE, CONTENT, CREATED_ON)",
+            "TESTS (ID, COURSE_ID, NAME, TEST_DATE, MAX_SCORE, SCORE)",
+            "STUDY_HABITS (ID, NAME, DESCRIPTION, WEEKLY_TARGET)",
+            "HABIT_LOGS (ID, HABIT_ID, LOG_DATE, AMOUNT, NOTE)"
+    };
+
+    private static final String[] PLACEHOLDERS = {
+            "?, ?, ?, ?, ?, ?",
+            "?, ?, ?, ?, ?, ?, ?",
+            "?, ?, ?, ?, ?",
+            "?, ?, ?, ?, ?, ?",
+            "?, ?, ?, ?",
+            "?, ?, ?, ?, ?"
+    };
+
+    // MERGE INTO ... KEY(ID) is H2's upsert; it takes the same column list as INSERT.
+    private static final String[] INSERT_SQL = new String[COLUMNS.length];
+    private static final String[] MERGE_SQL = new String[COLUMNS.length];
+    private static final String[] SELECT_SQL = new String[COLUMNS.length];
+
+    private static final String LAZY_ON = "SET LAZY_QUERY_EXECUTION TRUE";
+    private static final String LAZY_OFF = "SET LAZY_QUERY_EXECUTION FALSE";
+
+    static {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            INSERT_SQL[i] = "INSERT INTO " + COLUMNS[i] + " VALUES (" + PLACEHOLDERS[i] + ")";
+            MERGE_SQL[i] = "MERGE INTO " + COLUMNS[i] + " KEY(ID) VALUES (" + PLACEHOLDERS[i] + ")";
+            // "COURSES (ID, NAME, ...)" -> "SELECT ID, NAME, ... FROM COURSES"
+            int paren = COLUMNS[i].indexOf(" (");
+            SELECT_SQL[i] = "SELECT " + COLUMNS[i].substring(paren + 2, COLUMNS[i].length() - 1)
+                    + " FROM " + COLUMNS[i].substring(0, paren) + " ORDER BY ID";
+        }
+    }
+
+    private static void bind(PreparedStatement ps, EntityType type, Object item) throws SQLException {
+        switch (type) {
+            case COURSE: {
+                Course i = (Course) item;
                 ps.setInt(1, i.getCourseId());
                 ps.setString(2, i.getCourseName());
                 ps.setString(3, i.getInstructorName());
                 ps.setString(4, i.getSemester());
                 ps.setInt(5, i.getCreditHours());
                 ps.setString(6, i.getDescription());
-                ps.executeUpdate();
+                break;
             }
-        }
-    }
-
-    private void insertAssignments(Connection conn, List<Assignment> items) throws SQLException {
-        String sql = "INSERT INTO ASSIGNMENTS (ID, COURSE_ID, TITLE, DESCRIPTION, DUE_DATE, PRIORITY, STATUS) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            for (Assignment i : items) {
+            case ASSIGNMENT: {
+                Assignment i = (Assignment) item;
                 ps.setInt(1, i.getAssignmentId());
                 ps.setInt(2, i.getCourseId());
                 ps.setString(3, i.getTitle());
                 ps.setString(4, i.getDescription());
-                ps.setDate(5, Date.valueOf(i.getDueDate()));
+                ps.setDate(5, toSqlDate(i.getDueDate()));
                 ps.setInt(6, i.getPriority());
                 ps.setString(7, i.getStatus());
-                ps.executeUpdate();
+                break;
             }
-        }
-    }
-
-    private void insertNotes(Connection conn, List<Note> items) throws SQLException {
-        String sql = "INSERT INTO NOTES (ID, COURSE_ID, TITLE, CONTENT, CREATED_ON) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            for (Note i : items) {
+            case NOTE: {
+                Note i = (Note) item;
                 ps.setInt(1, i.getNoteId());
                 ps.setInt(2, i.getCourseId());
                 ps.setString(3, i.getTitle());
                 ps.setString(4, i.getContent());
-                ps.setDate(5, Date.valueOf(i.getCreatedOn()));
-                ps.executeUpdate();
+                ps.setDate(5, toSqlDate(i.getCreatedOn()));
+                break;
             }
-        }
-    }
-
-    private void insertTests(Connection conn, List<Test> items) throws SQLException {
-        String sql = "INSERT INTO TESTS (ID, COURSE_ID, NAME, TEST_DATE, MAX_SCORE, SCORE) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            for (Test i : items) {
+            case TEST: {
+                Test i = (Test) item;
                 ps.setInt(1, i.getTestId());
                 ps.setInt(2, i.getCourseId());
                 ps.setString(3, i.getName());
-                ps.setDate(4, Date.valueOf(i.getDate()));
+                ps.setDate(4, toSqlDate(i.getDate()));
                 ps.setDouble(5, i.getMaxScore());
                 ps.setDouble(6, i.getScore());
-                ps.executeUpdate();
+                break;
             }
-        }
-    }
-
-    private void insertHabits(Connection conn, List<StudyHabit> items) throws SQLException {
-        String sql = "INSERT INTO STUDY_HABITS (ID, NAME, DESCRIPTION, WEEKLY_TARGET) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            for (StudyHabit i : items) {
+            case HABIT: {
+                StudyHabit i = (StudyHabit) item;
                 ps.setInt(1, i.getHabitId());
                 ps.setString(2, i.getName());
                 ps.setString(3, i.getDescription());
                 ps.setInt(4, i.getWeeklyTarget());
-                ps.executeUpdate();
+                break;
             }
-        }
-    }
-
-    private void insertHabitLogs(Connection conn, List<HabitLog> items) throws SQLException {
-        String sql = "INSERT INTO HABIT_LOGS (ID, HABIT_ID, LOG_DATE, AMOUNT, NOTE) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            for (HabitLog i : items) {
+            default: {
+                HabitLog i = (HabitLog) item;
                 ps.setInt(1, i.getLogId());
                 ps.setInt(2, i.getHabitId());
-                ps.setDate(3, Date.valueOf(i.getDate()));
+                ps.setDate(3, toSqlDate(i.getDate()));
                 ps.setInt(4, i.getAmount());
                 ps.setString(5, i.getNote());
-                ps.executeUpdate();
+                break;
             }
         }
     }
 
+    private static Date toSqlDate(LocalDate date) {
+        return date == null ? null : Date.valueOf(date);
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date == null ? null : date.toLocalDate();
+    }
+
+    // ---------------- Dashboard queries ----------------
+
+    private static final String UPCOMING_SQL = "SELECT ID FROM ASSIGNMENTS"
+            + " WHERE COMPLETED = FALSE AND DUE_DATE >= ?"
+            + " ORDER BY DUE_DATE, PRIORITY, ID LIMIT ? OFFSET ?";
+
+    private static final String UPCOMING_FOR_COURSE_SQL = "SELECT ID FROM ASSIGNMENTS"
+            + " WHERE COURSE_ID = ? AND COMPLETED = FALSE AND DUE_DATE >= ?"
+            + " ORDER BY DUE_DATE, PRIORITY, ID LIMIT ? OFFSET ?";
+
     @Override
-    public AppState load() throws IOException {
-        AppState state = new AppState();
-        try (Connection conn = DriverManager.getConnection(dbUrl, user, password)) {
-            state.setCourses(loadCourses(conn));
-            state.setAssignments(loadAssignments(conn));
-            state.setNotes(loadNotes(conn));
-            state.setTests(loadTests(conn));
-            state.setHabits(loadHabits(conn));
-            state.setHabitLogs(loadHabitLogs(conn));
+    public List<Integer> findUpcomingAssignmentIds(LocalDate from, Integer courseId, int offset, int limit)
+            throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            PreparedStatement ps = pc.prepare(courseId == null ? UPCOMING_SQL : UPCOMING_FOR_COURSE_SQL);
+            int p = 1;
+            if (courseId != null) {
+                ps.setInt(p++, courseId);
+            }
+            ps.setDate(p++, toSqlDate(from));
+            ps.setInt(p++, limit);
+            ps.setInt(p, offset);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
         } catch (SQLException e) {
-            throw new IOException("Failed to load state from SQL DB", e);
+            throw new IOException("Failed to query upcoming deadlines", e);
         }
+        return ids;
+    }
+
+    @Override
+    public AppState load() throws IOException {
+        AppState state = new AppState();
+        stream((type, entity) -> {
+            List<Object> list = type.listIn(state);
+            list.add(entity);
+        });
         return state;
     }
 
-    private List<Course> loadCourses(Connection conn) throws SQLException {
-        List<Course> list = new ArrayList<>();
-        try (Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT * FROM COURSES")) {
-            while (rs.next()) {
-                list.add(new Course(
-                        rs.getInt("ID"),
-                        rs.getString("NAME"),
-                        rs.getString("INSTRUCTOR"),
-                        rs.getString("SEMESTER"),
-                        rs.getInt("CREDITS"),
-                        rs.getString("DESCRIPTION")));
+    // ---------------- Streaming load ----------------
+
+    /**
+     * Reads every table and hands the entities to the sink one at a time, in
+     * the same table order as save() and by ascending id within a table.
+     */
+    @Override
+    public void stream(EntitySink sink) throws IOException {
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            for (EntityType type : EntityType.values()) {
+                streamTable(pc, type, sink);
             }
+        } catch (SQLException e) {
+            throw new IOException("Failed to load state from SQL DB", e);
         }
-        return list;
     }
 
-    private List<Assignment> loadAssignments(Connection conn) throws SQLException {
-        List<Assignment> list = new ArrayList<>();
-        try (Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT * FROM ASSIGNMENTS")) {
-            while (rs.next()) {
-                list.add(new Assignment(
-                        rs.getInt("ID"),
-                        rs.getInt("COURSE_ID"),
-                        rs.getString("TITLE"),
-                        rs.getString("DESCRIPTION"),
-                        rs.getDate("DUE_DATE").toLocalDate(),
-                        rs.getInt("PRIORITY"),
-                        rs.getString("STATUS")));
-            }
+    /**
+     * Reads one table and hands its entities to the sink one at a time.
+     */
+    public void stream(EntityType type, EntitySink sink) throws IOException {
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            streamTable(pc, type, sink);
+        } catch (SQLException e) {
+            throw new IOException("Failed to load " + type.getSectionName() + " from SQL DB", e);
         }
-        return list;
     }
 
-    private List<Note> loadNotes(Connection conn) throws SQLException {
-        List<Note> list = new ArrayList<>();
-        try (Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT * FROM NOTES")) {
-            while (rs.next()) {
-                list.add(new Note(
-                        rs.getInt("ID"),
-                        rs.getInt("COURSE_ID"),
-                        rs.getString("TITLE"),
-                        rs.getString("CONTENT"),
-                        rs.getDate("CREATED_ON").toLocalDate()));
+    /**
+     * Opens a cursor over one table as a Stream. The stream holds a pooled
+     * connection until it is closed, so use it in try-with-resources.
+     * SQL errors while iterating surface as UncheckedIOException.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Stream<T> openStream(EntityType type) throws IOException {
+        ConnectionPool.PooledConnection pc = null;
+        try {
+            pc = pool.borrow();
+            ResultSet rs = openCursor(pc, type);
+            ConnectionPool.PooledConnection owner = pc;
+            Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                    Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        action.accept((T) readRow(rs, type));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new UncheckedIOException(new IOException("Failed to read " + type.getSectionName(), e));
+                    }
+                }
+            };
+            return StreamSupport.stream(rows, false).onClose(() -> closeCursor(owner, rs));
+        } catch (SQLException e) {
+            if (pc != null) {
+                pc.close();
             }
+            throw new IOException("Failed to open cursor on " + type.getSectionName(), e);
         }
-        return list;
     }
 
-    private List<Test> loadTests(Connection conn) throws SQLException {
-        List<Test> list = new ArrayList<>();
-        try (Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT * FROM TESTS")) {
+    /**
+     * Rows fetched per round trip when streaming (JDBC fetch size).
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = Math.max(1, fetchSize);
+    }
+
+    private void streamTable(ConnectionPool.PooledConnection pc, EntityType type, EntitySink sink)
+            throws SQLException, IOException {
+        ResultSet rs = openCursor(pc, type);
+        try {
             while (rs.next()) {
-                list.add(new Test(
-                        rs.getInt("ID"),
-                        rs.getInt("COURSE_ID"),
-                        rs.getString("NAME"),
-                        rs.getDate("TEST_DATE").toLocalDate(),
-                        rs.getDouble("MAX_SCORE"),
-                        rs.getDouble("SCORE")));
+                sink.accept(type, readRow(rs, type));
             }
+        } finally {
+            closeCursor(pc, rs);
         }
-        return list;
     }
 
-    private List<StudyHabit> loadHabits(Connection conn) throws SQLException {
-        List<StudyHabit> list = new ArrayList<>();
-        try (Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT * FROM STUDY_HABITS")) {
-            while (rs.next()) {
-                list.add(new StudyHabit(
-                        rs.getInt("ID"),
-                        rs.getString("NAME"),
-                        rs.getString("DESCRIPTION"),
-                        rs.getInt("WEEKLY_TARGET")));
-            }
+    /**
+     * Runs the explicit-column SELECT with H2's lazy query execution, so rows
+     * are produced as the cursor advances instead of the whole result being
+     * buffered first.
+     */
+    private ResultSet openCursor(ConnectionPool.PooledConnection pc, EntityType type) throws SQLException {
+        pc.prepare(LAZY_ON).execute();
+        PreparedStatement ps = pc.prepare(SELECT_SQL[type.ordinal()]);
+        ps.setFetchSize(fetchSize);
+        return ps.executeQuery();
+    }
+
+    private static void closeCursor(ConnectionPool.PooledConnection pc, ResultSet rs) {
+        try {
+            rs.close();
+            pc.prepare(LAZY_OFF).execute();
+        } catch (SQLException e) {
+            System.err.println("Error closing SQL cursor: " + e.getMessage());
+        } finally {
+            pc.close();
         }
-        return list;
     }
 
-    private List<HabitLog> loadHabitLogs(Connection conn) throws SQLException {
-        List<HabitLog> list = new ArrayList<>();
-        try (Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery("SELECT * FROM HABIT_LOGS")) {
-            while (rs.next()) {
-                list.add(new HabitLog(
-                        rs.getInt("ID"),
-                        rs.getInt("HABIT_ID"),
-                        rs.getDate("LOG_DATE").toLocalDate(),
-                        rs.getInt("AMOUNT"),
-                        rs.getString("NOTE")));
-            }
+    /**
+     * Builds one entity from the current row of a SELECT_SQL result, reading
+     * columns by position.
+     */
+    private static Object readRow(ResultSet rs, EntityType type) throws SQLException {
+        switch (type) {
+            case COURSE:
+                return new Course(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getInt(5), rs.getString(6));
+            case ASSIGNMENT:
+                return new Assignment(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4),
+                        toLocalDate(rs.getDate(5)), rs.getInt(6), rs.getString(7));
+            case NOTE:
+                return new Note(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4),
+                        toLocalDate(rs.getDate(5)));
+            case TEST:
+                return new Test(rs.getInt(1), rs.getInt(2), rs.getString(3), toLocalDate(rs.getDate(4)),
+                        rs.getDouble(5), rs.getDouble(6));
+            case HABIT:
+                return new StudyHabit(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getInt(4));
+            default:
+                return new HabitLog(rs.getInt(1), rs.getInt(2), toLocalDate(rs.getDate(3)), rs.getInt(4),
+                        rs.getString(5));
         }
-        return list;
     }
 }
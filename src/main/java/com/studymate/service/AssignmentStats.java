@@ -0,0 +1,162 @@
+package com.studymate.service;
+
+import com.studymate.core.IntObjectMap;
+import com.studymate.model.Assignment;
+import com.studymate.model.Course;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Completed and pending assignment counts per course, their totals and the
+ * credit hours of all pending assignments, kept up to date as assignments
+ * are added, completed or changed, so every figure is read in O(1) instead
+ * of by scanning the assignments. A pending assignment counts the credit
+ * hours of its course; one whose course is not known (yet) counts zero
+ * until the course is added. Not thread-safe.
+ */
+class AssignmentStats {
+
+    private static final int COMPLETED = 0;
+    private static final int PENDING = 1;
+
+    // course ID -> {completed, pending}
+    private final IntObjectMap<int[]> byCourse = new IntObjectMap<>();
+    private int completed;
+    private int pending;
+    private long pendingCreditHours;
+
+    /**
+     * Computes the statistics from scratch.
+     */
+    static AssignmentStats of(List<Assignment> assignments, IntObjectMap<Course> coursesById) {
+        AssignmentStats stats = new AssignmentStats();
+        for (Assignment a : assignments) {
+            stats.add(a, creditHoursOf(coursesById.get(a.getCourseId())));
+        }
+        return stats;
+    }
+
+    static int creditHoursOf(Course course) {
+        return (course != null) ? course.getCreditHours() : 0;
+    }
+
+    void add(Assignment a, int creditHours) {
+        count(a.getCourseId(), a.isCompleted(), creditHours, 1);
+    }
+
+    void remove(Assignment a, int creditHours) {
+        count(a.getCourseId(), a.isCompleted(), creditHours, -1);
+    }
+
+    /**
+     * Credits the pending assignments already recorded for a course that was
+     * not known before.
+     */
+    void courseAdded(Course course) {
+        pendingCreditHours += (long) pendingCount(course.getCourseId()) * course.getCreditHours();
+    }
+
+    int completedCount(int courseId) {
+        int[] counts = byCourse.get(courseId);
+        return (counts != null) ? counts[COMPLETED] : 0;
+    }
+
+    int pendingCount(int courseId) {
+        int[] counts = byCourse.get(courseId);
+        return (counts != null) ? counts[PENDING] : 0;
+    }
+
+    int completedCount() {
+        return completed;
+    }
+
+    int pendingCount() {
+        return pending;
+    }
+
+    long pendingCreditHours() {
+        return pendingCreditHours;
+    }
+
+    /**
+     * @return IDs of the courses with at least one completed assignment, ascending
+     */
+    int[] coursesWithCompleted() {
+        return coursesWith(COMPLETED);
+    }
+
+    /**
+     * @return IDs of the courses with at least one pending assignment, ascending
+     */
+    int[] coursesWithPending() {
+        return coursesWith(PENDING);
+    }
+
+    // Only courses that have assignments are in byCourse, so this never looks at the others.
+    private int[] coursesWith(int slot) {
+        int[] ids = new int[byCourse.size()];
+        int n = 0;
+        for (Map.Entry<Integer, int[]> e : byCourse.asMap().entrySet()) {
+            if (e.getValue()[slot] > 0) {
+                ids[n++] = e.getKey();
+            }
+        }
+        ids = Arrays.copyOf(ids, n);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * @return a description of the first difference from the other statistics, or null if they agree
+     */
+    String differenceFrom(AssignmentStats other) {
+        if (completed != other.completed || pending != other.pending) {
+            return "totals " + completed + "/" + pending + " instead of " + other.completed + "/" + other.pending;
+        }
+        if (pendingCreditHours != other.pendingCreditHours) {
+            return "pending credit hours " + pendingCreditHours + " instead of " + other.pendingCreditHours;
+        }
+        for (int courseId : courseIds(other)) {
+            if (completedCount(courseId) != other.completedCount(courseId)
+                    || pendingCount(courseId) != other.pendingCount(courseId)) {
+                return "course " + courseId + " " + completedCount(courseId) + "/" + pendingCount(courseId)
+                        + " instead of " + other.completedCount(courseId) + "/" + other.pendingCount(courseId);
+            }
+        }
+        return null;
+    }
+
+    private void count(int courseId, boolean isCompleted, int creditHours, int delta) {
+        int[] counts = byCourse.get(courseId);
+        if (counts == null) {
+            counts = new int[2];
+            byCourse.put(courseId, counts);
+        }
+        if (isCompleted) {
+            counts[COMPLETED] += delta;
+            completed += delta;
+        } else {
+            counts[PENDING] += delta;
+            pending += delta;
+            pendingCreditHours += (long) delta * creditHours;
+        }
+        if (counts[COMPLETED] == 0 && counts[PENDING] == 0) {
+            byCourse.remove(courseId);
+        }
+    }
+
+    // Course IDs present in either statistics.
+    private int[] courseIds(AssignmentStats other) {
+        int[] ids = new int[byCourse.size() + other.byCourse.size()];
+        int n = 0;
+        for (Integer id : byCourse.asMap().keySet()) {
+            ids[n++] = id;
+        }
+        for (Integer id : other.byCourse.asMap().keySet()) {
+            ids[n++] = id;
+        }
+        return Arrays.copyOf(ids, n);
+    }
+}
@@ -0,0 +1,235 @@
+package com.studymate.service;
+
+import com.studymate.model.Assignment;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Sorted set of pending assignments, each packed into one long key of
+ * (epoch day, priority, id) that sorts like {@link Assignment#compareTo}:
+ * <pre>
+ *   bit 63     0
+ *   62..41     due date as epoch day + 2^21 (years -3771..7711, clamped)
+ *   40..32     priority + 256 (clamped to -256..255)
+ *   31..0      id with the sign bit flipped
+ * </pre>
+ * The keys live in sorted blocks of at most BLOCK_SIZE, so an insert or
+ * removal shifts at most one block, and a range query costs a binary search
+ * plus the keys it returns. The assignment itself is found through its id.
+ * Not thread-safe.
+ */
+class DueDateIndex {
+
+    private static final int BLOCK_SIZE = 512;
+    // Bulk loads leave room in every block for later inserts.
+    private static final int BULK_FILL = BLOCK_SIZE * 3 / 4;
+
+    private static final long DAY_BIAS = 1L << 21;
+    private static final long MAX_DAY = (1L << 22) - 1;
+    private static final int PRIORITY_BIAS = 256;
+    private static final int MAX_PRIORITY = 511;
+
+    private long[][] blocks = new long[0][];
+    private int[] sizes = new int[0];
+    private int blockCount;
+    private int size;
+
+    /**
+     * Whether the assignment belongs in the index: not completed and with a due date.
+     */
+    static boolean isIndexed(Assignment a) {
+        return !a.isCompleted() && a.getDueDate() != null;
+    }
+
+    static long keyOf(Assignment a) {
+        return dayStart(a.getDueDate())
+                | (long) Math.max(0, Math.min(MAX_PRIORITY, a.getPriority() + PRIORITY_BIAS)) << 32
+                | ((a.getAssignmentId() ^ Integer.MIN_VALUE) & 0xffffffffL);
+    }
+
+    /**
+     * The smallest key of the given day, i.e. the start of that day's range.
+     */
+    static long dayStart(LocalDate day) {
+        return Math.max(0, Math.min(MAX_DAY, day.toEpochDay() + DAY_BIAS)) << 41;
+    }
+
+    static int idOf(long key) {
+        return (int) key ^ Integer.MIN_VALUE;
+    }
+
+    /**
+     * Builds the index from keys that are already sorted, e.g. in the order
+     * of a prebuilt due-date order; unsorted input is sorted first.
+     */
+    static DueDateIndex of(long[] keys, int count) {
+        for (int i = 1; i < count; i++) {
+            if (keys[i - 1] >= keys[i]) {
+                Arrays.sort(keys, 0, count);
+                break;
+            }
+        }
+        DueDateIndex index = new DueDateIndex();
+        int blockCount = (count + BULK_FILL - 1) / BULK_FILL;
+        index.blocks = new long[Math.max(4, blockCount)][];
+        index.sizes = new int[index.blocks.length];
+        long previous = -1;
+        for (int i = 0; i < count; i++) {
+            if (keys[i] == previous) {
+                continue; // same id twice
+            }
+            previous = keys[i];
+            if (index.blockCount == 0 || index.sizes[index.blockCount - 1] == BULK_FILL) {
+                index.blocks[index.blockCount++] = new long[BLOCK_SIZE];
+            }
+            int b = index.blockCount - 1;
+            index.blocks[b][index.sizes[b]++] = keys[i];
+            index.size++;
+        }
+        return index;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return false if the key was already there
+     */
+    boolean add(long key) {
+        if (blockCount == 0) {
+            insertBlock(0, new long[BLOCK_SIZE], 0);
+        }
+        int b = blockFor(key);
+        int at = Arrays.binarySearch(blocks[b], 0, sizes[b], key);
+        if (at >= 0) {
+            return false;
+        }
+        at = -at - 1;
+        if (sizes[b] == BLOCK_SIZE) {
+            // Split in half and insert into whichever half the key falls in.
+            long[] upper = new long[BLOCK_SIZE];
+            int half = BLOCK_SIZE / 2;
+            System.arraycopy(blocks[b], half, upper, 0, BLOCK_SIZE - half);
+            sizes[b] = half;
+            insertBlock(b + 1, upper, BLOCK_SIZE - half);
+            if (at > half) {
+                b++;
+                at -= half;
+            }
+        }
+        long[] block = blocks[b];
+        System.arraycopy(block, at, block, at + 1, sizes[b] - at);
+        block[at] = key;
+        sizes[b]++;
+        size++;
+        return true;
+    }
+
+    /**
+     * @return false if the key was not there
+     */
+    boolean remove(long key) {
+        if (blockCount == 0) {
+            return false;
+        }
+        int b = blockFor(key);
+        int at = Arrays.binarySearch(blocks[b], 0, sizes[b], key);
+        if (at < 0) {
+            return false;
+        }
+        long[] block = blocks[b];
+        System.arraycopy(block, at + 1, block, at, sizes[b] - at - 1);
+        size--;
+        if (--sizes[b] == 0) {
+            System.arraycopy(blocks, b + 1, blocks, b, blockCount - b - 1);
+            System.arraycopy(sizes, b + 1, sizes, b, blockCount - b - 1);
+            blocks[--blockCount] = null;
+        }
+        return true;
+    }
+
+    /**
+     * Hands the keys in [fromKey, toKey) to the visitor in ascending order,
+     * after skipping the first skip of them, until it returns false. Skipped
+     * blocks are stepped over by their sizes.
+     */
+    void forEachInRange(long fromKey, long toKey, int skip, LongPredicate visitor) {
+        if (blockCount == 0) {
+            return;
+        }
+        int b = blockFor(fromKey);
+        int at = Arrays.binarySearch(blocks[b], 0, sizes[b], fromKey);
+        at = (at < 0) ? -at - 1 : at;
+        while (skip > 0 && b < blockCount) {
+            int left = sizes[b] - at;
+            if (skip < left) {
+                at += skip;
+                break;
+            }
+            skip -= left;
+            b++;
+            at = 0;
+        }
+        for (; b < blockCount; b++, at = 0) {
+            long[] block = blocks[b];
+            for (int end = sizes[b]; at < end; at++) {
+                if (block[at] >= toKey || !visitor.test(block[at])) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of keys in [fromKey, toKey), in time proportional to the number
+     * of blocks rather than keys.
+     */
+    int countInRange(long fromKey, long toKey) {
+        return (fromKey >= toKey) ? 0 : rank(toKey) - rank(fromKey);
+    }
+
+    // Number of keys smaller than key.
+    private int rank(long key) {
+        if (blockCount == 0) {
+            return 0;
+        }
+        int b = blockFor(key);
+        int at = Arrays.binarySearch(blocks[b], 0, sizes[b], key);
+        int rank = (at < 0) ? -at - 1 : at;
+        for (int i = 0; i < b; i++) {
+            rank += sizes[i];
+        }
+        return rank;
+    }
+
+    // Last block whose first key is <= key (the first block if there is none).
+    private int blockFor(long key) {
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (blocks[mid][0] <= key) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private void insertBlock(int b, long[] block, int blockSize) {
+        if (blockCount == blocks.length) {
+            int capacity = Math.max(4, blocks.length * 2);
+            blocks = Arrays.copyOf(blocks, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+        }
+        System.arraycopy(blocks, b, blocks, b + 1, blockCount - b);
+        System.arraycopy(sizes, b, sizes, b + 1, blockCount - b);
+        blocks[b] = block;
+        sizes[b] = blockSize;
+        blockCount++;
+    }
+}
@@ -0,0 +1,28 @@
+package com.studymate.service;
+
+/**
+ * Startup progress of StudyMateService (see {@link StudyMateService#getHydrationState()}).
+ */
+public enum HydrationState {
+
+    /** Nothing loaded yet; hydration starts with the Spring context or on first use. */
+    PENDING,
+
+    /** Reading the data files (or database) and building the lookup maps. */
+    LOADING,
+
+    /**
+     * Data is loaded and calls no longer wait; the parse, codec and render
+     * paths are being exercised before the service reports ready.
+     */
+    WARMING_UP,
+
+    /** Fully loaded and warmed up. */
+    READY,
+
+    /**
+     * Hydration stopped with an unexpected error. Calls go ahead with
+     * whatever was loaded; nothing is written back on shutdown.
+     */
+    FAILED
+}
@@ -1,7 +1,11 @@
 package com.studymate.service;
 
+import com.studymate.core.IntObjectMap;
+import com.studymate.core.StudyMateSettings;
 import com.studymate.exceptions.DuplicateIdException;
 import com.studymate.exceptions.InvalidCourseException;
+import com.studymate.exceptions.InvalidHabitException;
+import com.studymate.interfaces.Persistable;
 import com.studymate.model.Assignment;
 import com.studymate.model.Course;
 import com.studymate.model.HabitLog;
@@ -10,36 +14,135 @@ import com.studymate.model.StudyHabit;
 import com.studymate.model.Test;
 import com.studymate.persistence.AppState;
 import com.studymate.persistence.AppStateRepository;
+import com.studymate.persistence.BackendMigrator;
+import com.studymate.persistence.BinaryAppStateRepository;
+import com.studymate.persistence.BinaryRecordCodec;
+import com.studymate.persistence.BinaryRecordReader;
+import com.studymate.persistence.BinaryRecordWriter;
+import com.studymate.persistence.ChangeSet;
+import com.studymate.persistence.ColumnarAppStateRepository;
+import com.studymate.persistence.ConnectionPool;
+import com.studymate.persistence.CsvLoadMode;
 import com.studymate.persistence.CsvPersistenceManager;
+import com.studymate.persistence.CsvRecordCodec;
+import com.studymate.persistence.DashboardQueries;
 import com.studymate.persistence.DataInitializer;
+import com.studymate.persistence.DeltaJsonAppStateRepository;
+import com.studymate.persistence.EntityType;
+import com.studymate.persistence.FastStartSnapshot;
+import com.studymate.persistence.FsyncPolicy;
 import com.studymate.persistence.JsonAppStateRepository;
+import com.studymate.persistence.JsonEntityCodec;
+import com.studymate.persistence.JsonStreamReader;
+import com.studymate.persistence.JsonStreamWriter;
+import com.studymate.persistence.MutationJournal;
+import com.studymate.persistence.NdjsonAppStateRepository;
 import com.studymate.persistence.ObjectStreamAppStateRepository;
+import com.studymate.persistence.PersistenceBackend;
+import com.studymate.persistence.PersistenceMode;
+import com.studymate.persistence.SaveFormat;
+import com.studymate.persistence.SavePipeline;
+import com.studymate.persistence.SaveReport;
+import com.studymate.persistence.SnapshotCodec;
+import com.studymate.persistence.SqlAppStateRepository;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 /**
  * Main application service managing collections, CRUD, business logic and
  * persistence orchestration (CSV, JSON and ObjectStreams).
+ *
+ * In JOURNAL persistence mode each mutation is appended to a
+ * {@link MutationJournal} instead of rewriting every file; the CSV and JSON
+ * snapshots are only rewritten at checkpoints. In SNAPSHOT mode with
+ * write-behind enabled, autosaves are coalesced by a
+ * {@link WriteBehindScheduler} so request threads never wait for disk I/O.
+ *
+ * With the SQL backend the H2 database replaces the CSV/JSON files as the
+ * primary copy: mutations are recorded in a {@link ChangeSet} and each save
+ * upserts only those rows. The dashboard analytics are then pushed down to
+ * the database through {@link DashboardQueries}.
  */
 @Service
 public class StudyMateService {
 
-    // CSV persistence (Lab 5)
-    private final CsvPersistenceManager<Course> courseCsv;
-    private final CsvPersistenceManager<Assignment> assignmentCsv;
+    // CSV persistence (Lab 5), one file per entity type
+    private final Map<EntityType, CsvPersistenceManager<?>> csvFiles = new EnumMap<>(EntityType.class);
+    private final Set<EntityType> startupTypes;
+
+    // Binary cache of the CSV files with the due-date order prebuilt (null = off)
+    private final FastStartSnapshot fastStart;
+    // Valid snapshot found at startup; types not loaded yet are decoded from it
+    private FastStartSnapshot.Loaded startupSnapshot;
 
     // JSON & ObjectStream persistence (Lab 6)
     private final AppStateRepository jsonRepository;
     private final AppStateRepository objectRepository;
 
+    // SQL backend (both null with the FILES backend)
+    private final SqlAppStateRepository sqlRepository;
+    private final ChangeSet changes;
+    private final DashboardQueries dashboardQueries;
+
+    // Writes CSV, JSON, binary (and SQL) from one snapshot in parallel
+    private final SavePipeline savePipeline;
+
+    // Write-ahead journal (null in SNAPSHOT mode)
+    private final MutationJournal journal;
+    private final int checkpointEvery;
+    private final ExecutorService checkpointExecutor;
+    private final AtomicBoolean checkpointPending = new AtomicBoolean();
+
+    // Coalescing autosave (null when autosave runs synchronously)
+    private final WriteBehindScheduler autoSaveScheduler;
+    // The saved files miss changes: a synchronous autosave failed, or journal
+    // records were replayed at startup that no checkpoint covers yet
+    private volatile boolean snapshotsBehind;
+    private final AtomicBoolean shutDown = new AtomicBoolean();
+
+    // Loading on a background thread (studymate.startup.async-hydration):
+    // callers wait on dataLoaded; ready once the hot paths are warmed up
+    private final int warmUpIterations;
+    private final List<Runnable> warmUpTasks = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean hydrationStarted = new AtomicBoolean();
+    private final CountDownLatch dataLoaded = new CountDownLatch(1);
+    private final CountDownLatch ready = new CountDownLatch(1);
+    private volatile Thread hydrationThread;
+    private volatile HydrationState hydrationState = HydrationState.PENDING;
+
     // In-memory collections
     private List<Course> courses = new ArrayList<>();
     private List<Assignment> assignments = new ArrayList<>();
@@ -48,19 +151,158 @@ public class StudyMateService {
     private List<StudyHabit> habits = new ArrayList<>();
     private List<HabitLog> habitLogs = new ArrayList<>();
 
-    // Fast lookup of courses by ID
-    private final Map<Integer, Course> courseMap = new HashMap<>();
+    // Types whose CSV file has been read; the rest load on first use
+    private final Set<EntityType> loadedTypes = EnumSet.allOf(EntityType.class);
+    private volatile boolean allLoaded = true;
+
+    // Lookup by ID for every type: duplicate checks, foreign keys, getXById
+    private final IntObjectMap<Course> coursesById = new IntObjectMap<>();
+    private final IntObjectMap<Assignment> assignmentsById = new IntObjectMap<>();
+    private final IntObjectMap<Note> notesById = new IntObjectMap<>();
+    private final IntObjectMap<Test> testsById = new IntObjectMap<>();
+    private final IntObjectMap<StudyHabit> habitsById = new IntObjectMap<>();
+    private final IntObjectMap<HabitLog> habitLogsById = new IntObjectMap<>();
+
+    // Secondary indexes: course ID -> its assignments, notes and tests;
+    // semester and instructor (trimmed, case-insensitive) -> courses
+    private final IntObjectMap<List<Assignment>> assignmentsByCourse = new IntObjectMap<>();
+    private final IntObjectMap<List<Note>> notesByCourse = new IntObjectMap<>();
+    private final IntObjectMap<List<Test>> testsByCourse = new IntObjectMap<>();
+    private final Map<String, List<Course>> coursesBySemester = new HashMap<>();
+    private final Map<String, List<Course>> coursesByInstructor = new HashMap<>();
+
+    // Pending assignments by due date, priority and id; null until next needed
+    private DueDateIndex pendingByDueDate;
+
+    // Completion and workload counts; null until next needed
+    private AssignmentStats assignmentStats;
+    // Recompute the counts after every change and fail if they differ (for tests)
+    private final boolean verifyStats;
 
     public StudyMateService() {
-        // CSV files live under a simple "data" folder in the working directory
-        this.courseCsv = new CsvPersistenceManager<>("data/courses.csv", Course::parse);
-        this.assignmentCsv = new CsvPersistenceManager<>("data/assignments.csv", Assignment::parse);
+        this(StudyMateSettings.load());
+    }
 
-        this.jsonRepository = new JsonAppStateRepository("data/studymate.json");
-        this.objectRepository = new ObjectStreamAppStateRepository("data/studymate.bin");
+    public StudyMateService(StudyMateSettings settings) {
+        // CSV files and snapshots live under a simple "data" folder in the working directory
+        Path dataDir = Paths.get(settings.get("studymate.data.dir", "data"));
+        CsvLoadMode csvLoadMode = settings.getEnum("studymate.csv.load-mode", CsvLoadMode.class, CsvLoadMode.BUFFERED);
+        int csvParallelism = settings.getInt("studymate.csv.parallelism", Runtime.getRuntime().availableProcessors());
+        for (EntityType type : EntityType.values()) {
+            CsvPersistenceManager<?> csv = CsvPersistenceManager.forType(type, dataDir);
+            csv.setLoadMode(csvLoadMode);
+            csv.setParallelism(csvParallelism);
+            csvFiles.put(type, csv);
+        }
+        this.startupTypes = parseEntityTypes(settings.get("studymate.startup.entity-types", null));
+
+        SnapshotCodec snapshotCodec = settings.getEnum("studymate.snapshot.codec",
+                SnapshotCodec.class, SnapshotCodec.NONE);
+        this.jsonRepository = openJsonRepository(settings);
+        String binaryFormat = settings.get("studymate.binary.format", "serialized");
+        if ("compact".equalsIgnoreCase(binaryFormat)) {
+            this.objectRepository = new BinaryAppStateRepository(dataDir.resolve("studymate.sbin").toString());
+        } else if ("columnar".equalsIgnoreCase(binaryFormat)) {
+            this.objectRepository = new ColumnarAppStateRepository(dataDir.resolve("studymate.scol").toString());
+        } else {
+            this.objectRepository = new ObjectStreamAppStateRepository(
+                    dataDir.resolve("studymate.bin").toString(), snapshotCodec);
+        }
 
+        PersistenceBackend backend = settings.getEnum("studymate.persistence.backend",
+                PersistenceBackend.class, PersistenceBackend.FILES);
         try {
-            loadAllData();
+            this.sqlRepository = (backend == PersistenceBackend.SQL) ? openSqlRepository(settings) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the SQL backend", e);
+        }
+        if (sqlRepository == null && settings.getBoolean("studymate.startup.fast-snapshot", false)) {
+            List<Path> sources = new ArrayList<>();
+            for (CsvPersistenceManager<?> csv : csvFiles.values()) {
+                sources.add(csv.getFilePath());
+            }
+            this.fastStart = new FastStartSnapshot(dataDir.resolve("studymate.snap"), sources);
+        } else {
+            this.fastStart = null;
+        }
+        this.changes = (sqlRepository != null) ? new ChangeSet() : null;
+        this.dashboardQueries = sqlRepository;
+
+        this.savePipeline = new SavePipeline(settings.getInt("studymate.save.threads", 4))
+                .register(SaveFormat.CSV, this::writeCsv)
+                .register(SaveFormat.JSON, jsonRepository::save)
+                .register(SaveFormat.BINARY, objectRepository::save);
+        if (sqlRepository != null) {
+            savePipeline.register(SaveFormat.SQL, state -> saveChangesToSql());
+        }
+
+        this.journal = openJournal(settings, dataDir);
+        this.checkpointEvery = settings.getInt("studymate.journal.checkpoint-every", 1000);
+        this.checkpointExecutor = (journal == null) ? null : Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "StudyMate-Checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        this.autoSaveScheduler = settings.getBoolean("studymate.autosave.write-behind", false)
+                ? new WriteBehindScheduler(this::saveSnapshots,
+                        settings.getLong("studymate.autosave.window-ms", 500),
+                        settings.getInt("studymate.autosave.max-dirty", 500))
+                : null;
+
+        this.warmUpIterations = settings.getInt("studymate.startup.warm-up-iterations", 200);
+        this.verifyStats = settings.getBoolean("studymate.stats.verify", false);
+        if (!settings.getBoolean("studymate.startup.async-hydration", false)) {
+            hydrationStarted.set(true);
+            hydrationThread = Thread.currentThread();
+            try {
+                hydrate(false);
+            } finally {
+                hydrationThread = null;
+            }
+        }
+        // Otherwise hydration starts once the Spring context has refreshed,
+        // or with the first call that needs the data.
+    }
+
+    // ---------------- Startup hydration ----------------
+
+    /**
+     * Starts loading the data on the daemon thread "StudyMate-Hydration" if
+     * that has not happened yet. Until the data is loaded every call that
+     * needs it waits; {@link #getHydrationState()} reports READY once all
+     * types and lookup maps are loaded and the warm-up has run.
+     */
+    public void startHydration() {
+        if (!hydrationStarted.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                hydrate(true);
+            } catch (RuntimeException | Error e) {
+                System.err.println("Data hydration failed: " + e);
+                hydrationState = HydrationState.FAILED;
+            } finally {
+                hydrationThread = null;
+                dataLoaded.countDown();
+                ready.countDown();
+            }
+        }, "StudyMate-Hydration");
+        thread.setDaemon(true);
+        hydrationThread = thread; // before start, so its own calls never wait
+        thread.start();
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        startHydration();
+    }
+
+    private void hydrate(boolean background) {
+        hydrationState = HydrationState.LOADING;
+        long start = System.nanoTime();
+        try {
+            loadInitialState();
         } catch (Exception e) {
             System.err.println("Failed to load data: " + e.getMessage());
             // Proceed with empty data if loading fails
@@ -68,42 +310,482 @@ public class StudyMateService {
 
         // If there was nothing on disk, populate some defaults
         DataInitializer.checkAndInitialize(this);
+
+        if (background) {
+            // Ready means every type, not just the startup types.
+            ensureLoaded(EntityType.values());
+            dataLoaded.countDown();
+            long loadedAt = System.nanoTime();
+            hydrationState = HydrationState.WARMING_UP;
+            warmUp();
+            System.out.printf("Data loaded in %d ms, warmed up in %d ms.%n",
+                    (loadedAt - start) / 1_000_000, (System.nanoTime() - loadedAt) / 1_000_000);
+        } else {
+            dataLoaded.countDown();
+        }
+        hydrationState = HydrationState.READY;
+        ready.countDown();
+    }
+
+    /**
+     * Runs the CSV, JSON and binary codecs and the dashboard queries over a
+     * sample of the loaded entities, then the registered warm-up tasks, so
+     * the first requests do not run them interpreted.
+     */
+    private void warmUp() {
+        try {
+            for (EntityType type : EntityType.values()) {
+                List<Persistable> sample;
+                synchronized (this) {
+                    List<?> all = listOf(type);
+                    sample = new ArrayList<>();
+                    for (int i = 0; i < Math.min(all.size(), 64); i++) {
+                        sample.add((Persistable) all.get(i));
+                    }
+                }
+                for (int i = 0; i < warmUpIterations && !sample.isEmpty(); i++) {
+                    warmUpCodecs(type, sample);
+                }
+            }
+            // The queries loop over every assignment, so a few runs compile them.
+            for (int i = 0; i < Math.min(warmUpIterations, 10); i++) {
+                getUpcomingDeadlines(10);
+                getCompletionCountsByCourse();
+            }
+            for (Runnable task : warmUpTasks) {
+                task.run();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Only costs the first requests some speed.
+            System.err.println("Warm-up failed: " + e);
+        }
+    }
+
+    private void warmUpCodecs(EntityType type, List<Persistable> sample) throws IOException {
+        CsvPersistenceManager<?> csv = csvFiles.get(type);
+        StringWriter json = new StringWriter();
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        try (JsonStreamWriter jsonOut = new JsonStreamWriter(json, false);
+             BinaryRecordWriter binaryOut = new BinaryRecordWriter(binary, 4096)) {
+            jsonOut.beginArray();
+            for (Persistable entity : sample) {
+                csv.parseRecord(CsvRecordCodec.toLine(entity));
+                JsonEntityCodec.write(jsonOut, type, entity);
+                BinaryRecordCodec.write(binaryOut, entity);
+            }
+            jsonOut.endArray();
+        }
+        try (JsonStreamReader jsonIn = new JsonStreamReader(new StringReader(json.toString()))) {
+            jsonIn.beginArray();
+            while (jsonIn.hasNext()) {
+                JsonEntityCodec.read(jsonIn, type);
+            }
+            jsonIn.endArray();
+        }
+        BinaryRecordReader binaryIn = new BinaryRecordReader(ByteBuffer.wrap(binary.toByteArray()));
+        while (binaryIn.hasRemaining()) {
+            BinaryRecordCodec.read(binaryIn, type);
+        }
+    }
+
+    /**
+     * Adds work to run during the warm-up, e.g. rendering the main views.
+     * Tasks run on the hydration thread and may call the service freely;
+     * register them before the Spring context has refreshed.
+     */
+    public void addWarmUpTask(Runnable task) {
+        warmUpTasks.add(task);
+    }
+
+    public HydrationState getHydrationState() {
+        return hydrationState;
+    }
+
+    public boolean isDataLoaded() {
+        return dataLoaded.getCount() == 0;
+    }
+
+    public boolean isReady() {
+        return hydrationState == HydrationState.READY;
+    }
+
+    /**
+     * Starts hydration if needed and waits until the data is loaded.
+     *
+     * @return false if it was still loading after timeoutMs
+     */
+    public boolean awaitDataLoaded(long timeoutMs) throws InterruptedException {
+        startHydration();
+        return dataLoaded.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts hydration if needed and waits until it has finished (READY or FAILED).
+     *
+     * @return false if it was still running after timeoutMs
+     */
+    public boolean awaitReady(long timeoutMs) throws InterruptedException {
+        startHydration();
+        return ready.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Blocks the caller until the data is loaded, starting hydration if no
+     * one has yet. The hydration thread itself passes straight through.
+     * Callers must not hold the service lock.
+     */
+    private void awaitHydration() {
+        if (dataLoaded.getCount() == 0 || Thread.currentThread() == hydrationThread) {
+            return;
+        }
+        startHydration();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                dataLoaded.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     // ---------------- Basic persistence (Lab 5) ----------------
 
     public void loadAllData() throws IOException {
-        courses = courseCsv.loadAll();
-        assignments = assignmentCsv.loadAll();
-        rebuildCourseMap();
+        awaitHydration(); // or hydration would overwrite what is read here
+        synchronized (this) {
+            startupSnapshot = null; // an explicit reload reads the files themselves
+        }
+        loadData(EnumSet.allOf(EntityType.class));
+    }
+
+    /**
+     * Reads the CSV files of the given types concurrently and replaces those
+     * lists once all of them have loaded, then rebuilds their lookup maps.
+     * Types left out are read on first use (or before the next save). While
+     * a valid fast-start snapshot is around, types are decoded from it
+     * instead of parsed.
+     */
+    public void loadData(Set<EntityType> types) throws IOException {
+        if (types.isEmpty()) {
+            return;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(types.size(), r -> {
+            Thread t = new Thread(r, "StudyMate-CsvLoad");
+            t.setDaemon(true);
+            return t;
+        });
+        Map<EntityType, Future<? extends List<?>>> pending = new EnumMap<>(EntityType.class);
+        Map<EntityType, List<?>> loaded = new EnumMap<>(EntityType.class);
+        FastStartSnapshot.Loaded snapshot;
+        synchronized (this) {
+            snapshot = startupSnapshot;
+        }
+        try {
+            for (EntityType type : types) {
+                if (snapshot != null) {
+                    pending.put(type, pool.submit(() -> snapshot.read(type)));
+                } else {
+                    pending.put(type, pool.submit(csvFiles.get(type)::loadAll));
+                }
+            }
+            for (Map.Entry<EntityType, Future<? extends List<?>>> e : pending.entrySet()) {
+                loaded.put(e.getKey(), e.getValue().get());
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (snapshot != null) {
+                System.err.println("Fast-start snapshot unreadable, parsing the CSV files: " + cause);
+                synchronized (this) {
+                    startupSnapshot = null;
+                }
+                pool.shutdownNow();
+                loadData(types);
+                return;
+            }
+            throw (cause instanceof IOException) ? (IOException) cause : new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading CSV files", e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        synchronized (this) {
+            for (Map.Entry<EntityType, List<?>> e : loaded.entrySet()) {
+                setList(e.getKey(), e.getValue());
+            }
+            loadedTypes.addAll(types);
+            allLoaded = loadedTypes.size() == EntityType.values().length;
+            for (EntityType type : types) {
+                rebuildLookupMap(type);
+            }
+            if (snapshot != null && types.contains(EntityType.ASSIGNMENT)) {
+                applyDueOrder(snapshot.getDueOrder());
+            }
+            if (allLoaded) {
+                startupSnapshot = null; // release the mapping
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setList(EntityType type, List<?> list) {
+        switch (type) {
+            case COURSE:
+                courses = (List<Course>) list;
+                assignmentStats = null;
+                break;
+            case ASSIGNMENT:
+                assignments = (List<Assignment>) list;
+                pendingByDueDate = null;
+                assignmentStats = null;
+                break;
+            case NOTE: notes = (List<Note>) list; break;
+            case TEST: tests = (List<Test>) list; break;
+            case HABIT: habits = (List<StudyHabit>) list; break;
+            default: habitLogs = (List<HabitLog>) list;
+        }
+    }
+
+    private List<?> listOf(EntityType type) {
+        switch (type) {
+            case COURSE: return courses;
+            case ASSIGNMENT: return assignments;
+            case NOTE: return notes;
+            case TEST: return tests;
+            case HABIT: return habits;
+            default: return habitLogs;
+        }
+    }
+
+    /**
+     * Waits for startup hydration, then reads the CSV files of types that
+     * were left out at startup. Callers hold no lock (or the service lock
+     * once hydration is over); loading under the lock keeps a concurrent add
+     * from being overwritten by the loaded list.
+     */
+    private void ensureLoaded(EntityType... types) {
+        awaitHydration();
+        if (allLoaded) {
+            return;
+        }
+        synchronized (this) {
+            Set<EntityType> missing = EnumSet.noneOf(EntityType.class);
+            for (EntityType type : types) {
+                if (!loadedTypes.contains(type)) {
+                    missing.add(type);
+                }
+            }
+            try {
+                loadData(missing);
+            } catch (IOException e) {
+                // Same as a failed startup load: carry on with what we have.
+                System.err.println("Failed to load " + missing + ": " + e.getMessage());
+                loadedTypes.addAll(missing);
+                allLoaded = loadedTypes.size() == EntityType.values().length;
+            }
+        }
+    }
+
+    private static Set<EntityType> parseEntityTypes(String names) {
+        if (names == null) {
+            return EnumSet.allOf(EntityType.class);
+        }
+        Set<EntityType> types = EnumSet.noneOf(EntityType.class);
+        for (String name : names.split(",")) {
+            EntityType type = EntityType.fromSectionName(name.trim());
+            if (type == null) {
+                System.err.println("Unknown entity type in studymate.startup.entity-types: " + name.trim());
+            } else {
+                types.add(type);
+            }
+        }
+        return types;
     }
 
     public void saveAllData() throws IOException {
-        courseCsv.saveAll(courses);
-        assignmentCsv.saveAll(assignments);
+        writeSnapshots(SaveFormat.CSV);
     }
 
-    private void rebuildCourseMap() {
-        courseMap.clear();
-        for (Course c : courses) {
-            courseMap.put(c.getCourseId(), c);
+    /**
+     * Writes every CSV file and then, if enabled, the fast-start snapshot of
+     * the same state (the save pipeline runs this under its CSV lock).
+     */
+    private void writeCsv(AppState state) throws IOException {
+        for (EntityType type : EntityType.values()) {
+            writeCsv(type, type.listIn(state));
+        }
+        if (fastStart != null) {
+            try {
+                fastStart.save(state, fastStart.stampSources());
+            } catch (IOException e) {
+                // Only a cache: the next start parses the CSV files instead.
+                System.err.println("Error writing fast-start snapshot: " + e.getMessage());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeCsv(EntityType type, List<?> entities) throws IOException {
+        ((CsvPersistenceManager<Persistable>) csvFiles.get(type)).saveAll((List<Persistable>) entities);
+    }
+
+    /**
+     * Takes one snapshot of the state and writes it as CSV, JSON, binary and
+     * (with the SQL backend) SQL in parallel. The report has the time each
+     * format took; failures are in the report rather than thrown.
+     */
+    public CompletableFuture<SaveReport> saveAllFormats() {
+        return saveSnapshot();
+    }
+
+    /**
+     * Writes one snapshot to the given formats in parallel and waits for all of them.
+     */
+    private void writeSnapshots(SaveFormat... formats) throws IOException {
+        saveSnapshot(formats).join().throwIfFailed();
+    }
+
+    private CompletableFuture<SaveReport> saveSnapshot(SaveFormat... formats) {
+        ensureLoaded(EntityType.values()); // never write a snapshot without them
+        synchronized (this) {
+            // Queued under the lock, so the pipeline numbers saves in the order of their snapshots.
+            return savePipeline.save(copyOfState(), formats);
+        }
+    }
+
+    private void rebuildLookupMaps() {
+        for (EntityType type : EntityType.values()) {
+            rebuildLookupMap(type);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rebuildLookupMap(EntityType type) {
+        IntObjectMap<Object> index = (IntObjectMap<Object>) lookupMap(type);
+        List<?> list = listOf(type);
+        index.clear();
+        index.ensureCapacity(list.size());
+        for (Object entity : list) {
+            index.put(type.idOf(entity), entity);
+        }
+        switch (type) {
+            case COURSE:
+                coursesBySemester.clear();
+                coursesByInstructor.clear();
+                for (Course c : courses) {
+                    indexCourse(c);
+                }
+                break;
+            case ASSIGNMENT:
+                assignmentsByCourse.clear();
+                for (Assignment a : assignments) {
+                    addToGroup(assignmentsByCourse, a.getCourseId(), a);
+                }
+                break;
+            case NOTE:
+                notesByCourse.clear();
+                for (Note n : notes) {
+                    addToGroup(notesByCourse, n.getCourseId(), n);
+                }
+                break;
+            case TEST:
+                testsByCourse.clear();
+                for (Test t : tests) {
+                    addToGroup(testsByCourse, t.getCourseId(), t);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void indexCourse(Course course) {
+        coursesBySemester.computeIfAbsent(groupKey(course.getSemester()), k -> new ArrayList<>()).add(course);
+        coursesByInstructor.computeIfAbsent(groupKey(course.getInstructorName()), k -> new ArrayList<>()).add(course);
+    }
+
+    private static <T> void addToGroup(IntObjectMap<List<T>> index, int key, T entity) {
+        List<T> group = index.get(key);
+        if (group == null) {
+            group = new ArrayList<>();
+            index.put(key, group);
+        }
+        group.add(entity);
+    }
+
+    private static <T> void removeFromGroup(IntObjectMap<List<T>> index, int key, T entity) {
+        List<T> group = index.get(key);
+        if (group != null) {
+            group.removeIf(e -> e == entity);
+            if (group.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static String groupKey(String value) {
+        return (value == null) ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static <T> List<T> copyOfGroup(List<T> group) {
+        return (group == null) ? new ArrayList<>() : new ArrayList<>(group);
+    }
+
+    private IntObjectMap<?> lookupMap(EntityType type) {
+        switch (type) {
+            case COURSE: return coursesById;
+            case ASSIGNMENT: return assignmentsById;
+            case NOTE: return notesById;
+            case TEST: return testsById;
+            case HABIT: return habitsById;
+            default: return habitLogsById;
         }
     }
 
     // ---------------- AppState conversion helpers (Lab 6) ----------------
 
     private AppState toAppState() {
-        AppState state = new AppState();
-        state.setCourses(new ArrayList<>(courses));
-        state.setAssignments(new ArrayList<>(assignments));
-        state.setNotes(new ArrayList<>(notes));
-        state.setTests(new ArrayList<>(tests));
-        state.setHabits(new ArrayList<>(habits));
-        state.setHabitLogs(new ArrayList<>(habitLogs));
-        return state;
+        ensureLoaded(EntityType.values()); // never write a snapshot without them
+        synchronized (this) {
+            return copyOfState();
+        }
+    }
+
+    /**
+     * Copies the lists and the entities in them: completeAssignment and
+     * updateAssignment change entities in place while the save pipeline is
+     * still writing an earlier snapshot. Callers hold the lock.
+     */
+    private AppState copyOfState() {
+        AppState copy = new AppState();
+        for (EntityType type : EntityType.values()) {
+            copyEntities(type, listOf(type), copy);
+        }
+        return copy;
     }
 
-    private void restoreFromAppState(AppState state) {
+    private static AppState copyOf(AppState state) {
+        AppState copy = new AppState();
+        for (EntityType type : EntityType.values()) {
+            copyEntities(type, type.listIn(state), copy);
+        }
+        return copy;
+    }
+
+    private static void copyEntities(EntityType type, List<?> entities, AppState into) {
+        List<Object> target = type.listIn(into);
+        for (Object entity : entities) {
+            target.add(type.copy(entity));
+        }
+    }
+
+    private synchronized void restoreFromAppState(AppState state) {
         if (state == null) {
             return;
         }
@@ -113,95 +795,717 @@ public class StudyMateService {
         this.tests = new ArrayList<>(state.getTests());
         this.habits = new ArrayList<>(state.getHabits());
         this.habitLogs = new ArrayList<>(state.getHabitLogs());
-        rebuildCourseMap();
+        pendingByDueDate = null;
+        assignmentStats = null;
+        startupSnapshot = null;
+        loadedTypes.addAll(EnumSet.allOf(EntityType.class));
+        allLoaded = true;
+        rebuildLookupMaps();
     }
 
     // ---------------- JSON & ObjectStream persistence (Lab 6) ----------------
 
     public void saveAsJson() throws IOException {
-        jsonRepository.save(toAppState());
+        writeSnapshots(SaveFormat.JSON);
     }
 
     public void loadFromJson() throws IOException {
+        awaitHydration();
         AppState state = jsonRepository.load();
         restoreFromAppState(state);
     }
 
     public void saveAsBinary() throws IOException {
-        objectRepository.save(toAppState());
+        writeSnapshots(SaveFormat.BINARY);
     }
 
     public void loadFromBinary() throws IOException {
+        awaitHydration();
         AppState state = objectRepository.load();
         restoreFromAppState(state);
     }
 
+    // ---------------- Write-ahead journal ----------------
+
+    /**
+     * Opens the H2 database configured by the studymate.sql.* settings.
+     */
+    public static SqlAppStateRepository openSqlRepository(StudyMateSettings settings) throws IOException {
+        SqlAppStateRepository repository = new SqlAppStateRepository(new ConnectionPool(
+                settings.get("studymate.sql.url", "jdbc:h2:./data/studymate"),
+                settings.get("studymate.sql.user", "sa"),
+                settings.get("studymate.sql.password", ""),
+                settings.getInt("studymate.sql.pool.size", 8),
+                settings.getLong("studymate.sql.pool.idle-timeout-ms", 300_000),
+                settings.getLong("studymate.sql.pool.borrow-timeout-ms", 5_000),
+                settings.getBoolean("studymate.sql.pool.validate-on-borrow", true)));
+        repository.setFetchSize(settings.getInt("studymate.sql.fetch-size", 1000));
+        return repository;
+    }
+
+    /**
+     * Opens the JSON store configured by the studymate.json.* settings: the
+     * NDJSON directory, or the JSON document with its delta files and codec.
+     */
+    public static AppStateRepository openJsonRepository(StudyMateSettings settings) {
+        Path dataDir = Paths.get(settings.get("studymate.data.dir", "data"));
+        if ("ndjson".equalsIgnoreCase(settings.get("studymate.json.layout", "document"))) {
+            return new NdjsonAppStateRepository(dataDir.resolve(BackendMigrator.NDJSON_DIR),
+                    settings.getInt("studymate.csv.parallelism", Runtime.getRuntime().availableProcessors()));
+        }
+        JsonAppStateRepository json = new JsonAppStateRepository(dataDir.resolve("studymate.json").toString(),
+                settings.getBoolean("studymate.json.compact", false),
+                settings.getEnum("studymate.snapshot.codec", SnapshotCodec.class, SnapshotCodec.NONE));
+        if (settings.getBoolean("studymate.json.delta", false)) {
+            return new DeltaJsonAppStateRepository(json,
+                    settings.getInt("studymate.json.delta.max-files", 20),
+                    settings.getLong("studymate.json.delta.max-bytes", 4L * 1024 * 1024));
+        }
+        return json;
+    }
+
+    private static MutationJournal openJournal(StudyMateSettings settings, Path dataDir) {
+        PersistenceMode mode = settings.getEnum("studymate.persistence.mode",
+                PersistenceMode.class, PersistenceMode.SNAPSHOT);
+        if (mode != PersistenceMode.JOURNAL) {
+            return null;
+        }
+        try {
+            return new MutationJournal(
+                    settings.get("studymate.journal.dir", dataDir.resolve("journal").toString()),
+                    settings.getEnum("studymate.journal.fsync", FsyncPolicy.class, FsyncPolicy.GROUP_COMMIT),
+                    settings.getLong("studymate.journal.fsync-interval-ms", 200),
+                    settings.getLong("studymate.journal.segment-bytes", 8L * 1024 * 1024));
+        } catch (IOException e) {
+            System.err.println("Failed to open journal, falling back to snapshot autosave: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Loads the primary copy of the data (SQL database, or the last file
+     * checkpoint) and replays the journal on top of it, if there is one.
+     */
+    private void loadInitialState() throws IOException {
+        FastStartSnapshot.Loaded snapshot = (fastStart != null) ? fastStart.load() : null;
+        if (sqlRepository == null && journal == null) {
+            synchronized (this) {
+                loadedTypes.clear();
+                allLoaded = false;
+                startupSnapshot = snapshot;
+            }
+            if (snapshot != null) {
+                // Decoding is cheap, so only the courses (which DataInitializer
+                // looks at) are decoded now and the rest on first use.
+                loadData(EnumSet.of(EntityType.COURSE));
+                return;
+            }
+            loadData(startupTypes);
+            if (allLoaded && fastStart != null) {
+                writeFastStartInBackground(toAppState());
+            }
+            return;
+        }
+        AppState state;
+        if (snapshot != null) {
+            state = snapshot.readAll();
+        } else {
+            state = (sqlRepository != null) ? loadFromSql() : loadLastCheckpoint();
+            if (fastStart != null) {
+                writeFastStartInBackground(copyOf(state)); // before the journal is replayed into it
+            }
+        }
+        int replayed = 0;
+        if (journal != null) {
+            // Replayed changes are not in the database yet.
+            replayed = journal.replayInto(state, (type, entity) -> markChanged(entity));
+            if (replayed > 0) {
+                System.out.println("Replayed " + replayed + " journal records.");
+                snapshotsBehind = true;
+            }
+        }
+        restoreFromAppState(state);
+        if (snapshot != null && replayed == 0) {
+            applyDueOrder(snapshot.getDueOrder());
+        }
+    }
+
+    /**
+     * Builds the due-date index from a prebuilt due-date order (positions in
+     * the assignments list) instead of sorting on first use.
+     */
+    private synchronized void applyDueOrder(int[] dueOrder) {
+        if (dueOrder.length != assignments.size()) {
+            return;
+        }
+        long[] keys = new long[dueOrder.length];
+        int count = 0;
+        for (int position : dueOrder) {
+            Assignment a = assignments.get(position);
+            if (DueDateIndex.isIndexed(a)) {
+                keys[count++] = DueDateIndex.keyOf(a);
+            }
+        }
+        pendingByDueDate = DueDateIndex.of(keys, count);
+    }
+
+    /**
+     * Writes the fast-start snapshot for a state just read from the data
+     * files, so the next start can skip parsing them. The sources are stamped
+     * now, while they still match the state.
+     */
+    private void writeFastStartInBackground(AppState state) {
+        long[] stamps;
+        try {
+            stamps = fastStart.stampSources();
+        } catch (IOException e) {
+            System.err.println("Error writing fast-start snapshot: " + e.getMessage());
+            return;
+        }
+        Thread writer = new Thread(() -> {
+            try {
+                fastStart.save(state, stamps);
+            } catch (IOException e) {
+                System.err.println("Error writing fast-start snapshot: " + e.getMessage());
+            }
+        }, "StudyMate-FastStart");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * The JSON snapshot, or the CSV files if no snapshot has been written yet.
+     */
+    private AppState loadLastCheckpoint() throws IOException {
+        AppState state = jsonRepository.load();
+        if (state.getCourses().isEmpty() && state.getAssignments().isEmpty()) {
+            loadAllData();
+            state = toAppState();
+        }
+        return state;
+    }
+
+    /**
+     * Loads the database; on first use it is seeded from the file snapshots.
+     */
+    private AppState loadFromSql() throws IOException {
+        AppState state = sqlRepository.load();
+        if (state.getCourses().isEmpty() && state.getAssignments().isEmpty()) {
+            state = loadLastCheckpoint();
+            sqlRepository.save(state);
+        }
+        return state;
+    }
+
+    private void markChanged(Object entity) {
+        if (changes != null) {
+            changes.markDirty(entity);
+        }
+    }
+
+    /**
+     * Upserts the rows changed since the last save. On failure they stay
+     * dirty for the next attempt.
+     */
+    private void saveChangesToSql() throws IOException {
+        ChangeSet batch = changes.drain();
+        try {
+            sqlRepository.saveChanges(batch);
+        } catch (IOException e) {
+            changes.requeue(batch);
+            throw e;
+        }
+    }
+
+    /**
+     * Appends the mutation to the journal.
+     *
+     * @return false if there is no journal (or it failed) and the caller
+     *         should fall back to a snapshot save
+     */
+    private boolean appendToJournal(Object entity) {
+        if (journal == null) {
+            return false;
+        }
+        try {
+            journal.append(entity);
+        } catch (IOException e) {
+            System.err.println("Error appending to journal: " + e.getMessage());
+            return false;
+        }
+        if (journal.getRecordsSinceCheckpoint() >= checkpointEvery
+                && checkpointPending.compareAndSet(false, true)) {
+            checkpointExecutor.execute(() -> {
+                try {
+                    checkpoint();
+                } catch (IOException e) {
+                    System.err.println("Journal checkpoint failed: " + e.getMessage());
+                } finally {
+                    checkpointPending.set(false);
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Writes the current state to the primary backend (CSV and JSON files, or
+     * the changed rows to SQL) and drops the journal segments that the new
+     * snapshot covers.
+     */
+    public void checkpoint() throws IOException {
+        if (journal == null) {
+            saveSnapshots();
+            return;
+        }
+        long firstLiveSegment = journal.startCheckpoint();
+        if (sqlRepository != null) {
+            saveChangesToSql();
+        } else {
+            writeSnapshots(SaveFormat.CSV, SaveFormat.JSON);
+        }
+        journal.finishCheckpoint(firstLiveSegment);
+        snapshotsBehind = false;
+    }
+
     // ---------------- CRUD style operations ----------------
 
     public List<Course> getCourses() {
+        ensureLoaded(EntityType.COURSE);
         return courses;
     }
 
     public List<Assignment> getAssignments() {
+        ensureLoaded(EntityType.ASSIGNMENT);
         return assignments;
     }
 
+    public List<Note> getNotes() {
+        ensureLoaded(EntityType.NOTE);
+        return notes;
+    }
+
+    public List<Test> getTests() {
+        ensureLoaded(EntityType.TEST);
+        return tests;
+    }
+
+    public List<StudyHabit> getHabits() {
+        ensureLoaded(EntityType.HABIT);
+        return habits;
+    }
+
+    public List<HabitLog> getHabitLogs() {
+        ensureLoaded(EntityType.HABIT_LOG);
+        return habitLogs;
+    }
+
+    /**
+     * Read-only view of the courses by ID.
+     */
     public Map<Integer, Course> getCourseMap() {
-        return courseMap;
+        ensureLoaded(EntityType.COURSE);
+        return coursesById.asMap();
     }
 
     public Course getCourseById(int id) {
-        return courseMap.get(id);
+        ensureLoaded(EntityType.COURSE);
+        synchronized (this) {
+            return coursesById.get(id);
+        }
+    }
+
+    public Assignment getAssignmentById(int id) {
+        ensureLoaded(EntityType.ASSIGNMENT);
+        synchronized (this) {
+            return assignmentsById.get(id);
+        }
+    }
+
+    public Note getNoteById(int id) {
+        ensureLoaded(EntityType.NOTE);
+        synchronized (this) {
+            return notesById.get(id);
+        }
+    }
+
+    public Test getTestById(int id) {
+        ensureLoaded(EntityType.TEST);
+        synchronized (this) {
+            return testsById.get(id);
+        }
+    }
+
+    public StudyHabit getHabitById(int id) {
+        ensureLoaded(EntityType.HABIT);
+        synchronized (this) {
+            return habitsById.get(id);
+        }
+    }
+
+    public HabitLog getHabitLogById(int id) {
+        ensureLoaded(EntityType.HABIT_LOG);
+        synchronized (this) {
+            return habitLogsById.get(id);
+        }
+    }
+
+    // ---------------- Secondary index queries ----------------
+    // Each costs O(result size): a hash lookup and a copy of the group.
+
+    public List<Assignment> getAssignmentsByCourse(int courseId) {
+        ensureLoaded(EntityType.ASSIGNMENT);
+        synchronized (this) {
+            return copyOfGroup(assignmentsByCourse.get(courseId));
+        }
+    }
+
+    public List<Note> getNotesByCourse(int courseId) {
+        ensureLoaded(EntityType.NOTE);
+        synchronized (this) {
+            return copyOfGroup(notesByCourse.get(courseId));
+        }
+    }
+
+    public List<Test> getTestsByCourse(int courseId) {
+        ensureLoaded(EntityType.TEST);
+        synchronized (this) {
+            return copyOfGroup(testsByCourse.get(courseId));
+        }
+    }
+
+    /**
+     * Courses of one semester, e.g. "Fall 2025" (ignoring case and surrounding spaces).
+     */
+    public List<Course> getCoursesBySemester(String semester) {
+        ensureLoaded(EntityType.COURSE);
+        synchronized (this) {
+            return copyOfGroup(coursesBySemester.get(groupKey(semester)));
+        }
+    }
+
+    /**
+     * Courses taught by one instructor (ignoring case and surrounding spaces).
+     */
+    public List<Course> getCoursesByInstructor(String instructor) {
+        ensureLoaded(EntityType.COURSE);
+        synchronized (this) {
+            return copyOfGroup(coursesByInstructor.get(groupKey(instructor)));
+        }
     }
 
     public void addCourse(Course course) throws DuplicateIdException {
-        if (courseMap.containsKey(course.getCourseId())) {
-            throw new DuplicateIdException("Course", course.getCourseId());
+        ensureLoaded(EntityType.COURSE);
+        synchronized (this) {
+            if (coursesById.putIfAbsent(course.getCourseId(), course) != null) {
+                throw new DuplicateIdException("Course", course.getCourseId());
+            }
+            courses.add(course);
+            indexCourse(course);
+            if (assignmentStats != null) {
+                assignmentStats.courseAdded(course);
+                checkStats();
+            }
+            markChanged(course);
+        }
+        if (!appendToJournal(course)) {
+            autoSave();
         }
-        courses.add(course);
-        courseMap.put(course.getCourseId(), course);
-        autoSave();
     }
 
     public void addAssignment(Assignment assignment)
             throws DuplicateIdException, InvalidCourseException {
-        if (!courseMap.containsKey(assignment.getCourseId())) {
-            throw new InvalidCourseException(assignment.getCourseId());
+        ensureLoaded(EntityType.COURSE, EntityType.ASSIGNMENT);
+        synchronized (this) {
+            if (!coursesById.containsKey(assignment.getCourseId())) {
+                throw new InvalidCourseException(assignment.getCourseId());
+            }
+
+            if (assignmentsById.putIfAbsent(assignment.getAssignmentId(), assignment) != null) {
+                throw new DuplicateIdException("Assignment", assignment.getAssignmentId());
+            }
+            assignments.add(assignment);
+            addToGroup(assignmentsByCourse, assignment.getCourseId(), assignment);
+            if (pendingByDueDate != null && DueDateIndex.isIndexed(assignment)) {
+                pendingByDueDate.add(DueDateIndex.keyOf(assignment));
+            }
+            if (assignmentStats != null) {
+                assignmentStats.add(assignment, creditHoursOf(assignment));
+                checkStats();
+            }
+            markChanged(assignment);
         }
+        if (!appendToJournal(assignment)) {
+            autoSave();
+        }
+    }
 
-        boolean duplicate = assignments.stream()
-                .anyMatch(a -> a.getAssignmentId() == assignment.getAssignmentId());
-        if (duplicate) {
-            throw new DuplicateIdException("Assignment", assignment.getAssignmentId());
+    /**
+     * Marks an assignment as completed and persists the change. Assignments
+     * handed out by the service are live objects; change them through this
+     * method or {@link #updateAssignment} so the indexes stay in step.
+     *
+     * @return false if there is no assignment with that id
+     */
+    public boolean completeAssignment(int assignmentId) {
+        ensureLoaded(EntityType.ASSIGNMENT);
+        Assignment assignment;
+        synchronized (this) {
+            assignment = assignmentsById.get(assignmentId);
+            if (assignment == null) {
+                return false;
+            }
+            if (pendingByDueDate != null && DueDateIndex.isIndexed(assignment)) {
+                pendingByDueDate.remove(DueDateIndex.keyOf(assignment));
+            }
+            if (assignmentStats != null) {
+                assignmentStats.remove(assignment, creditHoursOf(assignment));
+            }
+            assignment.setStatus("Completed");
+            if (assignmentStats != null) {
+                assignmentStats.add(assignment, creditHoursOf(assignment));
+                checkStats();
+            }
+            markChanged(assignment);
+        }
+        if (!appendToJournal(assignment)) {
+            autoSave();
+        }
+        return true;
+    }
+
+    /**
+     * Copies the fields of the given assignment onto the stored one with the
+     * same id (which stays the object everyone else holds) and persists it.
+     *
+     * @return false if there is no assignment with that id
+     */
+    public boolean updateAssignment(Assignment changes) throws InvalidCourseException {
+        ensureLoaded(EntityType.COURSE, EntityType.ASSIGNMENT);
+        Assignment assignment;
+        synchronized (this) {
+            assignment = assignmentsById.get(changes.getAssignmentId());
+            if (assignment == null) {
+                return false;
+            }
+            if (!coursesById.containsKey(changes.getCourseId())) {
+                throw new InvalidCourseException(changes.getCourseId());
+            }
+            if (pendingByDueDate != null && DueDateIndex.isIndexed(assignment)) {
+                pendingByDueDate.remove(DueDateIndex.keyOf(assignment));
+            }
+            if (assignmentStats != null) {
+                assignmentStats.remove(assignment, creditHoursOf(assignment));
+            }
+            if (assignment.getCourseId() != changes.getCourseId()) {
+                removeFromGroup(assignmentsByCourse, assignment.getCourseId(), assignment);
+                addToGroup(assignmentsByCourse, changes.getCourseId(), assignment);
+            }
+            assignment.setCourseId(changes.getCourseId());
+            assignment.setTitle(changes.getTitle());
+            assignment.setDescription(changes.getDescription());
+            assignment.setDueDate(changes.getDueDate());
+            assignment.setPriority(changes.getPriority());
+            assignment.setStatus(changes.getStatus());
+            if (pendingByDueDate != null && DueDateIndex.isIndexed(assignment)) {
+                pendingByDueDate.add(DueDateIndex.keyOf(assignment));
+            }
+            if (assignmentStats != null) {
+                assignmentStats.add(assignment, creditHoursOf(assignment));
+                checkStats();
+            }
+            markChanged(assignment);
+        }
+        if (!appendToJournal(assignment)) {
+            autoSave();
         }
-        assignments.add(assignment);
-        autoSave();
+        return true;
     }
 
     private void autoSave() {
+        if (autoSaveScheduler != null) {
+            autoSaveScheduler.markDirty();
+            return;
+        }
         try {
-            saveAllData(); // CSV
-            saveAsJson(); // JSON
-            // saveAsBinary(); // Optional, maybe overkill for every edit
+            saveSnapshots();
+            snapshotsBehind = false;
         } catch (IOException e) {
+            snapshotsBehind = true;
             System.err.println("Error auto-saving data: " + e.getMessage());
         }
     }
 
-    public void addNote(Note note) {
-        notes.add(note);
+    private void saveSnapshots() throws IOException {
+        if (sqlRepository != null) {
+            saveChangesToSql();
+            return;
+        }
+        writeSnapshots(SaveFormat.CSV, SaveFormat.JSON); // binary is overkill for every edit
     }
 
-    public void addTest(Test test) {
-        tests.add(test);
+    // ---------------- Durability & shutdown ----------------
+
+    /**
+     * Makes every change so far durable: syncs the journal and runs any
+     * pending write-behind autosave on the calling thread.
+     */
+    public void flush() throws IOException {
+        if (journal != null) {
+            journal.sync();
+        }
+        if (autoSaveScheduler != null) {
+            autoSaveScheduler.flush();
+        }
     }
 
-    public void addHabit(StudyHabit habit) {
-        habits.add(habit);
+    /**
+     * Waits (up to the timeout) until every change made before this call is
+     * on disk, without doing the I/O on the calling thread when write-behind
+     * is enabled.
+     *
+     * @return false if the timeout elapsed first
+     */
+    public boolean awaitDurable(long timeoutMs) throws IOException, InterruptedException {
+        if (journal != null) {
+            journal.sync();
+        }
+        return autoSaveScheduler == null || autoSaveScheduler.awaitDurable(timeoutMs);
     }
 
-    public void addHabitLog(HabitLog log) {
-        habitLogs.add(log);
+    /**
+     * Flushes pending autosaves and, if changes are still not saved, writes
+     * every format once more through the save pipeline (as the final journal
+     * checkpoint, if there is a journal), then closes the journal. Nothing is
+     * written when there are no pending changes. Called on Spring context
+     * close, from the JavaFX onCloseRequest handler and at the end of the
+     * console Main.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!shutDown.compareAndSet(false, true)) {
+            return;
+        }
+        if (hydrationStarted.get()) {
+            awaitHydration();
+        }
+        // Never loaded (or not completely): there is nothing to write back.
+        boolean hasData = hydrationStarted.get() && hydrationState != HydrationState.FAILED;
+        try {
+            if (autoSaveScheduler != null) {
+                try {
+                    autoSaveScheduler.shutdown();
+                } catch (IOException e) {
+                    // Still dirty, so it is written below.
+                    System.err.println("Error auto-saving data: " + e.getMessage());
+                }
+            }
+            if (journal != null) {
+                checkpointExecutor.shutdown();
+                // A background checkpoint may still be writing snapshots or rolling segments.
+                boolean idle = awaitTermination(checkpointExecutor, 30_000);
+                if (!idle) {
+                    System.err.println("Journal checkpoint still running; the journal is replayed on the next start.");
+                }
+                if (idle && hasData && hasUnsavedChanges()) {
+                    long firstLiveSegment = journal.startCheckpoint();
+                    writeSnapshots();
+                    journal.finishCheckpoint(firstLiveSegment);
+                }
+                journal.close();
+            } else if (hasData && hasUnsavedChanges()) {
+                writeSnapshots();
+            }
+            savePipeline.close();
+            if (sqlRepository != null) {
+                sqlRepository.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving data on shutdown: " + e.getMessage());
+        }
+    }
+
+    private static boolean awaitTermination(ExecutorService executor, long timeoutMs) {
+        try {
+            return executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Whether some change has not reached the primary copy yet: the
+     * write-behind autosave is still dirty, SQL rows are waiting in the
+     * change set, the journal has records past the last checkpoint, or the
+     * files are known to be behind (see snapshotsBehind).
+     */
+    private boolean hasUnsavedChanges() {
+        return (autoSaveScheduler != null && autoSaveScheduler.isDirty())
+                || (changes != null && !changes.isEmpty())
+                || (journal != null && journal.getRecordsSinceCheckpoint() > 0)
+                || snapshotsBehind;
+    }
+
+    public void addNote(Note note) throws DuplicateIdException {
+        ensureLoaded(EntityType.NOTE);
+        synchronized (this) {
+            if (notesById.putIfAbsent(note.getNoteId(), note) != null) {
+                throw new DuplicateIdException("Note", note.getNoteId());
+            }
+            notes.add(note);
+            addToGroup(notesByCourse, note.getCourseId(), note);
+            markChanged(note);
+        }
+        if (!appendToJournal(note)) {
+            autoSave();
+        }
+    }
+
+    public void addTest(Test test) throws DuplicateIdException {
+        ensureLoaded(EntityType.TEST);
+        synchronized (this) {
+            if (testsById.putIfAbsent(test.getTestId(), test) != null) {
+                throw new DuplicateIdException("Test", test.getTestId());
+            }
+            tests.add(test);
+            addToGroup(testsByCourse, test.getCourseId(), test);
+            markChanged(test);
+        }
+        if (!appendToJournal(test)) {
+            autoSave();
+        }
+    }
+
+    public void addHabit(StudyHabit habit) throws DuplicateIdException {
+        ensureLoaded(EntityType.HABIT);
+        synchronized (this) {
+            if (habitsById.putIfAbsent(habit.getHabitId(), habit) != null) {
+                throw new DuplicateIdException("Habit", habit.getHabitId());
+            }
+            habits.add(habit);
+            markChanged(habit);
+        }
+        if (!appendToJournal(habit)) {
+            autoSave();
+        }
+    }
+
+    public void addHabitLog(HabitLog log) throws DuplicateIdException, InvalidHabitException {
+        ensureLoaded(EntityType.HABIT, EntityType.HABIT_LOG);
+        synchronized (this) {
+            if (!habitsById.containsKey(log.getHabitId())) {
+                throw new InvalidHabitException(log.getHabitId());
+            }
+            if (habitLogsById.putIfAbsent(log.getLogId(), log) != null) {
+                throw new DuplicateIdException("Habit log", log.getLogId());
+            }
+            habitLogs.add(log);
+            markChanged(log);
+        }
+        if (!appendToJournal(log)) {
+            autoSave();
+        }
     }
 
     // ---------------- Analytics using streams (Lab 4) ----------------
@@ -211,23 +1515,293 @@ public class StudyMateService {
      * priority.
      */
     public List<Assignment> getUpcomingDeadlines() {
+        return getUpcomingDeadlines(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #getUpcomingDeadlines()}, but returns at most limit
+     * assignments.
+     */
+    public List<Assignment> getUpcomingDeadlines(int limit) {
+        return getUpcomingDeadlines(0, limit);
+    }
+
+    /**
+     * One page of {@link #getUpcomingDeadlines()}: at most limit assignments
+     * after skipping the first offset. Only the requested page is read.
+     */
+    public List<Assignment> getUpcomingDeadlines(int offset, int limit) {
+        return upcomingDeadlines(null, offset, limit);
+    }
+
+    /**
+     * Same as {@link #getUpcomingDeadlines(int, int)} for the assignments of one course.
+     */
+    public List<Assignment> getUpcomingDeadlinesForCourse(int courseId, int offset, int limit) {
+        return upcomingDeadlines(courseId, offset, limit);
+    }
+
+    /**
+     * Number of pending assignments due today or later, without listing them.
+     */
+    public int countUpcomingDeadlines() {
+        ensureLoaded(EntityType.ASSIGNMENT);
+        synchronized (this) {
+            return pendingByDueDate().countInRange(DueDateIndex.dayStart(LocalDate.now()), Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * With the SQL backend this is an indexed range query with LIMIT/OFFSET;
+     * otherwise it walks the due-date index from today and stops as soon as
+     * the page is full.
+     */
+    private List<Assignment> upcomingDeadlines(Integer courseId, int offset, int limit) {
+        ensureLoaded(EntityType.ASSIGNMENT);
         LocalDate now = LocalDate.now();
-        return assignments.stream()
-                .filter(a -> !a.isCompleted())
-                .filter(a -> !a.getDueDate().isBefore(now))
-                .sorted()
-                .collect(Collectors.toList());
+        offset = Math.max(0, offset);
+        if (prepareDashboardQuery()) {
+            try {
+                List<Integer> ids = dashboardQueries.findUpcomingAssignmentIds(now, courseId, offset, limit);
+                List<Assignment> result = new ArrayList<>(ids.size());
+                synchronized (this) {
+                    for (int id : ids) {
+                        // Hand out the live objects, not copies read from the database
+                        Assignment a = assignmentsById.get(id);
+                        if (a != null && !a.isCompleted()) {
+                            result.add(a);
+                        }
+                    }
+                }
+                return result;
+            } catch (IOException e) {
+                System.err.println("Deadline query failed, scanning in memory: " + e.getMessage());
+            }
+        }
+        if (courseId != null) {
+            return upcomingForCourse(courseId, now, offset, limit);
+        }
+        return pendingInRange(DueDateIndex.dayStart(now), Long.MAX_VALUE, offset, limit);
+    }
+
+    /**
+     * Top offset+limit upcoming assignments of one course, picked from that
+     * course's assignments with a bounded max-heap: O(m log k) for m
+     * assignments in the course, whatever the other courses hold.
+     */
+    private List<Assignment> upcomingForCourse(int courseId, LocalDate today, int offset, int limit) {
+        List<Assignment> page = new ArrayList<>();
+        if (limit <= 0) {
+            return page;
+        }
+        synchronized (this) {
+            List<Assignment> group = copyOfGroup(assignmentsByCourse.get(courseId));
+            int keep = (int) Math.min((long) offset + limit, group.size());
+            if (keep == 0) {
+                return page;
+            }
+            PriorityQueue<Assignment> heap = new PriorityQueue<>(keep, Collections.reverseOrder());
+            for (Assignment a : group) {
+                if (!DueDateIndex.isIndexed(a) || a.getDueDate().isBefore(today)) {
+                    continue;
+                }
+                if (heap.size() < keep) {
+                    heap.add(a);
+                } else if (a.compareTo(heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(a);
+                }
+            }
+            page.addAll(heap);
+        }
+        Collections.sort(page);
+        return (offset >= page.size()) ? new ArrayList<>() : new ArrayList<>(page.subList(offset, page.size()));
+    }
+
+    /**
+     * Pending assignments due from one date to another (both inclusive),
+     * sorted by due date, priority and id.
+     */
+    public List<Assignment> getAssignmentsDueBetween(LocalDate from, LocalDate to) {
+        ensureLoaded(EntityType.ASSIGNMENT);
+        return pendingInRange(DueDateIndex.dayStart(from), DueDateIndex.dayStart(to.plusDays(1)),
+                0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Pending assignments whose due date has passed, oldest first.
+     */
+    public List<Assignment> getOverdueAssignments() {
+        ensureLoaded(EntityType.ASSIGNMENT);
+        return pendingInRange(0, DueDateIndex.dayStart(LocalDate.now()), 0, Integer.MAX_VALUE);
     }
 
     /**
-     * Groups completed assignments by course and returns the count for each.
+     * Reads up to limit pending assignments with keys in [fromKey, toKey),
+     * after the first offset of them, from the due-date index. Today's
+     * boundary is computed by the caller on every query, so at midnight
+     * assignments due yesterday move from upcoming to overdue without the
+     * index changing. The cost depends on the size of the result, not on the
+     * number of assignments.
+     */
+    private List<Assignment> pendingInRange(long fromKey, long toKey, int offset, int limit) {
+        List<Assignment> result = new ArrayList<>(Math.min(limit, 64));
+        if (limit <= 0) {
+            return result;
+        }
+        synchronized (this) {
+            pendingByDueDate().forEachInRange(fromKey, toKey, offset, key -> {
+                result.add(assignmentsById.get(DueDateIndex.idOf(key)));
+                return result.size() < limit;
+            });
+        }
+        return result;
+    }
+
+    /**
+     * The due-date index, built on first use after a load (by one primitive
+     * sort of the keys) and then kept up to date by every mutation.
+     */
+    private DueDateIndex pendingByDueDate() {
+        if (pendingByDueDate == null) {
+            long[] keys = new long[assignments.size()];
+            int count = 0;
+            for (Assignment a : assignments) {
+                if (DueDateIndex.isIndexed(a)) {
+                    keys[count++] = DueDateIndex.keyOf(a);
+                }
+            }
+            pendingByDueDate = DueDateIndex.of(keys, count);
+        }
+        return pendingByDueDate;
+    }
+
+    // ---------------- Aggregate statistics ----------------
+    // Kept up to date on every change, so each read is O(1) (per course).
+
+    /**
+     * Number of completed assignments per course, for courses that have any,
+     * in course ID order. Only those courses are looked at.
      */
     public Map<Course, Long> getCompletionCountsByCourse() {
-        return assignments.stream()
-                .filter(Assignment::isCompleted)
-                .collect(Collectors.groupingBy(
-                        a -> courseMap.get(a.getCourseId()),
-                        Collectors.counting()));
+        ensureLoaded(EntityType.COURSE, EntityType.ASSIGNMENT);
+        synchronized (this) {
+            AssignmentStats stats = assignmentStats();
+            Map<Course, Long> result = new LinkedHashMap<>();
+            for (int courseId : stats.coursesWithCompleted()) {
+                Course course = coursesById.get(courseId);
+                if (course != null) {
+                    result.put(course, (long) stats.completedCount(courseId));
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Number of assignments not yet completed per course, for courses that
+     * have any, in course ID order. Only those courses are looked at.
+     */
+    public Map<Course, Long> getPendingCountsByCourse() {
+        ensureLoaded(EntityType.COURSE, EntityType.ASSIGNMENT);
+        synchronized (this) {
+            AssignmentStats stats = assignmentStats();
+            Map<Course, Long> result = new LinkedHashMap<>();
+            for (int courseId : stats.coursesWithPending()) {
+                Course course = coursesById.get(courseId);
+                if (course != null) {
+                    result.put(course, (long) stats.pendingCount(courseId));
+                }
+            }
+            return result;
+        }
+    }
+
+    public int getCompletedCount(int courseId) {
+        ensureLoaded(EntityType.COURSE, EntityType.ASSIGNMENT);
+        synchronized (this) {
+            return assignmentStats().completedCount(courseId);
+        }
+    }
+
+    public int getPendingCount(int courseId) {
+        ensureLoaded(EntityType.COURSE, EntityType.ASSIGNMENT);
+        synchronized (this) {
+            return assignmentStats().pendingCount(courseId);
+        }
+    }
+
+    public int getCompletedAssignmentCount() {
+        ensureLoaded(EntityType.COURSE, EntityType.ASSIGNMENT);
+        synchronized (this) {
+            return assignmentStats().completedCount();
+        }
+    }
+
+    public int getPendingAssignmentCount() {
+        ensureLoaded(EntityType.COURSE, EntityType.ASSIGNMENT);
+        synchronized (this) {
+            return assignmentStats().pendingCount();
+        }
+    }
+
+    /**
+     * Sum of the credit hours of the course of every pending assignment.
+     */
+    public long getPendingCreditHours() {
+        ensureLoaded(EntityType.COURSE, EntityType.ASSIGNMENT);
+        synchronized (this) {
+            return assignmentStats().pendingCreditHours();
+        }
+    }
+
+    // Built from the assignments after a (re)load, then updated in place.
+    private AssignmentStats assignmentStats() {
+        if (assignmentStats == null) {
+            assignmentStats = AssignmentStats.of(assignments, coursesById);
+        }
+        return assignmentStats;
+    }
+
+    private int creditHoursOf(Assignment assignment) {
+        return AssignmentStats.creditHoursOf(coursesById.get(assignment.getCourseId()));
+    }
+
+    /**
+     * With studymate.stats.verify set, recomputes the statistics from the
+     * assignments and throws if the incrementally kept ones differ. Called
+     * under the lock after every change to them.
+     */
+    private void checkStats() {
+        if (!verifyStats) {
+            return;
+        }
+        String difference = assignmentStats.differenceFrom(AssignmentStats.of(assignments, coursesById));
+        if (difference != null) {
+            throw new IllegalStateException("Assignment statistics out of step: " + difference);
+        }
+    }
+
+    /**
+     * Tells whether the database holds every change, so it can answer the
+     * query. Reads never write: with changes still unsaved, this read is
+     * answered from memory, which is always current, and the write-behind
+     * autosave (already due after any change) saves them in the background.
+     *
+     * @return false if there is no query backend or it is behind, and the
+     *         caller should compute the result in memory
+     */
+    private boolean prepareDashboardQuery() {
+        if (dashboardQueries == null) {
+            return false;
+        }
+        if (!changes.isEmpty()) {
+            if (autoSaveScheduler != null && !autoSaveScheduler.isDirty()) {
+                autoSaveScheduler.markDirty();
+            }
+            return false;
+        }
+        return true;
     }
 
     // ---------------- Threads integration (Lab 8) ----------------
@@ -237,7 +1811,8 @@ public class StudyMateService {
      * for all pending assignments.
      */
     public AnalysisThread startPendingCreditAnalysis() {
-        AnalysisThread thread = new AnalysisThread(courseMap, assignments);
+        ensureLoaded(EntityType.COURSE, EntityType.ASSIGNMENT);
+        AnalysisThread thread = new AnalysisThread(coursesById.asMap(), assignments);
         thread.start();
         return thread;
     }
@@ -0,0 +1,163 @@
+package com.studymate.service;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalescing write-behind scheduler for autosave.
+ *
+ * Callers only mark the state dirty; a background thread runs the flush
+ * action once per window (or as soon as maxDirty marks have piled up), so a
+ * burst of N mutations costs one save instead of N.
+ *
+ * Every mark gets a generation number. A flush records the newest generation
+ * it has covered, which is what {@link #awaitDurable(long)} waits for.
+ */
+public class WriteBehindScheduler {
+
+    /**
+     * The actual save, e.g. rewriting the CSV and JSON snapshots.
+     */
+    @FunctionalInterface
+    public interface FlushAction {
+        void flush() throws IOException;
+    }
+
+    private final FlushAction action;
+    private final long windowMs;
+    private final int maxDirty;
+    private final ScheduledExecutorService executor;
+
+    private final Object lock = new Object();
+    private long dirtyGeneration;
+    private long durableGeneration;
+    private int dirtyCount;
+    private ScheduledFuture<?> pending;
+
+    // Only one flush (background or caller) runs at a time.
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public WriteBehindScheduler(FlushAction action, long windowMs, int maxDirty) {
+        this.action = action;
+        this.windowMs = windowMs;
+        this.maxDirty = Math.max(1, maxDirty);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "StudyMate-WriteBehind");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Records that the state changed. Never blocks on I/O.
+     */
+    public void markDirty() {
+        synchronized (lock) {
+            dirtyGeneration++;
+            dirtyCount++;
+            scheduleLocked(dirtyCount >= maxDirty ? 0 : windowMs);
+        }
+    }
+
+    public boolean isDirty() {
+        synchronized (lock) {
+            return durableGeneration < dirtyGeneration;
+        }
+    }
+
+    /**
+     * Runs the flush action now on the calling thread if anything is dirty.
+     */
+    public void flush() throws IOException {
+        flushLock.lock();
+        try {
+            long target;
+            synchronized (lock) {
+                if (durableGeneration >= dirtyGeneration) {
+                    return;
+                }
+                target = dirtyGeneration;
+                dirtyCount = 0;
+                if (pending != null) {
+                    pending.cancel(false);
+                    pending = null;
+                }
+            }
+
+            try {
+                action.flush();
+            } catch (IOException e) {
+                // Leave the state dirty and try again after the next window.
+                synchronized (lock) {
+                    scheduleLocked(windowMs);
+                }
+                throw e;
+            }
+
+            synchronized (lock) {
+                durableGeneration = Math.max(durableGeneration, target);
+                lock.notifyAll();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every change marked before this call has been flushed,
+     * asking for an immediate flush instead of waiting out the window.
+     *
+     * @return false if the timeout elapsed first
+     */
+    public boolean awaitDurable(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (lock) {
+            long target = dirtyGeneration;
+            if (durableGeneration >= target) {
+                return true;
+            }
+            scheduleLocked(0);
+            while (durableGeneration < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                lock.wait(remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Flushes outstanding changes and stops the background thread.
+     */
+    public void shutdown() throws IOException {
+        executor.shutdown();
+        flush();
+    }
+
+    private void scheduleLocked(long delayMs) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        if (pending != null && !pending.isDone()) {
+            if (delayMs > 0 || pending.getDelay(TimeUnit.MILLISECONDS) <= 0) {
+                return; // a flush is already on its way
+            }
+            pending.cancel(false);
+        }
+        pending = executor.schedule(this::backgroundFlush, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void backgroundFlush() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.err.println("Error auto-saving data: " + e.getMessage());
+        }
+    }
+}
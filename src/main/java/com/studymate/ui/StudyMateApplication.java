@@ -60,6 +60,9 @@ public class StudyMateApplication extends Application {
     private static final Pattern EMAIL_PATTERN =
             Pattern.compile("^[\\w._%+-]+@[\\w.-]+\\.[A-Za-z]{2,}$");
 
+    // Upcoming assignments fetched per "Show more"
+    private static final int ASSIGNMENTS_PAGE_SIZE = 50;
+
     @Override
     public void start(Stage primaryStage) {
         this.service = new StudyMateService();
@@ -73,16 +76,9 @@ public class StudyMateApplication extends Application {
         primaryStage.setScene(loginScene);
         primaryStage.setResizable(false);
 
-        // Persist data on close
-        primaryStage.setOnCloseRequest(event -> {
-            try {
-                service.saveAllData();    // CSV
-                service.saveAsJson();     // JSON
-                service.saveAsBinary();   // Object stream
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        });
+        // Persist data on close: CSV, JSON and object stream are written in
+        // parallel, after pending autosaves, as the final journal checkpoint
+        primaryStage.setOnCloseRequest(event -> service.shutdown());
 
         primaryStage.show();
     }
@@ -348,24 +344,29 @@ public class StudyMateApplication extends Application {
 
         table.getColumns().addAll(colCourse, colTitle, colDue, colPriority, colStatus);
 
-        List<Assignment> upcoming = service.getUpcomingDeadlines();
-        table.getItems().addAll(upcoming);
+        // One page at a time; "Show more" fetches the next one.
+        table.getItems().addAll(service.getUpcomingDeadlines(0, ASSIGNMENTS_PAGE_SIZE));
 
         Button backButton = new Button("Back to dashboard");
         Button markCompletedButton = new Button("Mark selected as completed");
+        Button moreButton = new Button("Show more");
+        moreButton.setDisable(table.getItems().size() < ASSIGNMENTS_PAGE_SIZE);
+        moreButton.setOnAction(e -> {
+            // Rows completed since are no longer upcoming, so they do not count towards the offset.
+            int shown = (int) table.getItems().stream().filter(a -> !a.isCompleted()).count();
+            List<Assignment> page = service.getUpcomingDeadlines(shown, ASSIGNMENTS_PAGE_SIZE);
+            table.getItems().addAll(page);
+            moreButton.setDisable(page.size() < ASSIGNMENTS_PAGE_SIZE);
+        });
 
         Label info = new Label("Double-click an assignment to see its course in the dashboard.");
 
         markCompletedButton.setOnAction(e -> {
             Assignment selected = table.getSelectionModel().getSelectedItem();
             if (selected != null) {
-                selected.setStatus("Completed");
+                // Through the service, so the due-date index drops it and the change is saved
+                service.completeAssignment(selected.getAssignmentId());
                 table.refresh();
-                try {
-                    service.saveAllData();
-                } catch (IOException ex) {
-                    new Alert(Alert.AlertType.ERROR, "Failed to save assignments: " + ex.getMessage()).showAndWait();
-                }
             }
         });
 
@@ -376,7 +377,7 @@ public class StudyMateApplication extends Application {
         root.setTop(topBox);
         root.setCenter(table);
 
-        HBox bottom = new HBox(10, markCompletedButton, backButton);
+        HBox bottom = new HBox(10, moreButton, markCompletedButton, backButton);
         bottom.setAlignment(Pos.CENTER_RIGHT);
         bottom.setPadding(new Insets(10, 0, 0, 0));
         root.setBottom(bottom);
@@ -441,11 +442,9 @@ public class StudyMateApplication extends Application {
         Label title = new Label("Quick statistics");
         title.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
 
-        int totalAssignments = service.getAssignments().size();
-        long completedAssignments = service.getAssignments().stream()
-                .filter(Assignment::isCompleted)
-                .count();
-        long pendingAssignments = totalAssignments - completedAssignments;
+        int completedAssignments = service.getCompletedAssignmentCount();
+        int pendingAssignments = service.getPendingAssignmentCount();
+        int totalAssignments = completedAssignments + pendingAssignments;
 
         Map<Course, Long> completedByCourse = service.getCompletionCountsByCourse();
 
@@ -453,6 +452,7 @@ public class StudyMateApplication extends Application {
         statsBox.getChildren().add(new Label("Total assignments: " + totalAssignments));
         statsBox.getChildren().add(new Label("Completed assignments: " + completedAssignments));
         statsBox.getChildren().add(new Label("Pending assignments: " + pendingAssignments));
+        statsBox.getChildren().add(new Label("Pending credit hours: " + service.getPendingCreditHours()));
 
         statsBox.getChildren().add(new Label("Completed assignments by course:"));
         for (Map.Entry<Course, Long> entry : completedByCourse.entrySet()) {
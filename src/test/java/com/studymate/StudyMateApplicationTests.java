@@ -1,11 +1,33 @@
 package com.studymate;
 
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
 
+import java.nio.file.Path;
+
+// The context is closed after this class, while the temporary data directory still exists.
 @SpringBootTest
+@DirtiesContext
 class StudyMateApplicationTests {
 
+    @TempDir
+    static Path dataDir;
+
+    // StudyMateService reads its settings itself; system properties override the file.
+    @BeforeAll
+    static void useTemporaryDataDir() {
+        System.setProperty("studymate.data.dir", dataDir.toString());
+    }
+
+    @AfterAll
+    static void clearDataDir() {
+        System.clearProperty("studymate.data.dir");
+    }
+
     @Test
     void contextLoads() {
     }
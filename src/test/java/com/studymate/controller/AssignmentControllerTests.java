@@ -0,0 +1,79 @@
+package com.studymate.controller;
+
+import com.studymate.core.StudyMateSettings;
+import com.studymate.model.Assignment;
+import com.studymate.model.Course;
+import com.studymate.persistence.CsvPersistenceManager;
+import com.studymate.persistence.EntityType;
+import com.studymate.service.StudyMateService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ui.ConcurrentModel;
+import org.springframework.ui.Model;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AssignmentControllerTests {
+
+    @TempDir
+    Path dir;
+
+    private StudyMateService service;
+
+    @AfterEach
+    void shutDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void courseFilterFollowsUpdatedAssignments() throws Exception {
+        service = open();
+        AssignmentController controller = new AssignmentController(service);
+        LocalDate due = LocalDate.now().plusDays(3);
+        service.addAssignment(new Assignment(1, 101, "Limits", "Worksheet", due, 1, "Pending"));
+        service.addAssignment(new Assignment(2, 101, "Series", "Ratio test", due, 2, "Pending"));
+        service.addAssignment(new Assignment(3, 102, "Joins", "Lab", due, 1, "Pending"));
+        assertEquals(Set.of(1, 2), listed(controller, 101));
+
+        service.updateAssignment(new Assignment(2, 102, "Series", "Ratio test", due, 2, "Pending"));
+        assertEquals(Set.of(1), listed(controller, 101));
+        assertEquals(Set.of(2, 3), listed(controller, 102));
+
+        // Completing it keeps it under its course; the filter is by course, not status.
+        service.updateAssignment(new Assignment(3, 102, "Joins", "Lab", due, 1, "Completed"));
+        assertEquals(Set.of(2, 3), listed(controller, 102));
+        assertEquals(Set.of(), listed(controller, 999));
+        assertEquals(Set.of(1, 2, 3), listed(controller, null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Integer> listed(AssignmentController controller, Integer courseId) {
+        Model model = new ConcurrentModel();
+        assertEquals("assignments", controller.listAssignments(courseId, model));
+        List<Assignment> assignments = (List<Assignment>) model.getAttribute("assignments");
+        return assignments.stream().map(Assignment::getAssignmentId).collect(Collectors.toSet());
+    }
+
+    private StudyMateService open() throws IOException {
+        // Courses on disk, so no sample data is added at startup.
+        CsvPersistenceManager.forType(EntityType.COURSE, dir).saveAll(List.of(
+                new Course(101, "Calculus", "Dr. Leibniz", "Fall 2025", 3, "Limits and series"),
+                new Course(102, "Databases", "Dr. Codd", "Spring 2026", 4, "Relations")));
+        Properties properties = new Properties();
+        properties.setProperty("studymate.data.dir", dir.toString());
+        properties.setProperty("studymate.startup.async-hydration", "false");
+        properties.setProperty("studymate.startup.warm-up-iterations", "0");
+        return new StudyMateService(new StudyMateSettings(properties));
+    }
+}
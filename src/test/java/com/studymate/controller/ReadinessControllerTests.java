@@ -0,0 +1,91 @@
+package com.studymate.controller;
+
+import com.studymate.core.StudyMateSettings;
+import com.studymate.service.HydrationState;
+import com.studymate.service.StudyMateService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadinessControllerTests {
+
+    @TempDir
+    Path dir;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private StudyMateService service;
+
+    @AfterEach
+    void shutDown() {
+        release.countDown();
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void asyncHydrationIsReadyOnlyAfterLoadingAndWarmUp() throws InterruptedException {
+        service = open(true);
+        ReadinessController controller = new ReadinessController(service);
+        assertUnavailable(controller.ready(0), HydrationState.PENDING);
+        assertFalse(service.isDataLoaded());
+
+        CountDownLatch warmingUp = new CountDownLatch(1);
+        service.addWarmUpTask(() -> {
+            warmingUp.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        service.startHydration();
+        assertTrue(warmingUp.await(10, TimeUnit.SECONDS));
+
+        // Loaded, so calls go ahead, but not ready until the warm-up is done.
+        assertTrue(service.isDataLoaded());
+        assertEquals(2, service.getCourses().size());
+        assertUnavailable(controller.ready(0), HydrationState.WARMING_UP);
+        assertUnavailable(controller.ready(50), HydrationState.WARMING_UP);
+
+        release.countDown();
+        ResponseEntity<String> ready = controller.ready(10_000);
+        assertEquals(HttpStatus.OK, ready.getStatusCode());
+        assertEquals("READY", ready.getBody());
+        assertTrue(service.isReady());
+    }
+
+    @Test
+    void synchronousHydrationIsReadyOnceConstructed() throws InterruptedException {
+        service = open(false);
+        assertTrue(service.isDataLoaded());
+        ResponseEntity<String> ready = new ReadinessController(service).ready(0);
+        assertEquals(HttpStatus.OK, ready.getStatusCode());
+        assertEquals("READY", ready.getBody());
+    }
+
+    private StudyMateService open(boolean asyncHydration) {
+        Properties properties = new Properties();
+        properties.setProperty("studymate.data.dir", dir.toString());
+        properties.setProperty("studymate.startup.async-hydration", String.valueOf(asyncHydration));
+        properties.setProperty("studymate.startup.warm-up-iterations", "0");
+        return new StudyMateService(new StudyMateSettings(properties));
+    }
+
+    private static void assertUnavailable(ResponseEntity<String> response, HydrationState state) {
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(state.name(), response.getBody());
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+    }
+}
@@ -0,0 +1,191 @@
+package com.studymate.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntObjectMapTests {
+
+    // The default table has 16 slots.
+    private static final int SLOTS = 16;
+
+    @Test
+    void duplicateKeysReplaceOnlyThroughPut() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertNull(map.put(7, "a"));
+        assertEquals("a", map.put(7, "b"));
+        assertEquals("b", map.putIfAbsent(7, "c"));
+        assertEquals("b", map.get(7));
+        assertNull(map.putIfAbsent(-7, "d"));
+        assertEquals(2, map.size());
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(8, null));
+        assertThrows(IllegalArgumentException.class, () -> map.putIfAbsent(8, null));
+        assertFalse(map.containsKey(8));
+    }
+
+    @Test
+    void growsPastEachResizeThresholdKeepingEveryEntry() {
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        for (int key = 0; key < 10_000; key++) {
+            assertNull(map.put(key * 31 - 5_000, key));
+            assertEquals(key + 1, map.size());
+        }
+        for (int key = 0; key < 10_000; key++) {
+            assertEquals(key, map.get(key * 31 - 5_000));
+        }
+        assertNull(map.get(1));
+        map.put(Integer.MIN_VALUE, -1);
+        map.put(Integer.MAX_VALUE, -2);
+        assertEquals(-1, map.get(Integer.MIN_VALUE));
+        assertEquals(-2, map.get(Integer.MAX_VALUE));
+
+        IntObjectMap<Integer> presized = new IntObjectMap<>(0);
+        presized.ensureCapacity(1_000);
+        presized.ensureCapacity(10); // never shrinks
+        for (int key = 0; key < 1_000; key++) {
+            presized.put(key, key);
+        }
+        assertEquals(1_000, presized.size());
+        assertEquals(999, presized.get(999));
+    }
+
+    @Test
+    void collidingKeysShareAProbeRun() {
+        List<Integer> colliding = keysWithHome(3, 4);
+        IntObjectMap<String> map = new IntObjectMap<>();
+        for (int key : colliding) {
+            map.put(key, "v" + key);
+        }
+        for (int key : colliding) {
+            assertEquals("v" + key, map.get(key));
+        }
+        assertNull(map.get(keysWithHome(3, 5).get(4)), "misses stop at the first empty slot");
+        assertEquals("v" + colliding.get(2), map.put(colliding.get(2), "replaced"));
+        assertEquals(4, map.size());
+    }
+
+    @Test
+    void removeShiftsTheRestOfTheProbeRunBack() {
+        // a, b and c start at slot 5, d at slot 6: the run is 5:a 6:b 7:c 8:d.
+        List<Integer> home5 = keysWithHome(5, 3);
+        int a = home5.get(0);
+        int b = home5.get(1);
+        int c = home5.get(2);
+        int d = keysWithHome(6, 1).get(0);
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(a, "a");
+        map.put(b, "b");
+        map.put(c, "c");
+        map.put(d, "d");
+
+        assertEquals("a", map.remove(a));
+        assertNull(map.remove(a));
+        assertEquals(3, map.size());
+        assertEquals("b", map.get(b));
+        assertEquals("c", map.get(c));
+        assertEquals("d", map.get(d));
+
+        // d may move back to its home slot, but never in front of it.
+        assertEquals("c", map.remove(c));
+        assertEquals("b", map.get(b));
+        assertEquals("d", map.get(d));
+        assertEquals("b", map.remove(b));
+        assertEquals("d", map.remove(d));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void removeShiftsAcrossTheEndOfTheTable() {
+        // The run starts in the last slot and wraps round to slot 0 and 1.
+        List<Integer> last = keysWithHome(SLOTS - 1, 3);
+        int first = keysWithHome(0, 1).get(0);
+        IntObjectMap<String> map = new IntObjectMap<>();
+        for (int key : last) {
+            map.put(key, "last" + key);
+        }
+        map.put(first, "first");
+
+        assertEquals("last" + last.get(0), map.remove(last.get(0)));
+        assertEquals("last" + last.get(1), map.get(last.get(1)));
+        assertEquals("last" + last.get(2), map.get(last.get(2)));
+        assertEquals("first", map.get(first));
+        assertEquals("first", map.remove(first));
+        assertEquals("last" + last.get(2), map.get(last.get(2)));
+    }
+
+    @Test
+    void randomOperationsMatchAHashMap() {
+        Random random = new Random(42);
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            // Few distinct keys, so runs collide and removals are frequent.
+            int key = random.nextInt(300) - 150;
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.put(key, i), map.put(key, i));
+                    break;
+                case 1:
+                    assertEquals(expected.putIfAbsent(key, i), map.putIfAbsent(key, i));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), map.get(key));
+                    break;
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(expected, map.asMap());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(expected.keySet().iterator().next()));
+    }
+
+    @Test
+    void asMapIsAReadOnlyView() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(1, "one");
+        map.put(2, "two");
+        Map<Integer, String> view = map.asMap();
+        assertEquals(Map.of(1, "one", 2, "two"), view);
+        assertNull(view.get("1"));
+        assertFalse(view.containsKey(3));
+
+        map.put(3, "three");
+        assertEquals(3, view.size());
+        assertEquals("three", view.get(3));
+        assertThrows(UnsupportedOperationException.class, () -> view.put(4, "four"));
+        assertThrows(UnsupportedOperationException.class, () -> view.entrySet().iterator().next().setValue("x"));
+    }
+
+    // Keys whose home slot in the default table is the given one.
+    private static List<Integer> keysWithHome(int slot, int count) {
+        List<Integer> keys = new ArrayList<>();
+        for (int key = 1; keys.size() < count; key++) {
+            if ((mix(key) & (SLOTS - 1)) == slot) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    // Same mixing as IntObjectMap.
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,254 @@
+package com.studymate.persistence;
+
+import com.studymate.model.Assignment;
+import com.studymate.model.Course;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BackendMigratorTests {
+
+    private static final String JSON_TO_SQL = "json -> sql";
+
+    @TempDir
+    Path dir;
+
+    private final String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    private final List<String> log = new ArrayList<>();
+    private SqlAppStateRepository sql;
+
+    @AfterEach
+    void closeDatabase() throws SQLException {
+        if (sql != null) {
+            sql.close();
+        }
+        try (Connection c = DriverManager.getConnection(url, "sa", "");
+                Statement s = c.createStatement()) {
+            s.execute("SHUTDOWN");
+        }
+    }
+
+    @Test
+    void resumesAfterTheLastCompleteBatch() throws IOException {
+        AppState source = writeJsonSource(25);
+        sql = new SqlAppStateRepository(new ConnectionPool(url, "sa", "", 2, 0, 5_000, true));
+        Path progress = dir.resolve("migration.progress");
+
+        // Dies halfway through the fourth batch, after writing part of it.
+        FailingWriter failing = new FailingWriter(BackendMigrator.openTarget(SaveFormat.SQL, dir, sql), 3);
+        BackendMigrator first = migrator(failing, progress);
+        IOException e = assertThrows(IOException.class, first::run);
+        assertEquals("simulated crash", e.getMessage());
+        assertTrue(failing.closed, "the target is closed on failure");
+
+        Properties recorded = readProgress(progress);
+        assertEquals(JSON_TO_SQL, recorded.getProperty("migration"));
+        assertEquals("3", recorded.getProperty("courses"));
+        assertEquals("10", recorded.getProperty("assignments"), "only the complete batches count");
+
+        log.clear();
+        long written = migrator(BackendMigrator.openTarget(SaveFormat.SQL, dir, sql), progress).run();
+
+        assertTrue(log.get(0).startsWith("Resuming " + JSON_TO_SQL + ": 13 entities already migrated"), log.get(0));
+        int total = 3 + 25 + 1 + 1 + 1 + 1;
+        assertEquals(total - 13, written);
+        assertFalse(Files.exists(progress), "progress is removed once complete");
+
+        AppState migrated = sql.load();
+        assertEquals(ids(source), ids(migrated));
+        assertEquals(source.getAssignments().get(12).getTitle(), migrated.getAssignments().get(12).getTitle());
+        assertEquals(1, migrated.getHabitLogs().size());
+    }
+
+    @Test
+    void progressOfAnotherMigrationIsIgnored() throws IOException {
+        AppState source = writeJsonSource(7);
+        sql = new SqlAppStateRepository(new ConnectionPool(url, "sa", "", 2, 0, 5_000, true));
+        Path progress = dir.resolve("migration.progress");
+        Files.writeString(progress, "migration=csv -> sql\ncourses=3\nassignments=5\n");
+
+        long written = migrator(BackendMigrator.openTarget(SaveFormat.SQL, dir, sql), progress).run();
+
+        assertTrue(log.get(0).startsWith("Ignoring "), log.get(0));
+        assertEquals(3 + 7 + 4, written);
+        assertEquals(ids(source), ids(sql.load()));
+    }
+
+    @Test
+    void corruptProgressFileStopsTheRun() throws IOException {
+        writeJsonSource(3);
+        sql = new SqlAppStateRepository(new ConnectionPool(url, "sa", "", 2, 0, 5_000, true));
+        Path progress = dir.resolve("migration.progress");
+        Files.writeString(progress, "migration=" + JSON_TO_SQL + "\nassignments=lots\n");
+
+        BackendMigrator migrator = migrator(BackendMigrator.openTarget(SaveFormat.SQL, dir, sql), progress);
+        IOException e = assertThrows(IOException.class, migrator::run);
+        assertTrue(e.getMessage().startsWith("Corrupt migration progress file"), e.getMessage());
+        assertEquals(0, sql.load().getAssignments().size());
+    }
+
+    @Test
+    void nonResumableTargetStartsOverAndDropsStaleProgress() throws IOException {
+        AppState source = writeJsonSource(6);
+        Path progress = dir.resolve("migration.progress");
+        Files.writeString(progress, "migration=json -> ndjson\ncourses=3\nassignments=5\n");
+
+        long written = migrator(BackendMigrator.openTarget(SaveFormat.NDJSON, dir, null), progress).run();
+
+        assertEquals(3 + 6 + 4, written);
+        assertFalse(Files.exists(progress));
+        AppState copied = new NdjsonAppStateRepository(dir.resolve(BackendMigrator.NDJSON_DIR)).load();
+        assertEquals(ids(source), ids(copied));
+    }
+
+    @Test
+    void freshRunRemovesRowsTheSourceDoesNotHave() throws IOException {
+        AppState source = writeJsonSource(4);
+        sql = new SqlAppStateRepository(new ConnectionPool(url, "sa", "", 2, 0, 5_000, true));
+        AppState stale = SqlAppStateRepositoryTests.sampleState();
+        stale.getAssignments().add(new Assignment(900, 101, "Stale", null, null, 1, "Pending"));
+        sql.save(stale);
+
+        long written = migrator(BackendMigrator.openTarget(SaveFormat.SQL, dir, sql), dir.resolve("migration.progress")).run();
+
+        assertEquals(3 + 4 + 4, written);
+        AppState migrated = sql.load();
+        assertEquals(ids(source), ids(migrated));
+        assertEquals("Course 1", migrated.getCourses().get(0).getCourseName());
+    }
+
+    @Test
+    void jsonSourceReadsDeltaFilesAndTheSnapshotCodec() throws IOException {
+        JsonAppStateRepository base = new JsonAppStateRepository(dir.resolve("studymate.json").toString(),
+                false, SnapshotCodec.GZIP);
+        DeltaJsonAppStateRepository json = new DeltaJsonAppStateRepository(base, 20, Long.MAX_VALUE);
+        AppState state = sourceState(3);
+        json.save(state);
+        state.getAssignments().get(0).setTitle("Renamed in a delta");
+        state.getCourses().add(new Course(104, "Added in a delta", "Dr. Noether", "Fall 2025", 4, null));
+        json.save(state);
+        assertEquals(1, json.getDeltaCount());
+        assertFalse(Files.exists(dir.resolve("studymate.json")), "only the compressed file is written");
+
+        sql = new SqlAppStateRepository(new ConnectionPool(url, "sa", "", 2, 0, 5_000, true));
+        EntitySource source = BackendMigrator.openSource(SaveFormat.JSON, dir,
+                new DeltaJsonAppStateRepository(base, 20, Long.MAX_VALUE), null);
+        new BackendMigrator(source, BackendMigrator.openTarget(SaveFormat.SQL, dir, sql), JSON_TO_SQL, 5,
+                dir.resolve("migration.progress"), log::add).run();
+
+        AppState migrated = sql.load();
+        assertEquals(ids(state), ids(migrated));
+        assertEquals("Renamed in a delta", migrated.getAssignments().get(0).getTitle());
+        assertEquals("Added in a delta", migrated.getCourses().get(3).getCourseName());
+    }
+
+    private BackendMigrator migrator(EntityBatchWriter target, Path progress) {
+        EntitySource source = BackendMigrator.openSource(SaveFormat.JSON, dir,
+                new JsonAppStateRepository(dir.resolve("studymate.json").toString()), null);
+        return new BackendMigrator(source, target, JSON_TO_SQL, 5, progress, log::add);
+    }
+
+    private AppState writeJsonSource(int assignments) throws IOException {
+        AppState state = sourceState(assignments);
+        new JsonAppStateRepository(dir.resolve("studymate.json").toString()).save(state);
+        return state;
+    }
+
+    private static AppState sourceState(int assignments) {
+        AppState state = new AppState();
+        for (int id = 1; id <= 3; id++) {
+            state.getCourses().add(new Course(100 + id, "Course " + id, "Dr. " + id, "Fall 2025", 3, "About " + id));
+        }
+        for (int id = 1; id <= assignments; id++) {
+            state.getAssignments().add(new Assignment(id, 100 + 1 + id % 3, "Assignment " + id, "Part " + id,
+                    LocalDate.of(2025, 12, 1).plusDays(id), 1 + id % 3, id % 4 == 0 ? "Completed" : "Pending"));
+        }
+        AppState sample = SqlAppStateRepositoryTests.sampleState();
+        state.getNotes().addAll(sample.getNotes());
+        state.getTests().addAll(sample.getTests());
+        state.getHabits().addAll(sample.getHabits());
+        state.getHabitLogs().addAll(sample.getHabitLogs());
+        return state;
+    }
+
+    private static Properties readProgress(Path progress) throws IOException {
+        Properties props = new Properties();
+        try (var in = Files.newInputStream(progress)) {
+            props.load(in);
+        }
+        return props;
+    }
+
+    private static List<Integer> ids(AppState state) {
+        List<Integer> ids = new ArrayList<>();
+        for (EntityType type : EntityType.values()) {
+            ids.addAll(type.listIn(state).stream().map(type::idOf).collect(Collectors.toList()));
+        }
+        return ids;
+    }
+
+    /**
+     * Passes the first batches through, then writes half of the next one and
+     * throws, like a process killed mid-transaction would leave things.
+     */
+    private static class FailingWriter implements EntityBatchWriter {
+
+        private final EntityBatchWriter delegate;
+        private int batchesLeft;
+        boolean closed;
+
+        FailingWriter(EntityBatchWriter delegate, int batchesBeforeFailure) {
+            this.delegate = delegate;
+            this.batchesLeft = batchesBeforeFailure;
+        }
+
+        @Override
+        public boolean isResumable() {
+            return delegate.isResumable();
+        }
+
+        @Override
+        public void start(boolean resuming) throws IOException {
+            delegate.start(resuming);
+        }
+
+        @Override
+        public void write(EntityType type, List<Object> batch) throws IOException {
+            if (batchesLeft-- == 0) {
+                delegate.write(type, new ArrayList<>(batch.subList(0, batch.size() / 2)));
+                throw new IOException("simulated crash");
+            }
+            delegate.write(type, batch);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            delegate.finish();
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            delegate.close();
+        }
+    }
+}
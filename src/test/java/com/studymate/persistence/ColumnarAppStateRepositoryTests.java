@@ -0,0 +1,143 @@
+package com.studymate.persistence;
+
+import com.studymate.model.Assignment;
+import com.studymate.model.HabitLog;
+import com.studymate.model.Note;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarAppStateRepositoryTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsEveryFieldIncludingNulls() throws IOException {
+        AppState state = SqlAppStateRepositoryTests.sampleState(); // assignment 3 has no date or description
+        state.getHabitLogs().add(new HabitLog(2, 1, null, -4, null));
+        state.getNotes().add(new Note(2, 102, "", "caf\u00e9 \uD83D\uDE00", LocalDate.of(1969, 12, 31)));
+        ColumnarAppStateRepository repository = repository();
+        repository.save(state);
+
+        AppState loaded = repository.load();
+        for (EntityType type : EntityType.values()) {
+            List<Object> expected = type.listIn(state);
+            List<Object> actual = type.listIn(loaded);
+            assertEquals(expected.size(), actual.size(), type.getSectionName());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(CsvRecordCodec.toLine(expected.get(i)), CsvRecordCodec.toLine(actual.get(i)));
+            }
+        }
+        Assignment noDate = loaded.getAssignments().get(2);
+        assertNull(noDate.getDueDate());
+        assertNull(noDate.getDescription());
+        HabitLog empty = loaded.getHabitLogs().get(1);
+        assertNull(empty.getDate());
+        assertNull(empty.getNote());
+        assertEquals(-4, empty.getAmount());
+        assertEquals("", loaded.getNotes().get(1).getTitle(), "an empty string is not null");
+    }
+
+    @Test
+    void repeatedStringsAreStoredOnceInTheDictionary() throws IOException {
+        String description = "A long description shared by every assignment. ".repeat(20);
+        AppState state = new AppState();
+        for (int i = 0; i < 1_000; i++) {
+            state.getAssignments().add(new Assignment(i, 101, "Assignment " + i, description,
+                    LocalDate.of(2025, 9, 1).plusDays(i), i % 3, i % 2 == 0 ? "Pending" : "Completed"));
+        }
+        ColumnarAppStateRepository repository = repository();
+        repository.save(state);
+
+        // 1,000 copies of the description alone would take 960 KB.
+        assertTrue(Files.size(file()) < 100 * 1_000, "size " + Files.size(file()));
+        List<Assignment> loaded = repository.load().getAssignments();
+        assertEquals(1_000, loaded.size());
+        assertEquals(description, loaded.get(999).getDescription());
+        assertEquals("Completed", loaded.get(999).getStatus());
+        assertEquals("Assignment 999", loaded.get(999).getTitle());
+        // Rows with the same value share the decoded dictionary entry.
+        assertSame(loaded.get(0).getDescription(), loaded.get(999).getDescription());
+        assertSame(loaded.get(0).getStatus(), loaded.get(2).getStatus());
+    }
+
+    @Test
+    void emptyTablesAndAMissingFileLoadEmpty() throws IOException {
+        ColumnarAppStateRepository repository = repository();
+        assertEmpty(repository.load(), EntityType.values());
+
+        repository.save(new AppState());
+        assertEmpty(repository.load(), EntityType.values());
+
+        AppState coursesOnly = new AppState();
+        coursesOnly.setCourses(SqlAppStateRepositoryTests.sampleState().getCourses());
+        repository.save(coursesOnly);
+        AppState loaded = repository.load();
+        assertEquals(2, loaded.getCourses().size());
+        assertEquals("Dr. Codd", loaded.getCourses().get(1).getInstructorName());
+        assertEmpty(loaded, Arrays.copyOfRange(EntityType.values(), 1, EntityType.values().length));
+    }
+
+    @Test
+    void truncatedOrCorruptFilesAreReported() throws IOException {
+        repository().save(SqlAppStateRepositoryTests.sampleState());
+        byte[] good = Files.readAllBytes(file());
+
+        assertCorrupt(Arrays.copyOf(good, 6), "Not a columnar");
+        byte[] badMagic = good.clone();
+        badMagic[0] = 'X';
+        assertCorrupt(badMagic, "Not a columnar");
+        assertCorrupt(withInt(good, 4, 99), "Unsupported columnar snapshot version 99");
+        assertCorrupt(withInt(good, 8, 1_000), "Truncated block index");
+        assertCorrupt(withInt(good, 8, -1), "Truncated block index");
+        // Cut inside the index, then inside the blocks.
+        assertCorrupt(Arrays.copyOf(good, 40), "Truncated block index");
+        assertCorrupt(Arrays.copyOf(good, good.length - 10), "Corrupt block index");
+        assertCorrupt(withInt(good, 12 + 4, -1), "Corrupt block index"); // negative row count
+
+        // Column offsets and dictionary entries overwritten.
+        byte[] garbage = good.clone();
+        Arrays.fill(garbage, 12 + 6 * 24, garbage.length, (byte) 0x7F);
+        assertCorrupt(garbage, "Corrupt columnar snapshot");
+    }
+
+    private ColumnarAppStateRepository repository() {
+        return new ColumnarAppStateRepository(file().toString());
+    }
+
+    private Path file() {
+        return dir.resolve("studymate.scol");
+    }
+
+    private void assertCorrupt(byte[] bytes, String message) throws IOException {
+        Files.write(file(), bytes);
+        IOException e = assertThrows(IOException.class, () -> repository().load());
+        assertTrue(e.getMessage().startsWith(message), e.getMessage());
+    }
+
+    private static byte[] withInt(byte[] bytes, int offset, int value) {
+        byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).putInt(offset, value);
+        return copy;
+    }
+
+    private static void assertEmpty(AppState state, EntityType... types) {
+        for (EntityType type : types) {
+            assertEquals(0, type.listIn(state).size(), type.getSectionName());
+        }
+    }
+}
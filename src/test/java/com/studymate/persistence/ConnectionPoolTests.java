@@ -0,0 +1,171 @@
+package com.studymate.persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPoolTests {
+
+    private final String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    private ConnectionPool pool;
+
+    @AfterEach
+    void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void reusesReturnedConnections() throws SQLException {
+        pool = new ConnectionPool(url, "sa", "", 2, 0, 1_000, true);
+        Connection first;
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            first = pc.getConnection();
+        }
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            assertSame(first, pc.getConnection());
+        }
+        assertEquals(1, pool.getOpenCount());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    void borrowTimesOutWhenAllConnectionsAreInUse() throws SQLException {
+        pool = new ConnectionPool(url, "sa", "", 1, 0, 200, true);
+        try (ConnectionPool.PooledConnection held = pool.borrow()) {
+            long start = System.nanoTime();
+            SQLException e = assertThrows(SQLException.class, pool::borrow);
+            long waitedMs = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(e.getMessage().startsWith("Timed out"), e.getMessage());
+            assertTrue(waitedMs >= 150, "waited " + waitedMs + " ms");
+        }
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            assertFalse(pc.getConnection().isClosed());
+        }
+    }
+
+    @Test
+    void waitingBorrowerGetsConnectionWhenItIsReturned() throws Exception {
+        pool = new ConnectionPool(url, "sa", "", 1, 0, 5_000, true);
+        ConnectionPool.PooledConnection held = pool.borrow();
+        Connection physical = held.getConnection();
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            held.close();
+        });
+        releaser.start();
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            assertSame(physical, pc.getConnection());
+        }
+        releaser.join();
+    }
+
+    @Test
+    void validateOnBorrowDiscardsBrokenIdleConnection() throws SQLException {
+        pool = new ConnectionPool(url, "sa", "", 2, 0, 1_000, true);
+        Connection broken;
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            broken = pc.getConnection();
+        }
+        broken.close(); // dies while idle in the pool
+
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            assertNotSame(broken, pc.getConnection());
+            assertTrue(pc.getConnection().isValid(1));
+        }
+        assertEquals(1, pool.getOpenCount());
+    }
+
+    @Test
+    void returnedConnectionIsRolledBackAndReset() throws SQLException {
+        pool = new ConnectionPool(url, "sa", "", 1, 0, 1_000, true);
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            pc.getConnection().createStatement().execute("CREATE TABLE T (ID INT)");
+            pc.getConnection().setAutoCommit(false);
+            pc.prepare("INSERT INTO T VALUES (1)").executeUpdate();
+            // returned without commit
+        }
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            assertTrue(pc.getConnection().getAutoCommit());
+            var rs = pc.prepare("SELECT COUNT(*) FROM T").executeQuery();
+            rs.next();
+            assertEquals(0, rs.getInt(1));
+            rs.close();
+        }
+    }
+
+    @Test
+    void statementCacheEvictsLeastRecentlyUsed() throws SQLException {
+        pool = new ConnectionPool(url, "sa", "", 1, 0, 1_000, true);
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            PreparedStatement[] statements = new PreparedStatement[32];
+            for (int i = 0; i < statements.length; i++) {
+                statements[i] = pc.prepare("SELECT " + i);
+            }
+            assertSame(statements[0], pc.prepare("SELECT 0")); // now the most recently used
+
+            pc.prepare("SELECT 32"); // one over the limit
+
+            assertTrue(statements[1].isClosed(), "least recently used is closed");
+            assertFalse(statements[0].isClosed());
+            assertSame(statements[0], pc.prepare("SELECT 0"));
+            PreparedStatement again = pc.prepare("SELECT 1");
+            assertNotSame(statements[1], again);
+            assertFalse(again.isClosed());
+        }
+    }
+
+    @Test
+    void evictIdleClosesConnectionsPastTheIdleTimeout() throws Exception {
+        pool = new ConnectionPool(url, "sa", "", 2, 50, 1_000, true);
+        Connection physical;
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            physical = pc.getConnection();
+        }
+        Thread.sleep(100);
+        pool.evictIdle();
+        assertEquals(0, pool.getOpenCount());
+        assertEquals(0, pool.getIdleCount());
+        assertTrue(physical.isClosed());
+    }
+
+    @Test
+    void closeWhileBorrowedClosesConnectionOnReturn() throws SQLException {
+        pool = new ConnectionPool(url, "sa", "", 2, 0, 1_000, true);
+        ConnectionPool.PooledConnection idle = pool.borrow();
+        ConnectionPool.PooledConnection borrowed = pool.borrow();
+        Connection idlePhysical = idle.getConnection();
+        idle.close();
+        assertEquals(2, pool.getOpenCount());
+
+        pool.close();
+
+        assertTrue(idlePhysical.isClosed(), "idle connections close at once");
+        assertEquals(1, pool.getOpenCount());
+        assertFalse(borrowed.getConnection().isClosed(), "a borrowed one stays usable");
+        assertTrue(borrowed.getConnection().isValid(1));
+        SQLException e = assertThrows(SQLException.class, pool::borrow);
+        assertEquals("Connection pool is closed", e.getMessage());
+
+        Connection borrowedPhysical = borrowed.getConnection();
+        borrowed.close();
+        assertTrue(borrowedPhysical.isClosed());
+        assertEquals(0, pool.getOpenCount());
+    }
+}
@@ -0,0 +1,199 @@
+package com.studymate.persistence;
+
+import com.studymate.model.Assignment;
+import com.studymate.model.Course;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeltaJsonAppStateRepositoryTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesDeltasUntilMaxFilesThenCompacts() throws IOException {
+        DeltaJsonAppStateRepository repository = open(3, Long.MAX_VALUE);
+        AppState state = sampleState();
+        repository.save(state);
+        assertEquals(0, generationOnDisk());
+        assertEquals(List.of(), deltaFiles());
+
+        for (int i = 1; i <= 3; i++) {
+            rename(state, 0, "Limits v" + i);
+            repository.save(state);
+            assertEquals(i, repository.getDeltaCount());
+        }
+        assertEquals(List.of("studymate.json.delta-000000-000001", "studymate.json.delta-000000-000002",
+                "studymate.json.delta-000000-000003"), deltaFiles());
+
+        rename(state, 0, "Limits v4");
+        repository.save(state);
+
+        assertEquals(0, repository.getDeltaCount());
+        assertEquals(List.of(), deltaFiles());
+        assertEquals(1, generationOnDisk());
+        assertEquals("Limits v4", open(3, Long.MAX_VALUE).load().getAssignments().get(0).getTitle());
+    }
+
+    @Test
+    void compactsOnceDeltaBytesReachTheLimit() throws IOException {
+        DeltaJsonAppStateRepository repository = open(100, 1);
+        AppState state = sampleState();
+        repository.save(state);
+
+        rename(state, 1, "Joins v1");
+        repository.save(state);
+        assertEquals(1, repository.getDeltaCount());
+        assertEquals(1, deltaFiles().size());
+
+        // Any delta is over one byte, so the next change compacts instead.
+        rename(state, 1, "Joins v2");
+        repository.save(state);
+        assertEquals(0, repository.getDeltaCount());
+        assertEquals(List.of(), deltaFiles());
+        assertEquals(1, generationOnDisk());
+
+        // Measure one delta, then allow a little over two.
+        repository = open(100, Long.MAX_VALUE);
+        repository.load();
+        rename(state, 1, "Joins v3");
+        repository.save(state);
+        long oneDelta = Files.size(dir.resolve(deltaFiles().get(0)));
+
+        repository = open(100, 2 * oneDelta + 1);
+        repository.load();
+        rename(state, 1, "Joins v5");
+        repository.save(state);
+        assertEquals(2, repository.getDeltaCount());
+        rename(state, 1, "Joins v6");
+        repository.save(state);
+        assertEquals(3, repository.getDeltaCount(), "the chain was still under the limit before this save");
+        rename(state, 1, "Joins v7");
+        repository.save(state);
+        assertEquals(0, repository.getDeltaCount());
+        assertEquals("Joins v7", open(100, Long.MAX_VALUE).load().getAssignments().get(1).getTitle());
+    }
+
+    @Test
+    void unchangedStateWritesNoDelta() throws IOException {
+        DeltaJsonAppStateRepository repository = open(3, Long.MAX_VALUE);
+        AppState state = sampleState();
+        repository.save(state);
+        repository.save(state);
+        repository.save(sampleState());
+        assertEquals(0, repository.getDeltaCount());
+        assertEquals(List.of(), deltaFiles());
+    }
+
+    @Test
+    void loadAppliesUpsertsAndRemovalsInOrder() throws IOException {
+        DeltaJsonAppStateRepository repository = open(10, Long.MAX_VALUE);
+        AppState state = sampleState();
+        repository.save(state);
+
+        state.getAssignments().remove(2);
+        state.getAssignments().add(new Assignment(4, 101, "Series", null, LocalDate.of(2026, 2, 1), 2, "Pending"));
+        repository.save(state);
+        state.getCourses().add(new Course(103, "Networks", "Dr. Cerf", "Spring 2026", 3, null));
+        state.getAssignments().get(0).setStatus("Completed");
+        repository.save(state);
+        state.getAssignments().add(new Assignment(3, 102, "Reading again", null, LocalDate.of(2026, 3, 1), 3, "Pending"));
+        repository.save(state);
+
+        DeltaJsonAppStateRepository reopened = open(10, Long.MAX_VALUE);
+        AppState loaded = reopened.load();
+        assertEquals(3, reopened.getDeltaCount());
+        assertEquals(List.of(1, 2, 4, 3), loaded.getAssignments().stream()
+                .map(Assignment::getAssignmentId).collect(Collectors.toList()));
+        assertEquals("Completed", loaded.getAssignments().get(0).getStatus());
+        assertEquals("Reading again", loaded.getAssignments().get(3).getTitle());
+        assertEquals(3, loaded.getCourses().size());
+
+        // The reopened repository continues the chain where it left off.
+        loaded.getNotes().clear();
+        reopened.save(loaded);
+        assertEquals(4, reopened.getDeltaCount());
+        assertTrue(Files.exists(dir.resolve("studymate.json.delta-000000-000004")));
+        assertEquals(0, open(10, Long.MAX_VALUE).load().getNotes().size());
+    }
+
+    @Test
+    void deltasFromAnOlderGenerationAreIgnoredAndRemoved() throws IOException {
+        DeltaJsonAppStateRepository repository = open(10, Long.MAX_VALUE);
+        AppState state = sampleState();
+        repository.save(state);
+        rename(state, 0, "Stale title");
+        repository.save(state);
+        Path stale = dir.resolve("studymate.json.delta-000000-000001");
+        byte[] staleDelta = Files.readAllBytes(stale);
+
+        rename(state, 0, "Compacted title");
+        repository.compact(state);
+        // A crash between writing the new base and deleting the old deltas.
+        Files.write(stale, staleDelta);
+        Files.write(dir.resolve("studymate.json.delta-000001-000001.tmp"), "{".getBytes(StandardCharsets.UTF_8));
+
+        AppState loaded = open(10, Long.MAX_VALUE).load();
+        assertEquals("Compacted title", loaded.getAssignments().get(0).getTitle());
+        assertFalse(Files.exists(stale));
+        assertEquals(List.of(), deltaFiles());
+    }
+
+    @Test
+    void gapInDeltaSequenceStopsReplay() throws IOException {
+        DeltaJsonAppStateRepository repository = open(10, Long.MAX_VALUE);
+        AppState state = sampleState();
+        repository.save(state);
+        for (int i = 1; i <= 3; i++) {
+            rename(state, 0, "Limits v" + i);
+            repository.save(state);
+        }
+        Files.delete(dir.resolve("studymate.json.delta-000000-000002"));
+
+        DeltaJsonAppStateRepository reopened = open(10, Long.MAX_VALUE);
+        assertEquals("Limits v1", reopened.load().getAssignments().get(0).getTitle());
+        assertEquals(1, reopened.getDeltaCount());
+    }
+
+    private DeltaJsonAppStateRepository open(int maxDeltas, long maxDeltaBytes) {
+        JsonAppStateRepository base = new JsonAppStateRepository(dir.resolve("studymate.json").toString());
+        return new DeltaJsonAppStateRepository(base, maxDeltas, maxDeltaBytes);
+    }
+
+    private long generationOnDisk() throws IOException {
+        return new JsonAppStateRepository(dir.resolve("studymate.json").toString()).readGeneration();
+    }
+
+    private List<String> deltaFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.startsWith("studymate.json.delta-"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // The JSON format requires every date, unlike the SQL sample it is based on.
+    private static AppState sampleState() {
+        AppState state = SqlAppStateRepositoryTests.sampleState();
+        state.getAssignments().get(2).setDueDate(LocalDate.of(2026, 1, 9));
+        return state;
+    }
+
+    private static void rename(AppState state, int index, String title) {
+        state.getAssignments().get(index).setTitle(title);
+    }
+}
@@ -0,0 +1,173 @@
+package com.studymate.persistence;
+
+import com.studymate.model.Assignment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FastStartSnapshotTests {
+
+    @TempDir
+    Path dir;
+
+    private Path courses;
+    private Path assignments;
+    private Path file;
+    private AppState state;
+
+    @BeforeEach
+    void writeSnapshot() throws IOException {
+        courses = dir.resolve("courses.csv");
+        assignments = dir.resolve("assignments.csv");
+        Files.writeString(courses, "101,Calculus\n");
+        Files.writeString(assignments, "1,101,Limits\n");
+        file = dir.resolve("studymate.snap");
+        state = SqlAppStateRepositoryTests.sampleState();
+        state.getAssignments().get(2).setDueDate(LocalDate.of(2025, 12, 1));
+        FastStartSnapshot snapshot = open(List.of(courses, assignments));
+        snapshot.save(state, snapshot.stampSources());
+    }
+
+    @Test
+    void unchangedSourcesLoadEverySectionAndTheDueOrder() throws IOException {
+        FastStartSnapshot.Loaded loaded = open(List.of(courses, assignments)).load();
+        assertNotNull(loaded);
+
+        AppState read = loaded.readAll();
+        for (EntityType type : EntityType.values()) {
+            assertEquals(type.listIn(state).size(), loaded.count(type), type.getSectionName());
+            List<String> expected = new ArrayList<>();
+            for (Object entity : type.listIn(state)) {
+                expected.add(CsvRecordCodec.toLine(entity));
+            }
+            List<String> actual = new ArrayList<>();
+            for (Object entity : type.listIn(read)) {
+                actual.add(CsvRecordCodec.toLine(entity));
+            }
+            assertEquals(expected, actual, type.getSectionName());
+        }
+
+        // Positions in the assignments list, earliest due date first.
+        int[] order = loaded.getDueOrder();
+        assertEquals(state.getAssignments().size(), order.length);
+        List<Assignment> sorted = new ArrayList<>(state.getAssignments());
+        sorted.sort(null);
+        for (int i = 0; i < order.length; i++) {
+            assertEquals(sorted.get(i).getAssignmentId(), state.getAssignments().get(order[i]).getAssignmentId());
+        }
+    }
+
+    @Test
+    void sameSizeAndTimeIsTrustedWithoutReadingTheSource() throws IOException {
+        // Only size and modification time are compared, which is what makes the check cheap.
+        FileTime time = Files.getLastModifiedTime(courses);
+        Files.writeString(courses, "101,Calcules\n");
+        Files.setLastModifiedTime(courses, time);
+
+        assertNotNull(open(List.of(courses, assignments)).load());
+    }
+
+    @Test
+    void changedSourceSizeIsStale() throws IOException {
+        Files.writeString(courses, "101,Calculus\n102,Databases\n");
+        assertNull(open(List.of(courses, assignments)).load());
+    }
+
+    @Test
+    void newerSourceWithTheSameSizeIsStale() throws IOException {
+        FileTime time = Files.getLastModifiedTime(assignments);
+        Files.writeString(assignments, "1,101,Limitz\n");
+        Files.setLastModifiedTime(assignments, FileTime.fromMillis(time.toMillis() + 2_000));
+        assertNull(open(List.of(courses, assignments)).load());
+    }
+
+    @Test
+    void deletedSourceIsStale() throws IOException {
+        Files.delete(assignments);
+        assertNull(open(List.of(courses, assignments)).load());
+    }
+
+    @Test
+    void otherSourceListIsRejected() throws IOException {
+        assertNull(open(List.of(courses)).load());
+        assertNull(open(List.of(assignments, courses)).load());
+    }
+
+    @Test
+    void corruptedBodyFailsTheChecksum() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        int at = indexOf(bytes, "Dr. Leibniz".getBytes());
+        bytes[at + 1] ^= 0x01;
+        Files.write(file, bytes);
+        assertNull(open(List.of(courses, assignments)).load());
+    }
+
+    @Test
+    void corruptedChecksumIsRejected() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(file, bytes);
+        assertNull(open(List.of(courses, assignments)).load());
+    }
+
+    @Test
+    void truncatedOrForeignFilesAreRejected() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertNull(open(List.of(courses, assignments)).load());
+
+        Files.write(file, Arrays.copyOf(bytes, 6));
+        assertNull(open(List.of(courses, assignments)).load());
+
+        byte[] foreign = bytes.clone();
+        foreign[0] ^= 0x01;
+        Files.write(file, foreign);
+        assertNull(open(List.of(courses, assignments)).load());
+
+        Files.delete(file);
+        assertNull(open(List.of(courses, assignments)).load());
+    }
+
+    @Test
+    void rewritingAfterAFallbackIsUsedAgain() throws IOException {
+        Files.writeString(courses, "101,Calculus\n102,Databases\n");
+        FastStartSnapshot snapshot = open(List.of(courses, assignments));
+        assertNull(snapshot.load());
+
+        snapshot.save(state, snapshot.stampSources());
+        FastStartSnapshot.Loaded loaded = snapshot.load();
+        assertNotNull(loaded);
+        assertArrayEquals(open(List.of(courses, assignments)).load().getDueOrder(), loaded.getDueOrder());
+    }
+
+    private FastStartSnapshot open(List<Path> sources) {
+        return new FastStartSnapshot(file, sources);
+    }
+
+    private static int indexOf(byte[] bytes, byte[] part) {
+        outer:
+        for (int i = 0; i + part.length <= bytes.length; i++) {
+            for (int j = 0; j < part.length; j++) {
+                if (bytes[i + j] != part[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        throw new AssertionError("not found");
+    }
+}
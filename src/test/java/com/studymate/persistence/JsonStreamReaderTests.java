@@ -0,0 +1,192 @@
+package com.studymate.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonStreamReaderTests {
+
+    @Test
+    void decodesEscapes() throws IOException {
+        JsonStreamReader reader = reader("[\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\", \"caf\\u00e9\", \"\\u0041\\u00DF\"]");
+        reader.beginArray();
+        assertEquals("a\"b\\c/d\b\f\n\r\t", reader.nextString());
+        assertEquals("caf\u00e9", reader.nextString());
+        assertEquals("A\u00df", reader.nextString());
+        reader.endArray();
+    }
+
+    @Test
+    void joinsSurrogatePairEscapes() throws IOException {
+        JsonStreamReader reader = reader("{\"emoji\": \"x\\ud83d\\ude00y\"}");
+        reader.beginObject();
+        assertEquals("emoji", reader.nextName());
+        String value = reader.nextString();
+        assertEquals("x\uD83D\uDE00y", value);
+        assertEquals(0x1F600, value.codePointAt(1));
+        reader.endObject();
+    }
+
+    @Test
+    void readsNumbersWithExponentsAndFractions() throws IOException {
+        JsonStreamReader reader = reader("[1e2, -2.5E-1, 1.5e3, 3.0, -2147483648, 2147483647, 0]");
+        reader.beginArray();
+        assertEquals(100, reader.nextInt());
+        assertEquals(-0.25, reader.nextDouble(), 0.0);
+        assertEquals(1500.0, reader.nextDouble(), 0.0);
+        assertEquals(3, reader.nextInt());
+        assertEquals(Integer.MIN_VALUE, reader.nextInt());
+        assertEquals(Integer.MAX_VALUE, reader.nextInt());
+        assertEquals(0, reader.nextInt());
+        assertFalse(reader.hasNext());
+        reader.endArray();
+    }
+
+    @Test
+    void walksNestedStructuresAndSkipsValues() throws IOException {
+        String json = "{\"skip\": {\"a\": [1, [2, {\"b\": null}], \"]\"], \"c\": {}},"
+                + " \"list\": [[], [1, 2], [3]], \"name\": null, \"last\": true}";
+        JsonStreamReader reader = reader(json);
+        reader.beginObject();
+        assertEquals("skip", reader.nextName());
+        reader.skipValue();
+        assertEquals("list", reader.nextName());
+        reader.beginArray();
+        int sum = 0;
+        int arrays = 0;
+        while (reader.hasNext()) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                sum += reader.nextInt();
+            }
+            reader.endArray();
+            arrays++;
+        }
+        reader.endArray();
+        assertEquals(3, arrays);
+        assertEquals(6, sum);
+        assertTrue(reader.hasNext());
+        assertEquals("name", reader.nextName());
+        assertNull(reader.nextString());
+        assertEquals("last", reader.nextName());
+        assertEquals("true", reader.nextString());
+        assertFalse(reader.hasNext());
+        reader.endObject();
+    }
+
+    @Test
+    void readsTokensSplitAcrossReads() throws IOException {
+        StringWriter text = new StringWriter();
+        try (JsonStreamWriter writer = new JsonStreamWriter(text, true)) {
+            writer.beginObject();
+            writer.name("title").value("Line one\nLine \"two\"\t\u00e9\uD83D\uDE00");
+            writer.name("count").value(1234567);
+            writer.name("score").value(97.25);
+            writer.name("missing").nullValue();
+            writer.endObject();
+        }
+
+        JsonStreamReader reader = new JsonStreamReader(new OneCharReader(text.toString()));
+        reader.beginObject();
+        assertEquals("title", reader.nextName());
+        assertEquals("Line one\nLine \"two\"\t\u00e9\uD83D\uDE00", reader.nextString());
+        assertEquals("count", reader.nextName());
+        assertEquals(1234567, reader.nextInt());
+        assertEquals("score", reader.nextName());
+        assertEquals(97.25, reader.nextDouble(), 0.0);
+        assertEquals("missing", reader.nextName());
+        assertNull(reader.nextString());
+        reader.endObject();
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        assertMalformed("{\"a\" 1}", r -> {
+            r.beginObject();
+            r.nextName();
+        });
+        assertMalformed("[1 2]", r -> {
+            r.beginArray();
+            r.nextInt();
+            r.hasNext();
+        });
+        assertMalformed("[\"open", r -> {
+            r.beginArray();
+            r.nextString();
+        });
+        assertMalformed("[\"bad \\x escape\"]", r -> {
+            r.beginArray();
+            r.nextString();
+        });
+        assertMalformed("[\"\\u12g4\"]", r -> {
+            r.beginArray();
+            r.nextString();
+        });
+        assertMalformed("[abc]", r -> {
+            r.beginArray();
+            r.nextInt();
+        });
+        assertMalformed("{\"a\": }", r -> {
+            r.beginObject();
+            r.nextName();
+            r.nextString();
+        });
+        assertMalformed("{\"a\": 1", r -> {
+            r.beginObject();
+            r.nextName();
+            r.nextInt();
+            r.endObject();
+        });
+        assertMalformed("", JsonStreamReader::beginObject);
+        assertMalformed("[".repeat(65), r -> {
+            for (int i = 0; i < 65; i++) {
+                r.beginArray();
+            }
+        });
+    }
+
+    private static JsonStreamReader reader(String json) {
+        return new JsonStreamReader(new StringReader(json));
+    }
+
+    private static void assertMalformed(String json, ReaderSteps steps) {
+        IOException e = assertThrows(IOException.class, () -> steps.run(reader(json)), json);
+        assertTrue(e.getMessage().startsWith("Malformed JSON"), e.getMessage());
+    }
+
+    private interface ReaderSteps {
+        void run(JsonStreamReader reader) throws IOException;
+    }
+
+    // Hands out one char per read, so every token crosses a buffer refill.
+    private static class OneCharReader extends Reader {
+        private final String text;
+        private int pos;
+
+        OneCharReader(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (pos == text.length()) {
+                return -1;
+            }
+            cbuf[off] = text.charAt(pos++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
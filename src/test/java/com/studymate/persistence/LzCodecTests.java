@@ -0,0 +1,261 @@
+package com.studymate.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers {@link LzBlockCodec} and the {@link LzOutputStream}/{@link LzInputStream}
+ * framing around it.
+ */
+class LzCodecTests {
+
+    @Test
+    void emptyBlockAndEmptyStream() throws IOException {
+        assertEquals(-1, compress(new byte[0]), "nothing to gain, so the block is stored");
+
+        byte[] stream = streamCompress(new byte[0]);
+        assertEquals(8, stream.length, "magic and end marker only");
+        try (InputStream in = new LzInputStream(new ByteArrayInputStream(stream))) {
+            assertEquals(-1, in.read());
+            assertEquals(-1, in.read(new byte[16], 0, 16));
+        }
+    }
+
+    @Test
+    void incompressibleDataIsStored() throws IOException {
+        byte[] data = new byte[LzBlockCodec.MAX_BLOCK];
+        new Random(1).nextBytes(data);
+        assertEquals(-1, compress(data));
+
+        byte[] stream = streamCompress(data);
+        // magic + [raw length][stored length = 0][raw bytes] + end marker
+        assertEquals(4 + 8 + data.length + 4, stream.length);
+        assertArrayEquals(data, streamDecompress(stream));
+    }
+
+    @Test
+    void literalAndMatchLengthsAroundTheExtraByteThresholds() throws IOException {
+        Random random = new Random(2);
+        int[] literalRuns = {0, 1, 14, 15, 16, 269, 270, 271, 524, 525, 1000};
+        int[] matchRuns = {4, 18, 19, 20, 273, 274, 275, 528, 529, 2000};
+        for (int literals : literalRuns) {
+            for (int match : matchRuns) {
+                // A random prefix to match against, then fresh literals, then the match.
+                byte[] prefix = randomBytes(random, Math.max(match, 8));
+                ByteArrayOutputStream block = new ByteArrayOutputStream();
+                block.write(prefix, 0, prefix.length);
+                block.write(randomBytes(random, literals), 0, literals);
+                block.write(prefix, 0, match);
+                block.write(randomBytes(random, 7), 0, 7);
+                byte[] data = block.toByteArray();
+                String label = "literals " + literals + ", match " + match;
+                if (match >= 19) {
+                    assertBlockRoundTrip(data, label);
+                } else {
+                    // Too short to always pay off; stored blocks are fine, wrong bytes are not.
+                    byte[] dst = new byte[LzBlockCodec.maxCompressedLength(data.length)];
+                    int size = LzBlockCodec.compress(data, data.length, dst, new int[1 << 14]);
+                    if (size > 0) {
+                        byte[] back = new byte[data.length];
+                        LzBlockCodec.decompress(dst, size, back, back.length);
+                        assertArrayEquals(data, back, label);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void longRunsCompressWell() throws IOException {
+        byte[] data = new byte[LzBlockCodec.MAX_BLOCK];
+        Arrays.fill(data, (byte) 'x');
+        int size = assertBlockRoundTrip(data, "one byte repeated");
+        // One overlapping match of ~64K needs ~257 length bytes.
+        assertTrue(size < 300, "compressed to " + size);
+    }
+
+    @Test
+    void overlappingMatchesRepeatTheirOwnOutput() throws IOException {
+        for (int period = 1; period <= 7; period++) {
+            byte[] data = new byte[5000];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) ('a' + i % period);
+            }
+            int size = assertBlockRoundTrip(data, "period " + period);
+            assertTrue(size < 50, "period " + period + " compressed to " + size);
+        }
+
+        // Hand-built: literal "ab", then copy 10 bytes from offset 2 -> "abababababab".
+        byte[] block = {(byte) 0x26, 'a', 'b', 2, 0, 0x00};
+        byte[] out = new byte[12];
+        LzBlockCodec.decompress(block, block.length, out, out.length);
+        assertEquals("abababababab", new String(out, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void streamCrossesBlockBoundaries() throws IOException {
+        StringBuilder text = new StringBuilder();
+        Random random = new Random(3);
+        while (text.length() < 3 * LzBlockCodec.MAX_BLOCK + 1234) {
+            text.append("assignment ").append(random.nextInt(500)).append(", due 2026-0")
+                    .append(1 + random.nextInt(9)).append(";\n");
+        }
+        byte[] data = text.toString().getBytes(StandardCharsets.UTF_8);
+
+        // Mixed single-byte and odd-sized array writes land everywhere relative to the 64K blocks.
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (LzOutputStream out = new LzOutputStream(sink)) {
+            int i = 0;
+            int step = 1;
+            while (i < data.length) {
+                if (step % 5 == 0) {
+                    out.write(data[i++]);
+                } else {
+                    int n = Math.min(step * 997, data.length - i);
+                    out.write(data, i, n);
+                    i += n;
+                }
+                step++;
+            }
+        }
+        byte[] stream = sink.toByteArray();
+        assertTrue(stream.length < data.length / 2, "compressed to " + stream.length);
+
+        // Read back with alternating read() and read(byte[]) calls.
+        ByteArrayOutputStream back = new ByteArrayOutputStream();
+        try (InputStream in = new LzInputStream(new ByteArrayInputStream(stream))) {
+            byte[] buffer = new byte[40_000];
+            boolean single = false;
+            while (true) {
+                if (single) {
+                    int b = in.read();
+                    if (b < 0) {
+                        break;
+                    }
+                    back.write(b);
+                } else {
+                    int n = in.read(buffer, 0, buffer.length);
+                    if (n < 0) {
+                        break;
+                    }
+                    back.write(buffer, 0, n);
+                }
+                single = !single;
+            }
+        }
+        assertArrayEquals(data, back.toByteArray());
+    }
+
+    @Test
+    void truncatedStreamFails() throws IOException {
+        byte[] data = "Limits Worksheet, Limits Worksheet, Limits Worksheet".repeat(3000)
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] stream = streamCompress(data);
+        for (int cut : new int[] {2, 4, 6, 10, 14, stream.length / 2, stream.length - 5, stream.length - 1}) {
+            byte[] truncated = Arrays.copyOf(stream, cut);
+            assertThrows(IOException.class, () -> streamDecompress(truncated), "cut at " + cut);
+        }
+    }
+
+    @Test
+    void corruptStreamFails() throws IOException {
+        byte[] data = "Calculus, Databases, Calculus, Databases; ".repeat(2000).getBytes(StandardCharsets.UTF_8);
+        byte[] stream = streamCompress(data);
+
+        byte[] badMagic = stream.clone();
+        badMagic[0] ^= 1;
+        IOException e = assertThrows(IOException.class, () -> streamDecompress(badMagic));
+        assertEquals("Not an LZ snapshot stream", e.getMessage());
+
+        byte[] hugeBlock = stream.clone();
+        hugeBlock[4] = 0x7F; // raw length far above 64K
+        e = assertThrows(IOException.class, () -> streamDecompress(hugeBlock));
+        assertEquals("Corrupt LZ stream header", e.getMessage());
+
+        byte[] wrongRawLength = stream.clone();
+        wrongRawLength[5] = 0; // 65535: one byte shorter than the block decodes to
+        wrongRawLength[6] = (byte) 0xFF;
+        wrongRawLength[7] = (byte) 0xFF;
+        assertThrows(IOException.class, () -> streamDecompress(wrongRawLength));
+    }
+
+    @Test
+    void corruptBlocksFailWithIOException() throws IOException {
+        // Offset pointing before the start of the output.
+        byte[] block = {(byte) 0x20, 'a', 'b', 9, 0, 0x00};
+        assertThrows(IOException.class, () -> LzBlockCodec.decompress(block, block.length, new byte[12], 12));
+        // Offset of zero.
+        byte[] zero = {(byte) 0x20, 'a', 'b', 0, 0, 0x00};
+        assertThrows(IOException.class, () -> LzBlockCodec.decompress(zero, zero.length, new byte[12], 12));
+        // Literal run longer than the block.
+        byte[] overrun = {(byte) 0x50, 'a', 'b'};
+        assertThrows(IOException.class, () -> LzBlockCodec.decompress(overrun, overrun.length, new byte[5], 5));
+        // Extra length bytes missing at the end.
+        byte[] cutLength = {(byte) 0xF0, (byte) 255};
+        assertThrows(IOException.class, () -> LzBlockCodec.decompress(cutLength, cutLength.length, new byte[300], 300));
+
+        // Random damage to a valid block either decodes to something or fails cleanly.
+        byte[] data = "Note: line one\nline two\nline one\n".repeat(500).getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = new byte[LzBlockCodec.maxCompressedLength(data.length)];
+        int size = LzBlockCodec.compress(data, data.length, compressed, new int[1 << 14]);
+        assertTrue(size > 0);
+        Random random = new Random(4);
+        for (int round = 0; round < 2000; round++) {
+            byte[] damaged = Arrays.copyOf(compressed, size);
+            damaged[random.nextInt(size)] = (byte) random.nextInt(256);
+            int length = round % 3 == 0 ? 1 + random.nextInt(size) : size;
+            try {
+                LzBlockCodec.decompress(damaged, length, new byte[data.length], data.length);
+            } catch (IOException expected) {
+                // fine
+            }
+        }
+    }
+
+    private static int compress(byte[] data) {
+        byte[] dst = new byte[LzBlockCodec.maxCompressedLength(data.length)];
+        return LzBlockCodec.compress(data, data.length, dst, new int[1 << 14]);
+    }
+
+    private static int assertBlockRoundTrip(byte[] data, String label) throws IOException {
+        byte[] dst = new byte[LzBlockCodec.maxCompressedLength(data.length)];
+        int size = LzBlockCodec.compress(data, data.length, dst, new int[1 << 14]);
+        assertTrue(size > 0 && size < data.length, label + ": compressed to " + size);
+        byte[] back = new byte[data.length];
+        LzBlockCodec.decompress(Arrays.copyOf(dst, size), size, back, back.length);
+        assertArrayEquals(data, back, label);
+        return size;
+    }
+
+    private static byte[] randomBytes(Random random, int n) {
+        byte[] b = new byte[n];
+        random.nextBytes(b);
+        return b;
+    }
+
+    private static byte[] streamCompress(byte[] data) throws IOException {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (LzOutputStream out = new LzOutputStream(sink)) {
+            out.write(data);
+        }
+        return sink.toByteArray();
+    }
+
+    private static byte[] streamDecompress(byte[] stream) throws IOException {
+        try (InputStream in = new LzInputStream(new ByteArrayInputStream(stream))) {
+            return in.readAllBytes();
+        }
+    }
+}
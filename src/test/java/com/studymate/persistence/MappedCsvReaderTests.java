@@ -0,0 +1,154 @@
+package com.studymate.persistence;
+
+import com.studymate.exceptions.CsvLoadException;
+import com.studymate.model.Note;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedCsvReaderTests {
+
+    private static final FieldRecordParser<String> FIRST_AND_LAST =
+            (data, offsets, lengths, count) -> CsvFields.string(data, offsets[0], lengths[0])
+                    + "|" + CsvFields.string(data, offsets[count - 1], lengths[count - 1]);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void chunkEndingInsideQuotedFieldReportsWhereItsRecordStarts() {
+        byte[] csv = "1,plain\n2,\"first line\nsecond, line\"\n3,after\n".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer data = ByteBuffer.wrap(csv);
+        int secondRecord = "1,plain\n".length();
+        int cut = secondRecord + "2,\"first line\n".length();
+
+        MappedCsvReader.Chunk<String> head = MappedCsvReader.parseChunk(data, 0, cut, FIRST_AND_LAST);
+        assertEquals(List.of("1|plain"), head.records);
+        assertEquals(1, head.lineCount);
+        assertEquals(secondRecord, head.openRecordStart);
+
+        MappedCsvReader.Chunk<String> rest = MappedCsvReader.parseChunk(data, secondRecord, csv.length, FIRST_AND_LAST);
+        assertEquals(List.of("2|first line\nsecond, line", "3|after"), rest.records);
+        assertEquals(3, rest.lineCount);
+        assertEquals(-1, rest.openRecordStart);
+    }
+
+    @Test
+    void parallelLoadMatchesBufferedWhenChunksSplitQuotedFields() throws IOException {
+        List<Note> notes = notes(6000, new Random(42));
+        CsvPersistenceManager<Note> csv = manager();
+        csv.saveAll(notes);
+        assertTrue(Files.size(csv.getFilePath()) > 4 * 256 * 1024, "file must span several chunks");
+
+        List<Note> buffered = load(csv, CsvLoadMode.BUFFERED, 1);
+        assertSameNotes(notes, buffered);
+        assertSameNotes(notes, load(csv, CsvLoadMode.MAPPED, 1));
+        for (int parallelism : new int[] {2, 3, 8}) {
+            assertSameNotes(notes, load(csv, CsvLoadMode.PARALLEL, parallelism));
+        }
+    }
+
+    @Test
+    void parallelLoadCountsLinesInsideQuotedFields() throws IOException {
+        List<Note> notes = notes(4000, new Random(7));
+        CsvPersistenceManager<Note> csv = manager();
+        csv.saveAll(notes);
+        int line = 1;
+        for (Note n : notes) {
+            line += n.getContent().split("\n", -1).length;
+        }
+        Files.write(csv.getFilePath(), "not,a,note\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        for (CsvLoadMode mode : new CsvLoadMode[] {CsvLoadMode.MAPPED, CsvLoadMode.PARALLEL}) {
+            CsvLoadException e = assertThrows(CsvLoadException.class, () -> load(csv, mode, 8));
+            assertEquals(List.of("line " + line + ": Invalid Note record format."), e.getLineErrors());
+        }
+    }
+
+    @Test
+    void unterminatedQuotedFieldAtEndOfFileIsReported() throws IOException {
+        Path file = dir.resolve("open.csv");
+        Files.write(file, "1,ok\n2,\"never closed\nstill open\n".getBytes(StandardCharsets.UTF_8));
+        List<String> records = new ArrayList<>();
+        CsvLoadException e = assertThrows(CsvLoadException.class,
+                () -> MappedCsvReader.readParallel(file, FIRST_AND_LAST, 4, records::add));
+        assertEquals(List.of("line 2: unterminated quoted field"), e.getLineErrors());
+        assertEquals(List.of("1|ok"), records);
+    }
+
+    @Test
+    void stringParserAloneGetsQuotedFieldsBackInMappedModes() throws IOException {
+        Path file = dir.resolve("notes.csv");
+        Files.write(file, "\"7\",101,\"Title, with comma\",\"say \"\"hi\"\"\nbye\",2025-09-01\n"
+                .getBytes(StandardCharsets.UTF_8));
+        CsvPersistenceManager<Note> csv = new CsvPersistenceManager<>(file.toString(),
+                line -> (Note) CsvRecordCodec.parse(EntityType.NOTE, line));
+
+        for (CsvLoadMode mode : CsvLoadMode.values()) {
+            Note note = load(csv, mode, 2).get(0);
+            assertEquals(7, note.getNoteId(), mode.name());
+            assertEquals("Title, with comma", note.getTitle(), mode.name());
+            assertEquals("say \"hi\"\nbye", note.getContent(), mode.name());
+        }
+    }
+
+    private CsvPersistenceManager<Note> manager() {
+        return CsvPersistenceManager.forType(EntityType.NOTE, dir);
+    }
+
+    private static List<Note> load(CsvPersistenceManager<Note> csv, CsvLoadMode mode, int parallelism)
+            throws IOException {
+        csv.setLoadMode(mode);
+        csv.setParallelism(parallelism);
+        return csv.loadAll();
+    }
+
+    // Long multi-line quoted contents, so most chunk cuts land inside one.
+    private static List<Note> notes(int count, Random random) {
+        List<Note> notes = new ArrayList<>(count);
+        LocalDate day = LocalDate.of(2025, 9, 1);
+        for (int i = 0; i < count; i++) {
+            StringBuilder content = new StringBuilder();
+            int lines = 1 + random.nextInt(12);
+            for (int l = 0; l < lines; l++) {
+                if (l > 0) {
+                    content.append('\n');
+                }
+                content.append("line ").append(l).append(" of note ").append(i);
+                if (random.nextInt(3) == 0) {
+                    content.append(", with \"quotes\", commas");
+                }
+                content.append(" ").append("x".repeat(random.nextInt(40)));
+            }
+            notes.add(new Note(i, 100 + i % 7, "Note " + i, content.toString(), day.plusDays(i % 90)));
+        }
+        return notes;
+    }
+
+    private static void assertSameNotes(List<Note> expected, List<Note> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Note e = expected.get(i);
+            Note a = actual.get(i);
+            assertEquals(e.getNoteId(), a.getNoteId());
+            assertEquals(e.getCourseId(), a.getCourseId());
+            assertEquals(e.getTitle(), a.getTitle());
+            assertEquals(e.getContent(), a.getContent(), "content of note " + e.getNoteId());
+            assertEquals(e.getCreatedOn(), a.getCreatedOn());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.studymate.persistence;
+
+import com.studymate.model.Assignment;
+import com.studymate.model.Course;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MutationJournalTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysAppendedRecordsAsUpserts() throws IOException {
+        try (MutationJournal journal = open(1024 * 1024)) {
+            journal.append(new Course(1, "Algorithms", "Dr. Knuth", "Fall 2025", 4, null));
+            journal.append(assignment(10, "Draft"));
+            journal.append(assignment(11, "Essay"));
+            journal.append(assignment(10, "Final"));
+        }
+
+        AppState state = new AppState();
+        try (MutationJournal journal = open(1024 * 1024)) {
+            assertEquals(4, journal.replayInto(state));
+        }
+        assertEquals(1, state.getCourses().size());
+        assertEquals("Dr. Knuth", state.getCourses().get(0).getInstructorName());
+        assertNull(state.getCourses().get(0).getDescription());
+        assertEquals(2, state.getAssignments().size());
+        assertEquals("Final", state.getAssignments().get(0).getTitle());
+        assertEquals(LocalDate.of(2025, 11, 10), state.getAssignments().get(0).getDueDate());
+        assertEquals("Essay", state.getAssignments().get(1).getTitle());
+    }
+
+    @Test
+    void ignoresRecordCutShortByCrash() throws IOException {
+        try (MutationJournal journal = open(1024 * 1024)) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(assignment(i, "Assignment " + i));
+            }
+        }
+        Path segment = segments().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        AppState state = new AppState();
+        try (MutationJournal journal = open(1024 * 1024)) {
+            assertEquals(4, journal.replayInto(state));
+        }
+        assertEquals(4, state.getAssignments().size());
+        assertEquals("Assignment 3", state.getAssignments().get(3).getTitle());
+    }
+
+    @Test
+    void stopsAtRecordWithBadChecksum() throws IOException {
+        try (MutationJournal journal = open(1024 * 1024)) {
+            for (int i = 0; i < 3; i++) {
+                journal.append(assignment(i, "Assignment " + i));
+            }
+        }
+        Path segment = segments().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 2] ^= 0x55; // last record's status text
+        Files.write(segment, bytes);
+
+        AppState state = new AppState();
+        try (MutationJournal journal = open(1024 * 1024)) {
+            assertEquals(2, journal.replayInto(state));
+        }
+        assertEquals(2, state.getAssignments().size());
+    }
+
+    @Test
+    void rollsSegmentsAndDropsThemAfterCheckpoint() throws IOException {
+        try (MutationJournal journal = open(64)) {
+            for (int i = 0; i < 20; i++) {
+                journal.append(assignment(i, "Assignment " + i));
+            }
+            assertEquals(20, journal.getRecordsSinceCheckpoint());
+        }
+        int written = segments().size();
+        assertTrue(written > 5, "segments written: " + written);
+
+        AppState state = new AppState();
+        try (MutationJournal journal = open(64)) {
+            assertEquals(20, journal.replayInto(state));
+            long live = journal.startCheckpoint();
+            assertEquals(0, journal.getRecordsSinceCheckpoint());
+            journal.finishCheckpoint(live);
+            journal.append(assignment(99, "After checkpoint"));
+        }
+        assertEquals(20, state.getAssignments().size());
+
+        AppState afterCheckpoint = new AppState();
+        try (MutationJournal journal = open(64)) {
+            assertEquals(1, journal.replayInto(afterCheckpoint));
+        }
+        assertEquals(99, afterCheckpoint.getAssignments().get(0).getAssignmentId());
+    }
+
+    private MutationJournal open(long segmentBytes) throws IOException {
+        return new MutationJournal(dir.toString(), FsyncPolicy.PER_WRITE, 200, segmentBytes);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> Files.isRegularFile(p) && sizeOf(p) > 0).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static long sizeOf(Path p) {
+        try {
+            return Files.size(p);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static Assignment assignment(int id, String title) {
+        return new Assignment(id, 1, title, "", LocalDate.of(2025, 11, 10), 2, "Pending");
+    }
+}
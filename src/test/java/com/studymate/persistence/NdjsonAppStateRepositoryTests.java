@@ -0,0 +1,155 @@
+package com.studymate.persistence;
+
+import com.studymate.model.Assignment;
+import com.studymate.model.Course;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NdjsonAppStateRepositoryTests {
+
+    // Enough lines of about 200 bytes to pass the 1 MB parallel threshold and
+    // make several 256 KB chunks.
+    private static final int MANY = 8_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendAddsLinesWithoutRewritingTheFile() throws IOException {
+        NdjsonAppStateRepository repository = open(1);
+        repository.save(EntityType.ASSIGNMENT, List.of(assignment(1, "First"), assignment(2, "Second"),
+                assignment(3, "Third")));
+        Path file = repository.fileFor(EntityType.ASSIGNMENT);
+        byte[] before = Files.readAllBytes(file);
+
+        repository.append(EntityType.ASSIGNMENT, List.of(assignment(2, "Second, updated"), assignment(4, "Fourth")));
+        repository.append(EntityType.ASSIGNMENT, List.of());
+
+        byte[] after = Files.readAllBytes(file);
+        assertArrayEquals(before, Arrays.copyOf(after, before.length), "earlier lines are left as they were");
+        assertEquals(5, Files.readAllLines(file).size());
+        List<Object> loaded = repository.load(EntityType.ASSIGNMENT);
+        assertEquals(List.of(1, 2, 3, 4), ids(EntityType.ASSIGNMENT, loaded));
+        assertEquals("Second, updated", ((Assignment) loaded.get(1)).getTitle(), "the last line of an id wins");
+
+        // An append cut short by a crash leaves a last line without its newline.
+        Files.writeString(file, "{\"id\":5,\"courseId\":101,\"tit", StandardOpenOption.APPEND);
+        assertEquals(List.of(1, 2, 3, 4), ids(EntityType.ASSIGNMENT, repository.load(EntityType.ASSIGNMENT)));
+        List<Object> streamed = new ArrayList<>();
+        repository.stream((type, entity) -> streamed.add(entity));
+        assertEquals(List.of(1, 2, 3, 2, 4), ids(EntityType.ASSIGNMENT, streamed), "stream passes duplicates on");
+    }
+
+    @Test
+    void largeFilesAreParsedInParallelInFileOrder() throws IOException {
+        // Descending ids, so file order and id order differ.
+        List<Assignment> assignments = new ArrayList<>();
+        for (int id = MANY; id >= 1; id--) {
+            assignments.add(assignment(id, "Assignment " + id));
+        }
+        NdjsonAppStateRepository parallel = open(4);
+        parallel.save(EntityType.ASSIGNMENT, assignments);
+        parallel.append(EntityType.ASSIGNMENT, List.of(assignment(MANY, "Rewritten at the end")));
+        assertTrue(Files.size(parallel.fileFor(EntityType.ASSIGNMENT)) > 1024 * 1024,
+                "the file is split into several chunks");
+
+        List<Object> loaded = parallel.load(EntityType.ASSIGNMENT);
+
+        assertEquals(ids(EntityType.ASSIGNMENT, assignments), ids(EntityType.ASSIGNMENT, loaded));
+        assertEquals("Rewritten at the end", ((Assignment) loaded.get(0)).getTitle());
+        assertEquals(lines(open(1).load(EntityType.ASSIGNMENT)), lines(loaded), "same as a sequential read");
+    }
+
+    @Test
+    void badLinesAreReportedWithFileAndLine() throws IOException {
+        NdjsonAppStateRepository repository = open(1);
+        Path file = repository.fileFor(EntityType.ASSIGNMENT);
+        List<String> text = linesOf(List.of(assignment(1, "One"), assignment(2, "Two"), assignment(3, "Three")));
+        text.add(2, "");
+        text.add(3, "{\"id\":4,,\"courseId\":101}");
+        Files.createDirectories(file.getParent());
+        Files.write(file, text, StandardCharsets.UTF_8);
+
+        IOException e = assertThrows(IOException.class, () -> repository.load(EntityType.ASSIGNMENT));
+        assertTrue(e.getMessage().startsWith(file + " line 4: Malformed JSON"), e.getMessage());
+        e = assertThrows(IOException.class, () -> repository.stream((type, entity) -> { }));
+        assertTrue(e.getMessage().startsWith(file + " line 4: Malformed JSON"), e.getMessage());
+
+        // In a large file the bad line is in a later chunk, parsed on another thread.
+        List<Assignment> assignments = new ArrayList<>();
+        for (int id = 1; id <= MANY; id++) {
+            assignments.add(assignment(id, "Assignment " + id));
+        }
+        text = linesOf(assignments);
+        text.set(6_999, "{\"id\":7000,\"courseId\":101,\"title\":\"Unterminated}");
+        Files.write(file, text, StandardCharsets.UTF_8);
+
+        e = assertThrows(IOException.class, () -> open(4).load(EntityType.ASSIGNMENT));
+        assertTrue(e.getMessage().startsWith(file + " line 7000: Malformed JSON"), e.getMessage());
+    }
+
+    @Test
+    void readsTheRecordsTheJsonRepositoryWrites() throws IOException {
+        AppState state = SqlAppStateRepositoryTests.sampleState();
+        state.getAssignments().removeIf(a -> a.getDueDate() == null); // JSON needs a due date
+        state.getCourses().add(new Course(103, "Caf\u00e9 \"Quotes\"", "Dr. G\u00f6del", "Fall 2025", 3,
+                "Line one\nline two"));
+        JsonAppStateRepository json = new JsonAppStateRepository(dir.resolve("studymate.json").toString(), true);
+        json.save(state);
+        String document = Files.readString(json.getFile());
+
+        NdjsonAppStateRepository ndjson = open(1);
+        ndjson.save(json.load());
+
+        AppState loaded = ndjson.load();
+        for (EntityType type : EntityType.values()) {
+            assertEquals(lines(type.listIn(state)), lines(type.listIn(loaded)), type.getSectionName());
+            // Each NDJSON line is the JSON repository's record, word for word.
+            for (String line : Files.readAllLines(ndjson.fileFor(type))) {
+                assertTrue(document.contains(line), line);
+            }
+        }
+        assertEquals(3, Files.readAllLines(ndjson.fileFor(EntityType.COURSE)).size(),
+                "the line break in a description is escaped");
+    }
+
+    private NdjsonAppStateRepository open(int parallelism) {
+        return new NdjsonAppStateRepository(dir.resolve(BackendMigrator.NDJSON_DIR), parallelism);
+    }
+
+    private static Assignment assignment(int id, String title) {
+        return new Assignment(id, 101, title, "Part " + id + " " + "x".repeat(120),
+                LocalDate.of(2025, 12, 1).plusDays(id % 300), 1 + id % 3, "Pending");
+    }
+
+    private static List<String> linesOf(List<?> assignments) throws IOException {
+        StringWriter out = new StringWriter();
+        NdjsonAppStateRepository.writeLines(out, EntityType.ASSIGNMENT, assignments);
+        return new ArrayList<>(Arrays.asList(out.toString().split("\n")));
+    }
+
+    private static List<Integer> ids(EntityType type, List<?> entities) {
+        return entities.stream().map(type::idOf).collect(Collectors.toList());
+    }
+
+    private static List<String> lines(List<?> entities) {
+        return entities.stream().map(CsvRecordCodec::toLine).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,62 @@
+package com.studymate.persistence;
+
+import com.studymate.model.Assignment;
+import com.studymate.model.Course;
+import com.studymate.model.HabitLog;
+import com.studymate.model.Note;
+import com.studymate.model.StudyHabit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectStreamClass;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * studymate.bin files written by the original model classes must still
+ * load, whatever methods the classes gain or lose later.
+ */
+class ObjectStreamCompatibilityTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void modelClassesKeepTheirOriginalSerialVersionUids() {
+        assertEquals(-1253876114231037114L, uid(Assignment.class));
+        assertEquals(-8402163339409520985L, uid(Course.class));
+        assertEquals(-2577880328331638444L, uid(Note.class));
+        assertEquals(-8788541536859489306L, uid(com.studymate.model.Test.class));
+        assertEquals(8119215097407896798L, uid(StudyHabit.class));
+        assertEquals(-7547208348183784507L, uid(HabitLog.class));
+    }
+
+    @Test
+    void loadsSnapshotWrittenByTheOriginalClasses() throws IOException {
+        Path file = dir.resolve("studymate.bin");
+        try (InputStream in = getClass().getResourceAsStream("/snapshots/baseline-studymate.bin")) {
+            assertNotNull(in);
+            Files.copy(in, file);
+        }
+
+        AppState state = new ObjectStreamAppStateRepository(file.toString(), SnapshotCodec.NONE).load();
+
+        assertEquals(2, state.getCourses().size());
+        assertEquals(3, state.getAssignments().size());
+        Assignment first = state.getAssignments().get(0);
+        assertEquals("Limits Worksheet", first.getTitle());
+        assertEquals(101, first.getCourseId());
+        assertEquals(LocalDate.of(2025, 12, 22), first.getDueDate());
+        assertEquals("In Progress", state.getAssignments().get(2).getStatus());
+    }
+
+    private static long uid(Class<?> type) {
+        return ObjectStreamClass.lookup(type).getSerialVersionUID();
+    }
+}
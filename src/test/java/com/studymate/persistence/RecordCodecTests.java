@@ -0,0 +1,111 @@
+package com.studymate.persistence;
+
+import com.studymate.interfaces.Persistable;
+import com.studymate.model.Assignment;
+import com.studymate.model.Course;
+import com.studymate.model.HabitLog;
+import com.studymate.model.Note;
+import com.studymate.model.StudyHabit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Round trips through {@link CsvRecordCodec} and {@link BinaryRecordCodec}.
+ */
+class RecordCodecTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void csvLinesQuoteWhatNeedsQuotingAndParseBack() {
+        Assignment a = new Assignment(7, 101, "Limits, part 1", "Say \"hi\"\nthen leave",
+                LocalDate.of(2025, 12, 22), 2, "Pending");
+        String line = CsvRecordCodec.toLine(a);
+        assertEquals("7,101,\"Limits, part 1\",\"Say \"\"hi\"\"\nthen leave\",2025-12-22,2,Pending", line);
+
+        Assignment back = (Assignment) CsvRecordCodec.parse(EntityType.ASSIGNMENT, line);
+        assertEquals("Limits, part 1", back.getTitle());
+        assertEquals("Say \"hi\"\nthen leave", back.getDescription());
+        assertEquals(LocalDate.of(2025, 12, 22), back.getDueDate());
+
+        Course course = new Course(101, "Calculus", "Dr. Leibniz", "Fall 2025", 3, "Limits and series");
+        assertEquals("101,Calculus,Dr. Leibniz,Fall 2025,3,Limits and series", CsvRecordCodec.toLine(course));
+        StudyHabit habit = new StudyHabit(1, "Reading", "Pages, per day", 5);
+        StudyHabit habitBack = (StudyHabit) CsvRecordCodec.parse(EntityType.HABIT, CsvRecordCodec.toLine(habit));
+        assertEquals("Pages, per day", habitBack.getDescription());
+
+        // Course descriptions written before quoting may hold bare commas.
+        Course old = (Course) CsvRecordCodec.parse(EntityType.COURSE, "101,Calculus,Dr. Leibniz,Fall 2025,3,Limits, series");
+        assertEquals("Limits, series", old.getDescription());
+        assertThrows(IllegalArgumentException.class, () -> CsvRecordCodec.parse(EntityType.NOTE, "1,101,Title"));
+    }
+
+    @Test
+    void csvFilesRoundTripEveryType() throws IOException {
+        AppState state = SqlAppStateRepositoryTests.sampleState();
+        state.getAssignments().get(2).setDueDate(LocalDate.of(2026, 1, 9)); // CSV requires dates
+        for (EntityType type : EntityType.values()) {
+            CsvPersistenceManager<Persistable> csv = CsvPersistenceManager.forType(type, dir);
+            csv.saveAll(type.listIn(state));
+            List<Object> loaded = List.copyOf(csv.loadAll());
+            assertEquals(type.listIn(state).size(), loaded.size(), type.getSectionName());
+            for (int i = 0; i < loaded.size(); i++) {
+                assertEquals(CsvRecordCodec.toLine(type.listIn(state).get(i)),
+                        CsvRecordCodec.toLine(loaded.get(i)));
+            }
+        }
+    }
+
+    @Test
+    void binaryRecordsRoundTripEveryTypeIncludingNulls() throws IOException {
+        AppState state = SqlAppStateRepositoryTests.sampleState();
+        state.getHabitLogs().add(new HabitLog(2, 1, null, 0, null));
+        state.getNotes().add(new Note(2, 102, "", "caf\u00e9 \uD83D\uDE00", LocalDate.of(1969, 12, 31)));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryRecordWriter out = new BinaryRecordWriter(bytes)) {
+            for (EntityType type : EntityType.values()) {
+                for (Object entity : type.listIn(state)) {
+                    BinaryRecordCodec.write(out, entity);
+                }
+            }
+        }
+        BinaryRecordReader in = new BinaryRecordReader(ByteBuffer.wrap(bytes.toByteArray()));
+        for (EntityType type : EntityType.values()) {
+            for (Object expected : type.listIn(state)) {
+                Object actual = BinaryRecordCodec.read(in, type);
+                assertEquals(type.idOf(expected), type.idOf(actual));
+                assertEquals(CsvRecordCodec.toLine(expected), CsvRecordCodec.toLine(actual));
+            }
+        }
+        assertFalse(in.hasRemaining());
+
+        Assignment noDate = (Assignment) roundTrip(EntityType.ASSIGNMENT, state.getAssignments().get(2));
+        assertNull(noDate.getDueDate());
+        assertNull(noDate.getDescription());
+        HabitLog empty = (HabitLog) roundTrip(EntityType.HABIT_LOG, state.getHabitLogs().get(1));
+        assertNull(empty.getDate());
+        assertNull(empty.getNote());
+    }
+
+    private static Object roundTrip(EntityType type, Object entity) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryRecordWriter out = new BinaryRecordWriter(bytes)) {
+            BinaryRecordCodec.write(out, entity);
+        }
+        return BinaryRecordCodec.read(new BinaryRecordReader(ByteBuffer.wrap(bytes.toByteArray())), type);
+    }
+}
@@ -0,0 +1,194 @@
+package com.studymate.persistence;
+
+import com.studymate.model.Course;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SavePipelineTests {
+
+    @Test
+    void formatsAreWrittenInParallel() {
+        // Each target waits for the other two, so this only completes if all three run at once.
+        CyclicBarrier allRunning = new CyclicBarrier(3);
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        SavePipeline.SaveTarget target = state -> {
+            threads.add(Thread.currentThread().getName());
+            try {
+                allRunning.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IOException("targets did not run in parallel", e);
+            }
+        };
+        try (SavePipeline pipeline = new SavePipeline(3)
+                .register(SaveFormat.CSV, target)
+                .register(SaveFormat.JSON, target)
+                .register(SaveFormat.BINARY, target)) {
+            SaveReport report = pipeline.save(new AppState()).join();
+
+            assertTrue(report.isSuccessful(), report.toString());
+            assertEquals(Set.of(SaveFormat.CSV, SaveFormat.JSON, SaveFormat.BINARY), report.getTimingsMs().keySet());
+            assertEquals(3, Set.copyOf(threads).size());
+            assertTrue(threads.get(0).startsWith("StudyMate-Save-"), threads.get(0));
+        }
+    }
+
+    @Test
+    void failuresAreReportedPerFormat() {
+        List<SaveFormat> written = Collections.synchronizedList(new ArrayList<>());
+        try (SavePipeline pipeline = new SavePipeline(2)
+                .register(SaveFormat.CSV, state -> {
+                    throw new IOException("disk full");
+                })
+                .register(SaveFormat.JSON, state -> {
+                    throw new IllegalStateException("bad entity");
+                })
+                .register(SaveFormat.BINARY, state -> written.add(SaveFormat.BINARY))) {
+            SaveReport report = pipeline.save(new AppState()).join();
+
+            assertFalse(report.isSuccessful());
+            assertEquals(List.of(SaveFormat.BINARY), written, "the other formats are still written");
+            Map<SaveFormat, IOException> failures = report.getFailures();
+            assertEquals(Set.of(SaveFormat.CSV, SaveFormat.JSON), failures.keySet());
+            assertEquals("disk full", failures.get(SaveFormat.CSV).getMessage());
+            assertTrue(failures.get(SaveFormat.JSON).getCause() instanceof IllegalStateException);
+            assertEquals(3, report.getTimingsMs().size(), "failed formats are timed too");
+            assertTrue(report.toString().contains("CSV="), report.toString());
+            assertTrue(report.toString().contains(" ms (failed)"), report.toString());
+
+            IOException thrown = assertThrows(IOException.class, report::throwIfFailed);
+            assertEquals("Saving CSV failed: disk full", thrown.getMessage());
+            assertEquals(1, thrown.getSuppressed().length);
+
+            // Only the formats asked for, and unregistered ones are skipped.
+            SaveReport binaryOnly = pipeline.save(new AppState(), SaveFormat.BINARY, SaveFormat.SQL).join();
+            assertTrue(binaryOnly.isSuccessful());
+            assertEquals(Set.of(SaveFormat.BINARY), binaryOnly.getTimingsMs().keySet());
+            assertEquals(2, written.size());
+        }
+    }
+
+    @Test
+    void olderSaveThatRunsLateDoesNotOverwriteANewerOne() {
+        ManualExecutor executor = new ManualExecutor();
+        AtomicReference<AppState> csvFile = new AtomicReference<>();
+        AtomicReference<AppState> jsonFile = new AtomicReference<>();
+        try (SavePipeline pipeline = new SavePipeline(executor)
+                .register(SaveFormat.CSV, csvFile::set)
+                .register(SaveFormat.JSON, jsonFile::set)) {
+            AppState older = state("Older");
+            AppState newer = state("Newer");
+            var olderSave = pipeline.save(older);
+            var newerSave = pipeline.save(newer, SaveFormat.CSV);
+
+            executor.runNewestFirst();
+
+            assertSame(newer, csvFile.get());
+            SaveReport olderReport = olderSave.join();
+            assertEquals(Set.of(SaveFormat.CSV), olderReport.getSuperseded());
+            assertTrue(olderReport.isSuccessful());
+            assertFalse(olderReport.getTimingsMs().containsKey(SaveFormat.CSV));
+            assertTrue(olderReport.toString().contains("CSV superseded"), olderReport.toString());
+            // JSON had nothing newer, so the older save still wrote it.
+            assertSame(older, jsonFile.get());
+            assertEquals(Set.of(), newerSave.join().getSuperseded());
+
+            // In order, every save is written.
+            AppState newest = state("Newest");
+            pipeline.save(newest);
+            executor.runNewestFirst();
+            assertSame(newest, csvFile.get());
+            assertSame(newest, jsonFile.get());
+        }
+    }
+
+    @Test
+    void failedNewerSaveDoesNotBlockAnOlderOne() {
+        ManualExecutor executor = new ManualExecutor();
+        AtomicReference<AppState> file = new AtomicReference<>();
+        try (SavePipeline pipeline = new SavePipeline(executor)
+                .register(SaveFormat.CSV, state -> {
+                    if (state.getCourses().get(0).getCourseName().equals("Broken")) {
+                        throw new IOException("disk full");
+                    }
+                    file.set(state);
+                })) {
+            AppState older = state("Older");
+            var olderSave = pipeline.save(older);
+            var brokenSave = pipeline.save(state("Broken"));
+
+            executor.runNewestFirst();
+
+            assertFalse(brokenSave.join().isSuccessful());
+            assertTrue(olderSave.join().isSuccessful());
+            assertSame(older, file.get(), "a failed save leaves the file to older ones");
+        }
+    }
+
+    private static AppState state(String courseName) {
+        AppState state = new AppState();
+        state.getCourses().add(new Course(101, courseName, "Dr. Leibniz", "Fall 2025", 3, null));
+        return state;
+    }
+
+    /**
+     * Queues tasks until the test runs them on its own thread.
+     */
+    private static class ManualExecutor extends AbstractExecutorService {
+
+        private final List<Runnable> queued = new ArrayList<>();
+        private boolean shutdown;
+
+        void runNewestFirst() {
+            while (!queued.isEmpty()) {
+                queued.remove(queued.size() - 1).run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            queued.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return new ArrayList<>(queued);
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && queued.isEmpty();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return queued.isEmpty();
+        }
+    }
+}
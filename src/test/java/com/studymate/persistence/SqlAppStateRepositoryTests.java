@@ -0,0 +1,269 @@
+package com.studymate.persistence;
+
+import com.studymate.model.Assignment;
+import com.studymate.model.Course;
+import com.studymate.model.HabitLog;
+import com.studymate.model.Note;
+import com.studymate.model.StudyHabit;
+import org.h2.engine.Session;
+import org.h2.engine.SessionLocal;
+import org.h2.jdbc.JdbcConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against a private in-memory H2 database per test.
+ */
+class SqlAppStateRepositoryTests {
+
+    private final String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    private SqlAppStateRepository repository;
+
+    @AfterEach
+    void closeRepository() throws SQLException {
+        if (repository != null) {
+            repository.close();
+        }
+        try (Connection c = DriverManager.getConnection(url, "sa", "");
+                Statement s = c.createStatement()) {
+            s.execute("SHUTDOWN");
+        }
+    }
+
+    @Test
+    void saveAndLoadRoundTripEveryTable() throws IOException {
+        repository = open();
+        AppState state = sampleState();
+        repository.save(state);
+
+        AppState loaded = repository.load();
+
+        assertEquals(2, loaded.getCourses().size());
+        Course course = loaded.getCourses().get(1);
+        assertEquals(102, course.getCourseId());
+        assertEquals("Databases", course.getCourseName());
+        assertEquals("Dr. Codd", course.getInstructorName());
+        assertEquals("Spring 2026", course.getSemester());
+        assertEquals(4, course.getCreditHours());
+        assertNull(course.getDescription());
+
+        assertEquals(3, loaded.getAssignments().size());
+        Assignment a = loaded.getAssignments().get(0);
+        assertEquals(1, a.getAssignmentId());
+        assertEquals(101, a.getCourseId());
+        assertEquals("Limits", a.getTitle());
+        assertEquals("Worksheet, part \"A\"", a.getDescription());
+        assertEquals(LocalDate.of(2025, 12, 22), a.getDueDate());
+        assertEquals(1, a.getPriority());
+        assertEquals("Pending", a.getStatus());
+        assertNull(loaded.getAssignments().get(2).getDueDate());
+
+        Note note = loaded.getNotes().get(0);
+        assertEquals("Line one\nLine two", note.getContent());
+        assertEquals(LocalDate.of(2025, 10, 1), note.getCreatedOn());
+
+        com.studymate.model.Test test = loaded.getTests().get(0);
+        assertEquals("Midterm", test.getName());
+        assertEquals(LocalDate.of(2025, 11, 5), test.getDate());
+        assertEquals(50.0, test.getMaxScore(), 0.0);
+        assertEquals(42.5, test.getScore(), 0.0);
+
+        StudyHabit habit = loaded.getHabits().get(0);
+        assertEquals("Reading", habit.getName());
+        assertEquals(5, habit.getWeeklyTarget());
+
+        HabitLog log = loaded.getHabitLogs().get(0);
+        assertEquals(1, log.getHabitId());
+        assertEquals(LocalDate.of(2025, 10, 2), log.getDate());
+        assertEquals(30, log.getAmount());
+        assertEquals("Chapter 3", log.getNote());
+    }
+
+    @Test
+    void saveReplacesEverythingSavedBefore() throws IOException {
+        repository = open();
+        repository.save(sampleState());
+
+        AppState smaller = new AppState();
+        smaller.getCourses().add(new Course(200, "Compilers", "Dr. Aho", "Fall 2026", 3, "New"));
+        repository.save(smaller);
+
+        AppState loaded = repository.load();
+        assertEquals(1, loaded.getCourses().size());
+        assertEquals(200, loaded.getCourses().get(0).getCourseId());
+        assertEquals(0, loaded.getAssignments().size());
+        assertEquals(0, loaded.getHabitLogs().size());
+    }
+
+    @Test
+    void saveChangesUpsertsOnlyTheChangedRows() throws IOException {
+        repository = open();
+        repository.save(sampleState());
+
+        ChangeSet changes = new ChangeSet();
+        changes.markDirty(new Assignment(2, 102, "Joins lab", "Renamed", LocalDate.of(2026, 1, 15), 3, "Completed"));
+        changes.markDirty(new Assignment(4, 101, "Series", "Inserted", LocalDate.of(2026, 2, 1), 2, "Pending"));
+        changes.markDirty(new Course(103, "Networks", "Dr. Cerf", "Spring 2026", 3, "Inserted"));
+        assertEquals(3, repository.saveChanges(changes));
+        assertEquals(0, repository.saveChanges(new ChangeSet()));
+
+        AppState loaded = repository.load();
+        assertEquals(3, loaded.getCourses().size());
+        assertEquals(4, loaded.getAssignments().size());
+        Assignment updated = loaded.getAssignments().get(1);
+        assertEquals("Joins lab", updated.getTitle());
+        assertEquals("Renamed", updated.getDescription());
+        assertEquals("Completed", updated.getStatus());
+        assertEquals(LocalDate.of(2026, 1, 15), updated.getDueDate());
+        assertEquals("Limits", loaded.getAssignments().get(0).getTitle());
+        assertEquals("Series", loaded.getAssignments().get(3).getTitle());
+        assertEquals(1, loaded.getNotes().size());
+    }
+
+    @Test
+    void failedSchemaSetupIsReported() throws SQLException {
+        // A pre-existing ASSIGNMENTS table without STATUS breaks the generated COMPLETED column.
+        try (Connection c = DriverManager.getConnection(url, "sa", "");
+                Statement s = c.createStatement()) {
+            s.execute("CREATE TABLE ASSIGNMENTS (ID INT PRIMARY KEY, COURSE_ID INT)");
+        }
+        ConnectionPool pool = new ConnectionPool(url, "sa", "", 2, 0, 1_000, true);
+
+        IOException e = assertThrows(IOException.class, () -> new SqlAppStateRepository(pool));
+        assertEquals("Failed to initialize SQL schema", e.getMessage());
+        assertThrows(SQLException.class, pool::borrow, "the pool is closed");
+    }
+
+    @Test
+    void upcomingDeadlinesSkipCompletedAndPastAndPageInOrder() throws IOException {
+        repository = open();
+        AppState state = new AppState();
+        LocalDate today = LocalDate.of(2026, 3, 1);
+        state.getAssignments().add(new Assignment(1, 101, "Past", null, today.minusDays(1), 1, "Pending"));
+        state.getAssignments().add(new Assignment(2, 101, "Done", null, today.plusDays(1), 1, "Completed"));
+        state.getAssignments().add(new Assignment(3, 101, "Done lower", null, today.plusDays(1), 1, "completed"));
+        state.getAssignments().add(new Assignment(4, 102, "Later", null, today.plusDays(5), 1, "Pending"));
+        state.getAssignments().add(new Assignment(5, 101, "Today low", null, today, 3, "In Progress"));
+        state.getAssignments().add(new Assignment(6, 101, "Today high", null, today, 1, "Pending"));
+        state.getAssignments().add(new Assignment(7, 102, "No date", null, null, 1, "Pending"));
+        state.getAssignments().add(new Assignment(8, 102, "No status", null, today.plusDays(2), 2, null));
+        repository.save(state);
+
+        assertEquals(List.of(6, 5, 8, 4), repository.findUpcomingAssignmentIds(today, null, 0, 10));
+        assertEquals(List.of(6, 5), repository.findUpcomingAssignmentIds(today, null, 0, 2));
+        assertEquals(List.of(8, 4), repository.findUpcomingAssignmentIds(today, null, 2, 2));
+        assertEquals(List.of(), repository.findUpcomingAssignmentIds(today, null, 4, 2));
+        assertEquals(List.of(6, 5), repository.findUpcomingAssignmentIds(today, 101, 0, 10));
+        assertEquals(List.of(4), repository.findUpcomingAssignmentIds(today, 102, 1, 10));
+
+        // The generated COMPLETED column follows status updates.
+        ChangeSet changes = new ChangeSet();
+        changes.markDirty(new Assignment(6, 101, "Today high", null, today, 1, "COMPLETED"));
+        changes.markDirty(new Assignment(2, 101, "Done", null, today.plusDays(1), 1, "Pending"));
+        repository.saveChanges(changes);
+        assertEquals(List.of(5, 2), repository.findUpcomingAssignmentIds(today, 101, 0, 10));
+    }
+
+    @Test
+    void streamsEveryTableOneRowPerFetch() throws IOException {
+        repository = open();
+        AppState state = sampleState();
+        for (int id = 10; id < 250; id++) {
+            state.getAssignments().add(new Assignment(id, 101 + id % 2, "Generated " + id, null,
+                    LocalDate.of(2026, 1, 1).plusDays(id), id % 3, "Pending"));
+        }
+        repository.save(state);
+        repository.setFetchSize(1);
+
+        List<String> seen = new ArrayList<>();
+        List<Integer> assignmentIds = new ArrayList<>();
+        repository.stream((type, entity) -> {
+            seen.add(type.getSectionName());
+            if (type == EntityType.ASSIGNMENT) {
+                assignmentIds.add(((Assignment) entity).getAssignmentId());
+            }
+        });
+
+        assertEquals(2 + 243 + 1 + 1 + 1 + 1, seen.size());
+        assertEquals(243, assignmentIds.size());
+        for (int i = 1; i < assignmentIds.size(); i++) {
+            assertTrue(assignmentIds.get(i - 1) < assignmentIds.get(i), "ascending ids");
+        }
+        List<Integer> courseIds = new ArrayList<>();
+        repository.stream(EntityType.COURSE, (type, entity) -> courseIds.add(((Course) entity).getCourseId()));
+        assertEquals(List.of(101, 102), courseIds);
+    }
+
+    @Test
+    void closingPartlyReadStreamReturnsConnectionWithLazyModeOff() throws IOException, SQLException {
+        // A single connection: a leaked cursor would make the next borrow time out.
+        ConnectionPool pool = new ConnectionPool(url, "sa", "", 1, 0, 1_000, true);
+        repository = new SqlAppStateRepository(pool);
+        AppState state = sampleState();
+        repository.save(state);
+        repository.setFetchSize(1);
+
+        try (Stream<Assignment> rows = repository.openStream(EntityType.ASSIGNMENT)) {
+            assertEquals(List.of(1, 2), rows.limit(2).map(Assignment::getAssignmentId).collect(Collectors.toList()));
+            assertThrows(SQLException.class, pool::borrow, "the open stream holds the connection");
+        }
+
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            assertFalse(lazyQueryExecution(pc), "lazy mode is reset on close");
+        }
+        assertEquals(1, pool.getIdleCount());
+
+        repository.stream(EntityType.COURSE, (type, entity) -> { });
+        try (ConnectionPool.PooledConnection pc = pool.borrow()) {
+            assertFalse(lazyQueryExecution(pc), "stream() resets it too");
+            pc.prepare("SET LAZY_QUERY_EXECUTION TRUE").execute();
+            assertTrue(lazyQueryExecution(pc), "the probe sees the setting");
+            pc.prepare("SET LAZY_QUERY_EXECUTION FALSE").execute();
+        }
+        assertEquals(3, repository.load().getAssignments().size());
+    }
+
+    // H2 has no SQL view of this session setting, so ask the embedded session.
+    private static boolean lazyQueryExecution(ConnectionPool.PooledConnection pc) throws SQLException {
+        Session session = pc.getConnection().unwrap(JdbcConnection.class).getSession();
+        return ((SessionLocal) session).isLazyQueryExecution();
+    }
+
+    private SqlAppStateRepository open() throws IOException {
+        return new SqlAppStateRepository(new ConnectionPool(url, "sa", "", 4, 0, 5_000, true));
+    }
+
+    static AppState sampleState() {
+        AppState state = new AppState();
+        state.getCourses().add(new Course(101, "Calculus", "Dr. Leibniz", "Fall 2025", 3, "Limits and series"));
+        state.getCourses().add(new Course(102, "Databases", "Dr. Codd", "Spring 2026", 4, null));
+        state.getAssignments().add(new Assignment(1, 101, "Limits", "Worksheet, part \"A\"",
+                LocalDate.of(2025, 12, 22), 1, "Pending"));
+        state.getAssignments().add(new Assignment(2, 102, "Joins", "Lab",
+                LocalDate.of(2025, 12, 27), 2, "In Progress"));
+        state.getAssignments().add(new Assignment(3, 102, "Reading", null, null, 3, "Pending"));
+        state.getNotes().add(new Note(1, 101, "Epsilon-delta", "Line one\nLine two", LocalDate.of(2025, 10, 1)));
+        state.getTests().add(new com.studymate.model.Test(1, 101, "Midterm", LocalDate.of(2025, 11, 5), 50.0, 42.5));
+        state.getHabits().add(new StudyHabit(1, "Reading", "Pages per day", 5));
+        state.getHabitLogs().add(new HabitLog(1, 1, LocalDate.of(2025, 10, 2), 30, "Chapter 3"));
+        return state;
+    }
+}
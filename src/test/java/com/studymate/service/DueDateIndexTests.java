@@ -0,0 +1,211 @@
+package com.studymate.service;
+
+import com.studymate.model.Assignment;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DueDateIndexTests {
+
+    // More than one block of DueDateIndex.BLOCK_SIZE (512).
+    private static final int MANY = 3_000;
+
+    @Test
+    void keysSortLikeAssignments() {
+        LocalDate day = LocalDate.of(2025, 12, 1);
+        List<Assignment> assignments = new ArrayList<>(List.of(
+                assignment(5, day, 2),
+                assignment(4, day, 1),
+                assignment(-3, day, 1),
+                assignment(Integer.MAX_VALUE, day, 1),
+                assignment(Integer.MIN_VALUE, day, 1),
+                assignment(1, day.minusDays(1), 9),
+                assignment(2, day.plusDays(1), -4),
+                assignment(6, LocalDate.of(1900, 1, 1), 3),
+                assignment(7, LocalDate.of(2400, 2, 29), 0)));
+        List<Assignment> byKey = new ArrayList<>(assignments);
+        byKey.sort((a, b) -> Long.compare(DueDateIndex.keyOf(a), DueDateIndex.keyOf(b)));
+        Collections.sort(assignments);
+        assertEquals(assignments, byKey);
+
+        for (Assignment a : assignments) {
+            long key = DueDateIndex.keyOf(a);
+            assertTrue(key >= 0);
+            assertEquals(a.getAssignmentId(), DueDateIndex.idOf(key));
+            assertTrue(DueDateIndex.dayStart(a.getDueDate()) <= key);
+            assertTrue(key < DueDateIndex.dayStart(a.getDueDate().plusDays(1)));
+        }
+
+        assertTrue(DueDateIndex.isIndexed(assignment(1, day, 1)));
+        Assignment completed = assignment(1, day, 1);
+        completed.setStatus("Completed");
+        assertFalse(DueDateIndex.isIndexed(completed));
+        assertFalse(DueDateIndex.isIndexed(new Assignment(1, 101, "No date", null, null, 1, "Pending")));
+    }
+
+    @Test
+    void addSplitsFullBlocksInEveryInsertOrder() {
+        List<Long> keys = new ArrayList<>();
+        for (long key = 0; key < MANY; key++) {
+            keys.add(key * 10);
+        }
+        List<Long> descending = new ArrayList<>(keys);
+        Collections.reverse(descending);
+        List<Long> shuffled = new ArrayList<>(keys);
+        Collections.shuffle(shuffled, new Random(7));
+
+        for (List<Long> order : List.of(keys, descending, shuffled)) {
+            DueDateIndex index = new DueDateIndex();
+            for (long key : order) {
+                assertTrue(index.add(key));
+            }
+            assertEquals(MANY, index.size());
+            assertEquals(keys, all(index));
+            for (long key : order) {
+                assertFalse(index.add(key), "duplicate");
+            }
+            assertEquals(MANY, index.size());
+            // Between existing keys of a full, split block.
+            assertTrue(index.add(2_565));
+            assertEquals(List.of(2_550L, 2_560L, 2_565L, 2_570L), range(index, 2_550, 2_571, 0));
+        }
+    }
+
+    @Test
+    void removeDownToEmptyDropsEmptiedBlocks() {
+        Random random = new Random(11);
+        DueDateIndex index = new DueDateIndex();
+        TreeSet<Long> expected = new TreeSet<>();
+        for (int i = 0; i < MANY; i++) {
+            long key = random.nextInt(1_000_000);
+            assertEquals(expected.add(key), index.add(key));
+        }
+        List<Long> removals = new ArrayList<>(expected);
+        Collections.shuffle(removals, random);
+
+        for (int i = 0; i < removals.size(); i++) {
+            long key = removals.get(i);
+            assertTrue(index.remove(key));
+            assertFalse(index.remove(key));
+            expected.remove(key);
+            if (i % 250 == 0) {
+                assertEquals(new ArrayList<>(expected), all(index));
+                assertEquals(expected.size(), index.countInRange(0, Long.MAX_VALUE));
+            }
+        }
+        assertEquals(0, index.size());
+        assertEquals(List.of(), all(index));
+        assertFalse(index.remove(5));
+
+        // A whole leading block removed, then the index is still searchable.
+        index = DueDateIndex.of(sequence(MANY, 1), MANY);
+        for (long key = 0; key < 600; key++) {
+            index.remove(key);
+        }
+        assertEquals(List.of(600L, 601L), range(index, 0, 602, 0));
+        assertTrue(index.add(5));
+        assertEquals(List.of(5L, 600L), range(index, 0, 601, 0));
+    }
+
+    @Test
+    void forEachInRangeSkipsAcrossBlocksAndStops() {
+        DueDateIndex index = DueDateIndex.of(sequence(MANY, 1), MANY);
+        for (int skip : new int[] {0, 1, 383, 384, 385, 511, 512, 1_000, MANY - 1, MANY, MANY + 5}) {
+            List<Long> expected = new ArrayList<>();
+            for (long key = skip; key < MANY; key++) {
+                expected.add(key);
+            }
+            assertEquals(expected, range(index, 0, Long.MAX_VALUE, skip), "skip " + skip);
+        }
+        // From and to in the middle of blocks.
+        assertEquals(List.of(700L, 701L, 702L), range(index, 500, 703, 200));
+        assertEquals(List.of(), range(index, 500, 500, 0));
+
+        List<Long> visited = new ArrayList<>();
+        index.forEachInRange(100, Long.MAX_VALUE, 0, key -> {
+            visited.add(key);
+            return visited.size() < 3;
+        });
+        assertEquals(List.of(100L, 101L, 102L), visited);
+
+        new DueDateIndex().forEachInRange(0, Long.MAX_VALUE, 0, key -> {
+            throw new AssertionError("empty index visited " + key);
+        });
+    }
+
+    @Test
+    void countInRangeMatchesTheKeysInIt() {
+        Random random = new Random(3);
+        DueDateIndex index = new DueDateIndex();
+        TreeSet<Long> expected = new TreeSet<>();
+        for (int i = 0; i < MANY; i++) {
+            long key = random.nextInt(20_000);
+            expected.add(key);
+            index.add(key);
+        }
+        for (int i = 0; i < 500; i++) {
+            long from = random.nextInt(21_000) - 500;
+            long to = from + random.nextInt(8_000) - 1_000;
+            int count = (from >= to) ? 0 : expected.subSet(from, to).size();
+            assertEquals(count, index.countInRange(from, to), from + ".." + to);
+        }
+        assertEquals(0, new DueDateIndex().countInRange(0, 10));
+    }
+
+    @Test
+    void ofSortsUnsortedInputAndDropsDuplicates() {
+        long[] keys = {9, 3, 3, 7, 1, 9, 4, 99, 98};
+        DueDateIndex index = DueDateIndex.of(keys, 7); // the last two are not part of the input
+        assertEquals(List.of(1L, 3L, 4L, 7L, 9L), all(index));
+        assertEquals(5, index.size());
+
+        DueDateIndex empty = DueDateIndex.of(new long[0], 0);
+        assertEquals(0, empty.size());
+        assertTrue(empty.add(1));
+        assertEquals(List.of(1L), all(empty));
+
+        // Bulk-loaded blocks have room left, and still split once full.
+        DueDateIndex bulk = DueDateIndex.of(sequence(MANY, 2), MANY);
+        TreeSet<Long> expected = new TreeSet<>();
+        for (long key = 0; key < MANY; key++) {
+            expected.add(key * 2);
+        }
+        for (long key = 1; key < 2 * MANY; key += 2) {
+            assertTrue(bulk.add(key));
+            expected.add(key);
+        }
+        assertEquals(new ArrayList<>(expected), all(bulk));
+        assertEquals(2 * MANY, bulk.size());
+    }
+
+    private static Assignment assignment(int id, LocalDate due, int priority) {
+        return new Assignment(id, 101, "A" + id, null, due, priority, "Pending");
+    }
+
+    private static long[] sequence(int count, long step) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = i * step;
+        }
+        return keys;
+    }
+
+    private static List<Long> all(DueDateIndex index) {
+        return range(index, 0, Long.MAX_VALUE, 0);
+    }
+
+    private static List<Long> range(DueDateIndex index, long from, long to, int skip) {
+        List<Long> keys = new ArrayList<>();
+        index.forEachInRange(from, to, skip, keys::add);
+        return keys;
+    }
+}
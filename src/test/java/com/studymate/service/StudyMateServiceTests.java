@@ -0,0 +1,596 @@
+package com.studymate.service;
+
+import com.studymate.core.StudyMateSettings;
+import com.studymate.exceptions.InvalidCourseException;
+import com.studymate.interfaces.Persistable;
+import com.studymate.model.Assignment;
+import com.studymate.model.Course;
+import com.studymate.model.HabitLog;
+import com.studymate.model.Note;
+import com.studymate.model.StudyHabit;
+import com.studymate.persistence.AppState;
+import com.studymate.persistence.ConnectionPool;
+import com.studymate.persistence.CsvPersistenceManager;
+import com.studymate.persistence.EntityType;
+import com.studymate.persistence.FastStartSnapshot;
+import com.studymate.persistence.SqlAppStateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the service against a temporary data directory.
+ */
+class StudyMateServiceTests {
+
+    @TempDir
+    Path dir;
+
+    private StudyMateService service;
+
+    @AfterEach
+    void shutDown() throws InterruptedException {
+        if (service != null) {
+            service.shutdown();
+        }
+        awaitFastStartWriter(); // it may still be writing into the temporary directory
+    }
+
+    // ---------------- Fast-start snapshot ----------------
+
+    @Test
+    void unchangedCsvFilesStartFromTheSnapshot() throws IOException {
+        writeCsvAndSnapshot(sampleState());
+        // Same size and time, different content: only the snapshot can say "Calculus".
+        Path courses = csvPath(EntityType.COURSE);
+        FileTime time = Files.getLastModifiedTime(courses);
+        replace(courses, "Calculus", "Calcules");
+        Files.setLastModifiedTime(courses, time);
+
+        service = open(fastSnapshot());
+
+        assertEquals("Calculus", service.getCourseById(101).getCourseName());
+        assertEquals(3, service.getAssignments().size());
+    }
+
+    @Test
+    void changedCsvFileFallsBackToParsing() throws IOException, InterruptedException {
+        writeCsvAndSnapshot(sampleState());
+        Files.writeString(csvPath(EntityType.COURSE), "103,Networks,Dr. Cerf,Spring 2026,3,Packets\n",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        service = open(fastSnapshot());
+
+        assertEquals(3, service.getCourses().size());
+        assertEquals("Networks", service.getCourseById(103).getCourseName());
+        assertSnapshotRewritten();
+    }
+
+    @Test
+    void newerCsvFileWithTheSameSizeFallsBackToParsing() throws IOException, InterruptedException {
+        writeCsvAndSnapshot(sampleState());
+        Path courses = csvPath(EntityType.COURSE);
+        FileTime time = Files.getLastModifiedTime(courses);
+        replace(courses, "Calculus", "Calcules");
+        Files.setLastModifiedTime(courses, FileTime.fromMillis(time.toMillis() + 2_000));
+
+        service = open(fastSnapshot());
+
+        assertEquals("Calcules", service.getCourseById(101).getCourseName());
+        assertSnapshotRewritten();
+    }
+
+    @Test
+    void snapshotWithABadChecksumFallsBackToParsing() throws IOException, InterruptedException {
+        writeCsvAndSnapshot(sampleState());
+        Path snap = dir.resolve("studymate.snap");
+        byte[] bytes = Files.readAllBytes(snap);
+        String text = new String(bytes, StandardCharsets.ISO_8859_1);
+        bytes[text.indexOf("Dr. Leibniz") + 4] = 'X';
+        Files.write(snap, bytes);
+
+        service = open(fastSnapshot());
+
+        assertEquals("Dr. Leibniz", service.getCourseById(101).getInstructorName());
+        assertSnapshotRewritten();
+    }
+
+    @Test
+    void snapshotIsIgnoredWhenTheSettingIsOff() throws IOException {
+        writeCsvAndSnapshot(sampleState());
+        Path courses = csvPath(EntityType.COURSE);
+        FileTime time = Files.getLastModifiedTime(courses);
+        replace(courses, "Calculus", "Calcules");
+        Files.setLastModifiedTime(courses, time);
+
+        service = open(settings());
+
+        assertEquals("Calcules", service.getCourseById(101).getCourseName());
+    }
+
+    // ---------------- Loading by type ----------------
+
+    @Test
+    void loadDataReadsOnlyTheTypesAskedFor() throws IOException {
+        writeCsvAndSnapshot(sampleState());
+        service = open(settings());
+        replace(csvPath(EntityType.COURSE), "Calculus", "Calcules");
+        replace(csvPath(EntityType.NOTE), "Epsilon-delta", "Epsilon-Delta");
+
+        service.loadData(EnumSet.of(EntityType.NOTE));
+
+        assertEquals("Epsilon-Delta", service.getNoteById(1).getTitle());
+        assertEquals("Calculus", service.getCourseById(101).getCourseName(), "courses are not re-read");
+        assertEquals(3, service.getAssignments().size());
+    }
+
+    @Test
+    void typesLeftOutAtStartupAreReadOnFirstUse() throws IOException {
+        writeCsvAndSnapshot(sampleState());
+        Properties properties = settings();
+        properties.setProperty("studymate.startup.entity-types", "courses");
+        service = open(properties);
+        // Changed after startup: only types read from now on see it.
+        replace(csvPath(EntityType.COURSE), "Calculus", "Calcules");
+        replace(csvPath(EntityType.ASSIGNMENT), "Worksheet", "Worksheet v2");
+
+        assertEquals("Calculus", service.getCourseById(101).getCourseName());
+        assertEquals("Worksheet v2", service.getAssignmentById(1).getDescription());
+        assertEquals(3, service.getAssignmentsByCourse(102).size() + service.getAssignmentsByCourse(101).size());
+
+        // A save reads the rest first, so files of types nobody used are kept.
+        service.saveAllData();
+        assertEquals(1, Files.readAllLines(csvPath(EntityType.NOTE)).size());
+        StudyMateService reopened = open(settings());
+        try {
+            assertEquals("Chapter 3", reopened.getHabitLogById(1).getNote());
+        } finally {
+            reopened.shutdown();
+        }
+    }
+
+    @Test
+    void firstUseFromManyThreadsLoadsEachTypeOnce() throws Exception {
+        writeCsvAndSnapshot(sampleState());
+        Properties properties = settings();
+        properties.setProperty("studymate.startup.entity-types", "courses");
+        service = open(properties);
+
+        int threads = 12;
+        CyclicBarrier start = new CyclicBarrier(threads);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> sizes = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int n = i;
+                sizes.add(pool.submit(() -> {
+                    start.await(10, TimeUnit.SECONDS);
+                    switch (n % 4) {
+                        case 0:
+                            return service.getNotes().size();
+                        case 1:
+                            return service.getTests().size();
+                        case 2:
+                            return service.getHabitLogs().size();
+                        default:
+                            if (n == 3) {
+                                // Loading must not drop an add that races with it.
+                                service.addAssignment(new Assignment(4, 101, "Series", "Worksheet",
+                                        LocalDate.of(2026, 1, 5), 1, "Pending"));
+                            }
+                            return service.getAssignments().size() >= 3 ? 1 : 0;
+                    }
+                }));
+            }
+            for (Future<Integer> size : sizes) {
+                assertEquals(1, size.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(4, service.getAssignments().size());
+        assertEquals("Series", service.getAssignmentById(4).getTitle());
+        assertEquals(List.of(1), service.getHabits().stream().map(StudyHabit::getHabitId).collect(Collectors.toList()));
+    }
+
+    // ---------------- Assignment statistics ----------------
+
+    @Test
+    void verifiedStatsStayInStepThroughAddCompleteAndUpdate() throws Exception {
+        writeCsvAndSnapshot(sampleState());
+        Properties properties = settings();
+        properties.setProperty("studymate.stats.verify", "true");
+        service = open(properties);
+        // The statistics are built on first use and checked after every change from then on.
+        assertEquals(1, service.getCompletedCount(102));
+        assertEquals(2, service.getPendingAssignmentCount());
+
+        service.addCourse(new Course(103, "Networks", "Dr. Cerf", "Spring 2026", 2, "Packets"));
+        service.addAssignment(new Assignment(4, 103, "Sockets", "Echo server",
+                LocalDate.of(2026, 1, 15), 1, "Pending"));
+        service.addAssignment(new Assignment(5, 101, "Series", "Ratio test",
+                LocalDate.of(2026, 1, 20), 2, "Completed"));
+        assertEquals(3, service.getPendingAssignmentCount());
+        assertEquals(3 + 4 + 2, service.getPendingCreditHours());
+
+        assertTrue(service.completeAssignment(4));
+        assertTrue(service.completeAssignment(4)); // already completed
+        assertFalse(service.completeAssignment(99));
+        assertEquals(1, service.getCompletedCount(103));
+
+        // Another course, then back to pending.
+        service.updateAssignment(new Assignment(4, 101, "Sockets", "Echo server",
+                LocalDate.of(2026, 1, 16), 1, "Completed"));
+        assertEquals(0, service.getCompletedCount(103));
+        assertEquals(2, service.getCompletedCount(101));
+        service.updateAssignment(new Assignment(1, 102, "Limits", "Worksheet",
+                LocalDate.of(2025, 12, 22), 3, "In Progress"));
+        service.updateAssignment(new Assignment(5, 101, "Series", "Ratio test",
+                LocalDate.of(2026, 1, 20), 2, "pending"));
+        assertEquals(3, service.getPendingAssignmentCount());
+        assertEquals(4 + 4 + 3, service.getPendingCreditHours());
+        assertEquals(2, service.getCompletedAssignmentCount());
+        assertThrows(InvalidCourseException.class, () -> service.updateAssignment(
+                new Assignment(5, 999, "Series", null, LocalDate.of(2026, 1, 20), 2, "Pending")));
+
+        // Changing a live assignment behind the service's back is caught by the next check.
+        service.getAssignmentById(2).setStatus("Completed");
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> service.addAssignment(
+                new Assignment(6, 101, "Taylor", null, LocalDate.of(2026, 2, 1), 1, "Pending")));
+        assertTrue(e.getMessage().startsWith("Assignment statistics out of step"), e.getMessage());
+    }
+
+    @Test
+    void updateAssignmentKeepsTheCourseAndDueDateIndexesInStep() throws Exception {
+        writeCsvAndSnapshot(sampleState());
+        service = open(settings());
+        LocalDate today = LocalDate.now();
+        service.addAssignment(new Assignment(4, 101, "Series", "Ratio test", today.plusDays(5), 1, "Pending"));
+        service.addAssignment(new Assignment(5, 101, "Taylor", "Remainders", today.plusDays(10), 2, "Pending"));
+        // Builds the due-date index before the updates.
+        assertEquals(List.of(4, 5), ids(service.getUpcomingDeadlines()));
+
+        // Moved to another course, and due later.
+        assertTrue(service.updateAssignment(new Assignment(4, 102, "Series", "Ratio test",
+                today.plusDays(20), 1, "Pending")));
+        assertEquals(Set.of(1, 5), Set.copyOf(ids(service.getAssignmentsByCourse(101))));
+        assertEquals(Set.of(2, 3, 4), Set.copyOf(ids(service.getAssignmentsByCourse(102))));
+        assertEquals(List.of(5, 4), ids(service.getUpcomingDeadlines()));
+        assertEquals(List.of(4), ids(service.getUpcomingDeadlinesForCourse(102, 0, 10)));
+        assertEquals(List.of(5), ids(service.getUpcomingDeadlinesForCourse(101, 0, 10)));
+
+        // Completed: still in its course, out of the upcoming deadlines.
+        assertTrue(service.updateAssignment(new Assignment(5, 101, "Taylor", "Remainders",
+                today.plusDays(10), 2, "Completed")));
+        assertEquals(Set.of(1, 5), Set.copyOf(ids(service.getAssignmentsByCourse(101))));
+        assertEquals(List.of(4), ids(service.getUpcomingDeadlines()));
+        assertEquals(1, service.countUpcomingDeadlines());
+        assertEquals(List.of(), ids(service.getUpcomingDeadlinesForCourse(101, 0, 10)));
+        assertEquals(1, service.getCompletedCount(101));
+
+        // Moved and reopened in one update.
+        assertTrue(service.updateAssignment(new Assignment(5, 102, "Taylor", "Remainders",
+                today.plusDays(1), 2, "Pending")));
+        assertEquals(List.of(1), ids(service.getAssignmentsByCourse(101)));
+        assertEquals(Set.of(2, 3, 4, 5), Set.copyOf(ids(service.getAssignmentsByCourse(102))));
+        assertEquals(List.of(5, 4), ids(service.getUpcomingDeadlinesForCourse(102, 0, 10)));
+        assertEquals(0, service.getCompletedCount(101));
+    }
+
+    // ---------------- Upcoming deadline pages ----------------
+
+    @Test
+    void upcomingDeadlinePagesMatchTheFullSortedList() throws Exception {
+        service = open(upcomingDeadlineFixture());
+        List<Assignment> all = expectedUpcoming();
+        assertEquals(all, service.getUpcomingDeadlines());
+        assertTrue(all.size() > 1_024, "spans several index blocks");
+
+        for (int offset : new int[] {0, 1, 19, 511, 512, 513, 1_000, all.size() - 1}) {
+            assertEquals(all.subList(offset, Math.min(offset + 25, all.size())),
+                    service.getUpcomingDeadlines(offset, 25), "offset " + offset);
+        }
+        // Walking every page visits each assignment once.
+        List<Assignment> walked = new ArrayList<>();
+        for (int offset = 0; ; offset += 100) {
+            List<Assignment> page = service.getUpcomingDeadlines(offset, 100);
+            walked.addAll(page);
+            if (page.size() < 100) {
+                break;
+            }
+        }
+        assertEquals(all, walked);
+        assertEquals(all.subList(0, 5), service.getUpcomingDeadlines(-3, 5), "a negative offset starts at 0");
+        assertEquals(List.of(), service.getUpcomingDeadlines(10, 0));
+    }
+
+    @Test
+    void pagesPastTheEndAreEmpty() throws Exception {
+        service = open(upcomingDeadlineFixture());
+        int size = expectedUpcoming().size();
+
+        assertEquals(1, service.getUpcomingDeadlines(size - 1, 10).size());
+        assertEquals(List.of(), service.getUpcomingDeadlines(size, 10));
+        assertEquals(List.of(), service.getUpcomingDeadlines(size + 500, 10));
+        assertEquals(List.of(), service.getUpcomingDeadlines(Integer.MAX_VALUE, Integer.MAX_VALUE));
+        assertEquals(size, service.countUpcomingDeadlines());
+    }
+
+    @Test
+    void assignmentsCompletedBetweenPagesDropOut() throws Exception {
+        service = open(upcomingDeadlineFixture());
+        List<Assignment> first = service.getUpcomingDeadlines(0, 20);
+        List<Assignment> next = service.getUpcomingDeadlines(20, 20);
+
+        // One already shown and one about to be shown are completed.
+        Assignment shown = first.get(3);
+        Assignment coming = next.get(5);
+        assertTrue(service.completeAssignment(shown.getAssignmentId()));
+        assertTrue(service.updateAssignment(new Assignment(coming.getAssignmentId(), coming.getCourseId(),
+                coming.getTitle(), coming.getDescription(), coming.getDueDate(), coming.getPriority(), "Completed")));
+
+        List<Assignment> all = expectedUpcoming();
+        List<Assignment> second = service.getUpcomingDeadlines(20, 20);
+        assertEquals(all.subList(20, 40), second);
+        assertFalse(second.contains(coming));
+        assertFalse(second.contains(shown));
+        // The offset now counts one fewer before it, so the page starts one later.
+        assertEquals(next.get(1), second.get(0));
+        assertEquals(all.size(), service.countUpcomingDeadlines());
+    }
+
+    /**
+     * About 1,500 assignments over two courses, due from a week ago to a year
+     * ahead with many on the same day, and every seventh one completed.
+     */
+    private Properties upcomingDeadlineFixture() throws IOException {
+        AppState state = sampleState();
+        state.getAssignments().clear();
+        LocalDate today = LocalDate.now();
+        for (int id = 1; id <= 1_500; id++) {
+            state.getAssignments().add(new Assignment(id, 101 + id % 2, "Assignment " + id, null,
+                    today.plusDays(id * 37 % 372 - 7), 1 + id % 3, id % 7 == 0 ? "Completed" : "Pending"));
+        }
+        writeCsvAndSnapshot(state);
+        return settings();
+    }
+
+    private List<Assignment> expectedUpcoming() {
+        LocalDate today = LocalDate.now();
+        return service.getAssignments().stream()
+                .filter(a -> !a.isCompleted() && !a.getDueDate().isBefore(today))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    // ---------------- SQL dashboard queries ----------------
+
+    @Test
+    void dashboardReadsAnswerFromMemoryWithoutWritingUnsavedChanges() throws Exception {
+        String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        SqlAppStateRepository db = sqlRepository(url);
+        db.save(sampleState());
+        Properties properties = settings();
+        properties.setProperty("studymate.persistence.backend", "SQL");
+        properties.setProperty("studymate.sql.url", url);
+        properties.setProperty("studymate.autosave.write-behind", "true");
+        properties.setProperty("studymate.autosave.window-ms", "60000");
+        service = open(properties);
+        service.addAssignment(new Assignment(4, 101, "Series", "Ratio test",
+                LocalDate.now().plusDays(3), 1, "Pending"));
+
+        assertEquals(List.of(4), ids(service.getUpcomingDeadlines()));
+        assertEquals(List.of(4), ids(service.getUpcomingDeadlinesForCourse(101, 0, 10)));
+        assertEquals(3, db.load().getAssignments().size(), "a read does not save");
+
+        service.completeAssignment(4);
+        assertEquals(List.of(), service.getUpcomingDeadlines());
+        Map<Course, Long> completed = service.getCompletionCountsByCourse();
+        assertEquals(List.of(101, 102), completed.keySet().stream().map(Course::getCourseId).collect(Collectors.toList()));
+        assertEquals(List.of(1L, 1L), new ArrayList<>(completed.values()));
+        assertEquals(List.of(101, 102), service.getPendingCountsByCourse().keySet().stream()
+                .map(Course::getCourseId).collect(Collectors.toList()));
+
+        // Once saved, the database answers again.
+        service.flush();
+        assertEquals("Completed", db.load().getAssignments().get(3).getStatus());
+        assertEquals(List.of(), service.getUpcomingDeadlines());
+        db.close();
+    }
+
+    // ---------------- Binary formats ----------------
+
+    @Test
+    void columnarBinaryFormatSavesAndLoadsTheScolFile() throws Exception {
+        writeCsvAndSnapshot(sampleState());
+        Properties properties = settings();
+        properties.setProperty("studymate.binary.format", "columnar");
+        service = open(properties);
+        service.saveAsBinary();
+        assertTrue(Files.exists(dir.resolve("studymate.scol")));
+        assertFalse(Files.exists(dir.resolve("studymate.bin")));
+
+        service.addCourse(new Course(103, "Networks", "Dr. Cerf", "Spring 2026", 2, "Packets"));
+        service.loadFromBinary();
+
+        assertEquals(2, service.getCourses().size());
+        assertEquals("Dr. Codd", service.getCourseById(102).getInstructorName());
+        assertEquals(3, service.getAssignments().size());
+    }
+
+    // ---------------- Shutdown ----------------
+
+    @Test
+    void shutdownWithoutChangesWritesNothing() throws IOException {
+        writeCsvAndSnapshot(sampleState());
+        FileTime old = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+        for (EntityType type : EntityType.values()) {
+            Files.setLastModifiedTime(csvPath(type), old);
+        }
+        service = open(settings());
+        assertEquals(2, service.getCourses().size());
+
+        service.shutdown();
+
+        for (EntityType type : EntityType.values()) {
+            assertEquals(old, Files.getLastModifiedTime(csvPath(type)), type.getSectionName());
+        }
+        assertFalse(Files.exists(dir.resolve("studymate.json")));
+        assertFalse(Files.exists(dir.resolve("studymate.bin")));
+    }
+
+    @Test
+    void shutdownWritesPendingWriteBehindChanges() throws Exception {
+        writeCsvAndSnapshot(sampleState());
+        Properties properties = settings();
+        properties.setProperty("studymate.autosave.write-behind", "true");
+        properties.setProperty("studymate.autosave.window-ms", "60000");
+        service = open(properties);
+        service.addCourse(new Course(103, "Networks", "Dr. Cerf", "Spring 2026", 2, "Packets"));
+        assertFalse(Files.readString(csvPath(EntityType.COURSE)).contains("Networks"), "still in the window");
+
+        service.shutdown();
+
+        assertTrue(Files.readString(csvPath(EntityType.COURSE)).contains("Networks"));
+        service = open(settings());
+        assertEquals("Networks", service.getCourseById(103).getCourseName());
+    }
+
+    @Test
+    void shutdownWaitsForBackgroundCheckpoints() throws Exception {
+        writeCsvAndSnapshot(sampleState());
+        Properties properties = settings();
+        properties.setProperty("studymate.persistence.mode", "journal");
+        properties.setProperty("studymate.journal.checkpoint-every", "3");
+        service = open(properties);
+        for (int id = 200; id < 260; id++) {
+            service.addCourse(new Course(id, "Course " + id, "Dr. " + id, "Fall 2025", 3, null));
+        }
+
+        service.shutdown();
+
+        // The final checkpoint covers everything, so only the empty current segment is left.
+        try (var segments = Files.list(dir.resolve("journal"))) {
+            assertEquals(1, segments.count());
+        }
+        service = open(settings());
+        assertEquals(62, service.getCourses().size());
+        assertEquals("Course 259", service.getCourseById(259).getCourseName());
+    }
+
+    // ---------------- Helpers ----------------
+
+    private StudyMateService open(Properties properties) {
+        return new StudyMateService(new StudyMateSettings(properties));
+    }
+
+    private Properties settings() {
+        Properties properties = new Properties();
+        properties.setProperty("studymate.data.dir", dir.toString());
+        properties.setProperty("studymate.startup.async-hydration", "false");
+        properties.setProperty("studymate.startup.warm-up-iterations", "0");
+        return properties;
+    }
+
+    private static SqlAppStateRepository sqlRepository(String url) throws IOException {
+        return new SqlAppStateRepository(new ConnectionPool(url, "sa", "", 2, 0, 5_000, true));
+    }
+
+    private Properties fastSnapshot() {
+        Properties properties = settings();
+        properties.setProperty("studymate.startup.fast-snapshot", "true");
+        return properties;
+    }
+
+    private Path csvPath(EntityType type) {
+        return CsvPersistenceManager.forType(type, dir).getFilePath();
+    }
+
+    private FastStartSnapshot snapshotFile() {
+        List<Path> sources = new ArrayList<>();
+        for (EntityType type : EntityType.values()) {
+            sources.add(csvPath(type));
+        }
+        return new FastStartSnapshot(dir.resolve("studymate.snap"), sources);
+    }
+
+    private void writeCsvAndSnapshot(AppState state) throws IOException {
+        for (EntityType type : EntityType.values()) {
+            CsvPersistenceManager<Persistable> csv = CsvPersistenceManager.forType(type, dir);
+            csv.saveAll(type.listIn(state));
+        }
+        FastStartSnapshot snapshot = snapshotFile();
+        snapshot.save(state, snapshot.stampSources());
+    }
+
+    /**
+     * After a fallback, startup writes a new snapshot in the background
+     * that matches the files as they are now.
+     */
+    private void assertSnapshotRewritten() throws InterruptedException {
+        awaitFastStartWriter();
+        assertNotNull(snapshotFile().load());
+    }
+
+    private static void awaitFastStartWriter() throws InterruptedException {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if ("StudyMate-FastStart".equals(thread.getName())) {
+                thread.join(10_000);
+            }
+        }
+    }
+
+    private static List<Integer> ids(List<Assignment> assignments) {
+        return assignments.stream().map(Assignment::getAssignmentId).collect(Collectors.toList());
+    }
+
+    private static void replace(Path file, String from, String to) throws IOException {
+        String text = Files.readString(file);
+        Files.writeString(file, text.replace(from, to));
+    }
+
+    private static AppState sampleState() {
+        AppState state = new AppState();
+        state.getCourses().add(new Course(101, "Calculus", "Dr. Leibniz", "Fall 2025", 3, "Limits and series"));
+        state.getCourses().add(new Course(102, "Databases", "Dr. Codd", "Spring 2026", 4, "Relations"));
+        state.getAssignments().add(new Assignment(1, 101, "Limits", "Worksheet",
+                LocalDate.of(2025, 12, 22), 1, "Pending"));
+        state.getAssignments().add(new Assignment(2, 102, "Joins", "Lab",
+                LocalDate.of(2025, 12, 27), 2, "In Progress"));
+        state.getAssignments().add(new Assignment(3, 102, "Reading", "Chapter 2",
+                LocalDate.of(2025, 12, 1), 3, "Completed"));
+        state.getNotes().add(new Note(1, 101, "Epsilon-delta", "Line one", LocalDate.of(2025, 10, 1)));
+        state.getTests().add(new com.studymate.model.Test(1, 101, "Midterm", LocalDate.of(2025, 11, 5), 50.0, 42.5));
+        state.getHabits().add(new StudyHabit(1, "Reading", "Pages per day", 5));
+        state.getHabitLogs().add(new HabitLog(1, 1, LocalDate.of(2025, 10, 2), 30, "Chapter 3"));
+        return state;
+    }
+}
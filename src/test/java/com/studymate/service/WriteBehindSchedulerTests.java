@@ -0,0 +1,145 @@
+package com.studymate.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteBehindSchedulerTests {
+
+    // Long enough that nothing is flushed by the window during a test.
+    private static final long NEVER = 60_000;
+
+    private final AtomicInteger flushes = new AtomicInteger();
+    private WriteBehindScheduler scheduler;
+
+    @AfterEach
+    void shutDown() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void burstOfEditsIsCoalescedIntoOneWrite() throws InterruptedException {
+        scheduler = new WriteBehindScheduler(flushes::incrementAndGet, 200, 1_000);
+        for (int i = 0; i < 50; i++) {
+            scheduler.markDirty();
+        }
+        assertTrue(scheduler.isDirty());
+        assertEquals(0, flushes.get(), "nothing is written before the window ends");
+
+        awaitTrue(() -> !scheduler.isDirty());
+        Thread.sleep(300); // no second write for the same burst
+        assertEquals(1, flushes.get());
+
+        scheduler.markDirty();
+        awaitTrue(() -> !scheduler.isDirty());
+        assertEquals(2, flushes.get());
+    }
+
+    @Test
+    void maxDirtyMarksForceAFlushBeforeTheWindowEnds() throws InterruptedException {
+        scheduler = new WriteBehindScheduler(flushes::incrementAndGet, NEVER, 5);
+        for (int i = 0; i < 4; i++) {
+            scheduler.markDirty();
+        }
+        Thread.sleep(200);
+        assertEquals(0, flushes.get());
+        assertTrue(scheduler.isDirty());
+
+        scheduler.markDirty();
+        awaitTrue(() -> !scheduler.isDirty());
+        assertEquals(1, flushes.get());
+
+        // The count starts again after each flush.
+        for (int i = 0; i < 4; i++) {
+            scheduler.markDirty();
+        }
+        Thread.sleep(200);
+        assertEquals(1, flushes.get());
+    }
+
+    @Test
+    void awaitDurableFlushesNowAndTimesOutOnASlowWrite() throws InterruptedException {
+        CountDownLatch[] gate = {new CountDownLatch(0)};
+        scheduler = new WriteBehindScheduler(() -> {
+            try {
+                gate[0].await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flushes.incrementAndGet();
+        }, NEVER, 1_000);
+        assertTrue(scheduler.awaitDurable(0), "nothing marked, nothing to wait for");
+
+        scheduler.markDirty();
+        assertTrue(scheduler.awaitDurable(5_000), "does not wait out the window");
+        assertEquals(1, flushes.get());
+        assertFalse(scheduler.isDirty());
+        assertTrue(scheduler.awaitDurable(0));
+        assertEquals(1, flushes.get(), "a clean state is not written again");
+
+        gate[0] = new CountDownLatch(1);
+        scheduler.markDirty();
+        assertFalse(scheduler.awaitDurable(100));
+        gate[0].countDown();
+        assertTrue(scheduler.awaitDurable(5_000));
+        assertEquals(2, flushes.get());
+    }
+
+    @Test
+    void failedWriteStaysDirtyAndIsRetriedAfterTheWindow() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        scheduler = new WriteBehindScheduler(() -> {
+            if (attempts.incrementAndGet() <= 2) {
+                throw new IOException("disk full");
+            }
+            flushes.incrementAndGet();
+        }, 100, 1_000);
+
+        scheduler.markDirty();
+        IOException e = assertThrows(IOException.class, scheduler::flush);
+        assertEquals("disk full", e.getMessage());
+        assertTrue(scheduler.isDirty());
+
+        // The second attempt (in the background) fails too; the third succeeds.
+        awaitTrue(() -> !scheduler.isDirty());
+        assertEquals(3, attempts.get());
+        assertEquals(1, flushes.get());
+    }
+
+    @Test
+    void shutdownFlushesPendingChangesAndStopsScheduling() throws Exception {
+        scheduler = new WriteBehindScheduler(flushes::incrementAndGet, NEVER, 1_000);
+        scheduler.markDirty();
+        scheduler.markDirty();
+
+        scheduler.shutdown();
+        assertEquals(1, flushes.get());
+        assertFalse(scheduler.isDirty());
+
+        scheduler.markDirty();
+        Thread.sleep(100);
+        assertEquals(1, flushes.get(), "no background writes after shutdown");
+        scheduler.shutdown();
+        assertEquals(2, flushes.get(), "but an explicit flush still writes");
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+}